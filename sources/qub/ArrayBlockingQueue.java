@@ -0,0 +1,412 @@
+package qub;
+
+/**
+ * A bounded {@link BlockingQueue} that stores its values in a ring buffer and that can be used by
+ * multiple producer and consumer threads at the same time without locks. Each slot in the ring
+ * buffer has a sequence number that says whether the slot is ready to be written to or read from
+ * for a given position in the queue, so producers and consumers only contend on the compare-and-set
+ * that claims their positions. Batch operations claim several consecutive positions with a single
+ * compare-and-set. Threads that need to wait for space or values use the queue's
+ * {@link WaitStrategy}.
+ * @param <T> The type of values stored in this {@link ArrayBlockingQueue}.
+ */
+public class ArrayBlockingQueue<T> implements BlockingQueue<T>
+{
+    private static final java.util.concurrent.atomic.AtomicLongFieldUpdater<ArrayBlockingQueue<?>> enqueueIndexUpdater =
+        ArrayBlockingQueue.createIndexUpdater("enqueueIndex");
+    private static final java.util.concurrent.atomic.AtomicLongFieldUpdater<ArrayBlockingQueue<?>> dequeueIndexUpdater =
+        ArrayBlockingQueue.createIndexUpdater("dequeueIndex");
+
+    private final WaitStrategy waitStrategy;
+    private final int mask;
+    private final Object[] values;
+    /**
+     * The sequence number of each slot. A slot is ready to be written to for position p when its
+     * sequence number is p, and it is ready to be read from for position p when its sequence
+     * number is p + 1.
+     */
+    private final java.util.concurrent.atomic.AtomicLongArray sequences;
+    private final java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> waitingProducers;
+    private final java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> waitingConsumers;
+    /**
+     * The position that the next enqueued value will be written to.
+     */
+    private volatile long enqueueIndex;
+    /**
+     * The position that the next dequeued value will be read from.
+     */
+    private volatile long dequeueIndex;
+
+    private ArrayBlockingQueue(int capacity, WaitStrategy waitStrategy)
+    {
+        this.waitStrategy = waitStrategy;
+        this.mask = capacity - 1;
+        this.values = new Object[capacity];
+        this.sequences = new java.util.concurrent.atomic.AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; ++i)
+        {
+            this.sequences.set(i, i);
+        }
+        this.waitingProducers = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        this.waitingConsumers = new java.util.concurrent.ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Create a new {@link ArrayBlockingQueue} that parks threads that need to wait.
+     * @param capacity The maximum number of values that the queue can hold. This will be rounded
+     *                 up to the next power of two that is at least 2.
+     */
+    public static <T> ArrayBlockingQueue<T> create(int capacity)
+    {
+        return ArrayBlockingQueue.create(capacity, WaitStrategy.Park);
+    }
+
+    /**
+     * Create a new {@link ArrayBlockingQueue}.
+     * @param capacity The maximum number of values that the queue can hold. This will be rounded
+     *                 up to the next power of two that is at least 2.
+     * @param waitStrategy The way that threads wait for space or values in the queue.
+     */
+    public static <T> ArrayBlockingQueue<T> create(int capacity, WaitStrategy waitStrategy)
+    {
+        PreCondition.assertBetween(1, capacity, 1 << 30, "capacity");
+        PreCondition.assertNotNull(waitStrategy, "waitStrategy");
+
+        // A slot's sequence number can't tell a value at one position apart from space for the
+        // next position when there is only one slot, so there are always at least two.
+        int roundedCapacity = 2;
+        while (roundedCapacity < capacity)
+        {
+            roundedCapacity <<= 1;
+        }
+        return new ArrayBlockingQueue<>(roundedCapacity, waitStrategy);
+    }
+
+    /**
+     * Get the maximum number of values that this queue can hold.
+     */
+    public int getCapacity()
+    {
+        return this.values.length;
+    }
+
+    /**
+     * Get the way that threads wait for space or values in this queue.
+     */
+    public WaitStrategy getWaitStrategy()
+    {
+        return this.waitStrategy;
+    }
+
+    @Override
+    public int getCount()
+    {
+        final long dequeueIndex = this.dequeueIndex;
+        final long enqueueIndex = this.enqueueIndex;
+        return (int)java.lang.Math.max(0, java.lang.Math.min(this.values.length, enqueueIndex - dequeueIndex));
+    }
+
+    @Override
+    public boolean any()
+    {
+        return this.getCount() > 0;
+    }
+
+    /**
+     * Add the provided value to this queue if there is space for it.
+     * @param value The value to add.
+     * @return Whether the value was added.
+     */
+    public boolean tryEnqueue(T value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        long position = this.enqueueIndex;
+        while (true)
+        {
+            final int slotIndex = (int)position & this.mask;
+            final long difference = this.sequences.get(slotIndex) - position;
+            if (difference < 0)
+            {
+                return false;
+            }
+            else if (difference == 0 && ArrayBlockingQueue.enqueueIndexUpdater.compareAndSet(this, position, position + 1))
+            {
+                this.values[slotIndex] = value;
+                this.sequences.set(slotIndex, position + 1);
+                ArrayBlockingQueue.unparkWaitingThreads(this.waitingConsumers);
+                return true;
+            }
+            position = this.enqueueIndex;
+        }
+    }
+
+    /**
+     * Remove and return the next value from this queue if there is one.
+     * @return The next value from this queue, or null if the queue is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T tryDequeue()
+    {
+        long position = this.dequeueIndex;
+        while (true)
+        {
+            final int slotIndex = (int)position & this.mask;
+            final long difference = this.sequences.get(slotIndex) - (position + 1);
+            if (difference < 0)
+            {
+                return null;
+            }
+            else if (difference == 0 && ArrayBlockingQueue.dequeueIndexUpdater.compareAndSet(this, position, position + 1))
+            {
+                final T result = (T)this.values[slotIndex];
+                this.values[slotIndex] = null;
+                this.sequences.set(slotIndex, position + this.values.length);
+                ArrayBlockingQueue.unparkWaitingThreads(this.waitingProducers);
+                return result;
+            }
+            position = this.dequeueIndex;
+        }
+    }
+
+    /**
+     * Add as many of the provided values to this queue as there is space for, up to the provided
+     * maximum count, with a single claim of consecutive positions.
+     * @param values The values to add. The next value is taken from this iterator for each
+     *               position that is claimed.
+     * @param maximumCount The maximum number of values to add.
+     * @return The number of values that were added.
+     */
+    private int tryEnqueueUpTo(Iterator<T> values, int maximumCount)
+    {
+        long position = this.enqueueIndex;
+        while (true)
+        {
+            int claimCount = 0;
+            while (claimCount < maximumCount && this.sequences.get((int)(position + claimCount) & this.mask) == position + claimCount)
+            {
+                ++claimCount;
+            }
+
+            if (claimCount == 0)
+            {
+                if (this.sequences.get((int)position & this.mask) < position)
+                {
+                    return 0;
+                }
+            }
+            else if (ArrayBlockingQueue.enqueueIndexUpdater.compareAndSet(this, position, position + claimCount))
+            {
+                for (int i = 0; i < claimCount; ++i)
+                {
+                    final int slotIndex = (int)(position + i) & this.mask;
+                    this.values[slotIndex] = values.takeCurrent();
+                    this.sequences.set(slotIndex, position + i + 1);
+                }
+                ArrayBlockingQueue.unparkWaitingThreads(this.waitingConsumers);
+                return claimCount;
+            }
+            position = this.enqueueIndex;
+        }
+    }
+
+    /**
+     * Remove up to the provided number of values from this queue with a single claim of
+     * consecutive positions and add them to the provided buffer. The claimed positions are
+     * released before the values are added to the buffer, so if the buffer throws, then this queue
+     * is still usable, but the values that weren't added to the buffer are lost.
+     * @param maximumCount The maximum number of values to remove.
+     * @param buffer The list that the removed values will be added to.
+     * @return The number of values that were removed.
+     */
+    @SuppressWarnings("unchecked")
+    public int tryDequeueUpTo(int maximumCount, List<T> buffer)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumCount, 1, "maximumCount");
+        PreCondition.assertNotNull(buffer, "buffer");
+
+        long position = this.dequeueIndex;
+        while (true)
+        {
+            int claimCount = 0;
+            while (claimCount < maximumCount && this.sequences.get((int)(position + claimCount) & this.mask) == position + claimCount + 1)
+            {
+                ++claimCount;
+            }
+
+            if (claimCount == 0)
+            {
+                if (this.sequences.get((int)position & this.mask) < position + 1)
+                {
+                    return 0;
+                }
+            }
+            else if (ArrayBlockingQueue.dequeueIndexUpdater.compareAndSet(this, position, position + claimCount))
+            {
+                // Copy the claimed values out and release their positions before any of them are
+                // added to the buffer. Otherwise a buffer that throws would leave positions that
+                // are claimed forever, and the producers would never be able to reuse them.
+                final Object[] claimedValues = new Object[claimCount];
+                for (int i = 0; i < claimCount; ++i)
+                {
+                    final int slotIndex = (int)(position + i) & this.mask;
+                    claimedValues[i] = this.values[slotIndex];
+                    this.values[slotIndex] = null;
+                    this.sequences.set(slotIndex, position + i + this.values.length);
+                }
+                ArrayBlockingQueue.unparkWaitingThreads(this.waitingProducers);
+
+                for (final Object claimedValue : claimedValues)
+                {
+                    buffer.add((T)claimedValue);
+                }
+                return claimCount;
+            }
+            position = this.dequeueIndex;
+        }
+    }
+
+    @Override
+    public Result<Void> enqueue(T value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        return Result.create(() ->
+        {
+            while (!this.tryEnqueue(value))
+            {
+                this.await(this.waitingProducers, this::canEnqueue);
+            }
+        });
+    }
+
+    @Override
+    public Result<Void> enqueueAll(Iterable<T> values)
+    {
+        PreCondition.assertNotNull(values, "values");
+        PreCondition.assertFalse(values.contains((T)null), "values.contains(null)");
+
+        return Result.create(() ->
+        {
+            int remainingCount = values.getCount();
+            final Iterator<T> iterator = values.iterate().start();
+            while (remainingCount > 0)
+            {
+                final int enqueuedCount = this.tryEnqueueUpTo(iterator, remainingCount);
+                if (enqueuedCount == 0)
+                {
+                    this.await(this.waitingProducers, this::canEnqueue);
+                }
+                remainingCount -= enqueuedCount;
+            }
+        });
+    }
+
+    @Override
+    public Result<T> dequeue()
+    {
+        return Result.create(() ->
+        {
+            T result = this.tryDequeue();
+            while (result == null)
+            {
+                this.await(this.waitingConsumers, this::canDequeue);
+                result = this.tryDequeue();
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Result<Integer> dequeueUpTo(int maximumCount, List<T> buffer)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumCount, 1, "maximumCount");
+        PreCondition.assertNotNull(buffer, "buffer");
+
+        return Result.create(() ->
+        {
+            int result = this.tryDequeueUpTo(maximumCount, buffer);
+            while (result == 0)
+            {
+                this.await(this.waitingConsumers, this::canDequeue);
+                result = this.tryDequeueUpTo(maximumCount, buffer);
+            }
+            return result;
+        });
+    }
+
+    private boolean canEnqueue()
+    {
+        final long position = this.enqueueIndex;
+        return this.sequences.get((int)position & this.mask) >= position;
+    }
+
+    private boolean canDequeue()
+    {
+        final long position = this.dequeueIndex;
+        return this.sequences.get((int)position & this.mask) >= position + 1;
+    }
+
+    /**
+     * Wait with this queue's WaitStrategy until the provided condition might be true. Spinning and
+     * yielding only wait once, so the caller must check its condition again when this returns.
+     * @param waitingThreads The threads that will be unparked when the condition might have
+     *                       changed.
+     * @param condition The condition to wait for.
+     */
+    private void await(java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> waitingThreads, Function0<Boolean> condition)
+    {
+        switch (this.waitStrategy)
+        {
+            case Spin:
+                java.lang.Thread.onSpinWait();
+                break;
+
+            case Yield:
+                java.lang.Thread.yield();
+                break;
+
+            default:
+                final java.lang.Thread currentThread = java.lang.Thread.currentThread();
+                waitingThreads.add(currentThread);
+                try
+                {
+                    // The condition is checked after the thread is added to the waiting threads
+                    // so that a change that happens in between will still unpark it.
+                    while (!condition.run())
+                    {
+                        java.util.concurrent.locks.LockSupport.park(this);
+                    }
+                }
+                finally
+                {
+                    waitingThreads.remove(currentThread);
+                }
+                break;
+        }
+    }
+
+    private static void unparkWaitingThreads(java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> waitingThreads)
+    {
+        if (!waitingThreads.isEmpty())
+        {
+            for (final java.lang.Thread waitingThread : waitingThreads)
+            {
+                java.util.concurrent.locks.LockSupport.unpark(waitingThread);
+            }
+        }
+    }
+
+    /**
+     * Create an updater for one of the position fields. The class literal can only name the raw
+     * ArrayBlockingQueue type, but the updater works for every ArrayBlockingQueue.
+     * @param fieldName The name of the volatile long field to update.
+     * @return The updater for the field.
+     */
+    @SuppressWarnings("unchecked")
+    private static java.util.concurrent.atomic.AtomicLongFieldUpdater<ArrayBlockingQueue<?>> createIndexUpdater(String fieldName)
+    {
+        return (java.util.concurrent.atomic.AtomicLongFieldUpdater<ArrayBlockingQueue<?>>)(java.util.concurrent.atomic.AtomicLongFieldUpdater<?>)
+            java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater(ArrayBlockingQueue.class, fieldName);
+    }
+}
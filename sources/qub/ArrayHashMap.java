@@ -1,14 +1,70 @@
 package qub;
 
+/**
+ * A {@link MutableMap} that stores its entries in an array in the order that they were added,
+ * and finds them with an open-addressing hash table. The hash table's length is always a power of
+ * two that keeps its load factor at or below 0.75, collisions are resolved with linear probing,
+ * and removed entries are cleaned out of the hash table by shifting the slots that follow them
+ * back into place, so the hash table never contains tombstones. containsKey(), getOrDefault(), and
+ * setting an existing key don't allocate any objects. get() and remove() allocate the
+ * {@link Result} that they return, and a missing key also allocates the
+ * {@link NotFoundException} in that {@link Result}.
+ * @param <TKey> The type of keys that are stored in this {@link ArrayHashMap}.
+ * @param <TValue> The type of values that are associated with the keys in this
+ * {@link ArrayHashMap}.
+ */
 public class ArrayHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
 {
     private static final int defaultInitialCapacity = 10;
+    private static final int maximumTableLength = 1 << 30;
+    /**
+     * The maximum number of entries that an ArrayHashMap can hold. This keeps the load factor of
+     * the largest hash table at 0.75, so every probe sequence still ends at an empty slot.
+     */
+    private static final int maximumCount = ArrayHashMap.maximumTableLength / 4 * 3;
+    /**
+     * The object that is stored in the keys array in place of a null key, so that a null element
+     * in the keys array always means that the entry was removed.
+     */
+    private static final Object nullKey = new Object();
+    /**
+     * The object that is returned by removeValueOrMissing() when a key isn't in this map, so that
+     * null values can be told apart from missing keys.
+     */
+    static final Object missing = new Object();
 
-    private Array<HashMapEntry<TKey,TValue>> entries;
+    /**
+     * The keys of the entries in this map in the order that they were added, or null for entries
+     * that have been removed.
+     */
+    private Object[] keys;
+    /**
+     * The values of the entries in this map, at the same indexes as their keys.
+     */
+    private Object[] values;
+    /**
+     * The hash table. Each non-zero slot holds the spread hash code of a key in its upper 32 bits
+     * and the index of that key in the keys array plus one in its lower 32 bits. A slot that is
+     * zero is empty.
+     */
+    private long[] table;
+    /**
+     * The number of elements at the start of the keys array that are in use, including removed
+     * entries.
+     */
+    private int usedLength;
+    /**
+     * The number of entries in this map.
+     */
+    private int count;
 
     private ArrayHashMap(int initialCapacity)
     {
-        this.entries = Array.createWithLength(initialCapacity);
+        // A larger capacity would let the entries fill the largest hash table.
+        final int capacity = Math.minimum(initialCapacity, ArrayHashMap.maximumCount);
+        this.keys = new Object[capacity];
+        this.values = new Object[capacity];
+        this.table = new long[ArrayHashMap.getTableLength(capacity)];
     }
 
     public static <TKey,TValue> ArrayHashMap<TKey,TValue> create()
@@ -16,6 +72,12 @@ public class ArrayHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
         return ArrayHashMap.createWithCapacity(ArrayHashMap.defaultInitialCapacity);
     }
 
+    /**
+     * Create a new {@link ArrayHashMap} that can hold the provided number of entries before it
+     * needs to grow.
+     * @param initialCapacity The number of entries that the new {@link ArrayHashMap} can hold
+     *                        before it needs to grow.
+     */
     public static <TKey,TValue> ArrayHashMap<TKey,TValue> createWithCapacity(int initialCapacity)
     {
         PreCondition.assertGreaterThanOrEqualTo(initialCapacity, 1, "initialCapacity");
@@ -59,83 +121,167 @@ public class ArrayHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
         return ArrayHashMap.<TKey,TValue>create().setAll(entries);
     }
 
-    @Override
-    public Iterator<MapEntry<TKey, TValue>> iterate()
+    /**
+     * Get the length of the hash table that is needed to hold the provided number of entries
+     * without exceeding a load factor of 0.75.
+     * @param capacity The number of entries that the hash table must be able to hold.
+     * @return The power of two hash table length.
+     */
+    private static int getTableLength(int capacity)
     {
-        return this.entries.iterate()
-            .where(Comparer::isNotNull)
-            .map((HashMapEntry<TKey,TValue> entry) -> entry);
+        final long minimumTableLength = ((long)capacity * 4 + 2) / 3 + 1;
+        int result = 2;
+        while (result < minimumTableLength && result < ArrayHashMap.maximumTableLength)
+        {
+            result <<= 1;
+        }
+        return result;
     }
 
-    private Result<Integer> getKeyIndex(TKey key)
+    /**
+     * Spread the bits of the provided key hash code so that keys whose hash codes only differ in
+     * their upper bits don't all end up in the same part of the hash table.
+     * @param keyHashCode The key hash code to spread.
+     * @return The spread hash code.
+     */
+    private static int spread(int keyHashCode)
     {
-        return Result.create(() ->
-        {
-            int result = -1;
+        final int result = keyHashCode * 0x9E3779B9;
+        return result ^ (result >>> 16);
+    }
+
+    private static long createSlot(int keyHashCode, int entryIndex)
+    {
+        return ((long)keyHashCode << 32) | (entryIndex + 1);
+    }
+
+    private static int getSlotKeyHashCode(long slot)
+    {
+        return (int)(slot >>> 32);
+    }
+
+    private static int getSlotEntryIndex(long slot)
+    {
+        return (int)slot - 1;
+    }
+
+    private static Object maskNull(Object key)
+    {
+        return key == null ? ArrayHashMap.nullKey : key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TKey getKey(int entryIndex)
+    {
+        final Object key = this.keys[entryIndex];
+        return key == ArrayHashMap.nullKey ? null : (TKey)key;
+    }
+
+    @SuppressWarnings("unchecked")
+    private TValue getValue(int entryIndex)
+    {
+        return (TValue)this.values[entryIndex];
+    }
 
-            final int keyHashCode = Hash.getHashCode(key);
-            final int entriesCount = this.entries.getCount();
-            final int startIndex = Math.modulo(keyHashCode, entriesCount);
-            int currentIndex = startIndex;
-            while (true)
+    /**
+     * Get the index of the hash table slot that refers to the provided key.
+     * @param key The masked key to look for.
+     * @param keyHashCode The spread hash code of the key.
+     * @return The index of the hash table slot that refers to the provided key, or -1 if the key
+     * isn't in this map.
+     */
+    private int getSlotIndex(Object key, int keyHashCode)
+    {
+        final long[] table = this.table;
+        final int mask = table.length - 1;
+        int slotIndex = keyHashCode & mask;
+        while (true)
+        {
+            final long slot = table[slotIndex];
+            if (slot == 0)
             {
-                final HashMapEntry<TKey,TValue> currentEntry = this.entries.get(currentIndex);
-                if (currentEntry == null)
-                {
-                    break;
-                }
-                else if (keyHashCode == currentEntry.getKeyHashCode() &&
-                    Comparer.equal(key, currentEntry.getKey()))
-                {
-                    result = currentIndex;
-                    break;
-                }
-                else
+                return -1;
+            }
+            else if (ArrayHashMap.getSlotKeyHashCode(slot) == keyHashCode)
+            {
+                final Object slotKey = this.keys[ArrayHashMap.getSlotEntryIndex(slot)];
+                if (slotKey == key || slotKey.equals(key))
                 {
-                    currentIndex = Math.modulo(currentIndex + 1, entriesCount);
-                    if (currentIndex == startIndex)
-                    {
-                        break;
-                    }
+                    return slotIndex;
                 }
             }
+            slotIndex = (slotIndex + 1) & mask;
+        }
+    }
 
-            if (result == -1)
-            {
-                throw Map.createNotFoundException(key);
-            }
+    /**
+     * Get the index in the keys array of the provided key.
+     * @param key The key to look for.
+     * @return The index in the keys array of the provided key, or -1 if the key isn't in this
+     * map.
+     */
+    private int getEntryIndex(TKey key)
+    {
+        final int slotIndex = this.getSlotIndex(ArrayHashMap.maskNull(key), ArrayHashMap.spread(Hash.getHashCode(key)));
+        return slotIndex == -1 ? -1 : ArrayHashMap.getSlotEntryIndex(this.table[slotIndex]);
+    }
+
+    @Override
+    public int getCount()
+    {
+        return this.count;
+    }
+
+    @Override
+    public boolean any()
+    {
+        return this.count > 0;
+    }
 
-            return result;
-        });
+    @Override
+    public Iterator<MapEntry<TKey, TValue>> iterate()
+    {
+        return new EntryIterator();
     }
 
     @Override
     public boolean containsKey(TKey key)
     {
-        return this.getKeyIndex(key)
-            .then(() -> true)
-            .catchError(NotFoundException.class, () -> false)
-            .await();
+        return this.getEntryIndex(key) != -1;
     }
 
     @Override
     public Result<TValue> get(TKey key)
     {
-        return Result.create(() ->
-        {
-            final int keyIndex = this.getKeyIndex(key).await();
-            final HashMapEntry<TKey,TValue> entry = this.entries.get(keyIndex);
-            return entry.getValue();
-        });
+        final int entryIndex = this.getEntryIndex(key);
+        return entryIndex == -1
+            ? Map.createNotFoundResult(key)
+            : Result.success(this.getValue(entryIndex));
+    }
+
+    /**
+     * Get the value that is associated with the provided key, or the provided default value if the
+     * key isn't in this map. Unlike get(TKey), this doesn't allocate any objects.
+     * @param key The key to get the associated value for.
+     * @param defaultValue The value to return if the key isn't in this map.
+     * @return The value associated with the provided key, or the provided default value.
+     */
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        final int entryIndex = this.getEntryIndex(key);
+        return entryIndex == -1 ? defaultValue : this.getValue(entryIndex);
     }
 
     @Override
-    public MutableMap<TKey, TValue> clear()
+    public ArrayHashMap<TKey, TValue> clear()
     {
-        final int capacity = this.entries.getCount();
-        for (int i = 0; i < capacity; i++)
+        if (this.usedLength > 0)
         {
-            this.entries.set(i, null);
+            java.util.Arrays.fill(this.keys, 0, this.usedLength, null);
+            java.util.Arrays.fill(this.values, 0, this.usedLength, null);
+            java.util.Arrays.fill(this.table, 0);
+            this.usedLength = 0;
+            this.count = 0;
         }
 
         return this;
@@ -147,62 +293,121 @@ public class ArrayHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
         return (ArrayHashMap<TKey,TValue>)MutableMap.super.set(entry);
     }
 
-    private static <TKey,TValue> boolean setEntry(Array<HashMapEntry<TKey,TValue>> entries, HashMapEntry<TKey,TValue> entry)
+    @Override
+    public ArrayHashMap<TKey, TValue> set(TKey key, TValue value)
     {
-        PreCondition.assertNotNullAndNotEmpty(entries, "entries");
-        PreCondition.assertNotNull(entry, "entry");
+        final Object maskedKey = ArrayHashMap.maskNull(key);
+        final int keyHashCode = ArrayHashMap.spread(Hash.getHashCode(key));
+        final int slotIndex = this.getSlotIndex(maskedKey, keyHashCode);
+        if (slotIndex != -1)
+        {
+            this.values[ArrayHashMap.getSlotEntryIndex(this.table[slotIndex])] = value;
+        }
+        else
+        {
+            this.addEntry(maskedKey, keyHashCode, value);
+        }
+        return this;
+    }
 
-        boolean result = false;
+    /**
+     * Associate the provided value with the provided key if the key isn't already in this map.
+     * This only searches the hash table once.
+     * @param key The key to add.
+     * @param value The value to associate with the key.
+     * @return Whether the key was added to this map.
+     */
+    boolean setIfAbsent(TKey key, TValue value)
+    {
+        final Object maskedKey = ArrayHashMap.maskNull(key);
+        final int keyHashCode = ArrayHashMap.spread(Hash.getHashCode(key));
+        final boolean result = (this.getSlotIndex(maskedKey, keyHashCode) == -1);
+        if (result)
+        {
+            this.addEntry(maskedKey, keyHashCode, value);
+        }
+        return result;
+    }
 
-        final int keyHashCode = entry.getKeyHashCode();
-        final int entriesCount = entries.getCount();
-        int startIndex = Math.modulo(keyHashCode, entriesCount);
-        int currentIndex = startIndex;
-        while (true)
+    /**
+     * Add a new entry for a key that isn't in this map.
+     * @param maskedKey The masked key of the new entry.
+     * @param keyHashCode The spread hash code of the key.
+     * @param value The value of the new entry.
+     */
+    private void addEntry(Object maskedKey, int keyHashCode, TValue value)
+    {
+        if (this.usedLength == this.keys.length)
         {
-            final HashMapEntry<TKey,TValue> currentEntry = entries.get(currentIndex);
-            if (currentEntry == null)
-            {
-                entries.set(currentIndex, entry);
-                result = true;
-                break;
-            }
-            else if (keyHashCode == currentEntry.getKeyHashCode() &&
-                Comparer.equal(entry.getKey(), currentEntry.getKey()))
-            {
-                currentEntry.setValue(entry.getValue());
-                result = true;
-                break;
-            }
-            else
-            {
-                currentIndex = Math.modulo(currentIndex + 1, entriesCount);
-                if (currentIndex == startIndex)
-                {
-                    break;
-                }
-            }
+            this.makeRoom();
         }
+        final int entryIndex = this.usedLength++;
+        this.keys[entryIndex] = maskedKey;
+        this.values[entryIndex] = value;
+        this.insertSlot(ArrayHashMap.createSlot(keyHashCode, entryIndex));
+        ++this.count;
+    }
 
-        return result;
+    /**
+     * Put the provided slot into the first empty slot of its probe sequence.
+     * @param slot The slot to insert.
+     */
+    private void insertSlot(long slot)
+    {
+        final long[] table = this.table;
+        final int mask = table.length - 1;
+        int slotIndex = ArrayHashMap.getSlotKeyHashCode(slot) & mask;
+        while (table[slotIndex] != 0)
+        {
+            slotIndex = (slotIndex + 1) & mask;
+        }
+        table[slotIndex] = slot;
     }
 
-    @Override
-    public ArrayHashMap<TKey, TValue> set(TKey key, TValue value)
+    /**
+     * Make room at the end of the keys array for a new entry. If at least half of the used
+     * elements belong to removed entries, then the remaining entries are moved to the front of
+     * the keys array. Otherwise the keys array is doubled in length, up to the maximum number of
+     * entries. Either way the hash table is rebuilt.
+     */
+    private void makeRoom()
     {
-        final HashMapEntry<TKey,TValue> entry = HashMapEntry.create(key, value);
-        if (!ArrayHashMap.setEntry(this.entries, entry))
+        final Object[] oldKeys = this.keys;
+        final Object[] oldValues = this.values;
+        final int newLength = this.count <= oldKeys.length / 2
+            ? oldKeys.length
+            : (int)Math.minimum((long)oldKeys.length * 2, ArrayHashMap.maximumCount);
+        if (newLength == this.count)
+        {
+            throw new IllegalStateException("An ArrayHashMap can't contain more than " + ArrayHashMap.maximumCount + " entries.");
+        }
+        if (newLength != oldKeys.length)
         {
-            final Array<HashMapEntry<TKey,TValue>> newEntries = Array.createWithLength((this.entries.getCount() * 2) + 1);
-            for (final HashMapEntry<TKey,TValue> existingEntry : this.entries)
+            this.keys = new Object[newLength];
+            this.values = new Object[newLength];
+            this.table = new long[ArrayHashMap.getTableLength(newLength)];
+        }
+        else
+        {
+            java.util.Arrays.fill(this.table, 0);
+        }
+
+        int newEntryIndex = 0;
+        for (int i = 0; i < this.usedLength; ++i)
+        {
+            final Object key = oldKeys[i];
+            if (key != null)
             {
-                ArrayHashMap.setEntry(newEntries, existingEntry);
+                final Object value = oldValues[i];
+                oldKeys[i] = null;
+                oldValues[i] = null;
+                this.keys[newEntryIndex] = key;
+                this.values[newEntryIndex] = value;
+                this.insertSlot(ArrayHashMap.createSlot(ArrayHashMap.spread(Hash.getHashCode(key == ArrayHashMap.nullKey ? null : key)), newEntryIndex));
+                ++newEntryIndex;
             }
-            ArrayHashMap.setEntry(newEntries, entry);
-
-            this.entries = newEntries;
         }
-        return this;
+        this.usedLength = newEntryIndex;
     }
 
     @Override
@@ -218,15 +423,80 @@ public class ArrayHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Result<TValue> remove(TKey key)
     {
-        return Result.create(() ->
+        final Object value = this.removeValueOrMissing(key);
+        return value == ArrayHashMap.missing
+            ? Map.createNotFoundResult(key)
+            : Result.success((TValue)value);
+    }
+
+    /**
+     * Remove the entry with the provided key from this map.
+     * @param key The key of the entry to remove.
+     * @return The value that was associated with the provided key, or ArrayHashMap.missing if the
+     * key wasn't in this map.
+     */
+    Object removeValueOrMissing(TKey key)
+    {
+        final int slotIndex = this.getSlotIndex(ArrayHashMap.maskNull(key), ArrayHashMap.spread(Hash.getHashCode(key)));
+        if (slotIndex == -1)
         {
-            final int keyIndex = this.getKeyIndex(key).await();
-            final HashMapEntry<TKey,TValue> entry = this.entries.get(keyIndex);
-            this.entries.set(keyIndex, null);
-            return entry.getValue();
-        });
+            return ArrayHashMap.missing;
+        }
+
+        final int entryIndex = ArrayHashMap.getSlotEntryIndex(this.table[slotIndex]);
+        final Object result = this.values[entryIndex];
+        this.removeSlot(slotIndex);
+        this.keys[entryIndex] = null;
+        this.values[entryIndex] = null;
+        --this.count;
+        if (entryIndex == this.usedLength - 1)
+        {
+            this.usedLength = entryIndex;
+        }
+        return result;
+    }
+
+    /**
+     * Empty the provided hash table slot and shift back any of the following slots in its probe
+     * run that would no longer be reachable from their home slot.
+     * @param slotIndex The index of the hash table slot to empty.
+     */
+    private void removeSlot(int slotIndex)
+    {
+        final long[] table = this.table;
+        final int mask = table.length - 1;
+
+        int emptyIndex = slotIndex;
+        int currentIndex = slotIndex;
+        while (true)
+        {
+            currentIndex = (currentIndex + 1) & mask;
+            final long currentSlot = table[currentIndex];
+            if (currentSlot == 0)
+            {
+                break;
+            }
+
+            // The slot can only move back to the empty index if the empty index is between its
+            // home index and its current index (wrapping around the end of the hash table).
+            final int homeIndex = ArrayHashMap.getSlotKeyHashCode(currentSlot) & mask;
+            if (((currentIndex - homeIndex) & mask) >= ((currentIndex - emptyIndex) & mask))
+            {
+                table[emptyIndex] = currentSlot;
+                emptyIndex = currentIndex;
+            }
+        }
+
+        table[emptyIndex] = 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Map.hashCode(this);
     }
 
     @Override
@@ -240,4 +510,62 @@ public class ArrayHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
     {
         return Iterable.toString(this);
     }
+
+    /**
+     * An {@link Iterator} that iterates over the entries of this map in the order that they were
+     * added.
+     */
+    private class EntryIterator implements Iterator<MapEntry<TKey,TValue>>
+    {
+        private boolean hasStarted;
+        private int entryIndex;
+        private MapEntry<TKey,TValue> current;
+
+        @Override
+        public boolean hasStarted()
+        {
+            return this.hasStarted;
+        }
+
+        @Override
+        public boolean hasCurrent()
+        {
+            return this.current != null;
+        }
+
+        @Override
+        public MapEntry<TKey,TValue> getCurrent()
+        {
+            PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+            return this.current;
+        }
+
+        @Override
+        public boolean next()
+        {
+            if (!this.hasStarted)
+            {
+                this.hasStarted = true;
+            }
+            else if (this.current != null)
+            {
+                ++this.entryIndex;
+            }
+
+            this.current = null;
+            final Object[] keys = ArrayHashMap.this.keys;
+            while (this.entryIndex < ArrayHashMap.this.usedLength)
+            {
+                if (keys[this.entryIndex] != null)
+                {
+                    this.current = MapEntry.create(ArrayHashMap.this.getKey(this.entryIndex), ArrayHashMap.this.getValue(this.entryIndex));
+                    break;
+                }
+                ++this.entryIndex;
+            }
+
+            return this.current != null;
+        }
+    }
 }
@@ -0,0 +1,137 @@
+package qub;
+
+/**
+ * A {@link MutableSet} that uses an {@link ArrayHashMap} to find its values, and that maintains
+ * the order that values are added to it.
+ * @param <T> The type of value that this {@link ArrayHashSet} contains.
+ */
+public class ArrayHashSet<T> implements MutableSet<T>
+{
+    /**
+     * The values in this set. Each value is mapped to itself so that remove() can return the
+     * value that was in this set.
+     */
+    private final ArrayHashMap<T,T> values;
+
+    private ArrayHashSet()
+    {
+        this.values = ArrayHashMap.create();
+    }
+
+    /**
+     * Create a new {@link ArrayHashSet}.
+     * @param <T> The type of elements contained by the created {@link ArrayHashSet}.
+     */
+    public static <T> ArrayHashSet<T> create()
+    {
+        return new ArrayHashSet<>();
+    }
+
+    /**
+     * Create a new {@link ArrayHashSet}.
+     * @param <T> The type of elements contained by the created {@link ArrayHashSet}.
+     * @param initialValues The initial values of the {@link ArrayHashSet}.
+     */
+    @SafeVarargs
+    public static <T> ArrayHashSet<T> create(T... initialValues)
+    {
+        PreCondition.assertNotNull(initialValues, "initialValues");
+
+        final ArrayHashSet<T> result = ArrayHashSet.create();
+        for (final T initialValue : initialValues)
+        {
+            result.add(initialValue);
+        }
+        return result;
+    }
+
+    /**
+     * Create a new {@link ArrayHashSet}.
+     * @param <T> The type of elements contained by the created {@link ArrayHashSet}.
+     * @param initialValues The initial values of the {@link ArrayHashSet}.
+     */
+    public static <T> ArrayHashSet<T> create(Iterable<T> initialValues)
+    {
+        PreCondition.assertNotNull(initialValues, "initialValues");
+
+        return ArrayHashSet.create(initialValues.iterate());
+    }
+
+    /**
+     * Create a new {@link ArrayHashSet}.
+     * @param <T> The type of elements contained by the created {@link ArrayHashSet}.
+     * @param initialValues The initial values of the {@link ArrayHashSet}.
+     */
+    public static <T> ArrayHashSet<T> create(Iterator<T> initialValues)
+    {
+        PreCondition.assertNotNull(initialValues, "initialValues");
+
+        final ArrayHashSet<T> result = ArrayHashSet.create();
+        result.addAll(initialValues);
+        return result;
+    }
+
+    @Override
+    public Iterator<T> iterate()
+    {
+        return this.values.iterateKeys();
+    }
+
+    @Override
+    public boolean any()
+    {
+        return this.values.any();
+    }
+
+    @Override
+    public boolean contains(T value)
+    {
+        return this.values.containsKey(value);
+    }
+
+    @Override
+    public int getCount()
+    {
+        return this.values.getCount();
+    }
+
+    @Override
+    public boolean add(T value)
+    {
+        return this.values.setIfAbsent(value, value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<T> remove(T value)
+    {
+        final Object removedValue = this.values.removeValueOrMissing(value);
+        return removedValue == ArrayHashMap.missing
+            ? Result.error(new NotFoundException("Could not find the value " + value + "."))
+            : Result.success((T)removedValue);
+    }
+
+    @Override
+    public void clear()
+    {
+        this.values.clear();
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Set.hashCode(this);
+    }
+
+    @Override
+    public boolean equals(Object rhs)
+    {
+        return Set.equals(this, rhs);
+    }
+
+    @Override
+    public String toString()
+    {
+        return Set.toString(this);
+    }
+}
@@ -6,6 +6,31 @@ package qub;
  */
 public class AsyncTask<T> implements PausedAsyncTask<T>
 {
+    /**
+     * The state of an AsyncTask that hasn't started running yet.
+     */
+    private static final int pendingState = 0;
+    /**
+     * The state of an AsyncTask that is currently running.
+     */
+    private static final int runningState = 1;
+    /**
+     * The state of an AsyncTask that has finished running.
+     */
+    private static final int completedState = 2;
+    /**
+     * The value of the continuations field after this AsyncTask has completed and its
+     * continuations have been claimed. Continuations that are registered after this point must be
+     * handled by the registering thread.
+     */
+    private static final Continuation completedContinuations = new Continuation(null, null);
+    @SuppressWarnings("rawtypes")
+    private static final java.util.concurrent.atomic.AtomicIntegerFieldUpdater<AsyncTask> stateUpdater =
+        java.util.concurrent.atomic.AtomicIntegerFieldUpdater.newUpdater(AsyncTask.class, "state");
+    @SuppressWarnings("rawtypes")
+    private static final java.util.concurrent.atomic.AtomicReferenceFieldUpdater<AsyncTask,Continuation> continuationsUpdater =
+        java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater(AsyncTask.class, Continuation.class, "continuations");
+
     /**
      * The Result that must be completed before this AsyncTask can be run.
      */
@@ -31,17 +56,18 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
      */
     private Throwable error;
     /**
-     * Whether or not this AsyncTask has been run.
-     */
-    private final BooleanValue completed;
-    /**
-     * The AsyncTasks that should be scheduled after this AsyncTask is completed.
+     * Whether this AsyncTask is pending, running, or completed.
      */
-    private final List<AsyncTask<?>> nextTasks;
+    private volatile int state;
     /**
      * The AsyncScheduler that determines when this AsyncTask will be run.
      */
     private final AsyncScheduler asyncScheduler;
+    /**
+     * The stack of AsyncTasks that should be scheduled and threads that should be unparked when
+     * this AsyncTask completes. The most recently registered Continuation is at the top.
+     */
+    private volatile Continuation continuations;
 
     /**
      * Create a new AsyncTask with the provided action.
@@ -74,8 +100,6 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
         this.expectedErrorType = null;
         this.errorFunction = null;
         this.parentResult = parentResult;
-        this.nextTasks = List.create();
-        this.completed = BooleanValue.create(false);
     }
 
     /**
@@ -105,8 +129,6 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
         this.expectedErrorType = null;
         this.errorFunction = null;
         this.parentResult = parentResult;
-        this.nextTasks = List.create();
-        this.completed = BooleanValue.create(false);
     }
 
     /**
@@ -131,17 +153,27 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
         this.expectedErrorType = expectedErrorType;
         this.errorFunction = errorFunction;
         this.parentResult = parentResult;
-        this.nextTasks = List.create();
-        this.completed = BooleanValue.create(false);
     }
 
     /**
-     * Get the AsyncTasks that should be scheduled after this AsyncTask is completed.
+     * Get the AsyncTasks that should be scheduled after this AsyncTask is completed. Once this
+     * AsyncTask has completed, its next tasks have already been scheduled and this will return an
+     * empty Iterable.
      * @return The AsyncTasks that should be scheduled after this AsyncTask is completed.
      */
     public Iterable<AsyncTask<?>> getNextTasks()
     {
-        return this.nextTasks;
+        final List<AsyncTask<?>> result = List.create();
+        Continuation continuation = this.continuations;
+        while (continuation != null && continuation != AsyncTask.completedContinuations)
+        {
+            if (continuation.task != null)
+            {
+                result.insert(0, continuation.task);
+            }
+            continuation = continuation.next;
+        }
+        return result;
     }
 
     /**
@@ -151,7 +183,7 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
     @Override
     public boolean isCompleted()
     {
-        return this.completed.get();
+        return this.state == AsyncTask.completedState;
     }
 
     /**
@@ -170,6 +202,12 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
     {
         PreCondition.assertFalse(isCompleted(), "isCompleted()");
 
+        if (!AsyncTask.stateUpdater.compareAndSet(this, AsyncTask.pendingState, AsyncTask.runningState))
+        {
+            // Another thread is already running this AsyncTask.
+            return;
+        }
+
         try
         {
             this.value = (T)this.parentResult.await();
@@ -210,19 +248,131 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
             }
         }
 
-        for (final AsyncTask<?> nextTask : nextTasks)
+        this.state = AsyncTask.completedState;
+
+        // Claim the registered continuations and run them in the order that they were registered.
+        Continuation continuation = AsyncTask.continuationsUpdater.getAndSet(this, AsyncTask.completedContinuations);
+        Continuation reversed = null;
+        while (continuation != null)
+        {
+            final Continuation next = continuation.next;
+            continuation.next = reversed;
+            reversed = continuation;
+            continuation = next;
+        }
+        while (reversed != null)
+        {
+            if (reversed.task != null)
+            {
+                reversed.task.schedule();
+            }
+            else
+            {
+                java.util.concurrent.locks.LockSupport.unpark(reversed.thread);
+            }
+            reversed = reversed.next;
+        }
+    }
+
+    /**
+     * Push the provided Continuation onto this AsyncTask's stack of continuations.
+     * @param continuation The Continuation to push.
+     * @return Whether the Continuation was pushed. If this AsyncTask has already completed, then
+     * the Continuation will not be pushed.
+     */
+    private boolean tryAddContinuation(Continuation continuation)
+    {
+        boolean result = false;
+        while (true)
+        {
+            final Continuation head = this.continuations;
+            if (head == AsyncTask.completedContinuations)
+            {
+                break;
+            }
+
+            continuation.next = head;
+            if (AsyncTask.continuationsUpdater.compareAndSet(this, head, continuation))
+            {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Register the provided AsyncTask so that it will be scheduled when this AsyncTask completes.
+     * If this AsyncTask has already completed, then the provided AsyncTask will be scheduled
+     * immediately.
+     * @param nextTask The AsyncTask to schedule after this AsyncTask completes.
+     */
+    private void addNextTask(AsyncTask<?> nextTask)
+    {
+        if (!this.tryAddContinuation(new Continuation(nextTask, null)))
         {
             nextTask.schedule();
         }
-        this.completed.set(true);
+    }
+
+    /**
+     * Block the current thread until the provided Result is completed. If the provided Result is an
+     * AsyncTask, then the current thread will be parked until the AsyncTask wakes it up when it
+     * completes. Otherwise the current thread will poll the Result with an increasing delay.
+     * @param result The Result to wait for.
+     * @param helpThreadPool The ThreadPool whose queued tasks the current thread should run while
+     *                       it waits, or null if the current thread shouldn't run other tasks.
+     */
+    static void waitFor(Result<?> result, ThreadPool helpThreadPool)
+    {
+        PreCondition.assertNotNull(result, "result");
+
+        if (!result.isCompleted())
+        {
+            final boolean registered = result instanceof AsyncTask && ((AsyncTask<?>)result).tryAddContinuation(new Continuation(null, java.lang.Thread.currentThread()));
+            final AsyncScheduler currentAsyncScheduler = helpThreadPool == null
+                ? null
+                : CurrentThread.getAsyncRunner().catchError(NotFoundException.class).await();
+
+            long parkNanoseconds = 1000;
+            while (!result.isCompleted())
+            {
+                if (helpThreadPool != null && helpThreadPool.tryRunQueuedTask())
+                {
+                    // The task that was run may have registered a different AsyncScheduler with
+                    // the current thread.
+                    CurrentThread.setAsyncRunner(currentAsyncScheduler);
+                }
+                else if (registered && helpThreadPool == null)
+                {
+                    java.util.concurrent.locks.LockSupport.park(result);
+                }
+                else
+                {
+                    // While helping, wake up periodically so that tasks that are queued while
+                    // this thread is parked can also be run.
+                    java.util.concurrent.locks.LockSupport.parkNanos(result, parkNanoseconds);
+                    parkNanoseconds = java.lang.Math.min(parkNanoseconds * 2, 1000000);
+                }
+            }
+        }
     }
 
     private void ensureIsCompleted()
     {
         if (!this.isCompleted())
         {
-            final AsyncScheduler currentThreadAsyncRunner = CurrentThread.getAsyncRunner().await();
-            currentThreadAsyncRunner.await(this);
+            final AsyncScheduler currentThreadAsyncRunner = CurrentThread.getAsyncRunner().catchError(NotFoundException.class).await();
+            if (currentThreadAsyncRunner != null)
+            {
+                currentThreadAsyncRunner.await(this);
+            }
+            else
+            {
+                // A thread without an AsyncRunner can't help run tasks, so it just blocks until
+                // this task is completed by whichever thread runs it.
+                AsyncTask.waitFor(this, null);
+            }
         }
     }
 
@@ -265,7 +415,7 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
         PreCondition.assertNotNull(function, "function");
 
         final AsyncTask<U> result = new AsyncTask<>(this.asyncScheduler, this, () -> function.run(this.value));
-        this.nextTasks.add(result);
+        this.addNextTask(result);
 
         PostCondition.assertNotNull(result, "result");
 
@@ -279,7 +429,7 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
         PreCondition.assertNotNull(function, "function");
 
         final AsyncTask<T> result = new AsyncTask<>(this.asyncScheduler, this, errorType, (Throwable error) -> function.run(Exceptions.getInstanceOf(error, errorType)));
-        this.nextTasks.add(result);
+        this.addNextTask(result);
 
         PostCondition.assertNotNull(result, "result");
 
@@ -291,4 +441,21 @@ public class AsyncTask<T> implements PausedAsyncTask<T>
     {
         return Result.toString(this);
     }
+
+    /**
+     * A node in the stack of work that should be done when an AsyncTask completes. Each node
+     * either has an AsyncTask to schedule or a thread to unpark.
+     */
+    private static class Continuation
+    {
+        private final AsyncTask<?> task;
+        private final java.lang.Thread thread;
+        private Continuation next;
+
+        Continuation(AsyncTask<?> task, java.lang.Thread thread)
+        {
+            this.task = task;
+            this.thread = thread;
+        }
+    }
 }
@@ -268,6 +268,12 @@ public class BasicBinaryTree<T> implements BinaryTree<T>
         return Iterable.toString(this);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
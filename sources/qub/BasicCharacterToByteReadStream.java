@@ -2,8 +2,32 @@ package qub;
 
 public class BasicCharacterToByteReadStream implements CharacterToByteReadStream
 {
+    /**
+     * The maximum number of bytes that will be decoded at a time.
+     */
+    private static final int maximumDecodeByteCount = 4096;
+
     private final ByteReadStream byteReadStream;
     private CharacterEncoding characterEncoding;
+    /**
+     * The encoded bytes that are being decoded. This only ever holds the bytes that are needed for
+     * the characters that were asked for, so that the bytes after them can still be read from this
+     * stream as bytes.
+     */
+    private byte[] encodedBytes;
+    /**
+     * The characters that were decoded from the encodedBytes.
+     */
+    private char[] decodedCharacters;
+    /**
+     * The low surrogate character of a surrogate pair that didn't fit into the previous read, or
+     * -1 if there isn't one.
+     */
+    private int pendingCharacter;
+    /**
+     * Whether or not any characters have been decoded from this stream yet.
+     */
+    private boolean startedDecoding;
 
     protected BasicCharacterToByteReadStream(ByteReadStream byteReadStream, CharacterEncoding characterEncoding)
     {
@@ -12,6 +36,7 @@ public class BasicCharacterToByteReadStream implements CharacterToByteReadStream
 
         this.byteReadStream = byteReadStream;
         this.characterEncoding = characterEncoding;
+        this.pendingCharacter = -1;
     }
 
     public static BasicCharacterToByteReadStream create(ByteReadStream byteReadStream, CharacterEncoding characterEncoding)
@@ -24,7 +49,169 @@ public class BasicCharacterToByteReadStream implements CharacterToByteReadStream
     {
         PreCondition.assertNotDisposed(this, "this");
 
-        return this.characterEncoding.iterateDecodedCharacters(this.byteReadStream).first();
+        return Result.create(() ->
+        {
+            final int characterRead = this.readCharacterAsInt();
+            if (characterRead == -1)
+            {
+                throw new EmptyException();
+            }
+            return (char)characterRead;
+        });
+    }
+
+    @Override
+    public int readCharacterAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        int result = this.pendingCharacter;
+        if (result != -1)
+        {
+            this.pendingCharacter = -1;
+        }
+        else if (this.decode(1) > 0)
+        {
+            result = this.takeDecodedCharacter();
+        }
+        return result;
+    }
+
+    @Override
+    public Result<Integer> readCharacters(char[] outputCharacters, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputCharacters, "outputCharacters");
+        PreCondition.assertStartIndex(startIndex, outputCharacters.length);
+        PreCondition.assertLength(length, startIndex, outputCharacters.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final int charactersRead = this.readCharactersInto(outputCharacters, startIndex, length);
+            if (charactersRead == -1)
+            {
+                throw new EmptyException();
+            }
+            return charactersRead;
+        });
+    }
+
+    @Override
+    public int readCharactersInto(char[] outputCharacters, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputCharacters, "outputCharacters");
+        PreCondition.assertStartIndex(startIndex, outputCharacters.length);
+        PreCondition.assertLength(length, startIndex, outputCharacters.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        int result = 0;
+        if (length > 0)
+        {
+            if (this.pendingCharacter != -1)
+            {
+                outputCharacters[startIndex] = (char)this.pendingCharacter;
+                this.pendingCharacter = -1;
+                result = 1;
+            }
+            else
+            {
+                final int decodedCharacterCount = this.decode(length);
+                if (decodedCharacterCount == -1)
+                {
+                    result = -1;
+                }
+                else
+                {
+                    // Decoding length bytes can produce at most one character more than length
+                    // (the low surrogate of a surrogate pair), so hold onto that character for the
+                    // next read.
+                    result = Math.minimum(decodedCharacterCount, length);
+                    Array.copy(this.decodedCharacters, 0, outputCharacters, startIndex, result);
+                    if (result < decodedCharacterCount)
+                    {
+                        this.pendingCharacter = this.decodedCharacters[result];
+                    }
+                }
+            }
+        }
+
+        PostCondition.assertBetween(-1, result, length, "result");
+
+        return result;
+    }
+
+    /**
+     * Read and decode the bytes for up to the provided number of characters into the
+     * decodedCharacters buffer. This only reads as many bytes as are needed to complete the last
+     * character that it decodes.
+     * @param characterCount The maximum number of characters to decode.
+     * @return The number of characters that were decoded, or -1 if the end of the stream has been
+     * reached.
+     */
+    private int decode(int characterCount)
+    {
+        int result = 0;
+        while (result == 0)
+        {
+            // Every encoded character takes at least one byte, so reading characterCount bytes
+            // never reads past the bytes of the requested characters.
+            final int bytesToRead = Math.minimum(characterCount, BasicCharacterToByteReadStream.maximumDecodeByteCount);
+            if (this.encodedBytes == null || this.encodedBytes.length < bytesToRead + 3)
+            {
+                this.encodedBytes = new byte[bytesToRead + 3];
+                this.decodedCharacters = new char[this.encodedBytes.length];
+            }
+
+            int bytesRead = this.byteReadStream.readBytesInto(this.encodedBytes, 0, bytesToRead);
+            if (bytesRead == -1)
+            {
+                result = -1;
+                break;
+            }
+
+            int missingByteCount = this.characterEncoding.getMissingByteCount(this.encodedBytes, 0, bytesRead);
+            while (missingByteCount > 0)
+            {
+                final int missingBytesRead = this.byteReadStream.readBytesInto(this.encodedBytes, bytesRead, missingByteCount);
+                if (missingBytesRead == -1)
+                {
+                    // Let the CharacterEncoding report the incomplete character.
+                    break;
+                }
+                bytesRead += missingBytesRead;
+                missingByteCount -= missingBytesRead;
+            }
+
+            result = this.characterEncoding.decodeCharacters(this.encodedBytes, 0, bytesRead, this.decodedCharacters, 0);
+
+            if (!this.startedDecoding && result > 0)
+            {
+                this.startedDecoding = true;
+                if (this.decodedCharacters[0] == 0xFEFF && this.characterEncoding instanceof UnicodeCharacterEncoding)
+                {
+                    // Skip the byte order mark at the start of the stream.
+                    --result;
+                    Array.copy(this.decodedCharacters, 1, this.decodedCharacters, 0, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Take the first character from the decodedCharacters buffer after decoding a single
+     * character. If the decoded character was a surrogate pair, then the low surrogate will be
+     * returned by the next read.
+     * @return The first decoded character.
+     */
+    private int takeDecodedCharacter()
+    {
+        final int result = this.decodedCharacters[0];
+        if (UTF16CharacterEncoding.isHighSurrogate((char)result))
+        {
+            this.pendingCharacter = this.decodedCharacters[1];
+        }
+        return result;
     }
 
     @Override
@@ -61,9 +248,21 @@ public class BasicCharacterToByteReadStream implements CharacterToByteReadStream
         return this.byteReadStream.readByte();
     }
 
+    @Override
+    public int readByteAsInt()
+    {
+        return this.byteReadStream.readByteAsInt();
+    }
+
     @Override
     public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
     {
         return this.byteReadStream.readBytes(outputBytes, startIndex, length);
     }
+
+    @Override
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        return this.byteReadStream.readBytesInto(outputBytes, startIndex, length);
+    }
 }
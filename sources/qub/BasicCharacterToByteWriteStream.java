@@ -69,6 +69,21 @@ public class BasicCharacterToByteWriteStream implements CharacterToByteWriteStre
         });
     }
 
+    @Override
+    public Result<Integer> write(char[] toWrite, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertStartIndex(startIndex, toWrite.length);
+        PreCondition.assertLength(length, startIndex, toWrite.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            this.characterEncoding.encodeCharacters(toWrite, startIndex, length, this.byteWriteStream).await();
+            return length;
+        });
+    }
+
     @Override
     public Result<Integer> write(String toWrite, Object... formattedStringArguments)
     {
@@ -99,6 +114,15 @@ public class BasicCharacterToByteWriteStream implements CharacterToByteWriteStre
         return this.byteWriteStream.write(toWrite, startIndex, length);
     }
 
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.byteWriteStream.write(toWrite);
+    }
+
     @Override
     public boolean isDisposed()
     {
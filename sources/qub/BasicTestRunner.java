@@ -336,12 +336,12 @@ public final class BasicTestRunner implements TestRunner
             final int maximumAttempts = 3;
             for (int i = 0; i < maximumAttempts; ++i)
             {
-                final DateTime startTime = clock.getCurrentDateTime();
+                final long startNanoseconds = clock.getMonotonicNanoseconds();
 
                 testAction.run(test);
 
-                final DateTime endTime = clock.getCurrentDateTime();
-                final Duration duration = endTime.minus(startTime);
+                final long endNanoseconds = clock.getMonotonicNanoseconds();
+                final Duration duration = Duration.nanoseconds(endNanoseconds - startNanoseconds).toSeconds();
                 if (duration.lessThanOrEqualTo(maximumDuration))
                 {
                     break;
@@ -731,6 +731,12 @@ public class BitArray implements Array<Integer>
         return builder.toString();
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.bitCount, java.util.Arrays.hashCode(this.bitChunks));
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
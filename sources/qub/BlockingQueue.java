@@ -25,10 +25,51 @@ public interface BlockingQueue<T>
      */
     Result<Void> enqueue(T value);
 
+    /**
+     * Add the provided values to the Queue. If the Queue doesn't have room for all of the values,
+     * then the thread will block until they have all been added.
+     * @param values The values to add to the Queue.
+     * @return The result of adding the values to the Queue.
+     */
+    default Result<Void> enqueueAll(Iterable<T> values)
+    {
+        PreCondition.assertNotNull(values, "values");
+
+        return Result.create(() ->
+        {
+            for (final T value : values)
+            {
+                this.enqueue(value).await();
+            }
+        });
+    }
+
     /**
      * Remove and return the next value create the Queue. If there are no values in the Queue, then
      * the thread will block until a value is added to the Queue.
      * @return The next value create the Queue.
      */
     Result<T> dequeue();
+
+    /**
+     * Remove up to the provided number of values from the Queue and add them to the provided
+     * buffer. If there are no values in the Queue, then the thread will block until at least one
+     * value is added to the Queue.
+     * @param maximumCount The maximum number of values to remove.
+     * @param buffer The list that the removed values will be added to.
+     * @return The number of values that were removed.
+     */
+    default Result<Integer> dequeueUpTo(int maximumCount, List<T> buffer)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(maximumCount, 1, "maximumCount");
+        PreCondition.assertNotNull(buffer, "buffer");
+
+        return Result.create(() ->
+        {
+            // Other consumers may take any values that are left, so only one value can be
+            // dequeued without the risk of blocking.
+            buffer.add(this.dequeue().await());
+            return 1;
+        });
+    }
 }
@@ -118,6 +118,12 @@ public class BooleanValue implements Value.Typed<java.lang.Boolean,BooleanValue>
         return this;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.hasValue() ? java.lang.Boolean.hashCode(this.getAsBoolean()) : 0;
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
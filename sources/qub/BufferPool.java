@@ -0,0 +1,526 @@
+package qub;
+
+/**
+ * A pool of reusable byte buffers. Buffers are grouped into size classes that are powers of two
+ * between the pool's minimum and maximum buffer sizes, and each size class keeps a bounded
+ * lock-free free list of heap byte[]s and a separate one of direct {@link java.nio.ByteBuffer}s.
+ * A buffer that is taken from the pool is at least as big as was requested. Requests that are
+ * bigger than the maximum buffer size are allocated normally and aren't kept when they are
+ * returned.
+ * <p>
+ * When leak detection is enabled, the pool remembers where each outstanding buffer was taken
+ * from. If a buffer is garbage collected without having been returned to the pool, then it is
+ * counted as a leak and its allocation stack trace is kept so that it can be reported. Returning
+ * a buffer that isn't outstanding (such as returning the same buffer twice) is a
+ * {@link PreConditionFailure}. Leak detection is off by default because it records a stack trace
+ * for every buffer that is taken. It can be turned on for the default pool by setting the
+ * {@value #leakDetectionPropertyName} system property to true.
+ */
+public class BufferPool
+{
+    /**
+     * The smallest size class in the default pool.
+     */
+    public static final int defaultMinimumBufferSize = 1024;
+    /**
+     * The largest size class in the default pool.
+     */
+    public static final int defaultMaximumBufferSize = 1024 * 1024;
+    /**
+     * The number of free buffers that the default pool keeps in each size class.
+     */
+    public static final int defaultBuffersPerSizeClass = 16;
+    /**
+     * The system property that turns on leak detection for the default pool.
+     */
+    public static final String leakDetectionPropertyName = "qub.BufferPool.leakDetection";
+    /**
+     * The maximum number of leaked buffer allocation traces that a pool keeps.
+     */
+    private static final int maximumLeakTraceCount = 16;
+
+    private static final BufferPool defaultPool = BufferPool.create()
+        .setLeakDetection(java.lang.Boolean.getBoolean(BufferPool.leakDetectionPropertyName));
+
+    private final int minimumBufferSize;
+    private final int maximumBufferSize;
+    private final int buffersPerSizeClass;
+    private final ArrayBlockingQueue<byte[]>[] heapBuffers;
+    private final ArrayBlockingQueue<java.nio.ByteBuffer>[] directBuffers;
+
+    private final java.util.concurrent.atomic.LongAdder takeCount;
+    private final java.util.concurrent.atomic.LongAdder hitCount;
+    private final java.util.concurrent.atomic.LongAdder returnCount;
+
+    private volatile boolean leakDetection;
+    private final Mutex leaseMutex;
+    /**
+     * The outstanding buffers that were taken while leak detection was enabled, keyed by their
+     * identity hash codes. Buffers whose identity hash codes collide are chained together through
+     * {@link Lease#next}.
+     */
+    private final MutableMap<Integer,Lease> leases;
+    private final java.lang.ref.ReferenceQueue<Object> collectedLeases;
+    private final List<Throwable> leakTraces;
+    private long leakCount;
+    private volatile int outstandingCount;
+
+    private BufferPool(int minimumBufferSize, int maximumBufferSize, int buffersPerSizeClass)
+    {
+        this.minimumBufferSize = minimumBufferSize;
+        this.maximumBufferSize = maximumBufferSize;
+        this.buffersPerSizeClass = buffersPerSizeClass;
+
+        final int sizeClassCount = BufferPool.getSizeClassIndex(minimumBufferSize, maximumBufferSize) + 1;
+        this.heapBuffers = BufferPool.createFreeLists(sizeClassCount, buffersPerSizeClass);
+        this.directBuffers = BufferPool.createFreeLists(sizeClassCount, buffersPerSizeClass);
+
+        this.takeCount = new java.util.concurrent.atomic.LongAdder();
+        this.hitCount = new java.util.concurrent.atomic.LongAdder();
+        this.returnCount = new java.util.concurrent.atomic.LongAdder();
+
+        this.leaseMutex = ParkingMutex.create();
+        this.leases = Map.create();
+        this.collectedLeases = new java.lang.ref.ReferenceQueue<>();
+        this.leakTraces = List.create();
+    }
+
+    /**
+     * Get the {@link BufferPool} that is shared by the buffered streams in this library.
+     */
+    public static BufferPool getDefault()
+    {
+        return BufferPool.defaultPool;
+    }
+
+    /**
+     * Create a new {@link BufferPool} with the default size classes.
+     */
+    public static BufferPool create()
+    {
+        return BufferPool.create(BufferPool.defaultMinimumBufferSize, BufferPool.defaultMaximumBufferSize, BufferPool.defaultBuffersPerSizeClass);
+    }
+
+    /**
+     * Create a new {@link BufferPool}.
+     * @param minimumBufferSize The smallest size class. This will be rounded up to the next power
+     *                          of two.
+     * @param maximumBufferSize The largest size class. This will be rounded up to the next power
+     *                          of two.
+     * @param buffersPerSizeClass The maximum number of free heap buffers and free direct buffers
+     *                            that are kept in each size class.
+     */
+    public static BufferPool create(int minimumBufferSize, int maximumBufferSize, int buffersPerSizeClass)
+    {
+        PreCondition.assertBetween(1, minimumBufferSize, 1 << 30, "minimumBufferSize");
+        PreCondition.assertBetween(minimumBufferSize, maximumBufferSize, 1 << 30, "maximumBufferSize");
+        PreCondition.assertGreaterThanOrEqualTo(buffersPerSizeClass, 1, "buffersPerSizeClass");
+
+        return new BufferPool(BufferPool.roundUpToPowerOfTwo(minimumBufferSize), BufferPool.roundUpToPowerOfTwo(maximumBufferSize), buffersPerSizeClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ArrayBlockingQueue<T>[] createFreeLists(int sizeClassCount, int buffersPerSizeClass)
+    {
+        final ArrayBlockingQueue<T>[] result = (ArrayBlockingQueue<T>[])new ArrayBlockingQueue<?>[sizeClassCount];
+        for (int i = 0; i < sizeClassCount; ++i)
+        {
+            result[i] = ArrayBlockingQueue.create(buffersPerSizeClass);
+        }
+        return result;
+    }
+
+    private static int roundUpToPowerOfTwo(int value)
+    {
+        return value <= 1 ? 1 : java.lang.Integer.highestOneBit(value - 1) << 1;
+    }
+
+    private static int getSizeClassIndex(int minimumBufferSize, int bufferSize)
+    {
+        return java.lang.Integer.numberOfTrailingZeros(bufferSize) - java.lang.Integer.numberOfTrailingZeros(minimumBufferSize);
+    }
+
+    /**
+     * Get the size of the smallest size class in this pool.
+     */
+    public int getMinimumBufferSize()
+    {
+        return this.minimumBufferSize;
+    }
+
+    /**
+     * Get the size of the largest size class in this pool.
+     */
+    public int getMaximumBufferSize()
+    {
+        return this.maximumBufferSize;
+    }
+
+    /**
+     * Get the maximum number of free heap buffers and free direct buffers that are kept in each
+     * size class.
+     */
+    public int getBuffersPerSizeClass()
+    {
+        return this.buffersPerSizeClass;
+    }
+
+    /**
+     * Get the size of the buffer that this pool will return for a request of the provided size.
+     * @param minimumSize The minimum size of the requested buffer.
+     */
+    public int getBufferSize(int minimumSize)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(minimumSize, 0, "minimumSize");
+
+        return minimumSize <= this.minimumBufferSize ? this.minimumBufferSize
+            : minimumSize <= this.maximumBufferSize ? BufferPool.roundUpToPowerOfTwo(minimumSize)
+            : minimumSize;
+    }
+
+    /**
+     * Get the index of the size class of buffers with the provided size, or -1 if buffers with the
+     * provided size aren't pooled.
+     */
+    private int getSizeClassIndex(int bufferSize)
+    {
+        return bufferSize < this.minimumBufferSize || this.maximumBufferSize < bufferSize || java.lang.Integer.bitCount(bufferSize) != 1
+            ? -1
+            : BufferPool.getSizeClassIndex(this.minimumBufferSize, bufferSize);
+    }
+
+    /**
+     * Take a heap byte[] from this pool. The contents of the byte[] are undefined.
+     * @param minimumLength The minimum length of the byte[].
+     * @return A byte[] that is at least as long as the provided minimumLength. The byte[] should
+     * be given back to this pool with {@link #returnBytes(byte[])} when it is no longer needed.
+     */
+    public byte[] takeBytes(int minimumLength)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(minimumLength, 0, "minimumLength");
+
+        this.takeCount.increment();
+
+        final int length = this.getBufferSize(minimumLength);
+        final int sizeClassIndex = this.getSizeClassIndex(length);
+        byte[] result = sizeClassIndex == -1 ? null : this.heapBuffers[sizeClassIndex].tryDequeue();
+        if (result != null)
+        {
+            this.hitCount.increment();
+        }
+        else
+        {
+            result = new byte[length];
+        }
+        this.onTaken(result);
+
+        PostCondition.assertNotNull(result, "result");
+        PostCondition.assertGreaterThanOrEqualTo(result.length, minimumLength, "result.length");
+
+        return result;
+    }
+
+    /**
+     * Give a byte[] that was taken from this pool back to the pool. The byte[] must not be used
+     * after it has been returned.
+     * @param bytes The byte[] to return.
+     */
+    public void returnBytes(byte[] bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        this.onReturned(bytes);
+
+        final int sizeClassIndex = this.getSizeClassIndex(bytes.length);
+        if (sizeClassIndex != -1)
+        {
+            this.heapBuffers[sizeClassIndex].tryEnqueue(bytes);
+        }
+    }
+
+    /**
+     * Take a direct {@link java.nio.ByteBuffer} from this pool. The returned buffer is cleared, but
+     * its contents are undefined.
+     * @param minimumCapacity The minimum capacity of the buffer.
+     * @return A direct {@link java.nio.ByteBuffer} whose capacity is at least the provided
+     * minimumCapacity. The buffer should be given back to this pool with
+     * {@link #returnDirectBuffer(java.nio.ByteBuffer)} when it is no longer needed.
+     */
+    public java.nio.ByteBuffer takeDirectBuffer(int minimumCapacity)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(minimumCapacity, 0, "minimumCapacity");
+
+        this.takeCount.increment();
+
+        final int capacity = this.getBufferSize(minimumCapacity);
+        final int sizeClassIndex = this.getSizeClassIndex(capacity);
+        java.nio.ByteBuffer result = sizeClassIndex == -1 ? null : this.directBuffers[sizeClassIndex].tryDequeue();
+        if (result != null)
+        {
+            this.hitCount.increment();
+            result.clear();
+        }
+        else
+        {
+            result = java.nio.ByteBuffer.allocateDirect(capacity);
+        }
+        this.onTaken(result);
+
+        PostCondition.assertNotNull(result, "result");
+        PostCondition.assertGreaterThanOrEqualTo(result.capacity(), minimumCapacity, "result.capacity()");
+
+        return result;
+    }
+
+    /**
+     * Give a direct {@link java.nio.ByteBuffer} that was taken from this pool back to the pool.
+     * The buffer must not be used after it has been returned.
+     * @param buffer The buffer to return.
+     */
+    public void returnDirectBuffer(java.nio.ByteBuffer buffer)
+    {
+        PreCondition.assertNotNull(buffer, "buffer");
+        PreCondition.assertTrue(buffer.isDirect(), "buffer.isDirect()");
+
+        this.onReturned(buffer);
+
+        final int sizeClassIndex = this.getSizeClassIndex(buffer.capacity());
+        if (sizeClassIndex != -1)
+        {
+            this.directBuffers[sizeClassIndex].tryEnqueue(buffer);
+        }
+    }
+
+    /**
+     * Get the number of buffers that have been taken from this pool.
+     */
+    public long getTakeCount()
+    {
+        return this.takeCount.sum();
+    }
+
+    /**
+     * Get the number of buffers that were taken from this pool's free lists instead of being
+     * allocated.
+     */
+    public long getHitCount()
+    {
+        return this.hitCount.sum();
+    }
+
+    /**
+     * Get the number of buffers that have been given back to this pool.
+     */
+    public long getReturnCount()
+    {
+        return this.returnCount.sum();
+    }
+
+    /**
+     * Get the fraction of the buffers taken from this pool that didn't need to be allocated, or 0
+     * if no buffers have been taken.
+     */
+    public double getHitRate()
+    {
+        final long takeCount = this.getTakeCount();
+        return takeCount == 0 ? 0 : (double)this.getHitCount() / takeCount;
+    }
+
+    /**
+     * Get whether this pool tracks its outstanding buffers so that leaked buffers can be detected.
+     */
+    public boolean getLeakDetection()
+    {
+        return this.leakDetection;
+    }
+
+    /**
+     * Set whether this pool tracks its outstanding buffers so that leaked buffers can be detected.
+     * Only buffers that are taken while leak detection is enabled are tracked, and returning a
+     * buffer that isn't tracked while leak detection is enabled is a {@link PreConditionFailure},
+     * so this should be set before any buffers are taken from this pool.
+     * @param leakDetection Whether this pool tracks its outstanding buffers.
+     * @return This object for method chaining.
+     */
+    public BufferPool setLeakDetection(boolean leakDetection)
+    {
+        this.leakDetection = leakDetection;
+        return this;
+    }
+
+    /**
+     * Get the number of tracked buffers that were garbage collected without being returned to this
+     * pool.
+     */
+    public long getLeakCount()
+    {
+        return this.withLeases(() ->
+        {
+            this.detectLeaks();
+            return this.leakCount;
+        });
+    }
+
+    /**
+     * Get the stack traces of where the most recently detected leaked buffers were taken from this
+     * pool.
+     */
+    public Iterable<Throwable> getLeakTraces()
+    {
+        return this.withLeases(() ->
+        {
+            this.detectLeaks();
+            return List.create(this.leakTraces);
+        });
+    }
+
+    /**
+     * Get the number of tracked buffers that haven't been returned to this pool yet.
+     */
+    public int getOutstandingCount()
+    {
+        return this.withLeases(() ->
+        {
+            this.detectLeaks();
+            return this.outstandingCount;
+        });
+    }
+
+    private void onTaken(Object buffer)
+    {
+        if (this.leakDetection)
+        {
+            final Lease lease = new Lease(buffer, this.collectedLeases);
+            this.withLeases(() ->
+            {
+                this.detectLeaks();
+                lease.next = this.leases.get(lease.identityHashCode).catchError().await();
+                this.leases.set(lease.identityHashCode, lease);
+                ++this.outstandingCount;
+                return null;
+            });
+        }
+    }
+
+    private void onReturned(Object buffer)
+    {
+        this.returnCount.increment();
+
+        if (this.leakDetection || this.outstandingCount > 0)
+        {
+            final boolean wasOutstanding = this.withLeases(() ->
+            {
+                this.detectLeaks();
+
+                final int identityHashCode = java.lang.System.identityHashCode(buffer);
+                final Lease lease = this.leases.get(identityHashCode).catchError().await();
+                Lease previous = null;
+                Lease current = lease;
+                while (current != null && current.get() != buffer)
+                {
+                    previous = current;
+                    current = current.next;
+                }
+
+                final boolean result = current != null;
+                if (result)
+                {
+                    this.removeLease(previous, current);
+                    current.clear();
+                }
+                return result;
+            });
+
+            if (this.leakDetection)
+            {
+                PreCondition.assertTrue(wasOutstanding, "this.isOutstanding(buffer)");
+            }
+        }
+    }
+
+    /**
+     * Record a leak for each tracked buffer that has been garbage collected. This must be called
+     * while the lease mutex is acquired.
+     */
+    private void detectLeaks()
+    {
+        java.lang.ref.Reference<?> reference;
+        while ((reference = this.collectedLeases.poll()) != null)
+        {
+            final Lease collectedLease = (Lease)reference;
+
+            Lease previous = null;
+            Lease current = this.leases.get(collectedLease.identityHashCode).catchError().await();
+            while (current != null && current != collectedLease)
+            {
+                previous = current;
+                current = current.next;
+            }
+
+            if (current != null)
+            {
+                this.removeLease(previous, current);
+
+                ++this.leakCount;
+                if (this.leakTraces.getCount() == BufferPool.maximumLeakTraceCount)
+                {
+                    this.leakTraces.removeFirst().await();
+                }
+                this.leakTraces.add(current.allocationTrace);
+            }
+        }
+    }
+
+    private void removeLease(Lease previous, Lease lease)
+    {
+        --this.outstandingCount;
+        if (previous != null)
+        {
+            previous.next = lease.next;
+        }
+        else if (lease.next != null)
+        {
+            this.leases.set(lease.identityHashCode, lease.next);
+        }
+        else
+        {
+            this.leases.remove(lease.identityHashCode).await();
+        }
+    }
+
+    private <T> T withLeases(Function0<T> function)
+    {
+        this.leaseMutex.acquire().await();
+        try
+        {
+            return function.run();
+        }
+        finally
+        {
+            this.leaseMutex.release().await();
+        }
+    }
+
+    /**
+     * A tracked buffer that has been taken from the pool.
+     */
+    private static class Lease extends java.lang.ref.WeakReference<Object>
+    {
+        private final int identityHashCode;
+        private final Throwable allocationTrace;
+        private Lease next;
+
+        private Lease(Object buffer, java.lang.ref.ReferenceQueue<Object> collectedLeases)
+        {
+            super(buffer, collectedLeases);
+
+            this.identityHashCode = java.lang.System.identityHashCode(buffer);
+            this.allocationTrace = new Throwable("Buffer of " + BufferPool.getLength(buffer) + " bytes taken from a BufferPool and never returned.");
+        }
+    }
+
+    private static int getLength(Object buffer)
+    {
+        return buffer instanceof byte[] ? ((byte[])buffer).length : ((java.nio.ByteBuffer)buffer).capacity();
+    }
+}
@@ -1,23 +1,40 @@
 package qub;
 
+/**
+ * A {@link ByteReadStream} that reads its inner {@link ByteReadStream} through a buffer. The
+ * buffer is taken from a {@link BufferPool} and is given back to the pool when the end of the inner
+ * stream is reached or when this stream is disposed.
+ */
 public class BufferedByteReadStream implements ByteReadStream
 {
     private final ByteReadStream byteReadStream;
+    private final BufferPool bufferPool;
     private final int maximumBufferSize;
     private byte[] buffer;
+    /**
+     * The number of bytes of the buffer that are used. The buffer that is taken from the pool can
+     * be longer than this.
+     */
+    private int bufferLength;
     private boolean growOnNextBufferFill;
     private int currentBufferIndex;
     private int bytesInBuffer;
 
-    private BufferedByteReadStream(ByteReadStream byteReadStream, int initialBufferSize, int maximumBufferSize)
+    private BufferedByteReadStream(ByteReadStream byteReadStream, int initialBufferSize, int maximumBufferSize, BufferPool bufferPool)
     {
         PreCondition.assertNotNull(byteReadStream, "byteReadStream");
         PreCondition.assertGreaterThanOrEqualTo(initialBufferSize, 1, "initialBufferSize");
         PreCondition.assertGreaterThanOrEqualTo(maximumBufferSize, initialBufferSize, "maximumBufferSize");
+        PreCondition.assertNotNull(bufferPool, "bufferPool");
 
         this.byteReadStream = byteReadStream;
+        this.bufferPool = bufferPool;
         this.maximumBufferSize = maximumBufferSize;
-        this.buffer = byteReadStream.isDisposed() ? null : new byte[initialBufferSize];
+        if (!byteReadStream.isDisposed())
+        {
+            this.buffer = bufferPool.takeBytes(initialBufferSize);
+            this.bufferLength = initialBufferSize;
+        }
         this.currentBufferIndex = -1;
         this.growOnNextBufferFill = false;
     }
@@ -43,7 +60,25 @@ public class BufferedByteReadStream implements ByteReadStream
         PreCondition.assertGreaterThanOrEqualTo(initialBufferSize, 1, "initialBufferSize");
         PreCondition.assertGreaterThanOrEqualTo(maximumBufferSize, initialBufferSize, "maximumBufferSize");
 
-        return new BufferedByteReadStream(byteReadStream, initialBufferSize, maximumBufferSize);
+        return BufferedByteReadStream.create(byteReadStream, initialBufferSize, maximumBufferSize, BufferPool.getDefault());
+    }
+
+    /**
+     * Create a new {@link BufferedByteReadStream} that takes its buffers from the provided
+     * {@link BufferPool}.
+     * @param byteReadStream The {@link ByteReadStream} to read from.
+     * @param initialBufferSize The initial number of bytes that the buffer holds.
+     * @param maximumBufferSize The maximum number of bytes that the buffer can grow to.
+     * @param bufferPool The {@link BufferPool} to take buffers from.
+     */
+    public static BufferedByteReadStream create(ByteReadStream byteReadStream, int initialBufferSize, int maximumBufferSize, BufferPool bufferPool)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertGreaterThanOrEqualTo(initialBufferSize, 1, "initialBufferSize");
+        PreCondition.assertGreaterThanOrEqualTo(maximumBufferSize, initialBufferSize, "maximumBufferSize");
+        PreCondition.assertNotNull(bufferPool, "bufferPool");
+
+        return new BufferedByteReadStream(byteReadStream, initialBufferSize, maximumBufferSize, bufferPool);
     }
 
     @Override
@@ -54,26 +89,17 @@ public class BufferedByteReadStream implements ByteReadStream
         Result<Byte> result;
         if (currentBufferIndex < 0 || currentBufferIndex == bytesInBuffer - 1)
         {
-            if (growOnNextBufferFill && buffer.length < maximumBufferSize)
-            {
-                buffer = new byte[Math.minimum(maximumBufferSize, buffer.length * 2)];
-            }
+            this.growBufferIfNeeded();
 
-            result = byteReadStream.readBytes(buffer)
+            result = byteReadStream.readBytes(buffer, 0, bufferLength)
                 .then((Integer bytesRead) ->
                 {
                     bytesInBuffer = bytesRead;
-                    growOnNextBufferFill = (buffer.length == bytesRead);
+                    growOnNextBufferFill = (bufferLength == bytesRead);
                     currentBufferIndex = 0;
                     return buffer[currentBufferIndex];
                 })
-                .onError(EmptyException.class, () ->
-                {
-                    buffer = null;
-                    growOnNextBufferFill = false;
-                    bytesInBuffer = 0;
-                    currentBufferIndex = -1;
-                });
+                .onError(EmptyException.class, this::clearBuffer);
         }
         else
         {
@@ -97,16 +123,13 @@ public class BufferedByteReadStream implements ByteReadStream
 
         if (currentBufferIndex < 0 || currentBufferIndex == bytesInBuffer - 1)
         {
-            if (growOnNextBufferFill && buffer.length < maximumBufferSize)
-            {
-                buffer = new byte[Math.minimum(maximumBufferSize, buffer.length * 2)];
-            }
+            this.growBufferIfNeeded();
 
-            result = byteReadStream.readBytes(buffer)
+            result = byteReadStream.readBytes(buffer, 0, bufferLength)
                 .then((Integer bytesRead) ->
                 {
                     bytesInBuffer = bytesRead;
-                    growOnNextBufferFill = (buffer.length == bytesRead);
+                    growOnNextBufferFill = (bufferLength == bytesRead);
 
                     final int bytesToCopy = Math.minimum(bytesRead, length);
                     Array.copy(buffer, 0, outputBytes, startIndex, bytesToCopy);
@@ -114,13 +137,7 @@ public class BufferedByteReadStream implements ByteReadStream
 
                     return bytesToCopy;
                 })
-                .onError(EmptyException.class, () ->
-                {
-                    buffer = null;
-                    growOnNextBufferFill = false;
-                    bytesInBuffer = 0;
-                    currentBufferIndex = -1;
-                });
+                .onError(EmptyException.class, this::clearBuffer);
         }
         else
         {
@@ -136,6 +153,146 @@ public class BufferedByteReadStream implements ByteReadStream
         return result;
     }
 
+    @Override
+    public int readByteAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        int result;
+        if (this.currentBufferIndex < 0 || this.currentBufferIndex == this.bytesInBuffer - 1)
+        {
+            if (!this.fillBuffer())
+            {
+                result = -1;
+            }
+            else
+            {
+                this.currentBufferIndex = 0;
+                result = Bytes.toUnsignedInt(this.buffer[this.currentBufferIndex]);
+            }
+        }
+        else
+        {
+            result = Bytes.toUnsignedInt(this.buffer[++this.currentBufferIndex]);
+        }
+
+        PostCondition.assertBetween(-1, result, 255, "result");
+
+        return result;
+    }
+
+    @Override
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        int result;
+        if (length == 0)
+        {
+            result = 0;
+        }
+        else if (this.currentBufferIndex >= 0 && this.currentBufferIndex < this.bytesInBuffer - 1)
+        {
+            result = Math.minimum(length, this.bytesInBuffer - (this.currentBufferIndex + 1));
+            Array.copy(this.buffer, this.currentBufferIndex + 1, outputBytes, startIndex, result);
+            this.currentBufferIndex += result;
+        }
+        else if (this.buffer != null && length >= this.bufferLength)
+        {
+            // The buffer is empty and the caller wants at least a full buffer's worth of bytes, so
+            // read straight into the caller's byte[] instead of copying through the buffer.
+            result = this.byteReadStream.readBytesInto(outputBytes, startIndex, length);
+            if (result == -1)
+            {
+                this.clearBuffer();
+            }
+            else
+            {
+                this.currentBufferIndex = -1;
+            }
+        }
+        else if (!this.fillBuffer())
+        {
+            result = -1;
+        }
+        else
+        {
+            result = Math.minimum(this.bytesInBuffer, length);
+            Array.copy(this.buffer, 0, outputBytes, startIndex, result);
+            this.currentBufferIndex = result - 1;
+        }
+
+        PostCondition.assertBetween(-1, result, length, "result");
+
+        return result;
+    }
+
+    /**
+     * Fill the buffer with bytes from the inner ByteReadStream. If the end of the inner
+     * ByteReadStream has been reached, then the buffer will be released.
+     * @return Whether any bytes were read into the buffer.
+     */
+    private boolean fillBuffer()
+    {
+        boolean result = false;
+        if (this.buffer != null)
+        {
+            this.growBufferIfNeeded();
+
+            final int bytesRead = this.byteReadStream.readBytesInto(this.buffer, 0, this.bufferLength);
+            if (bytesRead == -1)
+            {
+                this.clearBuffer();
+            }
+            else
+            {
+                this.bytesInBuffer = bytesRead;
+                this.growOnNextBufferFill = (this.bufferLength == bytesRead);
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * If the previous buffer fill filled the entire buffer, then double the size of the buffer (up
+     * to the maximum buffer size). The bigger buffer is only taken from the pool if the current
+     * buffer isn't already long enough.
+     */
+    private void growBufferIfNeeded()
+    {
+        if (this.growOnNextBufferFill && this.bufferLength < this.maximumBufferSize)
+        {
+            final int newBufferLength = Math.minimum(this.maximumBufferSize, this.bufferLength * 2);
+            if (this.buffer.length < newBufferLength)
+            {
+                this.bufferPool.returnBytes(this.buffer);
+                this.buffer = this.bufferPool.takeBytes(newBufferLength);
+            }
+            this.bufferLength = newBufferLength;
+        }
+    }
+
+    /**
+     * Release the buffer back to the pool after the end of the inner ByteReadStream has been
+     * reached or after this stream has been disposed.
+     */
+    private void clearBuffer()
+    {
+        if (this.buffer != null)
+        {
+            this.bufferPool.returnBytes(this.buffer);
+            this.buffer = null;
+        }
+        this.bufferLength = 0;
+        this.growOnNextBufferFill = false;
+        this.bytesInBuffer = 0;
+        this.currentBufferIndex = -1;
+    }
+
     @Override
     public boolean isDisposed()
     {
@@ -145,11 +302,9 @@ public class BufferedByteReadStream implements ByteReadStream
     @Override
     public Result<Boolean> dispose()
     {
-        buffer = null;
-        growOnNextBufferFill = false;
-        currentBufferIndex = -1;
-        bytesInBuffer = 0;
-        return byteReadStream.dispose();
+        final Result<Boolean> result = byteReadStream.dispose();
+        this.clearBuffer();
+        return result;
     }
 
     /**
@@ -158,7 +313,16 @@ public class BufferedByteReadStream implements ByteReadStream
      */
     public int getBufferSize()
     {
-        return buffer == null ? 0 : buffer.length;
+        return bufferLength;
+    }
+
+    /**
+     * Get the {@link BufferPool} that this stream takes its buffers from.
+     * @return The {@link BufferPool} that this stream takes its buffers from.
+     */
+    public BufferPool getBufferPool()
+    {
+        return bufferPool;
     }
 
     /**
@@ -1,21 +1,38 @@
 package qub;
 
+/**
+ * A {@link ByteWriteStream} that collects written bytes in a buffer before writing them to its
+ * inner {@link ByteWriteStream}. The buffer is taken from a {@link BufferPool} and is given back to
+ * the pool when this stream is disposed.
+ */
 public class BufferedByteWriteStream implements ByteWriteStream
 {
     private final ByteWriteStream byteWriteStream;
+    private final BufferPool bufferPool;
     private final int maximumBufferSize;
     private byte[] buffer;
+    /**
+     * The number of bytes of the buffer that are used. The buffer that is taken from the pool can
+     * be longer than this.
+     */
+    private int bufferLength;
     private int currentBufferIndex;
 
-    private BufferedByteWriteStream(ByteWriteStream byteWriteStream, int initialBufferSize, int maximumBufferSize)
+    private BufferedByteWriteStream(ByteWriteStream byteWriteStream, int initialBufferSize, int maximumBufferSize, BufferPool bufferPool)
     {
         PreCondition.assertNotNull(byteWriteStream, "byteWriteStream");
         PreCondition.assertGreaterThanOrEqualTo(initialBufferSize, 1, "initialBufferSize");
         PreCondition.assertGreaterThanOrEqualTo(maximumBufferSize, initialBufferSize, "maximumBufferSize");
+        PreCondition.assertNotNull(bufferPool, "bufferPool");
 
         this.byteWriteStream = byteWriteStream;
+        this.bufferPool = bufferPool;
         this.maximumBufferSize = maximumBufferSize;
-        this.buffer = byteWriteStream.isDisposed() ? null : new byte[initialBufferSize];
+        if (!byteWriteStream.isDisposed())
+        {
+            this.buffer = bufferPool.takeBytes(initialBufferSize);
+            this.bufferLength = initialBufferSize;
+        }
     }
 
     public static BufferedByteWriteStream create(ByteWriteStream byteWriteStream)
@@ -30,7 +47,20 @@ public class BufferedByteWriteStream implements ByteWriteStream
 
     public static BufferedByteWriteStream create(ByteWriteStream byteWriteStream, int initialBufferSize, int maximumBufferSize)
     {
-        return new BufferedByteWriteStream(byteWriteStream, initialBufferSize, maximumBufferSize);
+        return BufferedByteWriteStream.create(byteWriteStream, initialBufferSize, maximumBufferSize, BufferPool.getDefault());
+    }
+
+    /**
+     * Create a new {@link BufferedByteWriteStream} that takes its buffers from the provided
+     * {@link BufferPool}.
+     * @param byteWriteStream The {@link ByteWriteStream} to write to.
+     * @param initialBufferSize The initial number of bytes that the buffer holds.
+     * @param maximumBufferSize The maximum number of bytes that the buffer can grow to.
+     * @param bufferPool The {@link BufferPool} to take buffers from.
+     */
+    public static BufferedByteWriteStream create(ByteWriteStream byteWriteStream, int initialBufferSize, int maximumBufferSize, BufferPool bufferPool)
+    {
+        return new BufferedByteWriteStream(byteWriteStream, initialBufferSize, maximumBufferSize, bufferPool);
     }
 
     /**
@@ -40,7 +70,16 @@ public class BufferedByteWriteStream implements ByteWriteStream
      */
     public int getBufferCapacity()
     {
-        return buffer == null ? 0 : buffer.length;
+        return bufferLength;
+    }
+
+    /**
+     * Get the {@link BufferPool} that this stream takes its buffers from.
+     * @return The {@link BufferPool} that this stream takes its buffers from.
+     */
+    public BufferPool getBufferPool()
+    {
+        return bufferPool;
     }
 
     /**
@@ -83,7 +122,7 @@ public class BufferedByteWriteStream implements ByteWriteStream
         PreCondition.assertLength(length, startIndex, bytes.length);
         PreCondition.assertNotDisposed(this, "this");
 
-        final int bytesToAddToBuffer = Math.minimum(length, buffer.length - currentBufferIndex);
+        final int bytesToAddToBuffer = Math.minimum(length, bufferLength - currentBufferIndex);
         Array.copy(bytes, startIndex, buffer, currentBufferIndex, bytesToAddToBuffer);
         currentBufferIndex += bytesToAddToBuffer;
 
@@ -94,6 +133,45 @@ public class BufferedByteWriteStream implements ByteWriteStream
         return result;
     }
 
+    /**
+     * Write all of the remaining bytes in the provided buffers. If they fit in the space that is
+     * left in the buffer, then they are copied into it. Otherwise the buffered bytes and the
+     * provided buffers are written to the inner ByteWriteStream together with gathering writes,
+     * so that large buffers aren't copied.
+     * @param toWrite The buffers to write.
+     * @return The number of bytes that were written.
+     */
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final long result = ByteWriteStream.getRemaining(toWrite);
+            if (result <= this.bufferLength - this.currentBufferIndex)
+            {
+                for (final java.nio.ByteBuffer bytes : toWrite)
+                {
+                    final int length = bytes.remaining();
+                    bytes.get(this.buffer, this.currentBufferIndex, length);
+                    this.currentBufferIndex += length;
+                }
+                this.flushBufferIfFull().await();
+            }
+            else
+            {
+                final java.nio.ByteBuffer[] buffers = new java.nio.ByteBuffer[toWrite.length + 1];
+                buffers[0] = java.nio.ByteBuffer.wrap(this.buffer, 0, this.currentBufferIndex);
+                java.lang.System.arraycopy(toWrite, 0, buffers, 1, toWrite.length);
+                this.byteWriteStream.writeAll(buffers).await();
+                this.currentBufferIndex = 0;
+            }
+            return result;
+        });
+    }
+
     /**
      * If the buffer is full, then write its contents to the inner ByteWriteStream.
      * @return The number of bytes that were written to the inner ByteWriteStream.
@@ -102,7 +180,7 @@ public class BufferedByteWriteStream implements ByteWriteStream
     {
         return Result.create(() ->
         {
-            return this.currentBufferIndex < this.buffer.length
+            return this.currentBufferIndex < this.bufferLength
                 ? 0
                 : this.flushOnce().await();
         });
@@ -120,18 +198,20 @@ public class BufferedByteWriteStream implements ByteWriteStream
         return Result.create(() ->
         {
             final int bytesWritten = this.byteWriteStream.write(this.buffer, 0, this.currentBufferIndex).await();
-            if (bytesWritten == buffer.length)
+            if (bytesWritten == bufferLength)
             {
-                final int newBufferLength = Math.minimum(maximumBufferSize, buffer.length * 2);
-                if (newBufferLength != buffer.length)
+                final int newBufferLength = Math.minimum(maximumBufferSize, bufferLength * 2);
+                if (buffer.length < newBufferLength)
                 {
-                    buffer = new byte[newBufferLength];
+                    bufferPool.returnBytes(buffer);
+                    buffer = bufferPool.takeBytes(newBufferLength);
                 }
+                bufferLength = newBufferLength;
                 currentBufferIndex = 0;
             }
             else
             {
-                Array.copy(buffer, bytesWritten, buffer, 0, buffer.length - bytesWritten);
+                Array.copy(buffer, bytesWritten, buffer, 0, bufferLength - bytesWritten);
                 currentBufferIndex -= bytesWritten;
             }
             return bytesWritten;
@@ -177,9 +257,12 @@ public class BufferedByteWriteStream implements ByteWriteStream
                     this.byteWriteStream.writeAll(this.buffer, 0, this.currentBufferIndex).await();
                 }
 
+                result = this.byteWriteStream.dispose().await();
+
+                this.bufferPool.returnBytes(this.buffer);
                 this.buffer = null;
+                this.bufferLength = 0;
                 this.currentBufferIndex = 0;
-                result = this.byteWriteStream.dispose().await();
             }
             return result;
         });
@@ -140,6 +140,12 @@ public class ByteArray implements Array<Byte>
         return values;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
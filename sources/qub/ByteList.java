@@ -353,6 +353,12 @@ public class ByteList implements List<Byte>
             : ByteArrayIterator.create(this.bytes, 0, this.count);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
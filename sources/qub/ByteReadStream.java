@@ -21,6 +21,24 @@ public interface ByteReadStream extends Disposable
      */
     Result<Byte> readByte();
 
+    /**
+     * Read a single byte from this stream. This will block until a byte is available. Unlike
+     * readByte(), this doesn't need to allocate a Result for each byte, which makes it a better fit
+     * for reading a stream one byte at a time. If the byte could not be read, then the error will
+     * be thrown.
+     * @return The byte that was read as an unsigned value between 0 and 255, or -1 if the end of
+     * the stream has been reached.
+     */
+    default int readByteAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        final Byte byteRead = this.readByte()
+            .catchError(EmptyException.class)
+            .await();
+        return byteRead == null ? -1 : Bytes.toUnsignedInt(byteRead);
+    }
+
     /**
      * Read up to the provided bytesToRead number of bytes create this stream. If fewer bytes than
      * bytesToRead are available, then fewer than bytesToRead bytes will be returned. If no bytes
@@ -71,6 +89,46 @@ public interface ByteReadStream extends Disposable
      */
     Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length);
 
+    /**
+     * Read available bytes into the provided byte[] and return the number of bytes that were read.
+     * If no bytes are available, then this function will not return until bytes become available.
+     * Unlike readBytes(byte[]), this doesn't need to allocate a Result for each read. If the bytes
+     * could not be read, then the error will be thrown.
+     * @param outputBytes The byte[] to read bytes into.
+     * @return The number of bytes that were read, or -1 if the end of the stream has been reached.
+     */
+    default int readBytesInto(byte[] outputBytes)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.readBytesInto(outputBytes, 0, outputBytes.length);
+    }
+
+    /**
+     * Read up to length available bytes into the provided byte[] at the provided startIndex and
+     * return the number of bytes that were read. If no bytes are available, then this function will
+     * not return until bytes become available. Unlike readBytes(byte[],int,int), this doesn't need
+     * to allocate a Result for each read. If the bytes could not be read, then the error will be
+     * thrown.
+     * @param outputBytes The byte[] to read bytes into.
+     * @param startIndex The start index in in outputBytes to start writing bytes to.
+     * @param length The maximum number of bytes to read.
+     * @return The number of bytes that were read, or -1 if the end of the stream has been reached.
+     */
+    default int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        final Integer bytesRead = this.readBytes(outputBytes, startIndex, length)
+            .catchError(EmptyException.class)
+            .await();
+        return bytesRead == null ? -1 : bytesRead;
+    }
+
     /**
      * Read all of the bytes in this stream. The termination of the stream is marked when getByte()
      * returns a null Byte. This function will not return until all of the bytes in the stream have
@@ -75,6 +75,172 @@ public interface ByteWriteStream extends Disposable
         });
     }
 
+    /**
+     * Write the bytes in the provided byte[]s to this ByteWriteStream in order, as if they were
+     * one contiguous byte[]. It is possible that not all of the bytes will be written. If you want
+     * to ensure that all of the bytes will be written, then use writeAll(byte[][]) instead.
+     * @param toWrite The byte[]s to write.
+     * @return The number of bytes that were written.
+     */
+    default Result<Long> write(byte[][] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.write(ByteWriteStream.wrap(toWrite));
+    }
+
+    /**
+     * Write the remaining bytes in the provided {@link java.nio.ByteBuffer}s to this
+     * ByteWriteStream in order, as if they were one contiguous buffer. The position of each buffer
+     * is advanced past the bytes that were written from it. It is possible that not all of the
+     * bytes will be written. If you want to ensure that all of the bytes will be written, then use
+     * writeAll(java.nio.ByteBuffer[]) instead. Implementations that write to a
+     * {@link java.nio.channels.GatheringByteChannel} or to memory can write all of the buffers at
+     * once. This default implementation writes the buffers one at a time.
+     * @param toWrite The buffers to write.
+     * @return The number of bytes that were written.
+     */
+    default Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            long result = 0;
+            for (final java.nio.ByteBuffer buffer : toWrite)
+            {
+                final int remaining = buffer.remaining();
+                if (remaining > 0)
+                {
+                    final int bytesWritten = ByteWriteStream.write(this, buffer);
+                    result += bytesWritten;
+                    if (bytesWritten < remaining)
+                    {
+                        break;
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Write the remaining bytes in the provided buffer to the provided ByteWriteStream with a
+     * single write and advance the buffer's position past the bytes that were written.
+     * @param byteWriteStream The ByteWriteStream to write to.
+     * @param buffer The buffer to write. It must have remaining bytes.
+     * @return The number of bytes that were written.
+     */
+    private static int write(ByteWriteStream byteWriteStream, java.nio.ByteBuffer buffer)
+    {
+        final int position = buffer.position();
+        int result;
+        if (buffer.hasArray())
+        {
+            result = byteWriteStream.write(buffer.array(), buffer.arrayOffset() + position, buffer.remaining()).await();
+        }
+        else
+        {
+            // Direct and read-only buffers don't expose an array, so their bytes are copied into a
+            // pooled array first.
+            final BufferPool bufferPool = BufferPool.getDefault();
+            final int length = Math.minimum(buffer.remaining(), bufferPool.getMaximumBufferSize());
+            final byte[] bytes = bufferPool.takeBytes(length);
+            try
+            {
+                buffer.get(position, bytes, 0, length);
+                result = byteWriteStream.write(bytes, 0, length).await();
+            }
+            finally
+            {
+                bufferPool.returnBytes(bytes);
+            }
+        }
+        buffer.position(position + result);
+        return result;
+    }
+
+    /**
+     * Write all of the bytes in the provided byte[]s to this ByteWriteStream in order.
+     * @param toWrite The byte[]s to write.
+     * @return The number of bytes that were written.
+     */
+    default Result<Long> writeAll(byte[][] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.writeAll(ByteWriteStream.wrap(toWrite));
+    }
+
+    /**
+     * Write all of the remaining bytes in the provided {@link java.nio.ByteBuffer}s to this
+     * ByteWriteStream in order. The position of each buffer is advanced to its limit.
+     * @param toWrite The buffers to write.
+     * @return The number of bytes that were written.
+     */
+    default Result<Long> writeAll(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            long result = 0;
+            int firstRemainingIndex = 0;
+            while (true)
+            {
+                while (firstRemainingIndex < toWrite.length && !toWrite[firstRemainingIndex].hasRemaining())
+                {
+                    ++firstRemainingIndex;
+                }
+                if (firstRemainingIndex == toWrite.length)
+                {
+                    break;
+                }
+
+                result += this.write(firstRemainingIndex == 0
+                    ? toWrite
+                    : java.util.Arrays.copyOfRange(toWrite, firstRemainingIndex, toWrite.length)).await();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Wrap each of the provided byte[]s in a {@link java.nio.ByteBuffer}.
+     * @param toWrite The byte[]s to wrap.
+     * @return The wrapping buffers.
+     */
+    private static java.nio.ByteBuffer[] wrap(byte[][] toWrite)
+    {
+        final java.nio.ByteBuffer[] result = new java.nio.ByteBuffer[toWrite.length];
+        for (int i = 0; i < toWrite.length; ++i)
+        {
+            PreCondition.assertNotNull(toWrite[i], "toWrite[" + i + "]");
+
+            result[i] = java.nio.ByteBuffer.wrap(toWrite[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Get the total number of remaining bytes in the provided buffers.
+     * @param buffers The buffers to count the remaining bytes of.
+     * @return The total number of remaining bytes in the provided buffers.
+     */
+    static long getRemaining(java.nio.ByteBuffer[] buffers)
+    {
+        long result = 0;
+        for (final java.nio.ByteBuffer buffer : buffers)
+        {
+            result += buffer.remaining();
+        }
+        return result;
+    }
+
     /**
      * Write all of the bytes create the provided byteReadStream to this ByteWriteStream.
      * @param byteReadStream The ByteReadStream to read create.
@@ -100,46 +266,62 @@ public interface ByteWriteStream extends Disposable
         return Result.create(() ->
         {
             long result = 0;
-            byte[] buffer = new byte[initialBufferCapacity];
+            final BufferPool bufferPool = BufferPool.getDefault();
+            byte[] buffer = bufferPool.takeBytes(initialBufferCapacity);
+            int bufferLength = initialBufferCapacity;
             int bytesInBuffer = 0;
             Integer bytesRead;
-            while(true)
+            try
             {
-                bytesRead = byteReadStream.readBytes(buffer, bytesInBuffer, buffer.length - bytesInBuffer)
-                    .catchError(EmptyException.class)
-                    .await();
-                if (bytesRead == null)
+                while(true)
                 {
-                    while(bytesInBuffer > 0)
+                    bytesRead = byteReadStream.readBytes(buffer, bytesInBuffer, bufferLength - bytesInBuffer)
+                        .catchError(EmptyException.class)
+                        .await();
+                    if (bytesRead == null)
+                    {
+                        while(bytesInBuffer > 0)
+                        {
+                            final int bytesWritten = this.write(buffer, 0, bytesInBuffer).await();
+                            result += bytesWritten;
+                            if (bytesWritten < bytesInBuffer)
+                            {
+                                Array.copy(buffer, bytesWritten, buffer, 0, bytesInBuffer - bytesWritten);
+                            }
+                            bytesInBuffer -= bytesWritten;
+                        }
+                        break;
+                    }
+                    else
                     {
+                        bytesInBuffer += bytesRead;
+
                         final int bytesWritten = this.write(buffer, 0, bytesInBuffer).await();
                         result += bytesWritten;
+
                         if (bytesWritten < bytesInBuffer)
                         {
                             Array.copy(buffer, bytesWritten, buffer, 0, bytesInBuffer - bytesWritten);
                         }
+                        else if (bytesInBuffer == bufferLength)
+                        {
+                            // The whole buffer was filled and written, so use a bigger buffer for
+                            // the next read.
+                            bufferLength *= 2;
+                            if (buffer.length < bufferLength)
+                            {
+                                bufferPool.returnBytes(buffer);
+                                buffer = bufferPool.takeBytes(bufferLength);
+                            }
+                        }
                         bytesInBuffer -= bytesWritten;
                     }
-                    break;
-                }
-                else
-                {
-                    bytesInBuffer += bytesRead;
-
-                    final int bytesWritten = this.write(buffer, 0, bytesInBuffer).await();
-                    result += bytesWritten;
-
-                    final byte[] copyToBuffer = (bytesInBuffer == buffer.length && bytesWritten == buffer.length)
-                        ? new byte[buffer.length * 2]
-                        : buffer;
-                    if (bytesWritten < bytesInBuffer)
-                    {
-                        Array.copy(buffer, bytesWritten, copyToBuffer, 0, bytesInBuffer - bytesWritten);
-                    }
-                    bytesInBuffer -= bytesWritten;
-                    buffer = copyToBuffer;
                 }
             }
+            finally
+            {
+                bufferPool.returnBytes(buffer);
+            }
             return result;
         });
     }
@@ -108,6 +108,12 @@ public class CharacterArray implements Array<Character>
         return value != null && this.contains(value.charValue());
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
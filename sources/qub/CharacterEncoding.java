@@ -308,6 +308,55 @@ public interface CharacterEncoding
             .then((char[] characters) -> String.valueOf(characters));
     }
 
+    /**
+     * Get the number of bytes that need to be added to the end of the provided bytes before the
+     * last encoded character in them is complete.
+     * @param bytes The encoded bytes.
+     * @param startIndex The index of the first encoded byte.
+     * @param length The number of encoded bytes.
+     * @return The number of bytes that are missing from the last encoded character, or 0 if the
+     * provided bytes end with a complete encoded character.
+     */
+    default int getMissingByteCount(byte[] bytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertStartIndex(startIndex, bytes.length);
+        PreCondition.assertLength(length, startIndex, bytes.length);
+
+        return 0;
+    }
+
+    /**
+     * Decode the provided bytes into the provided char[] without boxing each character. The
+     * provided bytes must end with a complete encoded character, and a byte order mark is decoded
+     * like any other character.
+     * @param bytes The bytes to decode.
+     * @param startIndex The index of the first byte to decode.
+     * @param length The number of bytes to decode.
+     * @param outputCharacters The char[] to write the decoded characters to. This must have room
+     *                         for at least length characters after outputStartIndex.
+     * @param outputStartIndex The index in outputCharacters to write the first decoded character
+     *                         to.
+     * @return The number of characters that were written to outputCharacters.
+     */
+    default int decodeCharacters(byte[] bytes, int startIndex, int length, char[] outputCharacters, int outputStartIndex)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertStartIndex(startIndex, bytes.length);
+        PreCondition.assertLength(length, startIndex, bytes.length);
+        PreCondition.assertNotNull(outputCharacters, "outputCharacters");
+        PreCondition.assertBetween(0, outputStartIndex, outputCharacters.length, "outputStartIndex");
+        PreCondition.assertLessThanOrEqualTo(length, outputCharacters.length - outputStartIndex, "length");
+
+        int result = 0;
+        for (final Character character : this.iterateDecodedCharacters(Iterator.create(bytes, startIndex, length)))
+        {
+            outputCharacters[outputStartIndex + result] = character;
+            ++result;
+        }
+        return result;
+    }
+
     /**
      * Get an Iterator that will decode the provided bytes as it iterates.
      * @param bytes The bytes to decode.
@@ -339,6 +388,18 @@ public interface CharacterEncoding
         return rhs instanceof CharacterEncoding && lhs.equals((CharacterEncoding)rhs);
     }
 
+    /**
+     * Get the hash code of the provided CharacterEncoding.
+     * @param characterEncoding The CharacterEncoding to get the hash code of.
+     * @return The hash code of the provided CharacterEncoding.
+     */
+    static int hashCode(CharacterEncoding characterEncoding)
+    {
+        PreCondition.assertNotNull(characterEncoding, "characterEncoding");
+
+        return characterEncoding.getClass().hashCode();
+    }
+
     /**
      * Get whether or not this CharacterEncoding equals the provided CharacterEncoding.
      * @param rhs The CharacterEncoding to compare against this CharacterEncoding.
@@ -324,6 +324,12 @@ public class CharacterList implements List<Character>
         return this.count == 0 ? Iterator.create() : new CharacterArrayIterator(characters, 0, count);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -21,6 +21,22 @@ public interface CharacterReadStream extends Disposable
      */
     Result<Character> readCharacter();
 
+    /**
+     * Read a single character from this stream. This will block until a character is available.
+     * Unlike readCharacter(), this doesn't need to allocate a Result or box the character that is
+     * read. If the character could not be read, then the error will be thrown.
+     * @return The character that was read, or -1 if the end of the stream has been reached.
+     */
+    default int readCharacterAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        final Character characterRead = this.readCharacter()
+            .catchError(EmptyException.class)
+            .await();
+        return characterRead == null ? -1 : characterRead;
+    }
+
     /**
      * Read up to the provided charactersToRead number of characters create this stream. If fewer
      * characters than charactersToRead are available, then fewer than charactersToRead characters
@@ -101,6 +117,31 @@ public interface CharacterReadStream extends Disposable
         });
     }
 
+    /**
+     * Read up to length available characters into the provided character array at the provided
+     * startIndex and return the number of characters that were read. If no characters are
+     * available, then this function will not return until characters become available. Unlike
+     * readCharacters(char[],int,int), this doesn't need to allocate a Result for each read. If the
+     * characters could not be read, then the error will be thrown.
+     * @param outputCharacters The character array to read characters into.
+     * @param startIndex The start index in in outputCharacters to start writing characters to.
+     * @param length The maximum number of characters to read.
+     * @return The number of characters that were read, or -1 if the end of the stream has been
+     * reached.
+     */
+    default int readCharactersInto(char[] outputCharacters, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputCharacters, "outputCharacters");
+        PreCondition.assertStartIndex(startIndex, outputCharacters.length);
+        PreCondition.assertLength(length, startIndex, outputCharacters.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        final Integer charactersRead = this.readCharacters(outputCharacters, startIndex, length)
+            .catchError(EmptyException.class)
+            .await();
+        return charactersRead == null ? -1 : charactersRead;
+    }
+
     /**
      * Read all of the characters in this stream. The termination of the stream is marked when
      * readCharacter() returns an EmptyException. This function will not return until all of
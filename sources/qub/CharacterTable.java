@@ -286,6 +286,12 @@ public class CharacterTable
         return result;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this.rows);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
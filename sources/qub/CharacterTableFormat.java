@@ -478,6 +478,20 @@ public class CharacterTableFormat
         }
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(
+            this.columnSeparator,
+            this.rowSeparator,
+            this.newLine,
+            this.leftBorder,
+            this.rightBorder,
+            this.topBorder,
+            this.bottomBorder,
+            this.columnHorizontalAlignment);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -19,6 +19,21 @@ public interface Clock
      */
     public DateTime getCurrentDateTime();
 
+    /**
+     * Get the current value of this {@link Clock}'s monotonic tick source in nanoseconds. The
+     * returned value has no relationship to the current date and time and it is only meaningful
+     * when it is compared to another value returned by the same {@link Clock}. {@link JavaClock}
+     * reads System.nanoTime(), so its value never moves backwards when the system's wall clock is
+     * adjusted. The default implementation is derived from {@link #getCurrentDateTime()}, so it is
+     * only monotonic if that {@link DateTime} is. A {@link Clock} that reads the wall clock should
+     * override this method with a monotonic source.
+     * @return The current value of this {@link Clock}'s monotonic tick source in nanoseconds.
+     */
+    public default long getMonotonicNanoseconds()
+    {
+        return (long)this.getCurrentDateTime().getDurationSinceEpoch().toNanoseconds().getValue();
+    }
+
     /**
      * Run the provided {@link Action0} on the {@link CurrentThread}'s {@link AsyncRunner} after the
      * provided date and time.
@@ -63,6 +63,12 @@ public class CommandLineArgument
         return result;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.name, this.value);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
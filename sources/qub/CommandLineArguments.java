@@ -37,6 +37,12 @@ public class CommandLineArguments implements Indexable<CommandLineArgument>
         return Iterable.toString(this);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
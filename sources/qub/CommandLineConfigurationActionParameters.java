@@ -152,6 +152,18 @@ public class CommandLineConfigurationActionParameters
         return result;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(
+            this.dataFolder,
+            this.defaultApplicationLauncher,
+            this.configurationSchemaFileRelativePath,
+            this.configurationFileRelativePath,
+            this.configurationSchema,
+            this.defaultConfiguration);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -0,0 +1,394 @@
+package qub;
+
+/**
+ * A StateMachine that has been compiled into a deterministic table of states. Each compiled state
+ * represents the set of StateMachine states that can be active at the same time, and the
+ * compiled states are created lazily the first time that an input value leads to them. Once a
+ * transition has been followed it is cached, so following it again doesn't acquire a lock or
+ * allocate. A cached transition for an ASCII input value is a single table lookup, and a cached
+ * transition for any other input value is a binary search of that compiled state's cached
+ * transitions.
+ */
+public class CompiledStateMachine
+{
+    /**
+     * The number of input values that have a dedicated slot in each compiled state's transition
+     * table. Values outside of this range are cached in a sorted array instead.
+     */
+    private static final int tableSize = 128;
+
+    private final State[] states;
+    private final boolean[] canReachEndStates;
+    private final int[][] instantNextStates;
+    private final StateTransition[][] transitions;
+    private final MutableMap<State,Integer> stateIndexes;
+    /**
+     * The compiled states that have been created so far, keyed by the set of StateMachine states
+     * that they represent.
+     */
+    private final ArrayHashMap<BitArray,CompiledState> compiledStates;
+    /**
+     * The mutex that guards compiling new transitions and compiled states.
+     */
+    private final Mutex mutex;
+    private final CompiledState startState;
+
+    private CompiledStateMachine(StateMachine stateMachine)
+    {
+        PreCondition.assertNotNull(stateMachine, "stateMachine");
+        PreCondition.assertNotNullAndNotEmpty(stateMachine.getStartStates(), "stateMachine.getStartStates()");
+
+        final List<State> reachableStates = List.create();
+        this.stateIndexes = Map.create();
+        for (final State startState : stateMachine.getStartStates())
+        {
+            this.addReachableState(reachableStates, startState);
+        }
+        for (int i = 0; i < reachableStates.getCount(); ++i)
+        {
+            final State state = reachableStates.get(i);
+            for (final State instantNextState : state.getInstantNextStates())
+            {
+                this.addReachableState(reachableStates, instantNextState);
+            }
+            for (final StateTransition transition : state.getTransitions())
+            {
+                this.addReachableState(reachableStates, transition.getNextState());
+            }
+        }
+
+        final int stateCount = reachableStates.getCount();
+        this.states = new State[stateCount];
+        this.transitions = new StateTransition[stateCount][];
+        this.instantNextStates = new int[stateCount][];
+        for (int i = 0; i < stateCount; ++i)
+        {
+            final State state = reachableStates.get(i);
+            this.states[i] = state;
+
+            final Iterable<StateTransition> stateTransitions = state.getTransitions();
+            this.transitions[i] = new StateTransition[stateTransitions.getCount()];
+            int transitionIndex = 0;
+            for (final StateTransition transition : stateTransitions)
+            {
+                this.transitions[i][transitionIndex++] = transition;
+            }
+
+            final Iterable<State> stateInstantNextStates = state.getInstantNextStates();
+            this.instantNextStates[i] = new int[stateInstantNextStates.getCount()];
+            int instantNextStateIndex = 0;
+            for (final State instantNextState : stateInstantNextStates)
+            {
+                this.instantNextStates[i][instantNextStateIndex++] = this.getStateIndex(instantNextState);
+            }
+        }
+
+        this.canReachEndStates = new boolean[stateCount];
+        boolean changed = true;
+        while (changed)
+        {
+            changed = false;
+            for (int i = 0; i < stateCount; ++i)
+            {
+                if (!this.canReachEndStates[i])
+                {
+                    boolean canReachEndState = this.states[i].isEndState();
+                    for (int j = 0; j < this.instantNextStates[i].length && !canReachEndState; ++j)
+                    {
+                        canReachEndState = this.canReachEndStates[this.instantNextStates[i][j]];
+                    }
+                    for (int j = 0; j < this.transitions[i].length && !canReachEndState; ++j)
+                    {
+                        canReachEndState = this.canReachEndStates[this.getStateIndex(this.transitions[i][j].getNextState())];
+                    }
+                    if (canReachEndState)
+                    {
+                        this.canReachEndStates[i] = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        this.compiledStates = ArrayHashMap.create();
+        this.mutex = ParkingMutex.create();
+        // The state that can never reach an end state is created up front so that every input
+        // value that leaves the compiled states leads to the same instance.
+        this.getCompiledState(BitArray.create(stateCount));
+
+        final BitArray startStates = BitArray.create(stateCount);
+        for (final State startState : stateMachine.getStartStates())
+        {
+            this.addWithInstantNextStates(startStates, this.getStateIndex(startState));
+        }
+        this.startState = this.getCompiledState(startStates);
+    }
+
+    /**
+     * Compile the provided StateMachine. The states that are reachable from the StateMachine's
+     * start states and their transitions are copied when it is compiled, so changes made to the
+     * StateMachine afterwards won't affect the returned CompiledStateMachine.
+     * @param stateMachine The StateMachine to compile.
+     * @return The compiled StateMachine.
+     */
+    public static CompiledStateMachine create(StateMachine stateMachine)
+    {
+        return new CompiledStateMachine(stateMachine);
+    }
+
+    /**
+     * Get the number of compiled states that have been created so far, including the state that
+     * can never reach an end state.
+     * @return The number of compiled states that have been created so far.
+     */
+    public int getCompiledStateCount()
+    {
+        return this.mutex.criticalSection(this.compiledStates::getCount).await();
+    }
+
+    /**
+     * Get whether or not the provided value is a match for this CompiledStateMachine.
+     * @param value The input value.
+     * @return Whether or not the provided value is a match for this CompiledStateMachine.
+     */
+    public boolean isMatch(String value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        return this.getState(value).isEndState;
+    }
+
+    /**
+     * Get whether or not the provided values are a match for this CompiledStateMachine.
+     * @param values The input values.
+     * @return Whether or not the provided values are a match for this CompiledStateMachine.
+     */
+    public boolean isMatch(Iterator<Character> values)
+    {
+        PreCondition.assertNotNull(values, "values");
+
+        values.start();
+
+        CompiledState currentState = this.startState;
+        while (currentState.canReachEndState && values.hasCurrent())
+        {
+            currentState = this.getNextState(currentState, values.takeCurrent());
+        }
+        return currentState.isEndState;
+    }
+
+    /**
+     * Get whether or not the provided value is the beginning of a value that could match this
+     * CompiledStateMachine. This is used to stop looking for matches once the values being
+     * checked all start with a value that can never match.
+     * @param value The beginning of the input values.
+     * @return Whether or not the provided value could be the beginning of a match.
+     */
+    public boolean isPrefixMatch(String value)
+    {
+        PreCondition.assertNotNull(value, "value");
+
+        return this.getState(value).canReachEndState;
+    }
+
+    private CompiledState getState(String value)
+    {
+        CompiledState currentState = this.startState;
+        final int length = value.length();
+        for (int i = 0; i < length && currentState.canReachEndState; ++i)
+        {
+            currentState = this.getNextState(currentState, value.charAt(i));
+        }
+        return currentState;
+    }
+
+    private CompiledState getNextState(CompiledState currentState, char value)
+    {
+        CompiledState result = value < tableSize
+            ? currentState.nextStates[value]
+            : currentState.otherNextStates.get(value);
+        if (result == null)
+        {
+            result = this.mutex.criticalSection(() -> this.compileNextState(currentState, value)).await();
+        }
+        return result;
+    }
+
+    /**
+     * Compile the transition from the provided compiled state for the provided input value. This
+     * must only be called while the mutex is acquired.
+     * @param currentState The compiled state to transition from.
+     * @param value The input value.
+     * @return The compiled state that the transition leads to.
+     */
+    private CompiledState compileNextState(CompiledState currentState, char value)
+    {
+        // Another thread may have compiled this transition while this thread was waiting for the
+        // mutex.
+        CompiledState result = value < tableSize
+            ? currentState.nextStates[value]
+            : currentState.otherNextStates.get(value);
+        if (result == null)
+        {
+            final BitArray nextStates = BitArray.create(this.states.length);
+            final BitArray activeStates = currentState.states;
+            for (int i = 0; i < this.states.length; ++i)
+            {
+                if (activeStates.getBit(i) == 1)
+                {
+                    for (final StateTransition transition : this.transitions[i])
+                    {
+                        if (transition.matches(value))
+                        {
+                            this.addWithInstantNextStates(nextStates, this.getStateIndex(transition.getNextState()));
+                        }
+                    }
+                }
+            }
+            result = this.getCompiledState(nextStates);
+
+            if (value < tableSize)
+            {
+                currentState.nextStates[value] = result;
+            }
+            else
+            {
+                currentState.otherNextStates = currentState.otherNextStates.with(value, result);
+            }
+        }
+        return result;
+    }
+
+    private CompiledState getCompiledState(BitArray states)
+    {
+        CompiledState result = this.compiledStates.getOrDefault(states, null);
+        if (result == null)
+        {
+            boolean isEndState = false;
+            boolean canReachEndState = false;
+            boolean isEmpty = true;
+            for (int i = 0; i < this.states.length; ++i)
+            {
+                if (states.getBit(i) == 1)
+                {
+                    isEmpty = false;
+                    isEndState |= this.states[i].isEndState();
+                    canReachEndState |= this.canReachEndStates[i];
+                }
+            }
+            result = new CompiledState(states, isEndState, canReachEndState);
+            this.compiledStates.set(states, result);
+
+            if (isEmpty)
+            {
+                java.util.Arrays.fill(result.nextStates, result);
+            }
+        }
+        return result;
+    }
+
+    private int getStateIndex(State state)
+    {
+        return this.stateIndexes.get(state).await();
+    }
+
+    private void addWithInstantNextStates(BitArray states, int stateIndex)
+    {
+        if (states.getBit(stateIndex) == 0)
+        {
+            states.setBit(stateIndex, 1);
+            for (final int instantNextStateIndex : this.instantNextStates[stateIndex])
+            {
+                this.addWithInstantNextStates(states, instantNextStateIndex);
+            }
+        }
+    }
+
+    private void addReachableState(List<State> reachableStates, State state)
+    {
+        if (!this.stateIndexes.containsKey(state))
+        {
+            this.stateIndexes.set(state, reachableStates.getCount());
+            reachableStates.add(state);
+        }
+    }
+
+    /**
+     * A single state within a CompiledStateMachine.
+     */
+    private static class CompiledState
+    {
+        private final BitArray states;
+        private final boolean isEndState;
+        private final boolean canReachEndState;
+        private final CompiledState[] nextStates;
+        /**
+         * The cached transitions for input values that don't have a slot in nextStates. This is
+         * replaced rather than modified, so it can be read without acquiring the mutex.
+         */
+        private volatile OtherNextStates otherNextStates;
+
+        CompiledState(BitArray states, boolean isEndState, boolean canReachEndState)
+        {
+            this.states = states;
+            this.isEndState = isEndState;
+            this.canReachEndState = canReachEndState;
+            this.nextStates = new CompiledState[tableSize];
+            this.otherNextStates = OtherNextStates.empty;
+        }
+    }
+
+    /**
+     * An immutable set of cached transitions for input values that are outside of the transition
+     * table, sorted by input value.
+     */
+    private static class OtherNextStates
+    {
+        private static final OtherNextStates empty = new OtherNextStates(new char[0], new CompiledState[0]);
+
+        private final char[] values;
+        private final CompiledState[] nextStates;
+
+        private OtherNextStates(char[] values, CompiledState[] nextStates)
+        {
+            this.values = values;
+            this.nextStates = nextStates;
+        }
+
+        /**
+         * Get the cached transition for the provided input value.
+         * @param value The input value.
+         * @return The compiled state that the input value leads to, or null if the transition
+         * hasn't been cached.
+         */
+        CompiledState get(char value)
+        {
+            final int index = java.util.Arrays.binarySearch(this.values, value);
+            return index < 0 ? null : this.nextStates[index];
+        }
+
+        /**
+         * Get a copy of this OtherNextStates that also contains the provided transition.
+         * @param value The input value, which must not already be in this OtherNextStates.
+         * @param nextState The compiled state that the input value leads to.
+         * @return The new OtherNextStates.
+         */
+        OtherNextStates with(char value, CompiledState nextState)
+        {
+            final int index = -(java.util.Arrays.binarySearch(this.values, value) + 1);
+            final int count = this.values.length;
+
+            final char[] newValues = new char[count + 1];
+            System.arraycopy(this.values, 0, newValues, 0, index);
+            newValues[index] = value;
+            System.arraycopy(this.values, index, newValues, index + 1, count - index);
+
+            final CompiledState[] newNextStates = new CompiledState[count + 1];
+            System.arraycopy(this.nextStates, 0, newNextStates, 0, index);
+            newNextStates[index] = nextState;
+            System.arraycopy(this.nextStates, index, newNextStates, index + 1, count - index);
+
+            return new OtherNextStates(newValues, newNextStates);
+        }
+    }
+}
@@ -0,0 +1,635 @@
+package qub;
+
+/**
+ * A thread-safe {@link MutableMap} that stores its entries in a chained hash table. Lookups don't
+ * acquire any locks and don't allocate any objects. Modifications acquire one of a fixed number of
+ * lock stripes that is chosen by the key's hash code, so modifications of keys in different stripes
+ * don't block each other. Growing the hash table acquires every stripe and copies the entries into
+ * a new table, which leaves the old table intact for any lookups that are still reading it.
+ * Iterating over this map is weakly consistent: it never fails because of concurrent
+ * modifications, but it may or may not see entries that are modified while it is running.
+ * @param <TKey> The type of keys that are stored in this {@link ConcurrentHashMap}.
+ * @param <TValue> The type of values that are associated with the keys in this
+ * {@link ConcurrentHashMap}.
+ */
+public class ConcurrentHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
+{
+    private static final int defaultInitialCapacity = 10;
+    private static final int stripeCount = 16;
+    private static final int maximumTableLength = 1 << 30;
+    /**
+     * The object that is returned by getValueOrMissing() when a key isn't in this map, so that
+     * null values can be told apart from missing keys.
+     */
+    private static final Object missing = new Object();
+
+    /**
+     * The mutexes that guard modifications. A key's stripe is chosen by the low bits of its spread
+     * hash code, and the hash table's length is never less than the number of stripes, so every
+     * key in a hash table bin belongs to the same stripe.
+     */
+    private final ParkingMutex[] stripes;
+    /**
+     * The number of entries that belong to each stripe.
+     */
+    private final java.util.concurrent.atomic.AtomicIntegerArray stripeCounts;
+    /**
+     * The hash table. Each bin holds the first node of a singly-linked chain.
+     */
+    private volatile java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table;
+
+    private ConcurrentHashMap(int initialCapacity)
+    {
+        this.stripes = new ParkingMutex[ConcurrentHashMap.stripeCount];
+        for (int i = 0; i < this.stripes.length; ++i)
+        {
+            this.stripes[i] = ParkingMutex.create();
+        }
+        this.stripeCounts = new java.util.concurrent.atomic.AtomicIntegerArray(ConcurrentHashMap.stripeCount);
+        this.table = new java.util.concurrent.atomic.AtomicReferenceArray<>(ConcurrentHashMap.getTableLength(initialCapacity));
+    }
+
+    public static <TKey,TValue> ConcurrentHashMap<TKey,TValue> create()
+    {
+        return ConcurrentHashMap.createWithCapacity(ConcurrentHashMap.defaultInitialCapacity);
+    }
+
+    /**
+     * Create a new {@link ConcurrentHashMap} that can hold the provided number of entries before
+     * it needs to grow.
+     * @param initialCapacity The number of entries that the new {@link ConcurrentHashMap} can hold
+     *                        before it needs to grow.
+     */
+    public static <TKey,TValue> ConcurrentHashMap<TKey,TValue> createWithCapacity(int initialCapacity)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(initialCapacity, 1, "initialCapacity");
+
+        return new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    /**
+     * Create a new {@link ConcurrentHashMap} with the provided initial entries.
+     * @param entries The initial entries in the returned {@link ConcurrentHashMap}.
+     */
+    @SafeVarargs
+    public static <TKey,TValue> ConcurrentHashMap<TKey,TValue> create(MapEntry<TKey,TValue>... entries)
+    {
+        PreCondition.assertNotNull(entries, "entries");
+
+        return ConcurrentHashMap.create(Iterable.create(entries));
+    }
+
+    /**
+     * Create a new {@link ConcurrentHashMap} with the provided initial entries.
+     * @param entries The initial entries in the returned {@link ConcurrentHashMap}.
+     */
+    public static <TKey,TValue> ConcurrentHashMap<TKey,TValue> create(Iterable<MapEntry<TKey,TValue>> entries)
+    {
+        PreCondition.assertNotNull(entries, "entries");
+
+        final int initialCapacity = Math.maximum(ConcurrentHashMap.defaultInitialCapacity, entries.getCount());
+        return ConcurrentHashMap.<TKey,TValue>createWithCapacity(initialCapacity)
+            .setAll(entries.iterate());
+    }
+
+    /**
+     * Create a new {@link ConcurrentHashMap} with the provided initial entries.
+     * @param entries The initial entries in the returned {@link ConcurrentHashMap}.
+     */
+    public static <TKey,TValue> ConcurrentHashMap<TKey,TValue> create(Iterator<MapEntry<TKey,TValue>> entries)
+    {
+        PreCondition.assertNotNull(entries, "entries");
+
+        return ConcurrentHashMap.<TKey,TValue>create().setAll(entries);
+    }
+
+    /**
+     * Get the length of the hash table that is needed to hold the provided number of entries
+     * without exceeding a load factor of 0.75.
+     * @param capacity The number of entries that the hash table must be able to hold.
+     * @return The power of two hash table length.
+     */
+    private static int getTableLength(int capacity)
+    {
+        final long minimumTableLength = ((long)capacity * 4 + 2) / 3;
+        int result = ConcurrentHashMap.stripeCount;
+        while (result < minimumTableLength && result < ConcurrentHashMap.maximumTableLength)
+        {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    /**
+     * Spread the bits of the provided key hash code so that keys whose hash codes only differ in
+     * their upper bits don't all end up in the same bin or stripe. Colliding keys are chained
+     * instead of probed, so this doesn't scramble the lower bits, which keeps keys with small
+     * sequential hash codes in separate bins and stripes.
+     * @param keyHashCode The key hash code to spread.
+     * @return The spread hash code.
+     */
+    private static int spread(int keyHashCode)
+    {
+        return keyHashCode ^ (keyHashCode >>> 16);
+    }
+
+    private static <TKey,TValue> Node<TKey,TValue> getNode(Node<TKey,TValue> node, TKey key, int keyHashCode)
+    {
+        while (node != null && !(node.keyHashCode == keyHashCode && Comparer.equal(node.key, key)))
+        {
+            node = node.next;
+        }
+        return node;
+    }
+
+    /**
+     * Get the value that is associated with the provided key without acquiring a lock.
+     * @param key The key to look for.
+     * @return The value associated with the provided key, or ConcurrentHashMap.missing if the key
+     * isn't in this map.
+     */
+    private Object getValueOrMissing(TKey key)
+    {
+        final int keyHashCode = ConcurrentHashMap.spread(Hash.getHashCode(key));
+        while (true)
+        {
+            final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table = this.table;
+            final Node<TKey,TValue> node = ConcurrentHashMap.getNode(table.get(keyHashCode & (table.length() - 1)), key, keyHashCode);
+            final Object result = node == null ? ConcurrentHashMap.missing : node.value;
+
+            // If the table grew while the value was being read, then the value may have been
+            // changed in the new table after it was copied, so look it up again.
+            if (table == this.table)
+            {
+                return result;
+            }
+        }
+    }
+
+    private int getStripeIndex(int keyHashCode)
+    {
+        return keyHashCode & (this.stripes.length - 1);
+    }
+
+    private void acquireStripe(int stripeIndex)
+    {
+        this.stripes[stripeIndex].acquire().await();
+    }
+
+    private void releaseStripe(int stripeIndex)
+    {
+        this.stripes[stripeIndex].release().await();
+    }
+
+    private void acquireAllStripes()
+    {
+        for (int i = 0; i < this.stripes.length; ++i)
+        {
+            this.acquireStripe(i);
+        }
+    }
+
+    private void releaseAllStripes()
+    {
+        for (int i = this.stripes.length - 1; 0 <= i; --i)
+        {
+            this.releaseStripe(i);
+        }
+    }
+
+    /**
+     * Add a new node for the provided key to the front of its bin. The key's stripe must be
+     * acquired by the current thread and the key must not already be in this map.
+     */
+    private void addNode(java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table, int binIndex, int stripeIndex, TKey key, int keyHashCode, TValue value)
+    {
+        table.set(binIndex, new Node<>(keyHashCode, key, value, table.get(binIndex)));
+        this.stripeCounts.incrementAndGet(stripeIndex);
+    }
+
+    /**
+     * Double the length of the hash table if it has exceeded its load factor. This must be called
+     * while the current thread doesn't hold any of the stripes.
+     */
+    private void growIfNeeded()
+    {
+        final int tableLength = this.table.length();
+        if (tableLength < ConcurrentHashMap.maximumTableLength && this.getCount() > tableLength / 4 * 3)
+        {
+            this.acquireAllStripes();
+            try
+            {
+                final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> oldTable = this.table;
+                if (oldTable.length() == tableLength)
+                {
+                    final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> newTable = new java.util.concurrent.atomic.AtomicReferenceArray<>(tableLength * 2);
+                    final int newMask = newTable.length() - 1;
+                    for (int i = 0; i < tableLength; ++i)
+                    {
+                        // The nodes are copied instead of moved so that the chains in the old
+                        // table stay intact for any lookups that are still reading them.
+                        for (Node<TKey,TValue> node = oldTable.get(i); node != null; node = node.next)
+                        {
+                            final int newBinIndex = node.keyHashCode & newMask;
+                            newTable.set(newBinIndex, new Node<>(node.keyHashCode, node.key, node.value, newTable.get(newBinIndex)));
+                        }
+                    }
+                    this.table = newTable;
+                }
+            }
+            finally
+            {
+                this.releaseAllStripes();
+            }
+        }
+    }
+
+    @Override
+    public int getCount()
+    {
+        int result = 0;
+        for (int i = 0; i < this.stripeCounts.length(); ++i)
+        {
+            result += this.stripeCounts.get(i);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean any()
+    {
+        for (int i = 0; i < this.stripeCounts.length(); ++i)
+        {
+            if (this.stripeCounts.get(i) > 0)
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Iterator<MapEntry<TKey, TValue>> iterate()
+    {
+        return new EntryIterator(this.table);
+    }
+
+    @Override
+    public boolean containsKey(TKey key)
+    {
+        return this.getValueOrMissing(key) != ConcurrentHashMap.missing;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<TValue> get(TKey key)
+    {
+        final Object value = this.getValueOrMissing(key);
+        return value == ConcurrentHashMap.missing
+            ? Map.createNotFoundResult(key)
+            : Result.success((TValue)value);
+    }
+
+    /**
+     * Get the value that is associated with the provided key, or the provided default value if the
+     * key isn't in this map. Unlike get(TKey), this doesn't allocate any objects.
+     * @param key The key to get the associated value for.
+     * @param defaultValue The value to return if the key isn't in this map.
+     * @return The value associated with the provided key, or the provided default value.
+     */
+    @SuppressWarnings("unchecked")
+    public TValue getOrDefault(TKey key, TValue defaultValue)
+    {
+        final Object value = this.getValueOrMissing(key);
+        return value == ConcurrentHashMap.missing ? defaultValue : (TValue)value;
+    }
+
+    /**
+     * Get the value associated with the provided key. If the key doesn't exist in this map, then
+     * the valueCreator function will be run and the returned value will be associated with the
+     * provided key. Checking for the key, creating the value, and associating it happen atomically,
+     * so the valueCreator function is run at most once per key even if multiple threads call this
+     * at the same time. The valueCreator function is run while the key's stripe is acquired, so it
+     * must not modify this map.
+     * @param key The key to get the associated value for.
+     * @param valueCreator The function to use to create the value to associate with the provided
+     *                     key if the key doesn't exist in this map.
+     * @return The value associated with the provided key.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Result<TValue> getOrSet(TKey key, Function0<TValue> valueCreator)
+    {
+        PreCondition.assertNotNull(valueCreator, "valueCreator");
+
+        final Object value = this.getValueOrMissing(key);
+        return value != ConcurrentHashMap.missing
+            ? Result.success((TValue)value)
+            : this.compute(key, valueCreator, (TValue existingValue) -> existingValue);
+    }
+
+    /**
+     * Atomically replace the value associated with the provided key with the value returned by the
+     * provided valueUpdater function. The valueUpdater function is run while the key's stripe is
+     * acquired, so it must not modify this map.
+     * @param key The key of the value to update.
+     * @param valueUpdater The function that is given the current value and returns the new value.
+     * @return The new value associated with the provided key, or a {@link NotFoundException} if
+     * the key doesn't exist in this map.
+     */
+    public Result<TValue> update(TKey key, Function1<TValue,TValue> valueUpdater)
+    {
+        PreCondition.assertNotNull(valueUpdater, "valueUpdater");
+
+        return Result.create(() ->
+        {
+            final int keyHashCode = ConcurrentHashMap.spread(Hash.getHashCode(key));
+            final int stripeIndex = this.getStripeIndex(keyHashCode);
+            this.acquireStripe(stripeIndex);
+            try
+            {
+                final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table = this.table;
+                final Node<TKey,TValue> node = ConcurrentHashMap.getNode(table.get(keyHashCode & (table.length() - 1)), key, keyHashCode);
+                if (node == null)
+                {
+                    throw Map.createNotFoundException(key);
+                }
+
+                final TValue result = valueUpdater.run(node.value);
+                node.value = result;
+                return result;
+            }
+            finally
+            {
+                this.releaseStripe(stripeIndex);
+            }
+        });
+    }
+
+    /**
+     * Atomically associate a new value with the provided key. If the key doesn't exist in this map,
+     * then the value returned by the valueCreator function will be associated with it. Otherwise
+     * the value returned by the valueUpdater function will replace the key's current value. The
+     * functions are run while the key's stripe is acquired, so they must not modify this map.
+     * @param key The key to associate a new value with.
+     * @param valueCreator The function that creates the value if the key doesn't exist in this map.
+     * @param valueUpdater The function that is given the current value and returns the new value
+     *                     if the key already exists in this map.
+     * @return The new value associated with the provided key.
+     */
+    public Result<TValue> compute(TKey key, Function0<TValue> valueCreator, Function1<TValue,TValue> valueUpdater)
+    {
+        PreCondition.assertNotNull(valueCreator, "valueCreator");
+        PreCondition.assertNotNull(valueUpdater, "valueUpdater");
+
+        return Result.create(() ->
+        {
+            final int keyHashCode = ConcurrentHashMap.spread(Hash.getHashCode(key));
+            final int stripeIndex = this.getStripeIndex(keyHashCode);
+            final TValue result;
+            boolean added = false;
+            this.acquireStripe(stripeIndex);
+            try
+            {
+                final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table = this.table;
+                final int binIndex = keyHashCode & (table.length() - 1);
+                final Node<TKey,TValue> node = ConcurrentHashMap.getNode(table.get(binIndex), key, keyHashCode);
+                if (node != null)
+                {
+                    result = valueUpdater.run(node.value);
+                    node.value = result;
+                }
+                else
+                {
+                    result = valueCreator.run();
+                    this.addNode(table, binIndex, stripeIndex, key, keyHashCode, result);
+                    added = true;
+                }
+            }
+            finally
+            {
+                this.releaseStripe(stripeIndex);
+            }
+
+            if (added)
+            {
+                this.growIfNeeded();
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public ConcurrentHashMap<TKey, TValue> clear()
+    {
+        this.acquireAllStripes();
+        try
+        {
+            final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table = this.table;
+            for (int i = 0; i < table.length(); ++i)
+            {
+                table.set(i, null);
+            }
+            for (int i = 0; i < this.stripeCounts.length(); ++i)
+            {
+                this.stripeCounts.set(i, 0);
+            }
+        }
+        finally
+        {
+            this.releaseAllStripes();
+        }
+
+        return this;
+    }
+
+    @Override
+    public ConcurrentHashMap<TKey, TValue> set(MapEntry<TKey, TValue> entry)
+    {
+        return (ConcurrentHashMap<TKey,TValue>)MutableMap.super.set(entry);
+    }
+
+    @Override
+    public ConcurrentHashMap<TKey, TValue> set(TKey key, TValue value)
+    {
+        final int keyHashCode = ConcurrentHashMap.spread(Hash.getHashCode(key));
+        final int stripeIndex = this.getStripeIndex(keyHashCode);
+        boolean added = false;
+        this.acquireStripe(stripeIndex);
+        try
+        {
+            final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table = this.table;
+            final int binIndex = keyHashCode & (table.length() - 1);
+            final Node<TKey,TValue> node = ConcurrentHashMap.getNode(table.get(binIndex), key, keyHashCode);
+            if (node != null)
+            {
+                node.value = value;
+            }
+            else
+            {
+                this.addNode(table, binIndex, stripeIndex, key, keyHashCode, value);
+                added = true;
+            }
+        }
+        finally
+        {
+            this.releaseStripe(stripeIndex);
+        }
+
+        if (added)
+        {
+            this.growIfNeeded();
+        }
+        return this;
+    }
+
+    @Override
+    public ConcurrentHashMap<TKey, TValue> setAll(Iterable<? extends MapEntry<TKey, TValue>> mapEntries)
+    {
+        return (ConcurrentHashMap<TKey,TValue>)MutableMap.super.setAll(mapEntries);
+    }
+
+    @Override
+    public ConcurrentHashMap<TKey, TValue> setAll(Iterator<? extends MapEntry<TKey, TValue>> mapEntries)
+    {
+        return (ConcurrentHashMap<TKey,TValue>)MutableMap.super.setAll(mapEntries);
+    }
+
+    @Override
+    public Result<TValue> remove(TKey key)
+    {
+        final int keyHashCode = ConcurrentHashMap.spread(Hash.getHashCode(key));
+        final int stripeIndex = this.getStripeIndex(keyHashCode);
+        this.acquireStripe(stripeIndex);
+        try
+        {
+            final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table = this.table;
+            final int binIndex = keyHashCode & (table.length() - 1);
+            Node<TKey,TValue> previous = null;
+            Node<TKey,TValue> node = table.get(binIndex);
+            while (node != null && !(node.keyHashCode == keyHashCode && Comparer.equal(node.key, key)))
+            {
+                previous = node;
+                node = node.next;
+            }
+
+            if (node == null)
+            {
+                return Map.createNotFoundResult(key);
+            }
+
+            // The removed node keeps its next reference so that lookups that are currently on it
+            // can continue down the chain.
+            if (previous == null)
+            {
+                table.set(binIndex, node.next);
+            }
+            else
+            {
+                previous.next = node.next;
+            }
+            this.stripeCounts.decrementAndGet(stripeIndex);
+            return Result.success(node.value);
+        }
+        finally
+        {
+            this.releaseStripe(stripeIndex);
+        }
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Map.hashCode(this);
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        return Iterable.equals(this, obj);
+    }
+
+    @Override
+    public String toString()
+    {
+        return Iterable.toString(this);
+    }
+
+    /**
+     * An entry in one of the hash table's chains.
+     */
+    private static class Node<TKey,TValue>
+    {
+        private final int keyHashCode;
+        private final TKey key;
+        private volatile TValue value;
+        private volatile Node<TKey,TValue> next;
+
+        private Node(int keyHashCode, TKey key, TValue value, Node<TKey,TValue> next)
+        {
+            this.keyHashCode = keyHashCode;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /**
+     * An {@link Iterator} that iterates over the entries of one version of this map's hash table.
+     */
+    private class EntryIterator implements Iterator<MapEntry<TKey,TValue>>
+    {
+        private final java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table;
+        private boolean hasStarted;
+        private int binIndex;
+        private Node<TKey,TValue> node;
+        private MapEntry<TKey,TValue> current;
+
+        private EntryIterator(java.util.concurrent.atomic.AtomicReferenceArray<Node<TKey,TValue>> table)
+        {
+            this.table = table;
+        }
+
+        @Override
+        public boolean hasStarted()
+        {
+            return this.hasStarted;
+        }
+
+        @Override
+        public boolean hasCurrent()
+        {
+            return this.current != null;
+        }
+
+        @Override
+        public MapEntry<TKey,TValue> getCurrent()
+        {
+            PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+            return this.current;
+        }
+
+        @Override
+        public boolean next()
+        {
+            if (!this.hasStarted)
+            {
+                this.hasStarted = true;
+            }
+            else if (this.node != null)
+            {
+                this.node = this.node.next;
+            }
+
+            while (this.node == null && this.binIndex < this.table.length())
+            {
+                this.node = this.table.get(this.binIndex);
+                ++this.binIndex;
+            }
+
+            this.current = this.node == null ? null : MapEntry.create(this.node.key, this.node.value);
+            return this.current != null;
+        }
+    }
+}
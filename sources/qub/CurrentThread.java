@@ -5,7 +5,7 @@ public final class CurrentThread
     /**
      * The mapping of thread IDs to registered ResultAsyncSchedulers.
      */
-    private static final MutableMap<Long,AsyncScheduler> asyncSchedulers = JavaConcurrentHashMap.create();
+    private static final ConcurrentHashMap<Long,AsyncScheduler> asyncSchedulers = ConcurrentHashMap.create();
 
     /**
      * Get the ID of the current thread.
@@ -71,11 +71,10 @@ public final class CurrentThread
     public static Result<AsyncScheduler> getAsyncRunner()
     {
         final long currentThreadId = getId();
-        return CurrentThread.asyncSchedulers.get(currentThreadId)
-            .convertError(NotFoundException.class, () ->
-            {
-                return new NotFoundException("No " + Types.getTypeName(AsyncRunner.class) + " has been registered with the current thread (id: " + currentThreadId + ").");
-            });
+        final AsyncScheduler asyncScheduler = CurrentThread.asyncSchedulers.getOrDefault(currentThreadId, null);
+        return asyncScheduler != null
+            ? Result.success(asyncScheduler)
+            : Result.error(new NotFoundException("No " + Types.getTypeName(AsyncRunner.class) + " has been registered with the current thread (id: " + currentThreadId + ")."));
     }
 
     /**
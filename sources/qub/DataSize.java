@@ -5053,6 +5053,12 @@ public class DataSize implements ComparableWithError<DataSize>
         return this.value + " " + this.units;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Doubles.hashCode(this.toBytes().value);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
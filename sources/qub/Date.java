@@ -164,6 +164,12 @@ public class Date implements Comparable<Date>
         return value == null ? Comparison.GreaterThan : this.dateTime.compareWith(value.dateTime);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.dateTime.hashCode();
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
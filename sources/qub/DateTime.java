@@ -337,6 +337,12 @@ public class DateTime implements Comparable<DateTime>
         return value == null ? Comparison.GreaterThan : Comparison.create(this.offsetDateTime.compareTo(value.offsetDateTime));
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.offsetDateTime.hashCode();
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -20,6 +20,18 @@ public abstract class DesktopProcessBase<T extends MutableDesktopProcess> extend
         this.mainClassFullName = LazyValue.create();
     }
 
+    protected DesktopProcessBase(CommandLineArguments commandLineArguments, AsyncScheduler mainAsyncRunner, AsyncScheduler parallelAsyncRunner)
+    {
+        super(mainAsyncRunner, parallelAsyncRunner);
+
+        PreCondition.assertNotNull(commandLineArguments, "commandLineArguments");
+
+        this.commandLineArguments = commandLineArguments;
+        this.processId = LazyValue.create();
+        this.childProcessRunner = LazyValue.create();
+        this.mainClassFullName = LazyValue.create();
+    }
+
     /**
      * Get the id of this process.
      * @return The id of this process.
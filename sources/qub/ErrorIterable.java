@@ -57,6 +57,12 @@ public class ErrorIterable extends RuntimeException implements Iterable<Throwabl
         return Iterable.toString(this);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -0,0 +1,489 @@
+package qub;
+
+/**
+ * A {@link ByteReadStream} that reads a file through a {@link java.nio.channels.FileChannel}.
+ * The file is either memory-mapped, in which case reads copy straight out of the mapping, or read
+ * through a small buffer, in which case reads that are larger than the buffer go straight into
+ * the caller's array. Either way the file can also be read at arbitrary positions without moving
+ * the stream's position, and regions of the file can be viewed as read-only
+ * {@link java.nio.ByteBuffer}s. The buffer is a direct {@link java.nio.ByteBuffer} that is taken
+ * from a {@link BufferPool} and given back to the pool when the stream is disposed, so reading
+ * into it doesn't go through the JDK's temporary direct buffers.
+ * <p>
+ * The JDK doesn't provide a way to release a memory mapping, so a mapping stays in place after
+ * the stream is disposed until it and every view of it have been garbage collected. Until then
+ * the file may not be deletable on Windows, and truncating the file may crash the process when
+ * the mapping is read. Only memory-map files that will be read through views or that won't be
+ * changed while they are being read.
+ */
+public class FileChannelByteReadStream implements ByteReadStream
+{
+    private static final int defaultBufferSize = 8192;
+
+    private final java.nio.channels.FileChannel fileChannel;
+    private final BufferPool bufferPool;
+    private final long size;
+    private final boolean memoryMapped;
+    /**
+     * The read-only memory mapping of the entire file, or null if the file isn't memory-mapped or
+     * if this stream has been disposed.
+     */
+    private java.nio.MappedByteBuffer mappedBuffer;
+    /**
+     * The buffer that holds the bytes that follow the stream's position when the file isn't
+     * memory-mapped, or null if the file is memory-mapped.
+     */
+    private final java.nio.ByteBuffer buffer;
+    /**
+     * The position in the file of the next byte that isn't in the buffer. When the file is
+     * memory-mapped, this is the stream's position.
+     */
+    private long filePosition;
+    private boolean disposed;
+
+    private FileChannelByteReadStream(java.nio.channels.FileChannel fileChannel, boolean memoryMap, BufferPool bufferPool)
+    {
+        PreCondition.assertNotNull(fileChannel, "fileChannel");
+        PreCondition.assertNotNull(bufferPool, "bufferPool");
+
+        this.fileChannel = fileChannel;
+        this.bufferPool = bufferPool;
+        this.memoryMapped = memoryMap;
+        try
+        {
+            this.size = fileChannel.size();
+            if (memoryMap)
+            {
+                PreCondition.assertLessThanOrEqualTo(this.size, Integers.maximum, "fileChannel.size()");
+
+                this.mappedBuffer = fileChannel.map(java.nio.channels.FileChannel.MapMode.READ_ONLY, 0, this.size);
+                this.buffer = null;
+            }
+            else
+            {
+                this.mappedBuffer = null;
+                this.buffer = bufferPool.takeDirectBuffer(FileChannelByteReadStream.defaultBufferSize).flip();
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    /**
+     * Create a new {@link FileChannelByteReadStream} that reads the provided
+     * {@link java.nio.channels.FileChannel} through a buffer.
+     * @param fileChannel The {@link java.nio.channels.FileChannel} to read from.
+     */
+    public static FileChannelByteReadStream create(java.nio.channels.FileChannel fileChannel)
+    {
+        return FileChannelByteReadStream.create(fileChannel, BufferPool.getDefault());
+    }
+
+    /**
+     * Create a new {@link FileChannelByteReadStream} that reads the provided
+     * {@link java.nio.channels.FileChannel} through a buffer that is taken from the provided
+     * {@link BufferPool}.
+     * @param fileChannel The {@link java.nio.channels.FileChannel} to read from.
+     * @param bufferPool The {@link BufferPool} to take the buffer from.
+     */
+    public static FileChannelByteReadStream create(java.nio.channels.FileChannel fileChannel, BufferPool bufferPool)
+    {
+        return new FileChannelByteReadStream(fileChannel, false, bufferPool);
+    }
+
+    /**
+     * Create a new {@link FileChannelByteReadStream} that memory-maps the provided
+     * {@link java.nio.channels.FileChannel}. The file must not be larger than 2 GB. The mapping
+     * isn't released when the stream is disposed, but rather when it and every
+     * {@link java.nio.ByteBuffer} returned from {@link #getByteBuffer(long, int)} have been
+     * garbage collected.
+     * @param fileChannel The {@link java.nio.channels.FileChannel} to read from.
+     */
+    public static FileChannelByteReadStream createMemoryMapped(java.nio.channels.FileChannel fileChannel)
+    {
+        return new FileChannelByteReadStream(fileChannel, true, BufferPool.getDefault());
+    }
+
+    /**
+     * Get whether this stream reads from a memory mapping of its file.
+     */
+    public boolean isMemoryMapped()
+    {
+        return this.memoryMapped;
+    }
+
+    /**
+     * Get the number of bytes in the file that this stream reads from.
+     */
+    public long getSize()
+    {
+        return this.size;
+    }
+
+    /**
+     * Get the position in the file of the next byte that this stream will read.
+     */
+    public long getPosition()
+    {
+        return this.memoryMapped
+            ? this.filePosition
+            : this.filePosition - this.buffer.remaining();
+    }
+
+    /**
+     * Set the position in the file of the next byte that this stream will read.
+     * @param position The position in the file of the next byte that this stream will read.
+     * @return This object for method chaining.
+     */
+    public FileChannelByteReadStream setPosition(long position)
+    {
+        PreCondition.assertBetween(0, position, this.size, "position");
+        PreCondition.assertNotDisposed(this, "this");
+
+        if (this.buffer != null)
+        {
+            this.buffer.clear().flip();
+        }
+        this.filePosition = position;
+
+        return this;
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            boolean result = false;
+            if (!this.disposed)
+            {
+                this.disposed = true;
+                try
+                {
+                    this.fileChannel.close();
+                    result = true;
+                }
+                catch (java.io.IOException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+                finally
+                {
+                    if (this.buffer != null)
+                    {
+                        this.bufferPool.returnDirectBuffer(this.buffer);
+                    }
+                    // Drop the mapping so that it can be released as soon as no views of it remain.
+                    this.mappedBuffer = null;
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Read the next byte from the file.
+     * @return The next byte as an unsigned int, or -1 if the end of the file has been reached.
+     */
+    private int read()
+    {
+        int result;
+        if (this.memoryMapped)
+        {
+            result = this.filePosition < this.size
+                ? Bytes.toUnsignedInt(this.mappedBuffer.get((int)this.filePosition++))
+                : -1;
+        }
+        else
+        {
+            if (!this.buffer.hasRemaining())
+            {
+                this.fillBuffer();
+            }
+            result = this.buffer.hasRemaining()
+                ? Bytes.toUnsignedInt(this.buffer.get())
+                : -1;
+        }
+        return result;
+    }
+
+    /**
+     * Read bytes from the file into the provided array.
+     * @return The number of bytes that were read, or -1 if the end of the file has been reached.
+     */
+    private int read(byte[] outputBytes, int startIndex, int length)
+    {
+        int result;
+        if (length == 0)
+        {
+            result = 0;
+        }
+        else if (this.memoryMapped)
+        {
+            result = this.read(this.filePosition, outputBytes, startIndex, length);
+            if (result > 0)
+            {
+                this.filePosition += result;
+            }
+        }
+        else
+        {
+            if (!this.buffer.hasRemaining())
+            {
+                if (length >= this.buffer.capacity())
+                {
+                    // Large reads skip the buffer and go straight into the output array.
+                    result = this.read(this.filePosition, outputBytes, startIndex, length);
+                    if (result > 0)
+                    {
+                        this.filePosition += result;
+                    }
+                    return result;
+                }
+                this.fillBuffer();
+            }
+
+            if (!this.buffer.hasRemaining())
+            {
+                result = -1;
+            }
+            else
+            {
+                result = java.lang.Math.min(length, this.buffer.remaining());
+                this.buffer.get(outputBytes, startIndex, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Read bytes from the provided position in the file into the provided array.
+     * @return The number of bytes that were read, or -1 if the position is at or after the end of
+     * the file. If the file has shrunk since it was opened, then -1 is also returned when the
+     * channel reaches its end before any bytes are read.
+     */
+    private int read(long position, byte[] outputBytes, int startIndex, int length)
+    {
+        int result;
+        if (position >= this.size)
+        {
+            result = -1;
+        }
+        else
+        {
+            result = (int)java.lang.Math.min(length, this.size - position);
+            if (this.memoryMapped)
+            {
+                this.mappedBuffer.get((int)position, outputBytes, startIndex, result);
+            }
+            else
+            {
+                try
+                {
+                    final java.nio.ByteBuffer outputBuffer = java.nio.ByteBuffer.wrap(outputBytes, startIndex, result);
+                    while (outputBuffer.hasRemaining())
+                    {
+                        final int bytesRead = this.fileChannel.read(outputBuffer, position + outputBuffer.position() - startIndex);
+                        if (bytesRead == -1)
+                        {
+                            break;
+                        }
+                    }
+                    result = outputBuffer.position() - startIndex;
+                    if (result == 0)
+                    {
+                        // The file is shorter than it was when it was opened.
+                        result = -1;
+                    }
+                }
+                catch (java.io.IOException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void fillBuffer()
+    {
+        try
+        {
+            this.buffer.clear();
+            final int bytesRead = this.fileChannel.read(this.buffer, this.filePosition);
+            if (bytesRead > 0)
+            {
+                this.filePosition += bytesRead;
+            }
+            this.buffer.flip();
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    @Override
+    public Result<Byte> readByte()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final int result = this.read();
+            if (result == -1)
+            {
+                throw new EmptyException();
+            }
+            return (byte)result;
+        });
+    }
+
+    @Override
+    public int readByteAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.read();
+    }
+
+    @Override
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.read(outputBytes, startIndex, length);
+    }
+
+    @Override
+    public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final int result = this.read(outputBytes, startIndex, length);
+            if (result == -1)
+            {
+                throw new EmptyException();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Read bytes from the provided position in the file without changing this stream's position.
+     * @param position The position in the file to read from.
+     * @param outputBytes The array to put the bytes that are read into.
+     * @param startIndex The index in the array to start putting bytes at.
+     * @param length The maximum number of bytes to read.
+     * @return The number of bytes that were read, or an {@link EmptyException} if the position is
+     * at or after the end of the file.
+     */
+    public Result<Integer> readBytesAt(long position, byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(position, 0, "position");
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final int result = length == 0 ? 0 : this.read(position, outputBytes, startIndex, length);
+            if (result == -1)
+            {
+                throw new EmptyException();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Read all of the bytes from this stream's position to the end of the file. Since the file's
+     * size is known, the bytes are read straight into an array of the right length.
+     */
+    @Override
+    public Result<byte[]> readAllBytes()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final long remainingLength = this.size - this.getPosition();
+            if (remainingLength > Integers.maximum)
+            {
+                throw new OutOfMemoryError("Cannot read " + remainingLength + " bytes into a byte[].");
+            }
+
+            final byte[] result = new byte[(int)remainingLength];
+            int resultLength = 0;
+            while (resultLength < result.length)
+            {
+                final int bytesRead = this.read(result, resultLength, result.length - resultLength);
+                if (bytesRead <= 0)
+                {
+                    // The file may have shrunk since it was opened.
+                    break;
+                }
+                resultLength += bytesRead;
+            }
+            return resultLength == result.length ? result : Arrays.clone(result, 0, resultLength);
+        });
+    }
+
+    /**
+     * Get a read-only view of the provided region of the file. If the file is memory-mapped, then
+     * the view shares the mapping and the bytes aren't copied. Otherwise the region is read into a
+     * new heap {@link java.nio.ByteBuffer} so that no mapping is created that would outlive this
+     * stream.
+     * @param position The position in the file where the region starts.
+     * @param length The number of bytes in the region.
+     * @return The read-only view of the region.
+     */
+    public Result<java.nio.ByteBuffer> getByteBuffer(long position, int length)
+    {
+        PreCondition.assertBetween(0, position, this.size, "position");
+        PreCondition.assertBetween(0, length, this.size - position, "length");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            java.nio.ByteBuffer result;
+            if (this.memoryMapped)
+            {
+                result = this.mappedBuffer.slice((int)position, length).asReadOnlyBuffer();
+            }
+            else
+            {
+                final byte[] bytes = new byte[length];
+                int bytesRead = 0;
+                while (bytesRead < length)
+                {
+                    final int readCount = this.read(position + bytesRead, bytes, bytesRead, length - bytesRead);
+                    if (readCount <= 0)
+                    {
+                        break;
+                    }
+                    bytesRead += readCount;
+                }
+                result = java.nio.ByteBuffer.wrap(bytes, 0, bytesRead).asReadOnlyBuffer();
+            }
+            return result;
+        });
+    }
+}
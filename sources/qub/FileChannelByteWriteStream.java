@@ -0,0 +1,107 @@
+package qub;
+
+/**
+ * A {@link ByteWriteStream} that writes to a file through a {@link java.nio.channels.FileChannel}.
+ * Writing several buffers at once uses the channel's gathering write, so a message that is made
+ * up of several parts can be written to the file with a single system call and without copying
+ * the parts into one array first.
+ */
+public class FileChannelByteWriteStream implements ByteWriteStream
+{
+    private final java.nio.channels.FileChannel fileChannel;
+    private boolean disposed;
+
+    private FileChannelByteWriteStream(java.nio.channels.FileChannel fileChannel)
+    {
+        PreCondition.assertNotNull(fileChannel, "fileChannel");
+
+        this.fileChannel = fileChannel;
+    }
+
+    /**
+     * Create a new {@link FileChannelByteWriteStream} that writes to the provided
+     * {@link java.nio.channels.FileChannel}.
+     * @param fileChannel The {@link java.nio.channels.FileChannel} to write to.
+     */
+    public static FileChannelByteWriteStream create(java.nio.channels.FileChannel fileChannel)
+    {
+        return new FileChannelByteWriteStream(fileChannel);
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            boolean result = false;
+            if (!this.disposed)
+            {
+                this.disposed = true;
+                try
+                {
+                    this.fileChannel.close();
+                    result = true;
+                }
+                catch (java.io.IOException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public Result<Integer> write(byte toWrite)
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.write(new byte[] { toWrite }, 0, 1);
+    }
+
+    @Override
+    public Result<Integer> write(byte[] toWrite, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertStartIndex(startIndex, toWrite.length);
+        PreCondition.assertLength(length, startIndex, toWrite.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            try
+            {
+                return this.fileChannel.write(java.nio.ByteBuffer.wrap(toWrite, startIndex, length));
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        });
+    }
+
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            try
+            {
+                return this.fileChannel.write(toWrite);
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        });
+    }
+}
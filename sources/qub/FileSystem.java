@@ -276,6 +276,177 @@ public interface FileSystem
             .instanceOf(Folder.class);
     }
 
+    /**
+     * Iterate the entries (files and folders) at the provided folder path recursively whose paths
+     * relative to the provided folder path match the provided {@link PathPattern}. Folders that
+     * can't contain any matching entries aren't read.
+     * @param rootedFolderPath The path to the folder (Root or Folder).
+     * @param pattern The {@link PathPattern} that the relative entry paths must match.
+     * @return The matching entries (files and folders) at the provided folder path.
+     */
+    default Iterator<FileSystemEntry> iterateEntriesRecursively(Path rootedFolderPath, PathPattern pattern)
+    {
+        FileSystem.validateRootedFolderPath(rootedFolderPath);
+        PreCondition.assertNotNull(pattern, "pattern");
+
+        final Folder rootFolder = this.getFolder(rootedFolderPath).await();
+
+        // The folders are traversed directly (instead of through iterateEntries()) so that the
+        // folder path that each entry path is relative to is known.
+        final MutableMap<Folder,String> relativeFolderPaths = Map.create();
+        relativeFolderPaths.set(rootFolder, "");
+        final Traversal<Folder,FileSystemEntry> traversal = Traversal.createDepthFirstSearch((TraversalActions<Folder,FileSystemEntry> actions, Folder currentFolder) ->
+        {
+            final String relativeFolderPath = relativeFolderPaths.remove(currentFolder).await();
+            final List<FileSystemEntry> matchingEntries = List.create();
+            final List<Folder> foldersToVisit = List.create();
+            for (final FileSystemEntry entry : currentFolder.iterateEntries())
+            {
+                final String relativeEntryPath = relativeFolderPath + entry.getName();
+                if (pattern.isMatch(relativeEntryPath))
+                {
+                    matchingEntries.add(entry);
+                }
+
+                if (entry instanceof Folder)
+                {
+                    final String relativeChildFolderPath = relativeEntryPath + '/';
+                    if (pattern.isPrefixMatch(relativeChildFolderPath))
+                    {
+                        final Folder folder = (Folder)entry;
+                        relativeFolderPaths.set(folder, relativeChildFolderPath);
+                        foldersToVisit.add(folder);
+                    }
+                }
+            }
+            actions.returnValues(matchingEntries);
+            actions.visitNodes(foldersToVisit);
+        });
+        return traversal.iterate(rootFolder);
+    }
+
+    /**
+     * Visit each of the entries (files and folders) at the provided folder path recursively.
+     * Each folder is read by a separate task that is scheduled on the provided
+     * {@link AsyncRunner}, so the visitor may be run concurrently and the entries aren't visited
+     * in any particular order.
+     * @param rootedFolderPath The path to the folder (Root or Folder).
+     * @param asyncRunner The {@link AsyncRunner} that the folder tasks will be scheduled on.
+     * @param visitor The action that will be run for each entry.
+     * @return The result of visiting the entries.
+     */
+    default Result<Void> visitEntriesRecursively(Path rootedFolderPath, AsyncRunner asyncRunner, Action1<FileSystemEntry> visitor)
+    {
+        FileSystem.validateRootedFolderPath(rootedFolderPath);
+        PreCondition.assertNotNull(asyncRunner, "asyncRunner");
+        PreCondition.assertNotNull(visitor, "visitor");
+
+        return this.visitEntriesRecursively(rootedFolderPath, PathPattern.parse("**"), asyncRunner, visitor);
+    }
+
+    /**
+     * Visit each of the entries (files and folders) at the provided folder path recursively whose
+     * paths relative to the provided folder path match the provided {@link PathPattern}. Folders
+     * that can't contain any matching entries aren't read. Each folder is read by a separate task
+     * that is scheduled on the provided {@link AsyncRunner}, so the visitor may be run
+     * concurrently and the entries aren't visited in any particular order. If the visitor or the
+     * reading of a folder fails, then no more entries are visited or folders are read.
+     * @param rootedFolderPath The path to the folder (Root or Folder).
+     * @param pattern The {@link PathPattern} that the relative entry paths must match.
+     * @param asyncRunner The {@link AsyncRunner} that the folder tasks will be scheduled on.
+     * @param visitor The action that will be run for each matching entry. This must be safe to
+     *                run concurrently from multiple threads.
+     * @return The result of visiting the entries.
+     */
+    default Result<Void> visitEntriesRecursively(Path rootedFolderPath, PathPattern pattern, AsyncRunner asyncRunner, Action1<FileSystemEntry> visitor)
+    {
+        FileSystem.validateRootedFolderPath(rootedFolderPath);
+        PreCondition.assertNotNull(pattern, "pattern");
+        PreCondition.assertNotNull(asyncRunner, "asyncRunner");
+        PreCondition.assertNotNull(visitor, "visitor");
+
+        return Result.create(() ->
+        {
+            final Folder rootFolder = this.getFolder(rootedFolderPath).await();
+
+            // A folder's task is added to this queue by the task that read its parent folder, so
+            // once every task in the queue has completed, every folder has been visited.
+            final java.util.Queue<Result<Void>> folderResults = new java.util.concurrent.ConcurrentLinkedQueue<>();
+            final java.util.concurrent.atomic.AtomicBoolean cancelled = new java.util.concurrent.atomic.AtomicBoolean();
+            FileSystem.visitFolderEntries(rootFolder, "", pattern, asyncRunner, visitor, folderResults, cancelled);
+
+            Result<Void> folderResult = folderResults.poll();
+            while (folderResult != null)
+            {
+                FileSystem.waitForScheduledTask(asyncRunner, folderResult);
+                folderResult.await();
+                folderResult = folderResults.poll();
+            }
+        });
+    }
+
+    private static void visitFolderEntries(Folder folder, String relativeFolderPath, PathPattern pattern, AsyncRunner asyncRunner, Action1<FileSystemEntry> visitor, java.util.Queue<Result<Void>> folderResults, java.util.concurrent.atomic.AtomicBoolean cancelled)
+    {
+        PreCondition.assertNotNull(folder, "folder");
+        PreCondition.assertNotNull(relativeFolderPath, "relativeFolderPath");
+        PreCondition.assertNotNull(pattern, "pattern");
+        PreCondition.assertNotNull(asyncRunner, "asyncRunner");
+        PreCondition.assertNotNull(visitor, "visitor");
+        PreCondition.assertNotNull(folderResults, "folderResults");
+        PreCondition.assertNotNull(cancelled, "cancelled");
+
+        try
+        {
+            for (final FileSystemEntry entry : folder.iterateEntries())
+            {
+                final String relativeEntryPath = relativeFolderPath + entry.getName();
+                if (!cancelled.get() && pattern.isMatch(relativeEntryPath))
+                {
+                    visitor.run(entry);
+                }
+
+                if (entry instanceof Folder)
+                {
+                    final String relativeChildFolderPath = relativeEntryPath + '/';
+                    if (!cancelled.get() && pattern.isPrefixMatch(relativeChildFolderPath))
+                    {
+                        folderResults.add(asyncRunner.schedule(() ->
+                        {
+                            FileSystem.visitFolderEntries((Folder)entry, relativeChildFolderPath, pattern, asyncRunner, visitor, folderResults, cancelled);
+                        }));
+                    }
+                }
+
+                if (cancelled.get())
+                {
+                    break;
+                }
+            }
+        }
+        catch (Throwable e)
+        {
+            // Stop the other folder tasks from visiting any more entries.
+            cancelled.set(true);
+            throw e;
+        }
+    }
+
+    /**
+     * Wait for the provided task that was scheduled on the provided {@link AsyncRunner}. If the
+     * {@link AsyncRunner} is an {@link AsyncScheduler}, then the wait goes through it so that the
+     * task gets run even if it isn't the current thread's scheduler (such as a
+     * {@link ManualAsyncRunner}).
+     * @param asyncRunner The {@link AsyncRunner} that the task was scheduled on.
+     * @param result The task to wait for.
+     */
+    private static void waitForScheduledTask(AsyncRunner asyncRunner, Result<?> result)
+    {
+        if (asyncRunner instanceof AsyncScheduler)
+        {
+            ((AsyncScheduler)asyncRunner).await(result);
+        }
+    }
+
     /**
      * Iterate the entries (files and folders) at the provided folder path with the provided
      * Traversal.
@@ -945,6 +1116,100 @@ public interface FileSystem
         return copyFileTo(sourceFilePath, destinationFilePath);
     }
 
+    /**
+     * Copy the folder at the provided sourceFolderPath and all of its contents to the provided
+     * destinationFolderPath. Files that already exist in the destination folder will be
+     * overwritten.
+     * @param sourceFolderPath The path to the folder to copy.
+     * @param destinationFolderPath The path to copy the folder to.
+     * @return The result of copying the folder.
+     */
+    public default Result<Void> copyFolderTo(Path sourceFolderPath, Path destinationFolderPath)
+    {
+        FileSystem.validateRootedFolderPath(sourceFolderPath, "sourceFolderPath");
+        FileSystem.validateRootedFolderPath(destinationFolderPath, "destinationFolderPath");
+
+        return Result.create(() ->
+        {
+            if (!this.folderExists(sourceFolderPath).await())
+            {
+                throw new FolderNotFoundException(sourceFolderPath);
+            }
+
+            this.createFolder(destinationFolderPath)
+                .catchError(FolderAlreadyExistsException.class)
+                .await();
+            for (final FileSystemEntry sourceEntry : this.iterateEntriesRecursively(sourceFolderPath))
+            {
+                final Path destinationEntryPath = destinationFolderPath.concatenateSegments(sourceEntry.getPath().relativeTo(sourceFolderPath));
+                if (sourceEntry instanceof Folder)
+                {
+                    this.createFolder(destinationEntryPath)
+                        .catchError(FolderAlreadyExistsException.class)
+                        .await();
+                }
+                else
+                {
+                    this.copyFileTo(sourceEntry.getPath(), destinationEntryPath).await();
+                }
+            }
+        });
+    }
+
+    /**
+     * Copy the folder at the provided sourceFolderPath and all of its contents to the provided
+     * destinationFolderPath. Each file is copied by a separate task that is scheduled on the
+     * provided {@link AsyncRunner}, so files can be copied in parallel. Files that already exist
+     * in the destination folder will be overwritten.
+     * @param sourceFolderPath The path to the folder to copy.
+     * @param destinationFolderPath The path to copy the folder to.
+     * @param asyncRunner The {@link AsyncRunner} that the file copy tasks will be scheduled on.
+     * @return The result of copying the folder.
+     */
+    public default Result<Void> copyFolderTo(Path sourceFolderPath, Path destinationFolderPath, AsyncRunner asyncRunner)
+    {
+        FileSystem.validateRootedFolderPath(sourceFolderPath, "sourceFolderPath");
+        FileSystem.validateRootedFolderPath(destinationFolderPath, "destinationFolderPath");
+        PreCondition.assertNotNull(asyncRunner, "asyncRunner");
+
+        return Result.create(() ->
+        {
+            if (!this.folderExists(sourceFolderPath).await())
+            {
+                throw new FolderNotFoundException(sourceFolderPath);
+            }
+
+            this.createFolder(destinationFolderPath)
+                .catchError(FolderAlreadyExistsException.class)
+                .await();
+            final List<Result<Void>> fileCopyResults = List.create();
+            for (final FileSystemEntry sourceEntry : this.iterateEntriesRecursively(sourceFolderPath))
+            {
+                final Path destinationEntryPath = destinationFolderPath.concatenateSegments(sourceEntry.getPath().relativeTo(sourceFolderPath));
+                if (sourceEntry instanceof Folder)
+                {
+                    // Folders are listed before their contents, so each destination folder is
+                    // created before any copy tasks for its files are scheduled.
+                    this.createFolder(destinationEntryPath)
+                        .catchError(FolderAlreadyExistsException.class)
+                        .await();
+                }
+                else
+                {
+                    fileCopyResults.add(asyncRunner.schedule(() ->
+                    {
+                        this.copyFileTo(sourceEntry.getPath(), destinationEntryPath).await();
+                    }));
+                }
+            }
+            for (final Result<Void> fileCopyResult : fileCopyResults)
+            {
+                FileSystem.waitForScheduledTask(asyncRunner, fileCopyResult);
+            }
+            Result.await(fileCopyResults);
+        });
+    }
+
     /**
      * Validate that the provided rootedFolderPath {@link String} is a rooted folder path.
      * @param rootedFolderPath The {@link String} path to validate.
@@ -475,6 +475,18 @@ public class Folder extends FileSystemEntry
         return this.getPath().concatenateSegments(relativePath);
     }
 
+    @Override
+    public int hashCode()
+    {
+        // Folders are equal regardless of a trailing slash, so it isn't part of the hash code.
+        String pathString = this.getPath().normalize().toString();
+        if (pathString.endsWith("/"))
+        {
+            pathString = pathString.substring(0, pathString.length() - 1);
+        }
+        return pathString.hashCode();
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -307,4 +307,20 @@ public class FolderFileSystem implements FileSystem
             return this.innerFileSystem.getFileContentsByteWriteStream(innerPath, openWriteType).await();
         });
     }
+
+    @Override
+    public Result<Void> copyFileTo(Path sourceFilePath, Path destinationFilePath)
+    {
+        FileSystem.validateRootedFilePath(sourceFilePath, "sourceFilePath");
+        FileSystem.validateRootedFilePath(destinationFilePath, "destinationFilePath");
+
+        return Result.create(() ->
+        {
+            final Path innerSourceFilePath = this.getInnerPath(sourceFilePath).await();
+            final Path innerDestinationFilePath = this.getInnerPath(destinationFilePath).await();
+            this.innerFileSystem.copyFileTo(innerSourceFilePath, innerDestinationFilePath)
+                .convertError(FileNotFoundException.class, () -> new FileNotFoundException(sourceFilePath))
+                .await();
+        });
+    }
 }
@@ -1,22 +1,61 @@
 package qub;
 
+/**
+ * A ByteReadStream and ByteWriteStream that stores the bytes that have been written to it, but
+ * not yet read from it, in a growable ring buffer. Reading from an empty InMemoryByteStream will
+ * block the reading thread until bytes are written, endOfStream() is called, or the stream is
+ * disposed.
+ */
 public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
 {
-    private boolean isDisposed;
-    private final ByteList bytes;
-    private boolean endOfStream;
-    private final Mutex mutex;
-    private final MutexCondition bytesAvailable;
+    private static final int minimumCapacity = 16;
+    private static final int maximumCapacity = 1 << 30;
+
+    /**
+     * The ring buffer that holds the unread bytes. The byte at stream position p is stored at
+     * index (p & (buffer.length - 1)). The buffer is only ever replaced by a writer, and always
+     * before the writePosition that makes the new buffer's bytes readable is published.
+     */
+    private volatile byte[] buffer;
+    /**
+     * The total number of bytes that have been read from this stream.
+     */
+    private volatile long readPosition;
+    /**
+     * The total number of bytes that have been written to this stream.
+     */
+    private volatile long writePosition;
+    private volatile boolean endOfStream;
+    private volatile boolean isDisposed;
+    /**
+     * The thread that is blocked waiting for bytes to read, or null if no thread is waiting.
+     */
+    private volatile java.lang.Thread waitingReader;
+    /**
+     * The mutex that serializes readers, or null if this stream only has a single reader.
+     */
+    private final Mutex readMutex;
+    /**
+     * The mutex that serializes writers, or null if this stream only has a single writer.
+     */
+    private final Mutex writeMutex;
 
     private final RunnableEvent0 disposedEvent;
 
     protected InMemoryByteStream(byte[] bytes)
+    {
+        this(bytes, false);
+    }
+
+    private InMemoryByteStream(byte[] bytes, boolean singleProducerSingleConsumer)
     {
         PreCondition.assertNotNull(bytes, "bytes");
 
-        this.bytes = ByteList.create(bytes);
-        this.mutex = SpinMutex.create();
-        this.bytesAvailable = this.mutex.createCondition(() -> isDisposed() || this.endOfStream || this.bytes.any());
+        this.buffer = new byte[InMemoryByteStream.getCapacity(bytes.length)];
+        Array.copy(bytes, 0, this.buffer, 0, bytes.length);
+        this.writePosition = bytes.length;
+        this.readMutex = singleProducerSingleConsumer ? null : ParkingMutex.create();
+        this.writeMutex = singleProducerSingleConsumer ? null : ParkingMutex.create();
 
         this.disposedEvent = Event0.create();
     }
@@ -31,14 +70,57 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
         return new InMemoryByteStream(bytes);
     }
 
+    /**
+     * Create a new InMemoryByteStream that will only ever be written to by one thread at a time
+     * and read from by one thread at a time. Reads and writes on this stream don't acquire any
+     * mutexes.
+     * @return The new InMemoryByteStream.
+     */
+    public static InMemoryByteStream createSingleProducerSingleConsumer()
+    {
+        return new InMemoryByteStream(new byte[0], true);
+    }
+
+    /**
+     * Get the power of two ring buffer capacity that can hold the provided number of bytes.
+     * @param byteCount The number of bytes that the ring buffer must be able to hold.
+     * @return The ring buffer capacity.
+     */
+    private static int getCapacity(long byteCount)
+    {
+        PreCondition.assertLessThanOrEqualTo(byteCount, InMemoryByteStream.maximumCapacity, "byteCount");
+
+        int result = InMemoryByteStream.minimumCapacity;
+        while (result < byteCount)
+        {
+            result <<= 1;
+        }
+        return result;
+    }
+
     /**
      * Get the bytes currently in this InMemoryByteStream. This will not change the streams
-     * contents.
+     * contents. Writers are blocked while the bytes are copied so that the ring buffer can't be
+     * grown or overwritten underneath the copy.
      * @return The bytes currently in this InMemoryByteStream.
      */
     public byte[] getBytes()
     {
-        return bytes.toByteArray();
+        InMemoryByteStream.acquire(this.writeMutex);
+        try
+        {
+            final long readPosition = this.readPosition;
+            final long writePosition = this.writePosition;
+            final byte[] buffer = this.buffer;
+
+            final byte[] result = new byte[(int)(writePosition - readPosition)];
+            InMemoryByteStream.copyFromBuffer(buffer, readPosition, result, 0, result.length);
+            return result;
+        }
+        finally
+        {
+            InMemoryByteStream.release(this.writeMutex);
+        }
     }
 
     /**
@@ -47,7 +129,16 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
      */
     public int getCount()
     {
-        return bytes.getCount();
+        InMemoryByteStream.acquire(this.writeMutex);
+        try
+        {
+            final long readPosition = this.readPosition;
+            return (int)(this.writePosition - readPosition);
+        }
+        finally
+        {
+            InMemoryByteStream.release(this.writeMutex);
+        }
     }
 
     @Override
@@ -55,59 +146,150 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
     {
         PreCondition.assertNotDisposed(this, "this");
 
-        return this.mutex.criticalSection(() ->
+        return Result.create(() ->
         {
-            while (!this.isDisposed() && !this.endOfStream && !this.bytes.any())
+            final int byteRead = this.readByteAsInt();
+            if (byteRead == -1)
             {
-                bytesAvailable.watch().await();
+                throw new EmptyException();
             }
+            return (byte)byteRead;
+        });
+    }
+
+    @Override
+    public int readByteAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
 
-            if (this.isDisposed())
+        int result = -1;
+        InMemoryByteStream.acquire(this.readMutex);
+        try
+        {
+            if (this.waitForBytes() > 0)
             {
-                throw new IllegalStateException("this.isDisposed() cannot be true.");
+                final long readPosition = this.readPosition;
+                final byte[] buffer = this.buffer;
+                result = Bytes.toUnsignedInt(buffer[(int)readPosition & (buffer.length - 1)]);
+                this.readPosition = readPosition + 1;
             }
+        }
+        finally
+        {
+            InMemoryByteStream.release(this.readMutex);
+        }
+        return result;
+    }
+
+    @Override
+    public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
 
-            if (!this.bytes.any())
+        return Result.create(() ->
+        {
+            final int bytesRead = this.readBytesInto(outputBytes, startIndex, length);
+            if (bytesRead == -1)
             {
                 throw new EmptyException();
             }
-
-            return this.bytes.removeFirst().await();
+            return bytesRead;
         });
     }
 
     @Override
-    public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
     {
         PreCondition.assertNotNull(outputBytes, "outputBytes");
         PreCondition.assertStartIndex(startIndex, outputBytes.length);
         PreCondition.assertLength(length, startIndex, outputBytes.length);
         PreCondition.assertNotDisposed(this, "this");
 
-        return this.mutex.criticalSection(() ->
+        int result = 0;
+        if (length > 0)
         {
-            int bytesRead = length;
-            if (bytesRead > 0)
+            InMemoryByteStream.acquire(this.readMutex);
+            try
             {
-                while (!this.isDisposed && !this.endOfStream && !this.bytes.any())
+                final long availableByteCount = this.waitForBytes();
+                if (availableByteCount == 0)
                 {
-                    this.bytesAvailable.watch().await();
+                    result = -1;
                 }
-
-                if (this.isDisposed())
+                else
                 {
-                    throw new IllegalStateException("this.isDisposed() cannot be true.");
+                    final long readPosition = this.readPosition;
+                    result = (int)Math.minimum(availableByteCount, length);
+                    InMemoryByteStream.copyFromBuffer(this.buffer, readPosition, outputBytes, startIndex, result);
+                    this.readPosition = readPosition + result;
                 }
-                else if (!this.bytes.any())
+            }
+            finally
+            {
+                InMemoryByteStream.release(this.readMutex);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Block until this stream has bytes to read, has reached its end, or has been disposed. This
+     * must be called by the current reader.
+     * @return The number of bytes that can be read, or 0 if this stream has reached its end.
+     */
+    private long waitForBytes()
+    {
+        // The writePosition must be read before the buffer so that the buffer that is read
+        // afterward contains all of the bytes before the writePosition.
+        long result = this.writePosition - this.readPosition;
+        if (result == 0 && !this.endOfStream && !this.isDisposed)
+        {
+            this.waitingReader = java.lang.Thread.currentThread();
+            try
+            {
+                while (true)
                 {
-                    throw new EmptyException();
+                    result = this.writePosition - this.readPosition;
+                    if (result > 0 || this.endOfStream || this.isDisposed)
+                    {
+                        break;
+                    }
+                    java.util.concurrent.locks.LockSupport.park(this);
                 }
-
-                bytesRead = Math.minimum(bytes.getCount(), bytesRead);
-                bytes.removeFirst(outputBytes, startIndex, bytesRead).await();
             }
-            return bytesRead;
-        });
+            finally
+            {
+                this.waitingReader = null;
+            }
+        }
+
+        if (this.isDisposed)
+        {
+            throw new IllegalStateException("this.isDisposed() cannot be true.");
+        }
+
+        if (result == 0)
+        {
+            // Bytes may have been written just before endOfStream() was called.
+            result = this.writePosition - this.readPosition;
+        }
+
+        return result;
+    }
+
+    /**
+     * Wake up the reader that is waiting for bytes, if there is one.
+     */
+    private void signalReader()
+    {
+        final java.lang.Thread waitingReader = this.waitingReader;
+        if (waitingReader != null)
+        {
+            java.util.concurrent.locks.LockSupport.unpark(waitingReader);
+        }
     }
 
     /**
@@ -132,14 +314,26 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
     @Override
     public Result<Boolean> dispose()
     {
-        return mutex.criticalSection(() ->
+        return Result.create(() ->
         {
-            boolean result = !isDisposed;
-            if (result)
+            boolean result;
+            InMemoryByteStream.acquire(this.writeMutex);
+            try
             {
-                isDisposed = true;
-                bytesAvailable.signalAll();
+                result = !this.isDisposed;
+                if (result)
+                {
+                    this.isDisposed = true;
+                    this.signalReader();
+                }
+            }
+            finally
+            {
+                InMemoryByteStream.release(this.writeMutex);
+            }
 
+            if (result)
+            {
                 this.disposedEvent.run();
             }
             return result;
@@ -153,15 +347,20 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
      */
     public InMemoryByteStream endOfStream()
     {
-        return mutex.criticalSection(() ->
+        InMemoryByteStream.acquire(this.writeMutex);
+        try
         {
-            if (!endOfStream)
+            if (!this.endOfStream)
             {
-                endOfStream = true;
-                bytesAvailable.signalAll();
+                this.endOfStream = true;
+                this.signalReader();
             }
-            return this;
-        }).await();
+        }
+        finally
+        {
+            InMemoryByteStream.release(this.writeMutex);
+        }
+        return this;
     }
 
     @Override
@@ -170,10 +369,21 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
         PreCondition.assertFalse(this.isDisposed(), "this");
         PreCondition.assertFalse(this.endOfStream, "this.endOfStream");
 
-        return this.mutex.criticalSection(() ->
+        return Result.create(() ->
         {
-            this.bytes.add(toWrite);
-            this.bytesAvailable.signalAll();
+            InMemoryByteStream.acquire(this.writeMutex);
+            try
+            {
+                final long writePosition = this.writePosition;
+                final byte[] buffer = this.reserve(writePosition, 1);
+                buffer[(int)writePosition & (buffer.length - 1)] = toWrite;
+                this.writePosition = writePosition + 1;
+                this.signalReader();
+            }
+            finally
+            {
+                InMemoryByteStream.release(this.writeMutex);
+            }
             return 1;
         });
     }
@@ -187,14 +397,154 @@ public class InMemoryByteStream implements ByteReadStream, ByteWriteStream
         PreCondition.assertNotDisposed(this, "this");
         PreCondition.assertFalse(endOfStream, "endOfStream");
 
-        return mutex.criticalSection(() ->
+        return Result.create(() ->
         {
-            for (int i = 0; i < length; ++i)
+            if (length > 0)
             {
-                this.bytes.add(bytes[startIndex + i]);
+                InMemoryByteStream.acquire(this.writeMutex);
+                try
+                {
+                    final long writePosition = this.writePosition;
+                    final byte[] buffer = this.reserve(writePosition, length);
+                    final int mask = buffer.length - 1;
+                    final int bufferIndex = (int)writePosition & mask;
+                    final int firstLength = Math.minimum(length, buffer.length - bufferIndex);
+                    Array.copy(bytes, startIndex, buffer, bufferIndex, firstLength);
+                    if (firstLength < length)
+                    {
+                        Array.copy(bytes, startIndex + firstLength, buffer, 0, length - firstLength);
+                    }
+                    this.writePosition = writePosition + length;
+                    this.signalReader();
+                }
+                finally
+                {
+                    InMemoryByteStream.release(this.writeMutex);
+                }
             }
-            bytesAvailable.signalAll();
             return length;
         });
     }
+
+    /**
+     * Write all of the remaining bytes in the provided buffers. The ring buffer is grown at most
+     * once for all of the buffers, the bytes are copied straight into it, and readers are only
+     * signaled once all of the bytes have been written.
+     * @param toWrite The buffers to write.
+     * @return The number of bytes that were written.
+     */
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+        PreCondition.assertFalse(endOfStream, "endOfStream");
+
+        return Result.create(() ->
+        {
+            final long result = ByteWriteStream.getRemaining(toWrite);
+            if (result > 0)
+            {
+                PreCondition.assertLessThanOrEqualTo(result, Integers.maximum, "ByteWriteStream.getRemaining(toWrite)");
+
+                InMemoryByteStream.acquire(this.writeMutex);
+                try
+                {
+                    long writePosition = this.writePosition;
+                    final byte[] buffer = this.reserve(writePosition, (int)result);
+                    final int mask = buffer.length - 1;
+                    for (final java.nio.ByteBuffer bytes : toWrite)
+                    {
+                        final int length = bytes.remaining();
+                        final int bufferIndex = (int)writePosition & mask;
+                        final int firstLength = Math.minimum(length, buffer.length - bufferIndex);
+                        bytes.get(buffer, bufferIndex, firstLength);
+                        if (firstLength < length)
+                        {
+                            bytes.get(buffer, 0, length - firstLength);
+                        }
+                        writePosition += length;
+                    }
+                    this.writePosition = writePosition;
+                    this.signalReader();
+                }
+                finally
+                {
+                    InMemoryByteStream.release(this.writeMutex);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Make sure that the ring buffer has room for the provided number of bytes after the
+     * writePosition, growing it if necessary. This must be called by the current writer.
+     * @param writePosition The current writePosition.
+     * @param length The number of bytes that are about to be written.
+     * @return The ring buffer that the bytes should be written to.
+     */
+    private byte[] reserve(long writePosition, int length)
+    {
+        final byte[] buffer = this.buffer;
+        final long readPosition = this.readPosition;
+        final long requiredCapacity = writePosition - readPosition + length;
+
+        byte[] result = buffer;
+        if (requiredCapacity > buffer.length)
+        {
+            // The unread bytes are copied to the new buffer at the same stream positions. A reader
+            // that is still reading from the old buffer will only read bytes that were copied, and
+            // the new bytes only become readable once the writePosition that follows the new
+            // buffer is published.
+            final long newCapacity = Math.minimum(Math.maximum(requiredCapacity, (long)buffer.length * 2), InMemoryByteStream.maximumCapacity);
+            result = new byte[InMemoryByteStream.getCapacity(newCapacity)];
+            final int resultMask = result.length - 1;
+            final int unreadByteCount = (int)(writePosition - readPosition);
+            final int resultIndex = (int)readPosition & resultMask;
+            final int firstLength = Math.minimum(unreadByteCount, result.length - resultIndex);
+            InMemoryByteStream.copyFromBuffer(buffer, readPosition, result, resultIndex, firstLength);
+            if (firstLength < unreadByteCount)
+            {
+                InMemoryByteStream.copyFromBuffer(buffer, readPosition + firstLength, result, 0, unreadByteCount - firstLength);
+            }
+            this.buffer = result;
+        }
+        return result;
+    }
+
+    /**
+     * Copy the bytes at the provided stream position from the provided ring buffer.
+     * @param buffer The ring buffer to copy from.
+     * @param position The stream position of the first byte to copy.
+     * @param outputBytes The array to copy the bytes to.
+     * @param startIndex The index in outputBytes to start copying to.
+     * @param length The number of bytes to copy.
+     */
+    private static void copyFromBuffer(byte[] buffer, long position, byte[] outputBytes, int startIndex, int length)
+    {
+        final int bufferIndex = (int)position & (buffer.length - 1);
+        final int firstLength = Math.minimum(length, buffer.length - bufferIndex);
+        Array.copy(buffer, bufferIndex, outputBytes, startIndex, firstLength);
+        if (firstLength < length)
+        {
+            Array.copy(buffer, 0, outputBytes, startIndex + firstLength, length - firstLength);
+        }
+    }
+
+    private static void acquire(Mutex mutex)
+    {
+        if (mutex != null)
+        {
+            mutex.acquire().await();
+        }
+    }
+
+    private static void release(Mutex mutex)
+    {
+        if (mutex != null)
+        {
+            mutex.release().await();
+        }
+    }
 }
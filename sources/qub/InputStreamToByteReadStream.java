@@ -75,6 +75,44 @@ public class InputStreamToByteReadStream implements ByteReadStream
         });
     }
 
+    @Override
+    public int readByteAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        try
+        {
+            return this.inputStream.read();
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    @Override
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        int result = 0;
+        if (length > 0)
+        {
+            try
+            {
+                result = this.inputStream.read(outputBytes, startIndex, length);
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        }
+        return result;
+    }
+
     @Override
     public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
     {
@@ -25,6 +25,12 @@ public class InstanceOfIterable<TInner,TOuter> implements Iterable<TOuter>
         return this.innerIterable.iterate().instanceOf(this.type);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -65,6 +65,12 @@ public class IntegerArray implements Array<Integer>
         return values[index];
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -211,6 +211,12 @@ public class IntegerList implements List<Integer>
         return IntegerArrayIterator.create(this.integers, 0, this.count);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -142,6 +142,12 @@ public class IntegerValue implements Value<java.lang.Integer>, Comparable<java.l
         return value == null ? Comparison.GreaterThan : Comparison.create(this.get() - value);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.hasValue() ? java.lang.Integer.hashCode(this.getAsInt()) : 0;
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
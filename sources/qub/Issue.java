@@ -28,6 +28,12 @@ public class Issue
         return type;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.message, this.span, this.type);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -363,6 +363,18 @@ public interface Iterable<T> extends java.lang.Iterable<T>
         return rhs instanceof Iterable && lhs.equals((Iterable<T>)rhs);
     }
 
+    /**
+     * Get the hash code of the provided {@link Iterable}. The hash code is consistent with
+     * {@link #equals(Iterable, Object)}, so it depends on the elements and their order.
+     * @param iterable The {@link Iterable} to get the hash code of.
+     */
+    public static int hashCode(Iterable<?> iterable)
+    {
+        PreCondition.assertNotNull(iterable, "iterable");
+
+        return Hash.getHashCode(iterable);
+    }
+
     /**
      * Get whether the provided {@link Iterable} is null or empty.
      * @param value The {@link Iterable} to check.
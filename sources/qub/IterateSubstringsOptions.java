@@ -78,6 +78,12 @@ public class IterateSubstringsOptions
             .toString();
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.separators, this.includeEmptySubstrings, this.includeSeparators);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
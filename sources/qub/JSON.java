@@ -100,11 +100,12 @@ public interface JSON
 
         return Result.createUsing(
             () -> ByteReadStream.buffer(file.getContentsReadStream().await()),
-            (ByteReadStream byteReadStream) -> JSON.parse(byteReadStream).await());
+            (ByteReadStream byteReadStream) -> JSON.parse(JSON.createTokenizer(CharacterReadStream.create(byteReadStream))).await());
     }
 
     /**
-     * Parse a JSONSegment from the provided bytes.
+     * Parse a JSONSegment from the provided bytes. The bytes are read one at a time, so nothing
+     * past the JSON token that follows the parsed value is read from the stream.
      * @param bytes The bytes to parse into a JSONSegment.
      * @return The parsed JSONSegment.
      */
@@ -116,7 +117,8 @@ public interface JSON
     }
 
     /**
-     * Parse a JSONSegment from the provided characters.
+     * Parse a JSONSegment from the provided characters. The characters are read one at a time, so
+     * nothing past the JSON token that follows the parsed value is read from the stream.
      * @param characters The characters to parse into a JSONSegment.
      * @return The parsed JSONSegment.
      */
@@ -124,7 +126,7 @@ public interface JSON
     {
         PreCondition.assertNotNull(characters, "characters");
 
-        return JSON.parse(CharacterReadStreamIterator.create(characters));
+        return JSON.parse(JSON.createStreamTokenizer(characters));
     }
 
     /**
@@ -230,11 +232,12 @@ public interface JSON
 
         return Result.createUsing(
             () -> ByteReadStream.buffer(file.getContentsReadStream().await()),
-            (ByteReadStream byteReadStream) -> JSON.parseObject(byteReadStream).await());
+            (ByteReadStream byteReadStream) -> JSON.parseObject(JSON.createTokenizer(CharacterReadStream.create(byteReadStream))).await());
     }
 
     /**
-     * Parse a JSONSJSONObject the provided bytes.
+     * Parse a JSONObject from the provided bytes. The bytes are read one at a time, so nothing past
+     * the JSON token that follows the parsed value is read from the stream.
      * @param bytes The bytes to parse into a JSONObject.
      * @return The parsed JSONObject.
      */
@@ -246,7 +249,8 @@ public interface JSON
     }
 
     /**
-     * Parse a JSONObject from the provided characters.
+     * Parse a JSONObject from the provided characters. The characters are read one at a time, so
+     * nothing past the JSON token that follows the parsed value is read from the stream.
      * @param characters The characters to parse into a JSONObject.
      * @return The parsed JSONObject.
      */
@@ -254,7 +258,7 @@ public interface JSON
     {
         PreCondition.assertNotNull(characters, "characters");
 
-        return JSON.parseObject(CharacterReadStreamIterator.create(characters));
+        return JSON.parseObject(JSON.createStreamTokenizer(characters));
     }
 
     /**
@@ -500,11 +504,12 @@ public interface JSON
 
         return Result.createUsing(
             () -> ByteReadStream.buffer(file.getContentsReadStream().await()),
-            (ByteReadStream byteReadStream) -> JSON.parseArray(byteReadStream).await());
+            (ByteReadStream byteReadStream) -> JSON.parseArray(JSON.createTokenizer(CharacterReadStream.create(byteReadStream))).await());
     }
 
     /**
-     * Parse a JSONArray from the provided bytes.
+     * Parse a JSONArray from the provided bytes. The bytes are read one at a time, so nothing past
+     * the JSON token that follows the parsed value is read from the stream.
      * @param bytes The bytes to parse into a JSONArray.
      * @return The parsed JSONArray.
      */
@@ -516,7 +521,8 @@ public interface JSON
     }
 
     /**
-     * Parse a JSONArray from the provided characters.
+     * Parse a JSONArray from the provided characters. The characters are read one at a time, so
+     * nothing past the JSON token that follows the parsed value is read from the stream.
      * @param characters The characters to parse into a JSONArray.
      * @return The parsed JSONArray.
      */
@@ -524,7 +530,7 @@ public interface JSON
     {
         PreCondition.assertNotNull(characters, "characters");
 
-        return JSON.parseArray(CharacterReadStreamIterator.create(characters));
+        return JSON.parseArray(JSON.createStreamTokenizer(characters));
     }
 
     /**
@@ -643,6 +649,64 @@ public interface JSON
         });
     }
 
+    /**
+     * Iterate through the elements of the top-level JSONArray in the provided bytes one
+     * JSONSegment at a time, without parsing the whole JSONArray into memory.
+     * @param bytes The bytes that contain a top-level JSONArray.
+     * @return An Iterator that returns the elements of the top-level JSONArray.
+     */
+    static Iterator<JSONSegment> iterateArrayElements(ByteReadStream bytes)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+
+        return JSONReader.create(bytes).iterateArrayElements();
+    }
+
+    /**
+     * Iterate through the elements of the top-level JSONArray in the provided characters one
+     * JSONSegment at a time, without parsing the whole JSONArray into memory.
+     * @param characters The characters that contain a top-level JSONArray.
+     * @return An Iterator that returns the elements of the top-level JSONArray.
+     */
+    static Iterator<JSONSegment> iterateArrayElements(CharacterReadStream characters)
+    {
+        PreCondition.assertNotNull(characters, "characters");
+
+        return JSONReader.create(characters).iterateArrayElements();
+    }
+
+    static JSONTokenizer createTokenizer(CharacterReadStream characters)
+    {
+        PreCondition.assertNotNull(characters, "characters");
+
+        final JSONTokenizer result = JSONTokenizer.create(characters);
+        JSON.next(result);
+
+        PostCondition.assertNotNull(result, "result");
+        PostCondition.assertTrue(result.hasStarted(), "result.hasStarted()");
+
+        return result;
+    }
+
+    /**
+     * Create a JSONTokenizer that reads the provided CharacterReadStream one character at a time,
+     * so that nothing past the JSON token that follows a parsed value is read from the stream.
+     * @param characters The CharacterReadStream to tokenize.
+     * @return The new JSONTokenizer.
+     */
+    static JSONTokenizer createStreamTokenizer(CharacterReadStream characters)
+    {
+        PreCondition.assertNotNull(characters, "characters");
+
+        final JSONTokenizer result = JSONTokenizer.create(characters, 1);
+        JSON.next(result);
+
+        PostCondition.assertNotNull(result, "result");
+        PostCondition.assertTrue(result.hasStarted(), "result.hasStarted()");
+
+        return result;
+    }
+
     static JSONTokenizer createTokenizer(Iterator<Character> characters)
     {
         PreCondition.assertNotNull(characters, "characters");
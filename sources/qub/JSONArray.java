@@ -99,6 +99,12 @@ public class JSONArray implements JSONSegment, List<JSONSegment>
         });
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this.elements);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -49,6 +49,12 @@ public class JSONBoolean implements JSONSegment
         return stream.write(Booleans.toString(this.value));
     }
 
+    @Override
+    public int hashCode()
+    {
+        return java.lang.Boolean.hashCode(this.value);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
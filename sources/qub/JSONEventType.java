@@ -0,0 +1,17 @@
+package qub;
+
+/**
+ * The type of an event that is produced by a JSONReader.
+ */
+public enum JSONEventType
+{
+    StartObject,
+    EndObject,
+    StartArray,
+    EndArray,
+    PropertyName,
+    Null,
+    Boolean,
+    Number,
+    String
+}
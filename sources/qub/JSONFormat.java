@@ -117,6 +117,12 @@ public class JSONFormat
         return this;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.newLine, this.singleIndent, this.afterPropertySeparator);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
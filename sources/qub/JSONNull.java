@@ -23,6 +23,12 @@ public class JSONNull implements JSONSegment
         return stream.write("null");
     }
 
+    @Override
+    public int hashCode()
+    {
+        return JSONNull.class.hashCode();
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
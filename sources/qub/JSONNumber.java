@@ -78,6 +78,12 @@ public class JSONNumber implements JSONSegment
         return stream.write(this.text);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.text.hashCode();
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -474,6 +474,12 @@ public class JSONObject implements JSONSegment, MutableMap<String,JSONSegment>
         });
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Map.hashCode(this.properties);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -74,4 +74,11 @@ public interface JSONObjectWrapper
         return wrapper.getClass().equals(Types.getType(rhs)) &&
             wrapper.toJson().equals(((JSONObjectWrapper)rhs).toJson());
     }
+
+    static int hashCode(JSONObjectWrapper wrapper)
+    {
+        PreCondition.assertNotNull(wrapper, "wrapper");
+
+        return Hash.getHashCode(wrapper.getClass(), wrapper.toJson());
+    }
 }
@@ -23,6 +23,12 @@ public abstract class JSONObjectWrapperBase implements JSONObjectWrapper
         return JSONObjectWrapper.toString(this);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return JSONObjectWrapper.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
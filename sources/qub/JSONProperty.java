@@ -269,6 +269,12 @@ public class JSONProperty implements MapEntry<String,JSONSegment>
         });
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.name, this.value);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
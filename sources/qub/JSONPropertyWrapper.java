@@ -74,4 +74,11 @@ public interface JSONPropertyWrapper
         return wrapper.getClass().equals(Types.getType(rhs)) &&
             wrapper.toJson().equals(((JSONPropertyWrapper)rhs).toJson());
     }
+
+    static int hashCode(JSONPropertyWrapper wrapper)
+    {
+        PreCondition.assertNotNull(wrapper, "wrapper");
+
+        return Hash.getHashCode(wrapper.getClass(), wrapper.toJson());
+    }
 }
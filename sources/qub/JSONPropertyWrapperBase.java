@@ -23,6 +23,12 @@ public abstract class JSONPropertyWrapperBase implements JSONPropertyWrapper
         return JSONPropertyWrapper.toString(this);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return JSONPropertyWrapper.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
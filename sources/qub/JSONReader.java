@@ -0,0 +1,533 @@
+package qub;
+
+/**
+ * A pull-based reader that converts the JSONTokens from a JSONTokenizer into a stream of
+ * JSONEventTypes without building JSONSegments for the whole document. The reader can contain
+ * any number of top-level values one after another, such as newline-delimited JSON.
+ */
+public class JSONReader implements Iterator<JSONEventType>
+{
+    private static final int expectTopLevelValue = 0;
+    private static final int expectFirstPropertyOrEndObject = 1;
+    private static final int expectProperty = 2;
+    private static final int expectPropertySeparatorOrEndObject = 3;
+    private static final int expectPropertyValue = 4;
+    private static final int expectFirstElementOrEndArray = 5;
+    private static final int expectElement = 6;
+    private static final int expectElementSeparatorOrEndArray = 7;
+
+    private final JSONTokenizer tokenizer;
+    /**
+     * Whether or not each of the containers that enclose the next event is an object (true) or an
+     * array (false).
+     */
+    private boolean[] containerIsObject;
+    /**
+     * The number of containers that enclose the next event.
+     */
+    private int containerCount;
+    /**
+     * The kind of token that the next event is expected to start with.
+     */
+    private int expectation;
+    private boolean hasStarted;
+    private JSONEventType current;
+    private JSONToken currentToken;
+    private int currentDepth;
+
+    private JSONReader(JSONTokenizer tokenizer)
+    {
+        PreCondition.assertNotNull(tokenizer, "tokenizer");
+
+        this.tokenizer = tokenizer;
+        this.containerIsObject = new boolean[16];
+        this.expectation = JSONReader.expectTopLevelValue;
+    }
+
+    /**
+     * Create a new JSONReader that reads the JSONTokens from the provided JSONTokenizer.
+     * @param tokenizer The JSONTokenizer to read JSONTokens from.
+     * @return The new JSONReader.
+     */
+    public static JSONReader create(JSONTokenizer tokenizer)
+    {
+        PreCondition.assertNotNull(tokenizer, "tokenizer");
+
+        return new JSONReader(tokenizer);
+    }
+
+    /**
+     * Create a new JSONReader that reads the provided text.
+     * @param text The text to read.
+     * @return The new JSONReader.
+     */
+    public static JSONReader create(String text)
+    {
+        PreCondition.assertNotNull(text, "text");
+
+        return JSONReader.create(JSONTokenizer.create(text));
+    }
+
+    /**
+     * Create a new JSONReader that reads the provided CharacterReadStream.
+     * @param characterReadStream The CharacterReadStream to read.
+     * @return The new JSONReader.
+     */
+    public static JSONReader create(CharacterReadStream characterReadStream)
+    {
+        PreCondition.assertNotNull(characterReadStream, "characterReadStream");
+        PreCondition.assertNotDisposed(characterReadStream, "characterReadStream");
+
+        return JSONReader.create(JSONTokenizer.create(characterReadStream));
+    }
+
+    /**
+     * Create a new JSONReader that reads the provided ByteReadStream as UTF-8 text.
+     * @param byteReadStream The ByteReadStream to read.
+     * @return The new JSONReader.
+     */
+    public static JSONReader create(ByteReadStream byteReadStream)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertNotDisposed(byteReadStream, "byteReadStream");
+
+        return JSONReader.create(JSONTokenizer.create(byteReadStream));
+    }
+
+    @Override
+    public boolean hasStarted()
+    {
+        return this.hasStarted;
+    }
+
+    @Override
+    public boolean hasCurrent()
+    {
+        return this.current != null;
+    }
+
+    @Override
+    public JSONEventType getCurrent()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+        return this.current;
+    }
+
+    /**
+     * Get the JSONToken that produced the current event.
+     * @return The JSONToken that produced the current event.
+     */
+    public JSONToken getCurrentToken()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+        return this.currentToken;
+    }
+
+    /**
+     * Get the number of objects and arrays that enclose the current event. The StartObject,
+     * EndObject, StartArray, and EndArray events have the depth of the object or array that they
+     * start or end, not the depth of that object's or array's contents.
+     * @return The number of objects and arrays that enclose the current event.
+     */
+    public int getDepth()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+        return this.currentDepth;
+    }
+
+    /**
+     * Get the unquoted name of the current PropertyName event.
+     * @return The unquoted name of the current PropertyName event.
+     */
+    public String getPropertyName()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+        PreCondition.assertEqual(JSONEventType.PropertyName, this.getCurrent(), "this.getCurrent()");
+
+        return Strings.unquote(this.currentToken.getText());
+    }
+
+    @Override
+    public boolean next()
+    {
+        this.hasStarted = true;
+        this.current = null;
+        this.currentToken = null;
+
+        JSON.ensureHasStarted(this.tokenizer);
+        while (this.current == null && this.tokenizer.hasCurrent())
+        {
+            final JSONToken token = this.tokenizer.getCurrent();
+            final JSONTokenType tokenType = token.getType();
+            switch (this.expectation)
+            {
+                case JSONReader.expectTopLevelValue:
+                    if (!JSONReader.isValueStart(tokenType))
+                    {
+                        throw new ParseException("Unexpected JSON token: " + token);
+                    }
+                    this.readValue(token);
+                    break;
+
+                case JSONReader.expectFirstPropertyOrEndObject:
+                    if (tokenType == JSONTokenType.RightCurlyBracket)
+                    {
+                        this.readEnd(token, JSONEventType.EndObject);
+                    }
+                    else if (tokenType == JSONTokenType.QuotedString)
+                    {
+                        this.readPropertyName(token);
+                    }
+                    else
+                    {
+                        throw new ParseException("Expected quoted-string object property name or right curly bracket ('}').");
+                    }
+                    break;
+
+                case JSONReader.expectProperty:
+                    if (tokenType != JSONTokenType.QuotedString)
+                    {
+                        throw new ParseException("Expected quoted-string object property name.");
+                    }
+                    this.readPropertyName(token);
+                    break;
+
+                case JSONReader.expectPropertySeparatorOrEndObject:
+                    if (tokenType == JSONTokenType.Comma)
+                    {
+                        JSON.next(this.tokenizer);
+                        this.expectation = JSONReader.expectProperty;
+                    }
+                    else if (tokenType == JSONTokenType.RightCurlyBracket)
+                    {
+                        this.readEnd(token, JSONEventType.EndObject);
+                    }
+                    else
+                    {
+                        throw new ParseException("Expected object property separator (',') or right curly bracket ('}').");
+                    }
+                    break;
+
+                case JSONReader.expectPropertyValue:
+                    if (tokenType == JSONTokenType.Comma)
+                    {
+                        throw new ParseException("Expected object property value.");
+                    }
+                    else if (!JSONReader.isValueStart(tokenType))
+                    {
+                        throw new ParseException("Unexpected object property value token: " + Strings.escapeAndQuote(token));
+                    }
+                    this.readValue(token);
+                    break;
+
+                case JSONReader.expectFirstElementOrEndArray:
+                case JSONReader.expectElement:
+                    if (tokenType == JSONTokenType.Comma ||
+                        (tokenType == JSONTokenType.RightSquareBracket && this.expectation == JSONReader.expectElement))
+                    {
+                        throw new ParseException("Expected array element.");
+                    }
+                    else if (tokenType == JSONTokenType.RightSquareBracket)
+                    {
+                        this.readEnd(token, JSONEventType.EndArray);
+                    }
+                    else if (!JSONReader.isValueStart(tokenType))
+                    {
+                        throw new ParseException("Unexpected array element token: " + Strings.escapeAndQuote(token));
+                    }
+                    else
+                    {
+                        this.readValue(token);
+                    }
+                    break;
+
+                case JSONReader.expectElementSeparatorOrEndArray:
+                    if (tokenType == JSONTokenType.Comma)
+                    {
+                        JSON.next(this.tokenizer);
+                        this.expectation = JSONReader.expectElement;
+                    }
+                    else if (tokenType == JSONTokenType.RightSquareBracket)
+                    {
+                        this.readEnd(token, JSONEventType.EndArray);
+                    }
+                    else if (JSONReader.isValueStart(tokenType))
+                    {
+                        throw new ParseException("Expected array element separator (',') or right square bracket (']').");
+                    }
+                    else
+                    {
+                        throw new ParseException("Unexpected array element token: " + Strings.escapeAndQuote(token));
+                    }
+                    break;
+            }
+        }
+
+        if (this.current == null)
+        {
+            switch (this.expectation)
+            {
+                case JSONReader.expectFirstPropertyOrEndObject:
+                case JSONReader.expectPropertySeparatorOrEndObject:
+                    throw new ParseException("Missing object right curly bracket ('}').");
+
+                case JSONReader.expectProperty:
+                    throw new ParseException("Missing object property.");
+
+                case JSONReader.expectPropertyValue:
+                    throw new ParseException("Missing object property value.");
+
+                case JSONReader.expectFirstElementOrEndArray:
+                case JSONReader.expectElementSeparatorOrEndArray:
+                    throw new ParseException("Missing array right square bracket (']').");
+
+                case JSONReader.expectElement:
+                    throw new ParseException("Missing array element.");
+            }
+        }
+
+        return this.hasCurrent();
+    }
+
+    /**
+     * Skip past the contents of the object or array that the current StartObject or StartArray
+     * event starts. Afterwards the current event will be the matching EndObject or EndArray event.
+     * If the current event doesn't start an object or an array, then nothing happens.
+     * @return This object for method chaining.
+     */
+    public JSONReader skipSubtree()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+
+        if (this.current == JSONEventType.StartObject || this.current == JSONEventType.StartArray)
+        {
+            final int startDepth = this.currentDepth;
+            while (this.next() && !(this.currentDepth == startDepth && JSONReader.isEnd(this.current)))
+            {
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Read the JSONSegment that starts at the current event. Afterwards the current event will be
+     * the last event of the JSONSegment, so only the returned JSONSegment is held in memory.
+     * @return The JSONSegment that starts at the current event.
+     */
+    public Result<JSONSegment> readSegment()
+    {
+        PreCondition.assertTrue(this.hasCurrent(), "this.hasCurrent()");
+        PreCondition.assertTrue(JSONReader.isValueStart(this.getCurrent()), "JSONReader.isValueStart(this.getCurrent())");
+
+        return Result.create(this::readSegmentValue);
+    }
+
+    private JSONSegment readSegmentValue()
+    {
+        JSONSegment result;
+        switch (this.current)
+        {
+            case StartObject:
+                final JSONObject object = JSONObject.create();
+                while (this.next() && this.current == JSONEventType.PropertyName)
+                {
+                    final String propertyName = this.getPropertyName();
+                    this.next();
+                    object.set(propertyName, this.readSegmentValue());
+                }
+                result = object;
+                break;
+
+            case StartArray:
+                final List<JSONSegment> elements = List.create();
+                while (this.next() && this.current != JSONEventType.EndArray)
+                {
+                    elements.add(this.readSegmentValue());
+                }
+                result = JSONArray.create(elements);
+                break;
+
+            case Null:
+                result = JSONNull.segment;
+                break;
+
+            case Boolean:
+                result = JSONBoolean.get(this.currentToken == JSONToken.trueToken);
+                break;
+
+            case Number:
+                result = JSONNumber.create(this.currentToken.getText());
+                break;
+
+            default:
+                result = JSONString.getFromQuoted(this.currentToken.getText());
+                break;
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Iterate through the elements of the array that starts at the current StartArray event (or
+     * at the first event if this JSONReader hasn't started yet), one JSONSegment at a time. Only
+     * the current element is held in memory.
+     * @return An Iterator that returns the elements of the array.
+     */
+    public Iterator<JSONSegment> iterateArrayElements()
+    {
+        final BooleanValue foundStartArray = BooleanValue.create(false);
+        return Iterator.create((IteratorActions<JSONSegment> actions) ->
+        {
+            if (!foundStartArray.get())
+            {
+                if (!this.hasStarted())
+                {
+                    this.next();
+                }
+
+                if (!this.hasCurrent())
+                {
+                    throw new ParseException("Missing array left square bracket ('[').");
+                }
+                else if (this.getCurrent() != JSONEventType.StartArray)
+                {
+                    throw new ParseException("Expected array left square bracket ('[').");
+                }
+                foundStartArray.set(true);
+            }
+
+            if (this.next() && this.getCurrent() != JSONEventType.EndArray)
+            {
+                actions.returnValue(this.readSegmentValue());
+            }
+        });
+    }
+
+    private void readValue(JSONToken token)
+    {
+        switch (token.getType())
+        {
+            case LeftCurlyBracket:
+                this.setCurrent(token, JSONEventType.StartObject);
+                this.pushContainer(true);
+                this.expectation = JSONReader.expectFirstPropertyOrEndObject;
+                break;
+
+            case LeftSquareBracket:
+                this.setCurrent(token, JSONEventType.StartArray);
+                this.pushContainer(false);
+                this.expectation = JSONReader.expectFirstElementOrEndArray;
+                break;
+
+            case Null:
+                this.setCurrent(token, JSONEventType.Null);
+                this.expectation = this.getExpectationAfterValue();
+                break;
+
+            case Boolean:
+                this.setCurrent(token, JSONEventType.Boolean);
+                this.expectation = this.getExpectationAfterValue();
+                break;
+
+            case Number:
+                this.setCurrent(token, JSONEventType.Number);
+                this.expectation = this.getExpectationAfterValue();
+                break;
+
+            default:
+                this.setCurrent(token, JSONEventType.String);
+                this.expectation = this.getExpectationAfterValue();
+                break;
+        }
+        JSON.next(this.tokenizer);
+    }
+
+    private void readPropertyName(JSONToken token)
+    {
+        if (token.getText().length() <= 2)
+        {
+            throw new ParseException("Expected object property name to be not empty.");
+        }
+        this.setCurrent(token, JSONEventType.PropertyName);
+
+        if (!JSON.next(this.tokenizer))
+        {
+            throw new ParseException("Missing object property name and value separator (':').");
+        }
+        else if (this.tokenizer.getCurrent().getType() != JSONTokenType.Colon)
+        {
+            throw new ParseException("Expected object property name and value separator (':').");
+        }
+        JSON.next(this.tokenizer);
+        this.expectation = JSONReader.expectPropertyValue;
+    }
+
+    private void readEnd(JSONToken token, JSONEventType eventType)
+    {
+        --this.containerCount;
+        this.setCurrent(token, eventType);
+        this.expectation = this.getExpectationAfterValue();
+        JSON.next(this.tokenizer);
+    }
+
+    private void setCurrent(JSONToken token, JSONEventType eventType)
+    {
+        this.currentToken = token;
+        this.current = eventType;
+        this.currentDepth = this.containerCount;
+    }
+
+    private void pushContainer(boolean isObject)
+    {
+        if (this.containerCount == this.containerIsObject.length)
+        {
+            this.containerIsObject = java.util.Arrays.copyOf(this.containerIsObject, this.containerIsObject.length * 2);
+        }
+        this.containerIsObject[this.containerCount] = isObject;
+        ++this.containerCount;
+    }
+
+    private int getExpectationAfterValue()
+    {
+        return this.containerCount == 0
+            ? JSONReader.expectTopLevelValue
+            : this.containerIsObject[this.containerCount - 1]
+                ? JSONReader.expectPropertySeparatorOrEndObject
+                : JSONReader.expectElementSeparatorOrEndArray;
+    }
+
+    private static boolean isValueStart(JSONTokenType tokenType)
+    {
+        switch (tokenType)
+        {
+            case LeftCurlyBracket:
+            case LeftSquareBracket:
+            case Null:
+            case Boolean:
+            case Number:
+            case QuotedString:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isValueStart(JSONEventType eventType)
+    {
+        return eventType != JSONEventType.EndObject &&
+            eventType != JSONEventType.EndArray &&
+            eventType != JSONEventType.PropertyName;
+    }
+
+    private static boolean isEnd(JSONEventType eventType)
+    {
+        return eventType == JSONEventType.EndObject || eventType == JSONEventType.EndArray;
+    }
+}
@@ -93,6 +93,12 @@ public class JSONString implements JSONSegment
         });
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.text, this.quote);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -40,6 +40,12 @@ public class JSONToken
         return this.type;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.text, this.type);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -5,8 +5,35 @@ package qub;
  */
 public class JSONTokenizer implements Iterator<JSONToken>
 {
-    private static final Iterable<JSONToken> literalTokens = Iterable.create(JSONToken.nullToken, JSONToken.falseToken, JSONToken.trueToken);
+    private static final JSONToken[] literalTokens = new JSONToken[] { JSONToken.nullToken, JSONToken.falseToken, JSONToken.trueToken };
+    /**
+     * The default number of characters that will be read from a CharacterReadStream at a time.
+     */
+    private static final int defaultCharacterWindowLength = 8192;
+
+    /**
+     * The characters to convert to JSONTokens, or null if this JSONTokenizer reads its characters
+     * from a CharacterReadStream.
+     */
     private final Iterator<Character> characters;
+    /**
+     * The CharacterReadStream to convert to JSONTokens, or null if this JSONTokenizer reads its
+     * characters from an Iterator.
+     */
+    private final CharacterReadStream characterReadStream;
+    /**
+     * The reusable window of characters that have been read from the characterReadStream.
+     */
+    private final char[] characterWindow;
+    /**
+     * The index of the current character in the characterWindow.
+     */
+    private int characterWindowIndex;
+    /**
+     * The number of characters in the characterWindow that were read from the
+     * characterReadStream.
+     */
+    private int characterWindowCount;
     private final CharacterList builder;
     private boolean hasStarted;
     private JSONToken current;
@@ -20,6 +47,26 @@ public class JSONTokenizer implements Iterator<JSONToken>
         PreCondition.assertNotNull(characters, "characters");
 
         this.characters = characters;
+        this.characterReadStream = null;
+        this.characterWindow = null;
+        this.builder = CharacterList.create();
+    }
+
+    /**
+     * Create a new JSONTokenizer from the provided CharacterReadStream.
+     * @param characterReadStream The CharacterReadStream to convert to JSONTokens.
+     * @param characterWindowLength The maximum number of characters to read from the
+     *                              CharacterReadStream at a time.
+     */
+    private JSONTokenizer(CharacterReadStream characterReadStream, int characterWindowLength)
+    {
+        PreCondition.assertNotNull(characterReadStream, "characterReadStream");
+        PreCondition.assertNotDisposed(characterReadStream, "characterReadStream");
+        PreCondition.assertGreaterThanOrEqualTo(characterWindowLength, 1, "characterWindowLength");
+
+        this.characters = null;
+        this.characterReadStream = characterReadStream;
+        this.characterWindow = new char[characterWindowLength];
         this.builder = CharacterList.create();
     }
 
@@ -59,6 +106,53 @@ public class JSONTokenizer implements Iterator<JSONToken>
         return new JSONTokenizer(characters);
     }
 
+    /**
+     * Create a new JSONTokenizer that reads the provided CharacterReadStream in chunks. Since
+     * characters are read ahead of the current JSONToken, the CharacterReadStream should not be
+     * read from by anything else while the JSONTokenizer is in use.
+     * @param characterReadStream The CharacterReadStream to convert to JSONTokens.
+     * @return The new JSONTokenizer.
+     */
+    public static JSONTokenizer create(CharacterReadStream characterReadStream)
+    {
+        return JSONTokenizer.create(characterReadStream, JSONTokenizer.defaultCharacterWindowLength);
+    }
+
+    /**
+     * Create a new JSONTokenizer that reads at most the provided number of characters from the
+     * provided CharacterReadStream at a time. A characterWindowLength of 1 means that nothing
+     * past the character that follows the current JSONToken is read from the
+     * CharacterReadStream, so whatever follows can still be read from the CharacterReadStream
+     * after the JSONTokenizer is done with it.
+     * @param characterReadStream The CharacterReadStream to convert to JSONTokens.
+     * @param characterWindowLength The maximum number of characters to read from the
+     *                              CharacterReadStream at a time.
+     * @return The new JSONTokenizer.
+     */
+    public static JSONTokenizer create(CharacterReadStream characterReadStream, int characterWindowLength)
+    {
+        PreCondition.assertNotNull(characterReadStream, "characterReadStream");
+        PreCondition.assertNotDisposed(characterReadStream, "characterReadStream");
+        PreCondition.assertGreaterThanOrEqualTo(characterWindowLength, 1, "characterWindowLength");
+
+        return new JSONTokenizer(characterReadStream, characterWindowLength);
+    }
+
+    /**
+     * Create a new JSONTokenizer that decodes the provided ByteReadStream as UTF-8 and reads the
+     * resulting characters in chunks. Since bytes are read ahead of the current JSONToken, the
+     * ByteReadStream should not be read from by anything else while the JSONTokenizer is in use.
+     * @param byteReadStream The ByteReadStream to convert to JSONTokens.
+     * @return The new JSONTokenizer.
+     */
+    public static JSONTokenizer create(ByteReadStream byteReadStream)
+    {
+        PreCondition.assertNotNull(byteReadStream, "byteReadStream");
+        PreCondition.assertNotDisposed(byteReadStream, "byteReadStream");
+
+        return JSONTokenizer.create(CharacterReadStream.create(byteReadStream));
+    }
+
     @Override
     public boolean hasStarted()
     {
@@ -82,57 +176,61 @@ public class JSONTokenizer implements Iterator<JSONToken>
     @Override
     public boolean next()
     {
-        this.characters.start();
+        if (this.characters != null)
+        {
+            this.characters.start();
+        }
         this.hasStarted = true;
 
-        if (!this.characters.hasCurrent())
+        if (!this.hasCurrentCharacter())
         {
             this.current = null;
         }
         else
         {
-            switch (this.characters.getCurrent())
+            switch (this.getCurrentCharacter())
             {
                 case '{':
                     this.current = JSONToken.leftCurlyBracket;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case '}':
                     this.current = JSONToken.rightCurlyBracket;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case '[':
                     this.current = JSONToken.leftSquareBracket;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case ']':
                     this.current = JSONToken.rightSquareBracket;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case ':':
                     this.current = JSONToken.colon;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case ',':
                     this.current = JSONToken.comma;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case '\n':
                     this.current = JSONToken.newLine;
-                    this.characters.next();
+                    this.nextCharacter();
                     break;
 
                 case '\r':
-                    if (this.characters.next() && this.characters.getCurrent() == '\n')
+                    this.nextCharacter();
+                    if (this.hasCurrentCharacter() && this.getCurrentCharacter() == '\n')
                     {
                         this.current = JSONToken.carriageReturnNewLine;
-                        this.characters.next();
+                        this.nextCharacter();
                     }
                     else
                     {
@@ -155,21 +253,18 @@ public class JSONTokenizer implements Iterator<JSONToken>
                     break;
 
                 default:
-                    if (JSONTokenizer.isLetter(this.characters.getCurrent()))
+                    if (JSONTokenizer.isLetter(this.getCurrentCharacter()))
                     {
-                        final String tokenText = this.readLiteral();
-                        this.current = JSONTokenizer.literalTokens.first((JSONToken token) -> token.getText().equals(tokenText))
-                            .convertError(NotFoundException.class, () -> new ParseException("Unrecognized " + Types.getTypeName(JSONToken.class) + " literal: " + tokenText))
-                            .await();
+                        this.current = this.readLiteral();
                     }
-                    else if (this.characters.getCurrent() == '-' || JSONTokenizer.isDigit(this.characters.getCurrent()))
+                    else if (this.getCurrentCharacter() == '-' || JSONTokenizer.isDigit(this.getCurrentCharacter()))
                     {
                         final String tokenText = this.readNumber();
                         this.current = JSONToken.number(tokenText);
                     }
                     else
                     {
-                        throw new ParseException("Unrecognized JSONToken start character: " + Strings.escapeAndQuote(this.characters.getCurrent()));
+                        throw new ParseException("Unrecognized JSONToken start character: " + Strings.escapeAndQuote(this.getCurrentCharacter()));
                     }
             }
         }
@@ -177,6 +272,57 @@ public class JSONTokenizer implements Iterator<JSONToken>
         return this.hasCurrent();
     }
 
+    /**
+     * Get whether or not there is a current character to tokenize. If this JSONTokenizer reads
+     * from a CharacterReadStream and its character window has been used up, then the next chunk
+     * of characters will be read into the window.
+     * @return Whether or not there is a current character to tokenize.
+     */
+    private boolean hasCurrentCharacter()
+    {
+        boolean result;
+        if (this.characters != null)
+        {
+            result = this.characters.hasCurrent();
+        }
+        else
+        {
+            while (this.characterWindowIndex == this.characterWindowCount && this.characterWindowCount != -1)
+            {
+                this.characterWindowIndex = 0;
+                this.characterWindowCount = this.characterReadStream.readCharactersInto(this.characterWindow, 0, this.characterWindow.length);
+            }
+            result = (this.characterWindowCount != -1);
+        }
+        return result;
+    }
+
+    private char getCurrentCharacter()
+    {
+        return this.characters != null
+            ? this.characters.getCurrent()
+            : this.characterWindow[this.characterWindowIndex];
+    }
+
+    private void nextCharacter()
+    {
+        if (this.characters != null)
+        {
+            this.characters.next();
+        }
+        else
+        {
+            ++this.characterWindowIndex;
+        }
+    }
+
+    private char takeCurrentCharacter()
+    {
+        final char result = this.getCurrentCharacter();
+        this.nextCharacter();
+        return result;
+    }
+
     /**
      * Get whether or not the provided character is a recognized JSON letter.
      * @param character The character to check.
@@ -208,37 +354,52 @@ public class JSONTokenizer implements Iterator<JSONToken>
         return ' ' == character || '\t' == character;
     }
 
-    private String readLiteral()
+    private JSONToken readLiteral()
     {
-        PreCondition.assertTrue(this.characters.hasCurrent(), "characters.hasCurrent()");
-        PreCondition.assertTrue(JSONTokenizer.isLetter(this.characters.getCurrent()), "JSONTokenizer.isLetter(this.characters.getCurrent())");
+        PreCondition.assertTrue(this.hasCurrentCharacter(), "this.hasCurrentCharacter()");
+        PreCondition.assertTrue(JSONTokenizer.isLetter(this.getCurrentCharacter()), "JSONTokenizer.isLetter(this.getCurrentCharacter())");
 
-        this.builder.add(this.characters.takeCurrent().charValue());
-        while (this.characters.hasCurrent() && JSONTokenizer.isLetter(this.characters.getCurrent()))
+        this.builder.add(this.takeCurrentCharacter());
+        while (this.hasCurrentCharacter() && JSONTokenizer.isLetter(this.getCurrentCharacter()))
         {
-            this.builder.add(this.characters.takeCurrent().charValue());
+            this.builder.add(this.takeCurrentCharacter());
         }
 
-        final String result = this.builder.toString(true);
+        final String tokenText = this.builder.toString(true);
         this.builder.clear();
 
-        PostCondition.assertNotNullAndNotEmpty(result, "result");
+        JSONToken result = null;
+        for (final JSONToken literalToken : JSONTokenizer.literalTokens)
+        {
+            if (literalToken.getText().equals(tokenText))
+            {
+                result = literalToken;
+                break;
+            }
+        }
+
+        if (result == null)
+        {
+            throw new ParseException("Unrecognized " + Types.getTypeName(JSONToken.class) + " literal: " + tokenText);
+        }
+
+        PostCondition.assertNotNull(result, "result");
 
         return result;
     }
 
     private String readQuotedString()
     {
-        PreCondition.assertTrue(this.characters.hasCurrent(), "this.characters.hasCurrent()");
-        PreCondition.assertOneOf(this.characters.getCurrent(), Iterable.create('\'', '\"'), "this.characters.getCurrent()");
+        PreCondition.assertTrue(this.hasCurrentCharacter(), "this.hasCurrentCharacter()");
+        PreCondition.assertTrue(this.getCurrentCharacter() == '\'' || this.getCurrentCharacter() == '\"', "this.getCurrentCharacter() == '\\'' || this.getCurrentCharacter() == '\\\"'");
 
-        final char startQuote = this.characters.takeCurrent();
+        final char startQuote = this.takeCurrentCharacter();
         this.builder.add(startQuote);
         boolean escaped = false;
         boolean foundCloseQuote = false;
-        while (this.characters.hasCurrent())
+        while (this.hasCurrentCharacter())
         {
-            final char currentCharacter = this.characters.takeCurrent();
+            final char currentCharacter = this.takeCurrentCharacter();
             this.builder.add(currentCharacter);
             if (escaped)
             {
@@ -270,59 +431,60 @@ public class JSONTokenizer implements Iterator<JSONToken>
 
     private String readNumber()
     {
-        PreCondition.assertTrue(this.characters.hasCurrent(), "this.characters.hasCurrent()");
-        PreCondition.assertOneOf(this.characters.getCurrent(), Iterable.create('-', '0', '1', '2', '3', '4', '5', '6', '7', '8', '9'), "this.characters.getCurrent()");
+        PreCondition.assertTrue(this.hasCurrentCharacter(), "this.hasCurrentCharacter()");
+        PreCondition.assertTrue(this.getCurrentCharacter() == '-' || JSONTokenizer.isDigit(this.getCurrentCharacter()), "this.getCurrentCharacter() == '-' || JSONTokenizer.isDigit(this.getCurrentCharacter())");
 
-        if (this.characters.getCurrent() == '-')
+        if (this.getCurrentCharacter() == '-')
         {
-            this.builder.add(this.characters.takeCurrent().charValue());
+            this.builder.add(this.takeCurrentCharacter());
 
-            if (!this.characters.hasCurrent() || !JSONTokenizer.isDigit(this.characters.getCurrent()))
+            if (!this.hasCurrentCharacter() || !JSONTokenizer.isDigit(this.getCurrentCharacter()))
             {
                 throw new ParseException("Missing digits after number's negative sign: \"-\"");
             }
         }
 
-        while (this.characters.hasCurrent() && JSONTokenizer.isDigit(this.characters.getCurrent()))
+        while (this.hasCurrentCharacter() && JSONTokenizer.isDigit(this.getCurrentCharacter()))
         {
-            this.builder.add(this.characters.takeCurrent().charValue());
+            this.builder.add(this.takeCurrentCharacter());
         }
 
-        if (this.characters.hasCurrent() && this.characters.getCurrent() == '.')
+        if (this.hasCurrentCharacter() && this.getCurrentCharacter() == '.')
         {
-            this.builder.add(this.characters.takeCurrent().charValue());
-            if (!this.characters.hasCurrent() || !JSONTokenizer.isDigit(this.characters.getCurrent()))
+            this.builder.add(this.takeCurrentCharacter());
+            if (!this.hasCurrentCharacter() || !JSONTokenizer.isDigit(this.getCurrentCharacter()))
             {
                 throw new ParseException("Missing digits after number's decimal point: " + Strings.escapeAndQuote(this.builder.toString(true)));
             }
 
             do
             {
-                this.builder.add(this.characters.takeCurrent().charValue());
+                this.builder.add(this.takeCurrentCharacter());
             }
-            while (this.characters.hasCurrent() && JSONTokenizer.isDigit(this.characters.getCurrent()));
+            while (this.hasCurrentCharacter() && JSONTokenizer.isDigit(this.getCurrentCharacter()));
         }
 
-        if (this.characters.hasCurrent() && (this.characters.getCurrent().equals('e') || this.characters.getCurrent().equals('E')))
+        if (this.hasCurrentCharacter() && (this.getCurrentCharacter() == 'e' || this.getCurrentCharacter() == 'E'))
         {
-            this.builder.add(this.characters.takeCurrent().charValue());
+            this.builder.add(this.takeCurrentCharacter());
 
-            if (!this.characters.hasCurrent() || !(this.characters.getCurrent().equals('-') || this.characters.getCurrent().equals('+') || JSONTokenizer.isDigit(this.characters.getCurrent())))
+            if (!this.hasCurrentCharacter() || !(this.getCurrentCharacter() == '-' || this.getCurrentCharacter() == '+' || JSONTokenizer.isDigit(this.getCurrentCharacter())))
             {
                 throw new ParseException("Missing digits after number's exponent character: " + Strings.escapeAndQuote(this.builder.toString(true)));
             }
             else
             {
-                this.builder.add(this.characters.takeCurrent().charValue());
-                if ((this.builder.endsWith('-') || this.builder.endsWith('+')) &&
-                    (!this.characters.hasCurrent() || !JSONTokenizer.isDigit(this.characters.getCurrent())))
+                final char exponentCharacter = this.takeCurrentCharacter();
+                this.builder.add(exponentCharacter);
+                if ((exponentCharacter == '-' || exponentCharacter == '+') &&
+                    (!this.hasCurrentCharacter() || !JSONTokenizer.isDigit(this.getCurrentCharacter())))
                 {
                     throw new ParseException("Missing digits after number's exponent sign character: " + Strings.escapeAndQuote(this.builder.toString(true)));
                 }
 
-                while (this.characters.hasCurrent() && JSONTokenizer.isDigit(this.characters.getCurrent()))
+                while (this.hasCurrentCharacter() && JSONTokenizer.isDigit(this.getCurrentCharacter()))
                 {
-                    this.builder.add(this.characters.takeCurrent().charValue());
+                    this.builder.add(this.takeCurrentCharacter());
                 }
             }
         }
@@ -337,14 +499,14 @@ public class JSONTokenizer implements Iterator<JSONToken>
 
     private String readWhitespace()
     {
-        PreCondition.assertTrue(this.characters.hasCurrent(), "this.characters.hasCurrent()");
-        PreCondition.assertTrue(JSONTokenizer.isWhitespace(this.characters.getCurrent()), "JSONTokenizer.isWhitespace(this.characters.getCurrent())");
+        PreCondition.assertTrue(this.hasCurrentCharacter(), "this.hasCurrentCharacter()");
+        PreCondition.assertTrue(JSONTokenizer.isWhitespace(this.getCurrentCharacter()), "JSONTokenizer.isWhitespace(this.getCurrentCharacter())");
 
         do
         {
-            builder.add(this.characters.takeCurrent().charValue());
+            builder.add(this.takeCurrentCharacter());
         }
-        while (this.characters.hasCurrent() && JSONTokenizer.isWhitespace(this.characters.getCurrent()));
+        while (this.hasCurrentCharacter() && JSONTokenizer.isWhitespace(this.getCurrentCharacter()));
 
         final String result = builder.toString(true);
         builder.clear();
@@ -356,34 +518,35 @@ public class JSONTokenizer implements Iterator<JSONToken>
 
     private JSONToken readCommentToken()
     {
-        PreCondition.assertTrue(this.characters.hasCurrent(), "this.characters.hasCurrent()");
-        PreCondition.assertEqual('/', this.characters.getCurrent(), "this.characters.getCurrent()");
+        PreCondition.assertTrue(this.hasCurrentCharacter(), "this.hasCurrentCharacter()");
+        PreCondition.assertEqual('/', this.getCurrentCharacter(), "this.getCurrentCharacter()");
 
-        if (!this.characters.next())
+        this.nextCharacter();
+        if (!this.hasCurrentCharacter())
         {
             throw new ParseException("Missing comment start sequence second character.");
         }
 
         JSONTokenType resultType;
         this.builder.add('/');
-        if (this.characters.getCurrent() == '/')
+        if (this.getCurrentCharacter() == '/')
         {
             resultType = JSONTokenType.LineComment;
-            this.builder.add(this.characters.takeCurrent().charValue());
-            while (this.characters.hasCurrent() && this.characters.getCurrent() != '\r' && this.characters.getCurrent() != '\n')
+            this.builder.add(this.takeCurrentCharacter());
+            while (this.hasCurrentCharacter() && this.getCurrentCharacter() != '\r' && this.getCurrentCharacter() != '\n')
             {
-                this.builder.add(this.characters.takeCurrent().charValue());
+                this.builder.add(this.takeCurrentCharacter());
             }
         }
-        else if (this.characters.getCurrent() == '*')
+        else if (this.getCurrentCharacter() == '*')
         {
             resultType = JSONTokenType.BlockComment;
-            this.builder.add(this.characters.takeCurrent().charValue());
+            this.builder.add(this.takeCurrentCharacter());
             boolean endSequenceStarted = false;
             boolean ended = false;
-            while (this.characters.hasCurrent())
+            while (this.hasCurrentCharacter())
             {
-                final char character = this.characters.takeCurrent();
+                final char character = this.takeCurrentCharacter();
                 this.builder.add(character);
                 if (endSequenceStarted && character == '/')
                 {
@@ -402,7 +565,7 @@ public class JSONTokenizer implements Iterator<JSONToken>
         }
         else
         {
-            throw new ParseException("Unrecognized comment start sequence second character: " + Strings.escapeAndQuote(this.characters.getCurrent()));
+            throw new ParseException("Unrecognized comment start sequence second character: " + Strings.escapeAndQuote(this.getCurrentCharacter()));
         }
 
         final String resultText = this.builder.toString(true);
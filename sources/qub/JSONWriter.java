@@ -0,0 +1,610 @@
+package qub;
+
+/**
+ * A writer that writes JSON objects, arrays, and values directly to a CharacterWriteStream
+ * without building JSONSegments first. The written characters are buffered and only written to
+ * the CharacterWriteStream when the buffer is full, when a top-level value is finished, or when
+ * flush() is called.
+ */
+public class JSONWriter
+{
+    private static final int bufferLength = 4096;
+    private static final char[] hexDigits = new char[] { '0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'a', 'b', 'c', 'd', 'e', 'f' };
+
+    private final CharacterWriteStream stream;
+    private final String newLine;
+    private final String singleIndent;
+    private final String afterPropertySeparator;
+    private final char[] buffer;
+    private int bufferCount;
+    /**
+     * The characters that long values are formatted into before they are copied into the buffer.
+     * A long has at most 19 digits and a sign.
+     */
+    private final char[] digits;
+    /**
+     * The builder that double values are formatted into before they are copied into the buffer.
+     */
+    private final java.lang.StringBuilder numberBuilder;
+    /**
+     * Whether or not each of the containers that are currently being written is an object (true)
+     * or an array (false).
+     */
+    private boolean[] containerIsObject;
+    /**
+     * Whether or not each of the containers that are currently being written has any properties
+     * or elements yet.
+     */
+    private boolean[] containerHasEntries;
+    private int containerCount;
+    private boolean wroteTopLevelValue;
+    private boolean expectPropertyValue;
+
+    private JSONWriter(CharacterWriteStream stream, JSONFormat format)
+    {
+        PreCondition.assertNotNull(stream, "stream");
+        PreCondition.assertNotDisposed(stream, "stream");
+        PreCondition.assertNotNull(format, "format");
+
+        this.stream = stream;
+        this.newLine = format.getNewLine();
+        this.singleIndent = format.getSingleIndent();
+        this.afterPropertySeparator = format.getAfterPropertySeparator();
+        this.buffer = new char[JSONWriter.bufferLength];
+        this.digits = new char[20];
+        this.numberBuilder = new java.lang.StringBuilder();
+        this.containerIsObject = new boolean[16];
+        this.containerHasEntries = new boolean[16];
+    }
+
+    /**
+     * Create a new JSONWriter that writes consise JSON to the provided CharacterWriteStream.
+     * @param stream The CharacterWriteStream to write to.
+     * @return The new JSONWriter.
+     */
+    public static JSONWriter create(CharacterWriteStream stream)
+    {
+        return JSONWriter.create(stream, JSONFormat.consise);
+    }
+
+    /**
+     * Create a new JSONWriter that writes JSON to the provided CharacterWriteStream using the
+     * provided JSONFormat.
+     * @param stream The CharacterWriteStream to write to.
+     * @param format The JSONFormat to use.
+     * @return The new JSONWriter.
+     */
+    public static JSONWriter create(CharacterWriteStream stream, JSONFormat format)
+    {
+        PreCondition.assertNotNull(stream, "stream");
+        PreCondition.assertNotDisposed(stream, "stream");
+        PreCondition.assertNotNull(format, "format");
+
+        return new JSONWriter(stream, format);
+    }
+
+    /**
+     * Create a new JSONWriter that writes consise UTF-8 encoded JSON to the provided
+     * ByteWriteStream.
+     * @param stream The ByteWriteStream to write to.
+     * @return The new JSONWriter.
+     */
+    public static JSONWriter create(ByteWriteStream stream)
+    {
+        return JSONWriter.create(stream, JSONFormat.consise);
+    }
+
+    /**
+     * Create a new JSONWriter that writes UTF-8 encoded JSON to the provided ByteWriteStream
+     * using the provided JSONFormat.
+     * @param stream The ByteWriteStream to write to.
+     * @param format The JSONFormat to use.
+     * @return The new JSONWriter.
+     */
+    public static JSONWriter create(ByteWriteStream stream, JSONFormat format)
+    {
+        PreCondition.assertNotNull(stream, "stream");
+        PreCondition.assertNotDisposed(stream, "stream");
+        PreCondition.assertNotNull(format, "format");
+
+        final CharacterWriteStream characterWriteStream = CharacterWriteStream.create(stream);
+        return JSONWriter.create(characterWriteStream, format);
+    }
+
+    /**
+     * Get the number of objects and arrays that have been started but not ended.
+     * @return The number of objects and arrays that have been started but not ended.
+     */
+    public int getDepth()
+    {
+        return this.containerCount;
+    }
+
+    /**
+     * Get whether or not a value can be written next. A value can be written at the top level,
+     * as an array element, or after a property name.
+     * @return Whether or not a value can be written next.
+     */
+    public boolean canWriteValue()
+    {
+        return !this.isInObject() || this.expectPropertyValue;
+    }
+
+    /**
+     * Get whether or not a property name can be written next.
+     * @return Whether or not a property name can be written next.
+     */
+    public boolean canWritePropertyName()
+    {
+        return this.isInObject() && !this.expectPropertyValue;
+    }
+
+    /**
+     * Start writing a new object.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeStartObject()
+    {
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.append('{');
+        this.pushContainer(true);
+
+        return this;
+    }
+
+    /**
+     * Finish writing the current object.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeEndObject()
+    {
+        PreCondition.assertTrue(this.canWritePropertyName(), "this.canWritePropertyName()");
+
+        this.endContainer('}');
+
+        return this;
+    }
+
+    /**
+     * Start writing a new array.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeStartArray()
+    {
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.append('[');
+        this.pushContainer(false);
+
+        return this;
+    }
+
+    /**
+     * Finish writing the current array.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeEndArray()
+    {
+        PreCondition.assertTrue(this.isInArray(), "this.isInArray()");
+
+        this.endContainer(']');
+
+        return this;
+    }
+
+    /**
+     * Write the name of the next property in the current object. The property's value must be
+     * written next.
+     * @param propertyName The name of the property.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writePropertyName(String propertyName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(propertyName, "propertyName");
+        PreCondition.assertTrue(this.canWritePropertyName(), "this.canWritePropertyName()");
+
+        this.beforeEntry();
+        this.appendQuotedString(propertyName);
+        this.afterPropertyName();
+
+        return this;
+    }
+
+    /**
+     * Write a string value. The quote, backslash, and control characters in the value will be
+     * escaped.
+     * @param value The value to write.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeString(String value)
+    {
+        PreCondition.assertNotNull(value, "value");
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.appendQuotedString(value);
+        this.afterValue();
+
+        return this;
+    }
+
+    /**
+     * Write a number value.
+     * @param value The value to write.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeNumber(long value)
+    {
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.appendLong(value);
+        this.afterValue();
+
+        return this;
+    }
+
+    /**
+     * Write a number value. The value is formatted the same way that JSONNumber.create(double)
+     * formats it.
+     * @param value The value to write.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeNumber(double value)
+    {
+        PreCondition.assertFalse(java.lang.Double.isNaN(value), "java.lang.Double.isNaN(value)");
+        PreCondition.assertFalse(java.lang.Double.isInfinite(value), "java.lang.Double.isInfinite(value)");
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.numberBuilder.append(value);
+        this.appendNumberBuilder();
+        this.afterValue();
+
+        return this;
+    }
+
+    /**
+     * Write a boolean value.
+     * @param value The value to write.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeBoolean(boolean value)
+    {
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.append(value ? "true" : "false");
+        this.afterValue();
+
+        return this;
+    }
+
+    /**
+     * Write a null value.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeNull()
+    {
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        this.beforeValue();
+        this.append("null");
+        this.afterValue();
+
+        return this;
+    }
+
+    /**
+     * Write the provided JSONSegment as a value. The JSONSegment is written the same way that its
+     * toString(JSONFormat) would write it.
+     * @param segment The JSONSegment to write.
+     * @return This object for method chaining.
+     */
+    public JSONWriter writeSegment(JSONSegment segment)
+    {
+        PreCondition.assertNotNull(segment, "segment");
+        PreCondition.assertTrue(this.canWriteValue(), "this.canWriteValue()");
+
+        if (segment instanceof JSONObject)
+        {
+            this.writeStartObject();
+            for (final JSONProperty property : ((JSONObject)segment).getProperties())
+            {
+                // A JSONProperty's name is written without escaping, just like
+                // JSONProperty.toString() writes it.
+                this.beforeEntry();
+                this.append('\"');
+                this.append(property.getName());
+                this.append('\"');
+                this.afterPropertyName();
+                this.writeSegment(property.getValue());
+            }
+            this.writeEndObject();
+        }
+        else if (segment instanceof JSONArray)
+        {
+            this.writeStartArray();
+            for (final JSONSegment element : (JSONArray)segment)
+            {
+                this.writeSegment(element);
+            }
+            this.writeEndArray();
+        }
+        else if (segment instanceof JSONBoolean)
+        {
+            this.writeBoolean(((JSONBoolean)segment).getValue());
+        }
+        else if (segment instanceof JSONString)
+        {
+            // A JSONString's value is the text between its quotes, so only its quote character
+            // needs to be escaped.
+            final JSONString string = (JSONString)segment;
+            final char quote = string.getQuote();
+            final String text = string.getValue();
+            this.beforeValue();
+            this.append(quote);
+            final int textLength = text.length();
+            for (int i = 0; i < textLength; ++i)
+            {
+                final char character = text.charAt(i);
+                if (character == quote)
+                {
+                    this.append('\\');
+                }
+                this.append(character);
+            }
+            this.append(quote);
+            this.afterValue();
+        }
+        else
+        {
+            // JSONNumber and JSONNull are written as their text.
+            this.beforeValue();
+            this.append(segment.toString());
+            this.afterValue();
+        }
+
+        return this;
+    }
+
+    /**
+     * Write any buffered characters to the CharacterWriteStream.
+     * @return This object for method chaining.
+     */
+    public JSONWriter flush()
+    {
+        if (this.bufferCount > 0)
+        {
+            this.stream.write(this.buffer, 0, this.bufferCount).await();
+            this.bufferCount = 0;
+        }
+        return this;
+    }
+
+    private boolean isInObject()
+    {
+        return this.containerCount > 0 && this.containerIsObject[this.containerCount - 1];
+    }
+
+    private boolean isInArray()
+    {
+        return this.containerCount > 0 && !this.containerIsObject[this.containerCount - 1];
+    }
+
+    /**
+     * Write the separator that must come before a value.
+     */
+    private void beforeValue()
+    {
+        if (this.containerCount == 0)
+        {
+            // Top-level values are separated by a newline, which makes a sequence of top-level
+            // values newline-delimited JSON.
+            if (this.wroteTopLevelValue)
+            {
+                this.append('\n');
+            }
+            this.wroteTopLevelValue = true;
+        }
+        else if (this.expectPropertyValue)
+        {
+            this.expectPropertyValue = false;
+        }
+        else
+        {
+            this.beforeEntry();
+        }
+    }
+
+    /**
+     * Flush the buffered characters if a top-level value was just finished.
+     */
+    private void afterValue()
+    {
+        if (this.containerCount == 0)
+        {
+            this.flush();
+        }
+    }
+
+    /**
+     * Write the separator, newline, and indentation that must come before a property or an
+     * element.
+     */
+    private void beforeEntry()
+    {
+        final int containerIndex = this.containerCount - 1;
+        if (this.containerHasEntries[containerIndex])
+        {
+            this.append(',');
+        }
+        else
+        {
+            this.containerHasEntries[containerIndex] = true;
+        }
+        this.appendNewLine();
+    }
+
+    /**
+     * Write the separator that must come after a property name.
+     */
+    private void afterPropertyName()
+    {
+        this.append(':');
+        this.append(this.afterPropertySeparator);
+        this.expectPropertyValue = true;
+    }
+
+    private void pushContainer(boolean isObject)
+    {
+        if (this.containerCount == this.containerIsObject.length)
+        {
+            this.containerIsObject = java.util.Arrays.copyOf(this.containerIsObject, this.containerCount * 2);
+            this.containerHasEntries = java.util.Arrays.copyOf(this.containerHasEntries, this.containerCount * 2);
+        }
+        this.containerIsObject[this.containerCount] = isObject;
+        this.containerHasEntries[this.containerCount] = false;
+        ++this.containerCount;
+    }
+
+    private void endContainer(char closeCharacter)
+    {
+        --this.containerCount;
+        if (this.containerHasEntries[this.containerCount])
+        {
+            this.appendNewLine();
+        }
+        this.append(closeCharacter);
+        this.afterValue();
+    }
+
+    private void appendNewLine()
+    {
+        if (!this.newLine.isEmpty())
+        {
+            this.append(this.newLine);
+            for (int i = 0; i < this.containerCount; ++i)
+            {
+                this.append(this.singleIndent);
+            }
+        }
+    }
+
+    private void appendQuotedString(String value)
+    {
+        this.append('\"');
+        final int valueLength = value.length();
+        for (int i = 0; i < valueLength; ++i)
+        {
+            final char character = value.charAt(i);
+            switch (character)
+            {
+                case '\"':
+                case '\\':
+                    this.append('\\');
+                    this.append(character);
+                    break;
+
+                case '\n':
+                    this.append('\\');
+                    this.append('n');
+                    break;
+
+                case '\r':
+                    this.append('\\');
+                    this.append('r');
+                    break;
+
+                case '\t':
+                    this.append('\\');
+                    this.append('t');
+                    break;
+
+                default:
+                    if (character < 0x20)
+                    {
+                        this.append("\\u00");
+                        this.append(JSONWriter.hexDigits[character >>> 4]);
+                        this.append(JSONWriter.hexDigits[character & 0xF]);
+                    }
+                    else
+                    {
+                        this.append(character);
+                    }
+                    break;
+            }
+        }
+        this.append('\"');
+    }
+
+    /**
+     * Append the decimal digits of the provided value to the buffer.
+     * @param value The value to append.
+     */
+    private void appendLong(long value)
+    {
+        // Work with the negative value so that Long.MIN_VALUE doesn't overflow.
+        long remaining = value < 0 ? value : -value;
+        int index = this.digits.length;
+        do
+        {
+            this.digits[--index] = (char)('0' - (remaining % 10));
+            remaining /= 10;
+        }
+        while (remaining != 0);
+        if (value < 0)
+        {
+            this.digits[--index] = '-';
+        }
+
+        final int length = this.digits.length - index;
+        if (JSONWriter.bufferLength - this.bufferCount < length)
+        {
+            this.flush();
+        }
+        Array.copy(this.digits, index, this.buffer, this.bufferCount, length);
+        this.bufferCount += length;
+    }
+
+    private void appendNumberBuilder()
+    {
+        final int length = this.numberBuilder.length();
+        if (JSONWriter.bufferLength - this.bufferCount < length)
+        {
+            this.flush();
+        }
+        this.numberBuilder.getChars(0, length, this.buffer, this.bufferCount);
+        this.bufferCount += length;
+        this.numberBuilder.setLength(0);
+    }
+
+    private void append(char character)
+    {
+        if (this.bufferCount == JSONWriter.bufferLength)
+        {
+            this.flush();
+        }
+        this.buffer[this.bufferCount++] = character;
+    }
+
+    private void append(String text)
+    {
+        final int textLength = text.length();
+        int textIndex = 0;
+        while (textIndex < textLength)
+        {
+            if (this.bufferCount == JSONWriter.bufferLength)
+            {
+                this.flush();
+            }
+            final int charactersToCopy = Math.minimum(textLength - textIndex, JSONWriter.bufferLength - this.bufferCount);
+            text.getChars(textIndex, textIndex + charactersToCopy, this.buffer, this.bufferCount);
+            this.bufferCount += charactersToCopy;
+            textIndex += charactersToCopy;
+        }
+    }
+}
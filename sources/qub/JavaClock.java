@@ -5,6 +5,12 @@ package qub;
  */
 public class JavaClock implements Clock
 {
+    /**
+     * The TimerWheel that is shared by every JavaClock so that all of the scheduled actions in the
+     * process are waited on by a single timer thread.
+     */
+    private static final TimerWheel timerWheel = TimerWheel.create();
+
     private final AsyncRunner parallelAsyncRunner;
 
     private JavaClock(AsyncRunner parallelAsyncRunner)
@@ -35,26 +41,70 @@ public class JavaClock implements Clock
         return result;
     }
 
+    @Override
+    public long getMonotonicNanoseconds()
+    {
+        return java.lang.System.nanoTime();
+    }
+
     @Override
     public Result<Void> scheduleAt(DateTime dateTime, Action0 action)
     {
         PreCondition.assertNotNull(dateTime, "dateTime");
         PreCondition.assertNotNull(action, "action");
 
-        return CurrentThread.getAsyncRunner().await()
-            .schedule(() ->
-            {
-                if (this.getCurrentDateTime().lessThan(dateTime))
-                {
-                    this.parallelAsyncRunner.schedule(() ->
-                    {
-                        while (this.getCurrentDateTime().lessThan(dateTime))
-                        {
-                            CurrentThread.yield();
-                        }
-                    }).await();
-                }
-                action.run();
-            });
+        final AsyncRunner asyncRunner = CurrentThread.getAsyncRunner().await();
+        final Duration delay = dateTime.minus(this.getCurrentDateTime());
+        Result<Void> result;
+        if (delay.lessThanOrEqualTo(Duration.zero))
+        {
+            result = asyncRunner.schedule(action);
+        }
+        else
+        {
+            final PausedAsyncTask<Void> task = asyncRunner.create(action);
+            JavaClock.timerWheel.schedule(delay, task::schedule);
+            result = task;
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Schedule the provided action to run on this clock's parallel AsyncRunner at the provided
+     * DateTime. Unlike scheduleAt(), the returned timer can be disposed to cancel the action
+     * before it runs.
+     * @param dateTime The DateTime to run the action at.
+     * @param action The action to run.
+     * @return The timer that can be disposed to cancel the action.
+     */
+    public TimerWheelTimer scheduleTimerAt(DateTime dateTime, Action0 action)
+    {
+        PreCondition.assertNotNull(dateTime, "dateTime");
+        PreCondition.assertNotNull(action, "action");
+
+        return this.scheduleTimerAfter(dateTime.minus(this.getCurrentDateTime()), action);
+    }
+
+    /**
+     * Schedule the provided action to run on this clock's parallel AsyncRunner after the provided
+     * delay. Unlike scheduleAfter(), the returned timer can be disposed to cancel the action
+     * before it runs.
+     * @param delay The duration to wait before running the action.
+     * @param action The action to run.
+     * @return The timer that can be disposed to cancel the action.
+     */
+    public TimerWheelTimer scheduleTimerAfter(Duration delay, Action0 action)
+    {
+        PreCondition.assertNotNull(delay, "delay");
+        PreCondition.assertNotNull(action, "action");
+
+        final TimerWheelTimer result = JavaClock.timerWheel.schedule(delay, () -> this.parallelAsyncRunner.schedule(action));
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
     }
 }
@@ -6,8 +6,16 @@ package qub;
  */
 public class JavaFileSystem implements FileSystem
 {
+    /**
+     * The default size at or above which files are memory-mapped when they are read.
+     */
+    public static final DataSize defaultMemoryMapThreshold = DataSize.mebibytes(1);
+
+    private volatile DataSize memoryMapThreshold;
+
     private JavaFileSystem()
     {
+        this.memoryMapThreshold = JavaFileSystem.defaultMemoryMapThreshold;
     }
 
     public static JavaFileSystem create()
@@ -15,6 +23,31 @@ public class JavaFileSystem implements FileSystem
         return new JavaFileSystem();
     }
 
+    /**
+     * Get the size at or above which files are memory-mapped when they are read. Smaller files are
+     * read through a {@link java.nio.channels.FileChannel} with a buffer.
+     */
+    public DataSize getMemoryMapThreshold()
+    {
+        return this.memoryMapThreshold;
+    }
+
+    /**
+     * Set the size at or above which files are memory-mapped when they are read. Smaller files are
+     * read through a {@link java.nio.channels.FileChannel} with a buffer.
+     * @param memoryMapThreshold The size at or above which files are memory-mapped.
+     * @return This object for method chaining.
+     */
+    public JavaFileSystem setMemoryMapThreshold(DataSize memoryMapThreshold)
+    {
+        PreCondition.assertNotNull(memoryMapThreshold, "memoryMapThreshold");
+        PreCondition.assertGreaterThanOrEqualTo(memoryMapThreshold, DataSize.zero, "memoryMapThreshold");
+
+        this.memoryMapThreshold = memoryMapThreshold;
+
+        return this;
+    }
+
     @Override
     public Iterator<Root> iterateRoots()
     {
@@ -78,28 +111,52 @@ public class JavaFileSystem implements FileSystem
 
         return LazyIterator.create(() ->
         {
-            final java.io.File javaFolder = new java.io.File(rootedFolderPath.toString());
-            final java.io.File[] javaFolderFiles = javaFolder.listFiles();
-            if (javaFolderFiles == null)
-            {
-                throw new FolderNotFoundException(rootedFolderPath);
-            }
-
             final List<Folder> folders = List.create();
             final List<File> files = List.create();
-            for (final java.io.File javaFolderFile : javaFolderFiles)
+            try (final java.nio.file.DirectoryStream<java.nio.file.Path> entryPaths = java.nio.file.Files.newDirectoryStream(java.nio.file.Paths.get(rootedFolderPath.toString())))
             {
-                final String containerEntryPathString = javaFolderFile.getAbsolutePath();
-                final Path containerEntryPath = Path.parse(containerEntryPathString).normalize();
-                if (javaFolderFile.isFile())
+                for (final java.nio.file.Path entryPath : entryPaths)
                 {
-                    files.add(getFile(containerEntryPath).await());
-                }
-                else if (javaFolderFile.isDirectory())
-                {
-                    folders.add(getFolder(containerEntryPath).await());
+                    // Reading the attributes once tells whether the entry is a file or a folder
+                    // with a single stat instead of one for each question.
+                    java.nio.file.attribute.BasicFileAttributes entryAttributes;
+                    try
+                    {
+                        entryAttributes = java.nio.file.Files.readAttributes(entryPath, java.nio.file.attribute.BasicFileAttributes.class);
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        // The entry was deleted while the folder was being read, or it is a
+                        // link to an entry that doesn't exist.
+                        entryAttributes = null;
+                    }
+
+                    if (entryAttributes != null)
+                    {
+                        final Path containerEntryPath = Path.parse(entryPath.toString()).normalize();
+                        if (entryAttributes.isRegularFile())
+                        {
+                            files.add(getFile(containerEntryPath).await());
+                        }
+                        else if (entryAttributes.isDirectory())
+                        {
+                            folders.add(getFolder(containerEntryPath).await());
+                        }
+                    }
                 }
             }
+            catch (java.nio.file.NoSuchFileException e)
+            {
+                throw new FolderNotFoundException(rootedFolderPath);
+            }
+            catch (java.nio.file.NotDirectoryException e)
+            {
+                throw new FolderNotFoundException(rootedFolderPath);
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
 
             final List<FileSystemEntry> entries = List.create();
             entries.addAll(folders);
@@ -335,13 +392,51 @@ public class JavaFileSystem implements FileSystem
 
         return Result.create(() ->
         {
-            CharacterToByteReadStream result;
+            return CharacterToByteReadStream.create(this.getFileChannelReadStream(rootedFilePath).await());
+        });
+    }
+
+    /**
+     * Get a {@link FileChannelByteReadStream} that reads the contents of the file at the provided
+     * rooted file path. The file is memory-mapped if its size is at least this file system's
+     * memory map threshold.
+     * @param rootedFilePath The rooted path to the file to read.
+     */
+    public Result<FileChannelByteReadStream> getFileChannelReadStream(String rootedFilePath)
+    {
+        FileSystem.validateRootedFilePath(rootedFilePath);
+
+        return this.getFileChannelReadStream(Path.parse(rootedFilePath));
+    }
+
+    /**
+     * Get a {@link FileChannelByteReadStream} that reads the contents of the file at the provided
+     * rooted file path. The file is memory-mapped if its size is at least this file system's
+     * memory map threshold.
+     * @param rootedFilePath The rooted path to the file to read.
+     */
+    public Result<FileChannelByteReadStream> getFileChannelReadStream(Path rootedFilePath)
+    {
+        FileSystem.validateRootedFilePath(rootedFilePath);
+
+        return this.getFileChannelReadStream(rootedFilePath, true);
+    }
+
+    private Result<FileChannelByteReadStream> getFileChannelReadStream(Path rootedFilePath, boolean allowMemoryMap)
+    {
+        return Result.create(() ->
+        {
+            FileChannelByteReadStream result;
+            java.nio.channels.FileChannel fileChannel = null;
             try
             {
-                final String rootedFilePathString = rootedFilePath.toString();
-                final java.nio.file.Path filePath = java.nio.file.Paths.get(rootedFilePathString);
-                final java.io.InputStream fileContentsInputStream = java.nio.file.Files.newInputStream(filePath);
-                result = CharacterToByteReadStream.create(InputStreamToByteReadStream.create(fileContentsInputStream));
+                final java.nio.file.Path filePath = java.nio.file.Paths.get(rootedFilePath.toString());
+                fileChannel = java.nio.channels.FileChannel.open(filePath, java.nio.file.StandardOpenOption.READ);
+                final long fileSize = fileChannel.size();
+                final double memoryMapThresholdBytes = this.memoryMapThreshold.toBytes().getValue();
+                result = allowMemoryMap && fileSize > 0 && fileSize >= memoryMapThresholdBytes && fileSize <= Integers.maximum
+                    ? FileChannelByteReadStream.createMemoryMapped(fileChannel)
+                    : FileChannelByteReadStream.create(fileChannel);
             }
             catch (java.nio.file.NoSuchFileException e)
             {
@@ -349,12 +444,123 @@ public class JavaFileSystem implements FileSystem
             }
             catch (java.io.IOException e)
             {
+                JavaFileSystem.close(fileChannel);
                 throw Exceptions.asRuntime(e);
             }
+            catch (Throwable e)
+            {
+                JavaFileSystem.close(fileChannel);
+                throw e;
+            }
             return result;
         });
     }
 
+    @Override
+    public Result<byte[]> getFileContent(Path rootedFilePath)
+    {
+        FileSystem.validateRootedFilePath(rootedFilePath);
+
+        // The whole file gets copied into the returned array anyway, so memory-mapping it first
+        // would only leave a mapping behind. Positional reads put the bytes straight into the array.
+        return Result.createUsing(
+            () -> this.getFileChannelReadStream(rootedFilePath, false).await(),
+            (FileChannelByteReadStream byteReadStream) ->
+            {
+                return byteReadStream.readAllBytes().await();
+            });
+    }
+
+    /**
+     * Copy the file at the provided sourceFilePath to the provided destinationFilePath. The bytes
+     * are transferred between the files by the operating system, so they aren't copied through
+     * user-space buffers.
+     * @param sourceFilePath The path to the file to copy.
+     * @param destinationFilePath The path to copy the file to.
+     * @return The result of copying the file.
+     */
+    @Override
+    public Result<Void> copyFileTo(Path sourceFilePath, Path destinationFilePath)
+    {
+        FileSystem.validateRootedFilePath(sourceFilePath, "sourceFilePath");
+        FileSystem.validateRootedFilePath(destinationFilePath, "destinationFilePath");
+
+        return Result.create(() ->
+        {
+            final java.nio.file.Path sourcePath = java.nio.file.Paths.get(sourceFilePath.toString());
+            final java.nio.file.Path destinationPath = java.nio.file.Paths.get(destinationFilePath.toString());
+            final java.nio.file.OpenOption[] destinationOpenOptions = new java.nio.file.OpenOption[]
+            {
+                java.nio.file.StandardOpenOption.CREATE,
+                java.nio.file.StandardOpenOption.WRITE,
+                java.nio.file.StandardOpenOption.TRUNCATE_EXISTING
+            };
+            final java.nio.channels.FileChannel sourceChannel;
+            try
+            {
+                sourceChannel = java.nio.channels.FileChannel.open(sourcePath, java.nio.file.StandardOpenOption.READ);
+            }
+            catch (java.nio.file.NoSuchFileException e)
+            {
+                throw new FileNotFoundException(sourceFilePath);
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+
+            try (final java.nio.channels.FileChannel source = sourceChannel)
+            {
+                java.nio.channels.FileChannel destinationChannel;
+                try
+                {
+                    destinationChannel = java.nio.channels.FileChannel.open(destinationPath, destinationOpenOptions);
+                }
+                catch (java.nio.file.NoSuchFileException e)
+                {
+                    this.createFolder(destinationFilePath.getParent().await())
+                        .catchError(FolderAlreadyExistsException.class)
+                        .await();
+                    destinationChannel = java.nio.channels.FileChannel.open(destinationPath, destinationOpenOptions);
+                }
+
+                try (final java.nio.channels.FileChannel destination = destinationChannel)
+                {
+                    final long size = source.size();
+                    long position = 0;
+                    while (position < size)
+                    {
+                        final long bytesTransferred = source.transferTo(position, size - position, destination);
+                        if (bytesTransferred <= 0)
+                        {
+                            // The source file got shorter while it was being copied.
+                            break;
+                        }
+                        position += bytesTransferred;
+                    }
+                }
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        });
+    }
+
+    private static void close(java.nio.channels.FileChannel fileChannel)
+    {
+        if (fileChannel != null)
+        {
+            try
+            {
+                fileChannel.close();
+            }
+            catch (java.io.IOException ignored)
+            {
+            }
+        }
+    }
+
     @Override
     public Result<BufferedByteWriteStream> getFileContentsByteWriteStream(Path rootedFilePath, OpenWriteType openWriteType)
     {
@@ -367,29 +573,17 @@ public class JavaFileSystem implements FileSystem
             final java.nio.file.StandardOpenOption openWriteOption = (openWriteType == OpenWriteType.CreateOrOverwrite
                 ? java.nio.file.StandardOpenOption.TRUNCATE_EXISTING
                 : java.nio.file.StandardOpenOption.APPEND);
-            final java.nio.file.StandardOpenOption[] openWriteOptions = new java.nio.file.StandardOpenOption[]
-            {
-                java.nio.file.StandardOpenOption.CREATE,
-                openWriteOption
-            };
+            final java.nio.file.Path filePath = java.nio.file.Paths.get(rootedFilePath.toString());
             try
             {
-                result = BufferedByteWriteStream.create(
-                            OutputStreamToByteWriteStream.create(
-                                java.nio.file.Files.newOutputStream(
-                                    java.nio.file.Paths.get(rootedFilePath.toString()),
-                                    openWriteOptions)));
+                result = JavaFileSystem.openFileChannelWriteStream(filePath, openWriteOption);
             }
             catch (java.nio.file.NoSuchFileException e1)
             {
                 try
                 {
                     this.createFolder(rootedFilePath.getParent().await()).await();
-                    result = BufferedByteWriteStream.create(
-                                OutputStreamToByteWriteStream.create(
-                                    java.nio.file.Files.newOutputStream(
-                                        java.nio.file.Paths.get(rootedFilePath.toString()),
-                                        openWriteOptions)));
+                    result = JavaFileSystem.openFileChannelWriteStream(filePath, openWriteOption);
                 }
                 catch (java.io.IOException e2)
                 {
@@ -406,4 +600,19 @@ public class JavaFileSystem implements FileSystem
             return result;
         });
     }
+
+    /**
+     * Open a buffered {@link FileChannelByteWriteStream} to the file at the provided path,
+     * creating the file if it doesn't exist.
+     * @param filePath The path to the file to write to.
+     * @param openWriteOption Whether to truncate or append to the file if it already exists.
+     */
+    private static BufferedByteWriteStream openFileChannelWriteStream(java.nio.file.Path filePath, java.nio.file.StandardOpenOption openWriteOption) throws java.io.IOException
+    {
+        final java.nio.channels.FileChannel fileChannel = java.nio.channels.FileChannel.open(filePath,
+            java.nio.file.StandardOpenOption.WRITE,
+            java.nio.file.StandardOpenOption.CREATE,
+            openWriteOption);
+        return BufferedByteWriteStream.create(FileChannelByteWriteStream.create(fileChannel));
+    }
 }
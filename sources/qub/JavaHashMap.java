@@ -106,6 +106,12 @@ public class JavaHashMap<TKey,TValue> implements MutableMap<TKey,TValue>
                 MapEntry.create(javaMapEntry.getKey(), javaMapEntry.getValue()));
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Map.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -51,6 +51,12 @@ public class JavaHashSet<T> implements MutableSet<T>
         this.javaSet.clear();
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Set.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
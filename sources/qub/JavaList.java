@@ -71,6 +71,12 @@ public class JavaList<T> implements List<T>
         return JavaIteratorToIteratorAdapter.create(list.iterator());
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -102,12 +102,24 @@ class JavaTCPClient implements TCPClient
         return this.socketReadStream.readByte();
     }
 
+    @Override
+    public int readByteAsInt()
+    {
+        return this.socketReadStream.readByteAsInt();
+    }
+
     @Override
     public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
     {
         return this.socketReadStream.readBytes(outputBytes, startIndex, length);
     }
 
+    @Override
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        return this.socketReadStream.readBytesInto(outputBytes, startIndex, length);
+    }
+
     @Override
     public Result<Integer> write(byte toWrite)
     {
@@ -119,4 +131,10 @@ class JavaTCPClient implements TCPClient
     {
         return this.socketWriteStream.write(toWrite, startIndex, length);
     }
+
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        return this.socketWriteStream.write(toWrite);
+    }
 }
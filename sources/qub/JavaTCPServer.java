@@ -123,14 +123,7 @@ class JavaTCPServer implements TCPServer
         }
         catch (java.io.IOException e)
         {
-            if (Strings.isOneOf(e.getMessage(), Iterable.create("Socket closed", "Socket is closed")))
-            {
-                result = Result.error(new SocketClosedException(e));
-            }
-            else
-            {
-                result = Result.error(e);
-            }
+            result = Result.error(this.convertAcceptError(e));
         }
         return result;
     }
@@ -155,14 +148,24 @@ class JavaTCPServer implements TCPServer
         }
         catch (java.io.IOException e)
         {
-            if (Strings.equal(e.getMessage(), "Socket is closed"))
-            {
-                result = Result.error(new SocketClosedException(e));
-            }
-            else
-            {
-                result = Result.error(e);
-            }
+            result = Result.error(this.convertAcceptError(e));
+        }
+        return result;
+    }
+
+    /**
+     * Convert the provided error that was thrown while accepting a client. If this server was
+     * disposed either before or while it was accepting, then the error is wrapped in a
+     * {@link SocketClosedException}. The underlying socket's message depends on whether the accept
+     * had started when the socket was closed.
+     * @param error The error that was thrown while accepting a client.
+     */
+    private Throwable convertAcceptError(java.io.IOException error)
+    {
+        Throwable result = error;
+        if (this.isDisposed() || Strings.isOneOf(error.getMessage(), Iterable.create("Socket closed", "Socket is closed")))
+        {
+            result = new SocketClosedException(error);
         }
         return result;
     }
@@ -49,6 +49,12 @@ public class Lex
         return type;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.text, this.startIndex, this.type);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
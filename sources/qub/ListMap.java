@@ -175,6 +175,12 @@ public class ListMap<TKey,TValue> implements MutableMap<TKey,TValue>
         return this.entries.iterate().map((MutableMapEntry<TKey, TValue> entry) -> entry);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Map.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
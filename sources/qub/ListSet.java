@@ -189,7 +189,7 @@ public class ListSet<T> implements MutableSet<T>
     @Override
     public int hashCode()
     {
-        return this.values.hashCode();
+        return Set.hashCode(this);
     }
 
     @Override
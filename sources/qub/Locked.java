@@ -23,7 +23,7 @@ public class Locked<T>
      */
     public static <T> Locked<T> create(T value)
     {
-        return new Locked<>(value, SpinMutex.create());
+        return new Locked<>(value, ParkingMutex.create());
     }
 
     /**
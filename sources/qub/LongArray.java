@@ -65,6 +65,12 @@ public class LongArray implements Array<Long>
         return this.values[index];
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
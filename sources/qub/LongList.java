@@ -218,6 +218,12 @@ public class LongList implements List<Long>
         return LongArrayIterator.create(this.longs, 0, this.count);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -182,6 +182,19 @@ public class LongValue implements Value<java.lang.Long>, Comparable<java.lang.Lo
         return value == null ? Comparison.GreaterThan : Comparison.create(this.get() - value);
     }
 
+    @Override
+    public int hashCode()
+    {
+        int result = 0;
+        if (this.hasValue())
+        {
+            // A LongValue can equal an Integer, so values that fit in an int hash like an Integer.
+            final long value = this.getAsLong();
+            result = (int)value == value ? java.lang.Integer.hashCode((int)value) : java.lang.Long.hashCode(value);
+        }
+        return result;
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
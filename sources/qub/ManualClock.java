@@ -8,6 +8,7 @@ public class ManualClock implements Clock
     private final AsyncScheduler asyncRunner;
     private final List<PausedTask> pausedTasks;
     private DateTime currentDateTime;
+    private long monotonicNanoseconds;
 
     private ManualClock(DateTime currentDateTime, AsyncScheduler asyncRunner)
     {
@@ -57,6 +58,17 @@ public class ManualClock implements Clock
         return currentDateTime;
     }
 
+    /**
+     * Get the current value of this clock's monotonic tick source in nanoseconds. This starts at
+     * zero when the clock is created and only changes when the clock is advanced.
+     * @return The current value of this clock's monotonic tick source in nanoseconds.
+     */
+    @Override
+    public long getMonotonicNanoseconds()
+    {
+        return this.monotonicNanoseconds;
+    }
+
     @Override
     public Result<Void> scheduleAt(DateTime dateTime, Action0 action)
     {
@@ -110,6 +122,7 @@ public class ManualClock implements Clock
         return Result.create(() ->
         {
             this.currentDateTime = this.currentDateTime.plus(duration);
+            this.monotonicNanoseconds += java.lang.Math.max(0, (long)duration.toNanoseconds().getValue());
             final Iterable<PausedTask> pausedTasksToRun = this.pausedTasks
                 .removeAll((PausedTask pausedTask) -> pausedTask.getScheduledAt().lessThanOrEqualTo(this.currentDateTime));
             for (final PausedTask pausedTaskToRun : pausedTasksToRun)
@@ -129,6 +129,23 @@ public interface Map<TKey,TValue> extends Iterable<MapEntry<TKey,TValue>>
         return result;
     }
 
+    /**
+     * Get the hash code of the provided {@link Map}. The hash code doesn't depend on the order of
+     * the {@link Map}'s entries, so equal {@link Map}s have equal hash codes.
+     * @param map The {@link Map} to get the hash code of.
+     */
+    public static int hashCode(Map<?,?> map)
+    {
+        PreCondition.assertNotNull(map, "map");
+
+        int result = 0;
+        for (final MapEntry<?,?> entry : map)
+        {
+            result += MapEntry.hashCode(entry);
+        }
+        return result;
+    }
+
     public static <TKey> NotFoundException createNotFoundException(TKey key)
     {
         return new NotFoundException("Could not find the provided key (" + key + ") in this " + Types.getTypeName(Map.class) + ".");
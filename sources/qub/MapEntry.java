@@ -53,6 +53,17 @@ public interface MapEntry<TKey,TValue>
         return rhs instanceof MapEntry && lhs.equals((MapEntry<TKey,TValue>)rhs);
     }
 
+    /**
+     * Get the hash code of the provided {@link MapEntry}.
+     * @param entry The {@link MapEntry} to get the hash code of.
+     */
+    public static int hashCode(MapEntry<?,?> entry)
+    {
+        PreCondition.assertNotNull(entry, "entry");
+
+        return Hash.getHashCode(entry.getKey()) ^ Hash.getHashCode(entry.getValue());
+    }
+
     /**
      * Get whether this {@link MapEntry} equals the provided {@link MapEntry}.
      * @param rhs The {@link MapEntry} to compare against this {@link MapEntry}.
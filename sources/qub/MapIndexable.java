@@ -45,6 +45,12 @@ public class MapIndexable<TInner,TOuter> implements Indexable<TOuter>
         return this.conversion.run(this.innerIndexable.get(index));
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -37,6 +37,12 @@ public class MapIterable<TInner,TOuter> implements Iterable<TOuter>
         return this.innerIterable.getCount();
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
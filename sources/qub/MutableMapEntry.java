@@ -54,6 +54,12 @@ public class MutableMapEntry<TKey,TValue> implements MapEntry<TKey,TValue>
         return MapEntry.toString(this);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return MapEntry.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -12,7 +12,7 @@ public interface MutableSet<T> extends Set<T>
      */
     public static <T> MutableSet<T> create()
     {
-        return MutableSet.create(EqualFunction.create());
+        return ArrayHashSet.create();
     }
 
     /**
@@ -23,7 +23,7 @@ public interface MutableSet<T> extends Set<T>
     @SafeVarargs
     public static <T> MutableSet<T> create(T... initialValues)
     {
-        return MutableSet.create(EqualFunction.create(), initialValues);
+        return ArrayHashSet.create(initialValues);
     }
 
     /**
@@ -33,7 +33,7 @@ public interface MutableSet<T> extends Set<T>
      */
     public static <T> MutableSet<T> create(Iterable<T> initialValues)
     {
-        return MutableSet.create(EqualFunction.create(), initialValues);
+        return ArrayHashSet.create(initialValues);
     }
 
     /**
@@ -43,7 +43,7 @@ public interface MutableSet<T> extends Set<T>
      */
     public static <T> MutableSet<T> create(Iterator<T> initialValues)
     {
-        return MutableSet.create(EqualFunction.create(), initialValues);
+        return ArrayHashSet.create(initialValues);
     }
 
     /**
@@ -314,6 +314,12 @@ public class MutableURL implements URL
         return this;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return URL.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
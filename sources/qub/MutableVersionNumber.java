@@ -217,4 +217,10 @@ public class MutableVersionNumber implements VersionNumber
     {
         return VersionNumber.equals(this, rhs);
     }
+
+    @Override
+    public int hashCode()
+    {
+        return VersionNumber.hashCode(this);
+    }
 }
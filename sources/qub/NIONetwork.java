@@ -0,0 +1,440 @@
+package qub;
+
+/**
+ * A {@link Network} that uses non-blocking {@link java.nio.channels} sockets. Instead of blocking
+ * a thread for each connection, the sockets are spread across a small number of
+ * {@link SelectorEventLoop}s (one per processor by default) that wake up the waiting operations
+ * when their sockets become ready.
+ */
+public class NIONetwork implements Network, Disposable
+{
+    /**
+     * The default maximum number of incoming connections that a TCPServer will queue before they
+     * are accepted.
+     */
+    public static final int defaultTCPServerBacklog = 50;
+
+    private final Clock clock;
+    private final SelectorEventLoop[] eventLoops;
+    private final java.util.concurrent.atomic.AtomicInteger nextEventLoopIndex;
+    private volatile int tcpServerBacklog;
+    private volatile boolean tcpNoDelay;
+    private volatile boolean keepAlive;
+    private volatile DataSize receiveBufferSize;
+    private volatile DataSize sendBufferSize;
+    private volatile boolean disposed;
+
+    private NIONetwork(Clock clock, int eventLoopCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(eventLoopCount, 1, "eventLoopCount");
+
+        this.clock = clock;
+        this.eventLoops = new SelectorEventLoop[eventLoopCount];
+        for (int i = 0; i < eventLoopCount; ++i)
+        {
+            this.eventLoops[i] = SelectorEventLoop.create("NIONetwork-SelectorEventLoop-" + i);
+        }
+        this.nextEventLoopIndex = new java.util.concurrent.atomic.AtomicInteger();
+        this.tcpServerBacklog = NIONetwork.defaultTCPServerBacklog;
+        this.receiveBufferSize = DataSize.zero;
+        this.sendBufferSize = DataSize.zero;
+    }
+
+    /**
+     * Create a new NIONetwork without a clock that has one event loop for each available
+     * processor. Operations that have a {@link DateTime} timeout can't be used without a clock.
+     */
+    public static NIONetwork create()
+    {
+        return new NIONetwork(null, java.lang.Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new NIONetwork that has one event loop for each available processor.
+     * @param clock The clock that {@link DateTime} timeouts will be measured against.
+     */
+    public static NIONetwork create(Clock clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        return new NIONetwork(clock, java.lang.Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new NIONetwork with the provided number of event loops.
+     * @param clock The clock that {@link DateTime} timeouts will be measured against.
+     * @param eventLoopCount The number of event loops that the network's sockets will be spread
+     *                       across.
+     */
+    public static NIONetwork create(Clock clock, int eventLoopCount)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+        PreCondition.assertGreaterThanOrEqualTo(eventLoopCount, 1, "eventLoopCount");
+
+        return new NIONetwork(clock, eventLoopCount);
+    }
+
+    /**
+     * Get the number of event loops that this network's sockets are spread across.
+     */
+    public int getEventLoopCount()
+    {
+        return this.eventLoops.length;
+    }
+
+    /**
+     * Get the maximum number of incoming connections that TCPServers created by this network will
+     * queue before they are accepted.
+     */
+    public int getTCPServerBacklog()
+    {
+        return this.tcpServerBacklog;
+    }
+
+    /**
+     * Set the maximum number of incoming connections that TCPServers created by this network will
+     * queue before they are accepted.
+     * @param tcpServerBacklog The maximum number of queued incoming connections.
+     * @return This object for method chaining.
+     */
+    public NIONetwork setTCPServerBacklog(int tcpServerBacklog)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(tcpServerBacklog, 1, "tcpServerBacklog");
+
+        this.tcpServerBacklog = tcpServerBacklog;
+
+        return this;
+    }
+
+    /**
+     * Get whether Nagle's algorithm is disabled on the TCP sockets that this network creates.
+     */
+    public boolean getTCPNoDelay()
+    {
+        return this.tcpNoDelay;
+    }
+
+    /**
+     * Set whether Nagle's algorithm is disabled on the TCP sockets that this network creates.
+     * @param tcpNoDelay Whether small writes should be sent immediately instead of being combined.
+     * @return This object for method chaining.
+     */
+    public NIONetwork setTCPNoDelay(boolean tcpNoDelay)
+    {
+        this.tcpNoDelay = tcpNoDelay;
+
+        return this;
+    }
+
+    /**
+     * Get whether keep-alive probes are sent on the TCP sockets that this network creates.
+     */
+    public boolean getKeepAlive()
+    {
+        return this.keepAlive;
+    }
+
+    /**
+     * Set whether keep-alive probes are sent on the TCP sockets that this network creates.
+     * @param keepAlive Whether keep-alive probes are sent.
+     * @return This object for method chaining.
+     */
+    public NIONetwork setKeepAlive(boolean keepAlive)
+    {
+        this.keepAlive = keepAlive;
+
+        return this;
+    }
+
+    /**
+     * Get the size of the receive buffer of the TCP sockets that this network creates. Zero means
+     * that the operating system's default size is used.
+     */
+    public DataSize getReceiveBufferSize()
+    {
+        return this.receiveBufferSize;
+    }
+
+    /**
+     * Set the size of the receive buffer of the TCP sockets that this network creates.
+     * @param receiveBufferSize The size of the receive buffer, or zero to use the operating
+     *                          system's default size.
+     * @return This object for method chaining.
+     */
+    public NIONetwork setReceiveBufferSize(DataSize receiveBufferSize)
+    {
+        PreCondition.assertNotNull(receiveBufferSize, "receiveBufferSize");
+        PreCondition.assertBetween(0, receiveBufferSize.toBytes().getValue(), Integers.maximum, "receiveBufferSize.toBytes().getValue()");
+
+        this.receiveBufferSize = receiveBufferSize;
+
+        return this;
+    }
+
+    /**
+     * Get the size of the send buffer of the TCP sockets that this network creates. Zero means
+     * that the operating system's default size is used.
+     */
+    public DataSize getSendBufferSize()
+    {
+        return this.sendBufferSize;
+    }
+
+    /**
+     * Set the size of the send buffer of the TCP sockets that this network creates.
+     * @param sendBufferSize The size of the send buffer, or zero to use the operating system's
+     *                       default size.
+     * @return This object for method chaining.
+     */
+    public NIONetwork setSendBufferSize(DataSize sendBufferSize)
+    {
+        PreCondition.assertNotNull(sendBufferSize, "sendBufferSize");
+        PreCondition.assertBetween(0, sendBufferSize.toBytes().getValue(), Integers.maximum, "sendBufferSize.toBytes().getValue()");
+
+        this.sendBufferSize = sendBufferSize;
+
+        return this;
+    }
+
+    /**
+     * Get the event loop that the next socket will be registered with.
+     */
+    private SelectorEventLoop getNextEventLoop()
+    {
+        final int index = java.lang.Math.floorMod(this.nextEventLoopIndex.getAndIncrement(), this.eventLoops.length);
+        return this.eventLoops[index];
+    }
+
+    private void applySocketOptions(java.nio.channels.NetworkChannel channel) throws java.io.IOException
+    {
+        final int receiveBufferBytes = (int)this.receiveBufferSize.toBytes().getValue();
+        if (receiveBufferBytes > 0)
+        {
+            channel.setOption(java.net.StandardSocketOptions.SO_RCVBUF, receiveBufferBytes);
+        }
+
+        if (channel instanceof java.nio.channels.SocketChannel)
+        {
+            channel.setOption(java.net.StandardSocketOptions.TCP_NODELAY, this.tcpNoDelay);
+            channel.setOption(java.net.StandardSocketOptions.SO_KEEPALIVE, this.keepAlive);
+            final int sendBufferBytes = (int)this.sendBufferSize.toBytes().getValue();
+            if (sendBufferBytes > 0)
+            {
+                channel.setOption(java.net.StandardSocketOptions.SO_SNDBUF, sendBufferBytes);
+            }
+        }
+    }
+
+    /**
+     * Wrap the provided connected or connecting {@link java.nio.channels.SocketChannel} in a
+     * {@link NIOTCPClient}.
+     * @param socketChannel The {@link java.nio.channels.SocketChannel} to wrap.
+     */
+    NIOTCPClient createTCPClient(java.nio.channels.SocketChannel socketChannel) throws java.io.IOException
+    {
+        PreCondition.assertNotNull(socketChannel, "socketChannel");
+
+        socketChannel.configureBlocking(false);
+        this.applySocketOptions(socketChannel);
+        return new NIOTCPClient(socketChannel, this.getNextEventLoop());
+    }
+
+    @Override
+    public Result<NIOTCPClient> createTCPClient(IPv4Address remoteIPAddress, int remotePort)
+    {
+        Network.validateRemoteIPAddress(remoteIPAddress);
+        Network.validateRemotePort(remotePort);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.connect(remoteIPAddress, remotePort, null);
+    }
+
+    @Override
+    public Result<NIOTCPClient> createTCPClient(IPv4Address remoteIPAddress, int remotePort, Duration timeout)
+    {
+        Network.validateRemoteIPAddress(remoteIPAddress);
+        Network.validateRemotePort(remotePort);
+        Network.validateTimeout(timeout);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.connect(remoteIPAddress, remotePort, timeout);
+    }
+
+    @Override
+    public Result<NIOTCPClient> createTCPClient(IPv4Address remoteIPAddress, int remotePort, DateTime timeout)
+    {
+        Network.validateRemoteIPAddress(remoteIPAddress);
+        Network.validateRemotePort(remotePort);
+        Network.validateTimeout(timeout);
+        PreCondition.assertNotNull(this.clock, "this.clock");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.connect(remoteIPAddress, remotePort, timeout.minus(this.clock.getCurrentDateTime()));
+    }
+
+    /**
+     * Start connecting a new {@link NIOTCPClient} to the provided remote address. The returned
+     * {@link Result} is an {@link AsyncTask} that completes when the connection is established.
+     */
+    private Result<NIOTCPClient> connect(IPv4Address remoteIPAddress, int remotePort, Duration timeout)
+    {
+        Result<NIOTCPClient> result;
+        java.nio.channels.SocketChannel socketChannel = null;
+        try
+        {
+            socketChannel = java.nio.channels.SocketChannel.open();
+            final NIOTCPClient tcpClient = this.createTCPClient(socketChannel);
+            final java.net.InetAddress remoteInetAddress = java.net.InetAddress.getByAddress(remoteIPAddress.toBytes());
+            result = socketChannel.connect(new java.net.InetSocketAddress(remoteInetAddress, remotePort))
+                ? Result.success(tcpClient)
+                : tcpClient.finishConnect(timeout).onError(() -> tcpClient.dispose().await());
+        }
+        catch (java.io.IOException e)
+        {
+            NIONetwork.close(socketChannel);
+            result = Result.error(e);
+        }
+        return result;
+    }
+
+    @Override
+    public Result<NIOTCPServer> createTCPServer(int localPort)
+    {
+        Network.validateLocalPort(localPort);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.bind(new java.net.InetSocketAddress(localPort));
+    }
+
+    @Override
+    public Result<NIOTCPServer> createTCPServer(IPv4Address localIPAddress, int localPort)
+    {
+        Network.validateLocalIPAddress(localIPAddress);
+        Network.validateLocalPort(localPort);
+        PreCondition.assertNotDisposed(this, "this");
+
+        Result<NIOTCPServer> result;
+        try
+        {
+            final java.net.InetAddress localInetAddress = java.net.InetAddress.getByAddress(localIPAddress.toBytes());
+            result = this.bind(new java.net.InetSocketAddress(localInetAddress, localPort));
+        }
+        catch (java.io.IOException e)
+        {
+            result = Result.error(e);
+        }
+        return result;
+    }
+
+    private Result<NIOTCPServer> bind(java.net.InetSocketAddress localSocketAddress)
+    {
+        Result<NIOTCPServer> result;
+        java.nio.channels.ServerSocketChannel serverSocketChannel = null;
+        try
+        {
+            serverSocketChannel = java.nio.channels.ServerSocketChannel.open();
+            serverSocketChannel.setOption(java.net.StandardSocketOptions.SO_REUSEADDR, true);
+            this.applySocketOptions(serverSocketChannel);
+            serverSocketChannel.bind(localSocketAddress, this.tcpServerBacklog);
+            serverSocketChannel.configureBlocking(false);
+            result = Result.success(new NIOTCPServer(serverSocketChannel, this, this.getNextEventLoop(), this.clock));
+        }
+        catch (java.io.IOException e)
+        {
+            NIONetwork.close(serverSocketChannel);
+            result = Result.error(e);
+        }
+        return result;
+    }
+
+    /**
+     * Block the current thread until the provided task completes. Unlike {@link AsyncTask#await()},
+     * the current thread won't run other queued tasks while it waits. The blocking socket
+     * operations use this so that a thread that is waiting to read from a socket can't start
+     * running the task that is supposed to write to the other end of that socket.
+     * @param task The task to wait for.
+     */
+    static void waitFor(AsyncTask<?> task)
+    {
+        PreCondition.assertNotNull(task, "task");
+
+        AsyncTask.waitFor(task, null);
+    }
+
+    /**
+     * Create the error that operations on a closed socket fail with.
+     */
+    static SocketClosedException createSocketClosedException()
+    {
+        return new SocketClosedException(new java.net.SocketException("Socket is closed"));
+    }
+
+    /**
+     * Get the {@link IPv4Address} of the provided socket address.
+     * @param socketAddress The socket address.
+     */
+    static IPv4Address getIPv4Address(java.net.SocketAddress socketAddress)
+    {
+        PreCondition.assertInstanceOf(socketAddress, java.net.InetSocketAddress.class, "socketAddress");
+
+        final byte[] addressBytes = ((java.net.InetSocketAddress)socketAddress).getAddress().getAddress();
+        return IPv4Address.create(
+            Bytes.toUnsignedInt(addressBytes[0]),
+            Bytes.toUnsignedInt(addressBytes[1]),
+            Bytes.toUnsignedInt(addressBytes[2]),
+            Bytes.toUnsignedInt(addressBytes[3]));
+    }
+
+    /**
+     * Get the port of the provided socket address.
+     * @param socketAddress The socket address.
+     */
+    static int getPort(java.net.SocketAddress socketAddress)
+    {
+        PreCondition.assertInstanceOf(socketAddress, java.net.InetSocketAddress.class, "socketAddress");
+
+        return ((java.net.InetSocketAddress)socketAddress).getPort();
+    }
+
+    private static void close(java.nio.channels.Channel channel)
+    {
+        if (channel != null)
+        {
+            try
+            {
+                channel.close();
+            }
+            catch (java.io.IOException ignored)
+            {
+            }
+        }
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    /**
+     * Stop this network's event loops. Operations that are still waiting on this network's
+     * sockets will fail.
+     */
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+                for (final SelectorEventLoop eventLoop : this.eventLoops)
+                {
+                    eventLoop.dispose().await();
+                }
+            }
+            return result;
+        });
+    }
+}
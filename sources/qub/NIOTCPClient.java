@@ -0,0 +1,334 @@
+package qub;
+
+/**
+ * A {@link TCPClient} that reads from and writes to a non-blocking
+ * {@link java.nio.channels.SocketChannel}. Reads and writes are first attempted on the calling
+ * thread. If the socket isn't ready, then the returned {@link AsyncTask} is completed by the
+ * client's {@link SelectorEventLoop} when it becomes ready, so no thread is tied up while the
+ * client waits.
+ */
+public class NIOTCPClient implements TCPClient
+{
+    private final java.nio.channels.SocketChannel socketChannel;
+    private final SelectorEventLoop.Registration registration;
+
+    NIOTCPClient(java.nio.channels.SocketChannel socketChannel, SelectorEventLoop eventLoop)
+    {
+        PreCondition.assertNotNull(socketChannel, "socketChannel");
+        PreCondition.assertNotNull(eventLoop, "eventLoop");
+
+        this.socketChannel = socketChannel;
+        this.registration = eventLoop.register(socketChannel, NIONetwork::createSocketClosedException);
+    }
+
+    /**
+     * Finish connecting this client.
+     * @param timeout The maximum amount of time to wait for the connection, or null to wait
+     *                without a timeout.
+     * @return The task that completes with this client when it is connected.
+     */
+    AsyncTask<NIOTCPClient> finishConnect(Duration timeout)
+    {
+        return this.registration.whenReady(java.nio.channels.SelectionKey.OP_CONNECT, timeout, () ->
+        {
+            try
+            {
+                return this.socketChannel.finishConnect() ? this : null;
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        });
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return !this.socketChannel.isOpen();
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.isDisposed();
+            if (result)
+            {
+                try
+                {
+                    this.socketChannel.close();
+                }
+                catch (java.io.IOException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+                finally
+                {
+                    this.registration.close();
+                }
+            }
+            return result;
+        });
+    }
+
+    @Override
+    public IPv4Address getLocalIPAddress()
+    {
+        try
+        {
+            return NIONetwork.getIPv4Address(this.socketChannel.getLocalAddress());
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    @Override
+    public int getLocalPort()
+    {
+        try
+        {
+            return NIONetwork.getPort(this.socketChannel.getLocalAddress());
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    @Override
+    public IPv4Address getRemoteIPAddress()
+    {
+        try
+        {
+            return NIONetwork.getIPv4Address(this.socketChannel.getRemoteAddress());
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    @Override
+    public int getRemotePort()
+    {
+        try
+        {
+            return NIONetwork.getPort(this.socketChannel.getRemoteAddress());
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    /**
+     * Read bytes from this client into the provided array without blocking the current thread.
+     * @param outputBytes The array to put the bytes that are read into.
+     * @param startIndex The index in the array to start putting bytes at.
+     * @param length The maximum number of bytes to read.
+     * @return The task that completes with the number of bytes that were read, or with an
+     * {@link EmptyException} if the remote end closed the connection.
+     */
+    public AsyncTask<Integer> readBytesAsync(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        final java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(outputBytes, startIndex, length);
+        return this.registration.whenReady(java.nio.channels.SelectionKey.OP_READ, null, () ->
+        {
+            Integer result;
+            if (length == 0)
+            {
+                result = 0;
+            }
+            else
+            {
+                try
+                {
+                    final int bytesRead = this.socketChannel.read(buffer);
+                    if (bytesRead == -1)
+                    {
+                        throw new EmptyException();
+                    }
+                    result = bytesRead == 0 ? null : bytesRead;
+                }
+                catch (java.nio.channels.ClosedChannelException e)
+                {
+                    throw NIONetwork.createSocketClosedException();
+                }
+                catch (java.io.IOException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Write bytes to this client without blocking the current thread. It is possible that not
+     * all of the bytes will be written.
+     * @param toWrite The array that contains the bytes to write.
+     * @param startIndex The index in the array of the first byte to write.
+     * @param length The number of bytes to write.
+     * @return The task that completes with the number of bytes that were written.
+     */
+    public AsyncTask<Integer> writeAsync(byte[] toWrite, int startIndex, int length)
+    {
+        PreCondition.assertNotNullAndNotEmpty(toWrite, "toWrite");
+        PreCondition.assertNonEmptyStartIndex(startIndex, toWrite.length);
+        PreCondition.assertNonEmptyLength(length, startIndex, toWrite.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        final java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(toWrite, startIndex, length);
+        return this.registration.whenReady(java.nio.channels.SelectionKey.OP_WRITE, null, () ->
+        {
+            try
+            {
+                final int bytesWritten = this.socketChannel.write(buffer);
+                return bytesWritten == 0 ? null : bytesWritten;
+            }
+            catch (java.nio.channels.ClosedChannelException e)
+            {
+                throw NIONetwork.createSocketClosedException();
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        });
+    }
+
+    /**
+     * Write the remaining bytes in the provided buffers with a gathering write without blocking the
+     * current thread. The position of each buffer is advanced past the bytes that were written
+     * from it.
+     * @param toWrite The buffers to write.
+     * @return The task that completes with the number of bytes that were written.
+     */
+    public AsyncTask<Long> writeAsync(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return this.registration.whenReady(java.nio.channels.SelectionKey.OP_WRITE, null, () ->
+        {
+            try
+            {
+                final long bytesWritten = this.socketChannel.write(toWrite);
+                return bytesWritten == 0 && ByteWriteStream.getRemaining(toWrite) > 0 ? null : bytesWritten;
+            }
+            catch (java.nio.channels.ClosedChannelException e)
+            {
+                throw NIONetwork.createSocketClosedException();
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        });
+    }
+
+    @Override
+    public Result<Byte> readByte()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final byte[] outputBytes = new byte[1];
+            final AsyncTask<Integer> readTask = this.readBytesAsync(outputBytes, 0, 1);
+            NIONetwork.waitFor(readTask);
+            readTask.await();
+            return outputBytes[0];
+        });
+    }
+
+    @Override
+    public int readByteAsInt()
+    {
+        PreCondition.assertNotDisposed(this, "this");
+
+        final byte[] outputBytes = new byte[1];
+        return this.readBytesInto(outputBytes, 0, 1) == -1
+            ? -1
+            : Bytes.toUnsignedInt(outputBytes[0]);
+    }
+
+    @Override
+    public Result<Integer> readBytes(byte[] outputBytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(outputBytes, "outputBytes");
+        PreCondition.assertStartIndex(startIndex, outputBytes.length);
+        PreCondition.assertLength(length, startIndex, outputBytes.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final AsyncTask<Integer> readTask = this.readBytesAsync(outputBytes, startIndex, length);
+            NIONetwork.waitFor(readTask);
+            return readTask.await();
+        });
+    }
+
+    @Override
+    public int readBytesInto(byte[] outputBytes, int startIndex, int length)
+    {
+        final AsyncTask<Integer> readTask = this.readBytesAsync(outputBytes, startIndex, length);
+        NIONetwork.waitFor(readTask);
+
+        int result;
+        try
+        {
+            result = readTask.await(EmptyException.class);
+        }
+        catch (EmptyException e)
+        {
+            result = -1;
+        }
+        return result;
+    }
+
+    @Override
+    public Result<Integer> write(byte toWrite)
+    {
+        return this.write(new byte[] { toWrite }, 0, 1);
+    }
+
+    @Override
+    public Result<Integer> write(byte[] toWrite, int startIndex, int length)
+    {
+        PreCondition.assertNotNullAndNotEmpty(toWrite, "toWrite");
+        PreCondition.assertNonEmptyStartIndex(startIndex, toWrite.length);
+        PreCondition.assertNonEmptyLength(length, startIndex, toWrite.length);
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final AsyncTask<Integer> writeTask = this.writeAsync(toWrite, startIndex, length);
+            NIONetwork.waitFor(writeTask);
+            return writeTask.await();
+        });
+    }
+
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        return Result.create(() ->
+        {
+            final AsyncTask<Long> writeTask = this.writeAsync(toWrite);
+            NIONetwork.waitFor(writeTask);
+            return writeTask.await();
+        });
+    }
+}
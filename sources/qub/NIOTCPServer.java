@@ -0,0 +1,177 @@
+package qub;
+
+/**
+ * A {@link TCPServer} that accepts clients from a non-blocking
+ * {@link java.nio.channels.ServerSocketChannel}. Accepting doesn't tie up a thread: when there
+ * isn't an incoming client waiting, {@link #acceptAsync()} returns an {@link AsyncTask} that the
+ * server's {@link SelectorEventLoop} completes when a client connects.
+ */
+public class NIOTCPServer implements TCPServer
+{
+    private final java.nio.channels.ServerSocketChannel serverSocketChannel;
+    private final NIONetwork network;
+    private final SelectorEventLoop.Registration registration;
+    private final Clock clock;
+
+    NIOTCPServer(java.nio.channels.ServerSocketChannel serverSocketChannel, NIONetwork network, SelectorEventLoop eventLoop, Clock clock)
+    {
+        PreCondition.assertNotNull(serverSocketChannel, "serverSocketChannel");
+        PreCondition.assertNotNull(network, "network");
+        PreCondition.assertNotNull(eventLoop, "eventLoop");
+
+        this.serverSocketChannel = serverSocketChannel;
+        this.network = network;
+        this.registration = eventLoop.register(serverSocketChannel, NIONetwork::createSocketClosedException);
+        this.clock = clock;
+    }
+
+    @Override
+    public IPv4Address getLocalIPAddress()
+    {
+        try
+        {
+            return NIONetwork.getIPv4Address(this.serverSocketChannel.getLocalAddress());
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    @Override
+    public int getLocalPort()
+    {
+        try
+        {
+            return NIONetwork.getPort(this.serverSocketChannel.getLocalAddress());
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+
+    /**
+     * Accept a single incoming client without blocking the current thread.
+     * @return The task that completes with the accepted client.
+     */
+    public AsyncTask<NIOTCPClient> acceptAsync()
+    {
+        return this.registration.whenReady(java.nio.channels.SelectionKey.OP_ACCEPT, null, this::tryAccept);
+    }
+
+    /**
+     * Accept a single incoming client without blocking the current thread.
+     * @param timeout The maximum amount of time to wait for a client to connect.
+     * @return The task that completes with the accepted client, or with a {@link TimeoutException}
+     * if no client connects before the timeout.
+     */
+    public AsyncTask<NIOTCPClient> acceptAsync(Duration timeout)
+    {
+        PreCondition.assertNotNull(timeout, "timeout");
+
+        return this.registration.whenReady(java.nio.channels.SelectionKey.OP_ACCEPT, timeout, this::tryAccept);
+    }
+
+    /**
+     * Attempt to accept an incoming client.
+     * @return The accepted client, or null if no client is waiting to be accepted.
+     */
+    private NIOTCPClient tryAccept()
+    {
+        NIOTCPClient result = null;
+        java.nio.channels.SocketChannel socketChannel = null;
+        try
+        {
+            socketChannel = this.serverSocketChannel.accept();
+            if (socketChannel != null)
+            {
+                result = this.network.createTCPClient(socketChannel);
+            }
+        }
+        catch (java.nio.channels.ClosedChannelException e)
+        {
+            throw NIONetwork.createSocketClosedException();
+        }
+        catch (java.io.IOException e)
+        {
+            if (socketChannel != null)
+            {
+                try
+                {
+                    socketChannel.close();
+                }
+                catch (java.io.IOException ignored)
+                {
+                }
+            }
+            throw Exceptions.asRuntime(e);
+        }
+        return result;
+    }
+
+    @Override
+    public Result<TCPClient> accept()
+    {
+        return Result.create(() ->
+        {
+            final AsyncTask<NIOTCPClient> acceptTask = this.acceptAsync();
+            NIONetwork.waitFor(acceptTask);
+            return acceptTask.await();
+        });
+    }
+
+    @Override
+    public Result<TCPClient> accept(Duration timeout)
+    {
+        PreCondition.assertNotNull(timeout, "timeout");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+
+        return Result.create(() ->
+        {
+            final AsyncTask<NIOTCPClient> acceptTask = this.acceptAsync(timeout);
+            NIONetwork.waitFor(acceptTask);
+            return acceptTask.await();
+        });
+    }
+
+    @Override
+    public Result<TCPClient> accept(DateTime timeout)
+    {
+        PreCondition.assertNotNull(timeout, "timeout");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+
+        return this.accept(timeout.minus(this.clock.getCurrentDateTime()));
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return !this.serverSocketChannel.isOpen();
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.isDisposed();
+            if (result)
+            {
+                try
+                {
+                    this.serverSocketChannel.close();
+                }
+                catch (java.io.IOException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+                finally
+                {
+                    this.registration.close();
+                }
+            }
+            return result;
+        });
+    }
+}
@@ -159,6 +159,12 @@ public class Node1List<T> implements List<T>
         return head == null ? EmptyIterator.create() : Node1Iterator.create(this.head);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -215,6 +215,12 @@ public class Node2List<T> implements List<T>
         return head == null ? EmptyIterator.create() : Node2ListIterator.create(this.head);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
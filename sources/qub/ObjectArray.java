@@ -83,6 +83,12 @@ public class ObjectArray<T> implements Array<T>
         return result;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
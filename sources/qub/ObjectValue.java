@@ -58,6 +58,12 @@ public class ObjectValue<T> implements Value<T>
         return this;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.hasValue() ? Hash.getHashCode(this.get()) : 0;
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public boolean equals(Object rhs)
@@ -113,6 +113,57 @@ public class OutputStreamToByteWriteStream extends BasicDisposable implements By
         return result;
     }
 
+    /**
+     * Write the remaining bytes in the provided buffers. A {@link java.io.OutputStream} can't
+     * gather, so if all of the bytes fit in a pooled buffer, then they are copied into it and
+     * written with a single write instead of one write per buffer.
+     * @param toWrite The buffers to write.
+     * @return The number of bytes that were written.
+     */
+    @Override
+    public Result<Long> write(java.nio.ByteBuffer[] toWrite)
+    {
+        PreCondition.assertNotNull(toWrite, "toWrite");
+        PreCondition.assertNotDisposed(this, "this");
+
+        final BufferPool bufferPool = BufferPool.getDefault();
+        final long remaining = ByteWriteStream.getRemaining(toWrite);
+        return remaining > bufferPool.getMaximumBufferSize()
+            ? ByteWriteStream.super.write(toWrite)
+            : Result.create(() ->
+            {
+                if (remaining > 0)
+                {
+                    final byte[] bytes = bufferPool.takeBytes((int)remaining);
+                    try
+                    {
+                        int bytesIndex = 0;
+                        for (final java.nio.ByteBuffer buffer : toWrite)
+                        {
+                            final int length = buffer.remaining();
+                            buffer.get(bytes, bytesIndex, length);
+                            bytesIndex += length;
+                        }
+
+                        this.outputStream.write(bytes, 0, bytesIndex);
+                        if (this.autoFlush)
+                        {
+                            this.outputStream.flush();
+                        }
+                    }
+                    catch (java.io.IOException e)
+                    {
+                        throw Exceptions.asRuntime(e);
+                    }
+                    finally
+                    {
+                        bufferPool.returnBytes(bytes);
+                    }
+                }
+                return remaining;
+            });
+    }
+
     @Override
     public Result<Boolean> dispose()
     {
@@ -1,17 +1,50 @@
 package qub;
 
 /**
- * An AsyncRunner implementation that runs its tasks on a thread pool.
+ * An AsyncRunner implementation that runs its tasks on separate threads. If a {@link ThreadPool}
+ * is provided, then the tasks will run on the {@link ThreadPool}'s worker threads. Otherwise each
+ * task will run on its own new thread.
  */
 public class ParallelAsyncRunner implements AsyncScheduler
 {
-    private ParallelAsyncRunner()
+    /**
+     * The ThreadPool that this ParallelAsyncRunner's tasks will run on, or null if each task should
+     * run on its own new thread.
+     */
+    private final ThreadPool threadPool;
+
+    private ParallelAsyncRunner(ThreadPool threadPool)
     {
+        this.threadPool = threadPool;
     }
 
+    /**
+     * Create a new {@link ParallelAsyncRunner} that runs each of its tasks on a new thread.
+     */
     public static ParallelAsyncRunner create()
     {
-        return new ParallelAsyncRunner();
+        return new ParallelAsyncRunner(null);
+    }
+
+    /**
+     * Create a new {@link ParallelAsyncRunner} that runs its tasks on the provided
+     * {@link ThreadPool}.
+     * @param threadPool The {@link ThreadPool} that the tasks will run on.
+     */
+    public static ParallelAsyncRunner create(ThreadPool threadPool)
+    {
+        PreCondition.assertNotNull(threadPool, "threadPool");
+
+        return new ParallelAsyncRunner(threadPool);
+    }
+
+    /**
+     * Get the {@link ThreadPool} that this {@link ParallelAsyncRunner}'s tasks run on, or null if
+     * each task runs on its own new thread.
+     */
+    public ThreadPool getThreadPool()
+    {
+        return this.threadPool;
     }
 
     @Override
@@ -52,11 +85,28 @@ public class ParallelAsyncRunner implements AsyncScheduler
         PreCondition.assertNotNull(task, "task");
         PreCondition.assertFalse(task.isCompleted(), "task.isCompleted()");
 
-        new Thread(() ->
+        final Action0 runTask = () ->
         {
             CurrentThread.setAsyncRunner(this);
             task.run();
-        }).start();
+        };
+        if (this.threadPool == null || this.threadPool.isDisposed())
+        {
+            new java.lang.Thread(runTask::run).start();
+        }
+        else if (!this.threadPool.trySchedule(runTask))
+        {
+            if (this.threadPool.isDisposed())
+            {
+                new java.lang.Thread(runTask::run).start();
+            }
+            else
+            {
+                // The ThreadPool's queue is full, so run the task on the scheduling thread to slow
+                // down the producer.
+                CurrentThread.withAsyncScheduler(this, task::run);
+            }
+        }
         return task;
     }
 
@@ -65,9 +115,9 @@ public class ParallelAsyncRunner implements AsyncScheduler
     {
         PreCondition.assertNotNull(result, "result");
 
-        while (!result.isCompleted())
-        {
-            CurrentThread.yield();
-        }
+        final ThreadPool helpThreadPool = this.threadPool != null && this.threadPool.isWorkerThread()
+            ? this.threadPool
+            : null;
+        AsyncTask.waitFor(result, helpThreadPool);
     }
 }
@@ -0,0 +1,374 @@
+package qub;
+
+/**
+ * A mutex/lock that can be used to synchronize access to shared resources between multiple threads.
+ * A thread that can't acquire this lock spins for a short, adaptive number of iterations and then
+ * parks until the owning thread releases the lock, so contended threads don't burn CPU that the
+ * lock's owner could be using.
+ */
+public class ParkingMutex implements Mutex
+{
+    private static final java.util.concurrent.atomic.AtomicReferenceFieldUpdater<ParkingMutex,java.lang.Thread> ownerUpdater =
+        java.util.concurrent.atomic.AtomicReferenceFieldUpdater.newUpdater(ParkingMutex.class, java.lang.Thread.class, "owner");
+
+    private static final int minimumSpinCount = 16;
+    private static final int maximumSpinCount = 1024;
+
+    private final Clock clock;
+    private final java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> waitingThreads;
+    private volatile java.lang.Thread owner;
+    /**
+     * The number of times that the owning thread has acquired this mutex. This is only accessed by
+     * the owning thread.
+     */
+    private int acquiredCount;
+    /**
+     * The number of iterations that an acquiring thread will spin before it parks. This is only a
+     * hint, so it isn't synchronized.
+     */
+    private int spinCount;
+    private volatile boolean fair;
+    private volatile boolean reentrant;
+
+    private ParkingMutex(Clock clock)
+    {
+        this.clock = clock;
+        this.waitingThreads = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        this.spinCount = ParkingMutex.minimumSpinCount * 4;
+    }
+
+    public static ParkingMutex create()
+    {
+        return new ParkingMutex(null);
+    }
+
+    public static ParkingMutex create(Clock clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        return new ParkingMutex(clock);
+    }
+
+    /**
+     * Get whether this mutex grants ownership to waiting threads in the order that they started
+     * waiting. An unfair mutex allows an acquiring thread to take the mutex ahead of threads that
+     * are already waiting, which gives better throughput under contention.
+     * @return Whether this mutex is fair.
+     */
+    public boolean isFair()
+    {
+        return this.fair;
+    }
+
+    /**
+     * Set whether this mutex grants ownership to waiting threads in the order that they started
+     * waiting. This must be set before the mutex is shared between threads.
+     * @param fair Whether this mutex will be fair.
+     * @return This object for method chaining.
+     */
+    public ParkingMutex setFair(boolean fair)
+    {
+        PreCondition.assertFalse(this.isAcquired(), "this.isAcquired()");
+
+        this.fair = fair;
+
+        return this;
+    }
+
+    /**
+     * Get whether the thread that owns this mutex can acquire it again. A reentrant mutex must be
+     * released as many times as it was acquired before another thread can acquire it.
+     * @return Whether this mutex is reentrant.
+     */
+    public boolean isReentrant()
+    {
+        return this.reentrant;
+    }
+
+    /**
+     * Set whether the thread that owns this mutex can acquire it again. This must be set before
+     * the mutex is shared between threads.
+     * @param reentrant Whether this mutex will be reentrant.
+     * @return This object for method chaining.
+     */
+    public ParkingMutex setReentrant(boolean reentrant)
+    {
+        PreCondition.assertFalse(this.isAcquired(), "this.isAcquired()");
+
+        this.reentrant = reentrant;
+
+        return this;
+    }
+
+    /**
+     * Get the number of times that the current thread has acquired this mutex without releasing
+     * it.
+     * @return The number of times that the current thread has acquired this mutex.
+     */
+    public int getAcquiredCount()
+    {
+        return this.isAcquiredByCurrentThread() ? this.acquiredCount : 0;
+    }
+
+    @Override
+    public boolean isAcquired()
+    {
+        return this.owner != null;
+    }
+
+    @Override
+    public boolean isAcquiredByCurrentThread()
+    {
+        return this.owner == java.lang.Thread.currentThread();
+    }
+
+    @Override
+    public Result<Void> acquire()
+    {
+        return Result.create(() ->
+        {
+            this.waitToAcquire(null);
+        });
+    }
+
+    @Override
+    public Result<Void> acquire(Duration durationTimeout)
+    {
+        PreCondition.assertNotNull(durationTimeout, "durationTimeout");
+        PreCondition.assertGreaterThan(durationTimeout, Duration.zero, "durationTimeout");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+
+        return Result.create(() ->
+        {
+            final long deadlineNanoseconds = this.clock.getMonotonicNanoseconds() + (long)durationTimeout.toNanoseconds().getValue();
+            if (!this.waitToAcquire(() -> deadlineNanoseconds - this.clock.getMonotonicNanoseconds()))
+            {
+                throw new TimeoutException();
+            }
+        });
+    }
+
+    @Override
+    public Result<Void> acquire(DateTime dateTimeTimeout)
+    {
+        PreCondition.assertNotNull(dateTimeTimeout, "dateTimeTimeout");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+
+        return Result.create(() ->
+        {
+            final Function0<Long> getRemainingNanoseconds = () -> ParkingMutex.getRemainingNanoseconds(this.clock, dateTimeTimeout);
+            if (getRemainingNanoseconds.run() <= 0 || !this.waitToAcquire(getRemainingNanoseconds))
+            {
+                throw new TimeoutException();
+            }
+        });
+    }
+
+    @Override
+    public Result<Boolean> tryAcquire()
+    {
+        return Result.create(() ->
+        {
+            return this.tryAcquire(java.lang.Thread.currentThread(), false);
+        });
+    }
+
+    @Override
+    public Result<Void> release()
+    {
+        PreCondition.assertTrue(this.isAcquiredByCurrentThread(), "this.isAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            --this.acquiredCount;
+            if (this.acquiredCount == 0)
+            {
+                this.releaseOwnership();
+            }
+        });
+    }
+
+    @Override
+    public ParkingMutexCondition createCondition()
+    {
+        return ParkingMutexCondition.create(this, this.clock);
+    }
+
+    @Override
+    public ParkingMutexCondition createCondition(Function0<Boolean> condition)
+    {
+        PreCondition.assertNotNull(condition, "condition");
+
+        return ParkingMutexCondition.create(this, this.clock, condition);
+    }
+
+    /**
+     * Release every acquisition that the current thread has of this mutex so that a
+     * ParkingMutexCondition can wait without holding it.
+     * @return The number of times that the current thread had acquired this mutex.
+     */
+    int releaseAll()
+    {
+        PreCondition.assertTrue(this.isAcquiredByCurrentThread(), "this.isAcquiredByCurrentThread()");
+
+        final int result = this.acquiredCount;
+        this.acquiredCount = 0;
+        this.releaseOwnership();
+
+        return result;
+    }
+
+    /**
+     * Acquire this mutex again after a call to releaseAll().
+     * @param acquiredCount The number of times that the current thread had acquired this mutex.
+     */
+    void reacquireAll(int acquiredCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(acquiredCount, 1, "acquiredCount");
+
+        this.waitToAcquire(null);
+        this.acquiredCount = acquiredCount;
+    }
+
+    /**
+     * Get the number of nanoseconds between the provided Clock's current DateTime and the
+     * provided timeout.
+     */
+    static long getRemainingNanoseconds(Clock clock, DateTime dateTimeTimeout)
+    {
+        final DateTime currentDateTime = clock.getCurrentDateTime();
+        return currentDateTime.greaterThanOrEqualTo(dateTimeTimeout)
+            ? 0
+            : java.lang.Math.max(1, (long)dateTimeTimeout.minus(currentDateTime).toNanoseconds().getValue());
+    }
+
+    private boolean tryAcquire(java.lang.Thread currentThread, boolean respectWaitingThreads)
+    {
+        boolean result;
+        final java.lang.Thread owner = this.owner;
+        if (owner == currentThread)
+        {
+            result = this.reentrant;
+            if (result)
+            {
+                ++this.acquiredCount;
+            }
+        }
+        else if (owner != null)
+        {
+            result = false;
+        }
+        else if (respectWaitingThreads && this.fair && !this.isNextWaitingThread(currentThread))
+        {
+            result = false;
+        }
+        else
+        {
+            result = ParkingMutex.ownerUpdater.compareAndSet(this, null, currentThread);
+            if (result)
+            {
+                this.acquiredCount = 1;
+            }
+        }
+        return result;
+    }
+
+    private boolean isNextWaitingThread(java.lang.Thread thread)
+    {
+        final java.lang.Thread next = this.waitingThreads.peek();
+        return next == null || next == thread;
+    }
+
+    /**
+     * Acquire this mutex for the current thread.
+     * @param getRemainingNanoseconds A function that returns the number of nanoseconds left before
+     *                                the acquire times out, or null if the acquire never times
+     *                                out.
+     * @return Whether this mutex was acquired before the timeout.
+     */
+    private boolean waitToAcquire(Function0<Long> getRemainingNanoseconds)
+    {
+        final java.lang.Thread currentThread = java.lang.Thread.currentThread();
+        boolean result = this.tryAcquire(currentThread, true);
+        if (!result && this.owner != currentThread)
+        {
+            result = this.spinAcquire(currentThread);
+        }
+
+        if (!result)
+        {
+            this.waitingThreads.add(currentThread);
+            try
+            {
+                while (!(result = this.tryAcquire(currentThread, true)))
+                {
+                    if (getRemainingNanoseconds == null)
+                    {
+                        java.util.concurrent.locks.LockSupport.park(this);
+                    }
+                    else
+                    {
+                        final long remainingNanoseconds = getRemainingNanoseconds.run();
+                        if (remainingNanoseconds <= 0)
+                        {
+                            break;
+                        }
+                        java.util.concurrent.locks.LockSupport.parkNanos(this, remainingNanoseconds);
+                    }
+                }
+            }
+            finally
+            {
+                this.waitingThreads.remove(currentThread);
+                if (!result)
+                {
+                    // The releasing thread may have woken this thread to take the mutex, so pass
+                    // that wake up on to the next waiting thread.
+                    ParkingMutex.unpark(this.waitingThreads.peek());
+                }
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Spin for a short time waiting for this mutex to be released. The number of iterations grows
+     * when spinning succeeds and shrinks when it doesn't, so that short critical sections are
+     * handed off without parking and long ones quickly fall back to parking.
+     * @param currentThread The thread that is acquiring this mutex.
+     * @return Whether this mutex was acquired.
+     */
+    private boolean spinAcquire(java.lang.Thread currentThread)
+    {
+        boolean result = false;
+        final int spinCount = this.spinCount;
+        for (int i = 0; i < spinCount; ++i)
+        {
+            java.lang.Thread.onSpinWait();
+            if (this.owner == null && this.tryAcquire(currentThread, true))
+            {
+                result = true;
+                break;
+            }
+        }
+        this.spinCount = result
+            ? java.lang.Math.min(ParkingMutex.maximumSpinCount, spinCount * 2)
+            : java.lang.Math.max(ParkingMutex.minimumSpinCount, spinCount / 2);
+        return result;
+    }
+
+    private void releaseOwnership()
+    {
+        this.owner = null;
+        ParkingMutex.unpark(this.waitingThreads.peek());
+    }
+
+    private static void unpark(java.lang.Thread thread)
+    {
+        if (thread != null)
+        {
+            java.util.concurrent.locks.LockSupport.unpark(thread);
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package qub;
+
+/**
+ * A {@link MutexCondition} for a {@link ParkingMutex}. Watching threads park until the condition
+ * is signaled instead of spinning.
+ */
+public class ParkingMutexCondition implements MutexCondition
+{
+    private final ParkingMutex mutex;
+    private final Clock clock;
+    private final Function0<Boolean> condition;
+    private final java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> watchingThreads;
+    /**
+     * The number of times that this condition has been signaled. This is only modified while the
+     * mutex is acquired.
+     */
+    private volatile long signalCount;
+
+    private ParkingMutexCondition(ParkingMutex mutex, Clock clock, Function0<Boolean> condition)
+    {
+        PreCondition.assertNotNull(mutex, "mutex");
+
+        this.mutex = mutex;
+        this.clock = clock;
+        this.condition = condition;
+        this.watchingThreads = new java.util.concurrent.ConcurrentLinkedQueue<>();
+    }
+
+    public static ParkingMutexCondition create(ParkingMutex mutex, Clock clock)
+    {
+        PreCondition.assertNotNull(mutex, "mutex");
+
+        return new ParkingMutexCondition(mutex, clock, null);
+    }
+
+    public static ParkingMutexCondition create(ParkingMutex mutex, Clock clock, Function0<Boolean> condition)
+    {
+        PreCondition.assertNotNull(mutex, "mutex");
+        PreCondition.assertNotNull(condition, "condition");
+
+        return new ParkingMutexCondition(mutex, clock, condition);
+    }
+
+    @Override
+    public Result<Void> watch()
+    {
+        PreCondition.assertTrue(this.mutex.isAcquiredByCurrentThread(), "this.mutex.isAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            this.watch((Function0<Long>)null);
+        });
+    }
+
+    @Override
+    public Result<Void> watch(Duration timeout)
+    {
+        PreCondition.assertNotNull(timeout, "timeout");
+        PreCondition.assertGreaterThan(timeout, Duration.zero, "timeout");
+        PreCondition.assertTrue(this.mutex.isAcquiredByCurrentThread(), "this.mutex.isAcquiredByCurrentThread()");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+
+        return Result.create(() ->
+        {
+            final long deadlineNanoseconds = this.clock.getMonotonicNanoseconds() + (long)timeout.toNanoseconds().getValue();
+            this.watch(() -> deadlineNanoseconds - this.clock.getMonotonicNanoseconds());
+        });
+    }
+
+    @Override
+    public Result<Void> watch(DateTime timeout)
+    {
+        PreCondition.assertNotNull(timeout, "timeout");
+        PreCondition.assertTrue(this.mutex.isAcquiredByCurrentThread(), "this.mutex.isAcquiredByCurrentThread()");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+
+        return Result.create(() ->
+        {
+            this.watch(() -> ParkingMutex.getRemainingNanoseconds(this.clock, timeout));
+        });
+    }
+
+    @Override
+    public void signalAll()
+    {
+        PreCondition.assertTrue(this.mutex.isAcquiredByCurrentThread(), "this.mutex.isAcquiredByCurrentThread()");
+
+        ++this.signalCount;
+        for (final java.lang.Thread watchingThread : this.watchingThreads)
+        {
+            java.util.concurrent.locks.LockSupport.unpark(watchingThread);
+        }
+    }
+
+    private void watch(Function0<Long> getRemainingNanoseconds)
+    {
+        boolean done = (this.condition != null && this.condition.run());
+        while (!done)
+        {
+            this.waitForSignal(getRemainingNanoseconds);
+
+            done = (this.condition == null || this.condition.run());
+        }
+    }
+
+    /**
+     * Release this condition's mutex, park until this condition is signaled, and then acquire the
+     * mutex again.
+     * @param getRemainingNanoseconds A function that returns the number of nanoseconds left before
+     *                                the watch times out, or null if the watch never times out.
+     */
+    private void waitForSignal(Function0<Long> getRemainingNanoseconds)
+    {
+        final java.lang.Thread currentThread = java.lang.Thread.currentThread();
+        final long signalCount = this.signalCount;
+        this.watchingThreads.add(currentThread);
+        final int acquiredCount = this.mutex.releaseAll();
+        try
+        {
+            while (this.signalCount == signalCount)
+            {
+                if (getRemainingNanoseconds == null)
+                {
+                    java.util.concurrent.locks.LockSupport.park(this);
+                }
+                else
+                {
+                    final long remainingNanoseconds = getRemainingNanoseconds.run();
+                    if (remainingNanoseconds <= 0)
+                    {
+                        throw new TimeoutException();
+                    }
+                    java.util.concurrent.locks.LockSupport.parkNanos(this, remainingNanoseconds);
+                }
+            }
+        }
+        finally
+        {
+            this.watchingThreads.remove(currentThread);
+            this.mutex.reacquireAll(acquiredCount);
+        }
+    }
+}
@@ -2,8 +2,21 @@ package qub;
 
 public class PathPattern
 {
+    /**
+     * The maximum number of parsed PathPatterns that will be kept in the parse cache. When the
+     * parse cache is full, it is cleared before the next parsed PathPattern is added to it.
+     */
+    static final int parseCacheCapacity = 1024;
+
+    /**
+     * The recently parsed PathPatterns, keyed by the text that they were parsed from. Looking up a
+     * cached PathPattern doesn't acquire a lock.
+     */
+    private static final ConcurrentHashMap<String,PathPattern> parseCache = ConcurrentHashMap.create();
+
     private final String originalString;
     private final StateMachine stateMachine;
+    private final CompiledStateMachine compiledStateMachine;
 
     public PathPattern(String originalString, StateMachine stateMachine)
     {
@@ -12,6 +25,7 @@ public class PathPattern
 
         this.originalString = originalString;
         this.stateMachine = stateMachine;
+        this.compiledStateMachine = stateMachine.compile();
     }
 
     /**
@@ -23,7 +37,7 @@ public class PathPattern
     {
         PreCondition.assertNotNull(path, "path");
 
-        return stateMachine.isMatch(path.toString());
+        return compiledStateMachine.isMatch(path.toString());
     }
 
     /**
@@ -33,7 +47,7 @@ public class PathPattern
      */
     public boolean isMatch(String pathString)
     {
-        return stateMachine.isMatch(pathString);
+        return compiledStateMachine.isMatch(pathString);
     }
 
     /**
@@ -43,7 +57,19 @@ public class PathPattern
      */
     public boolean isMatch(Iterator<Character> pathCharacters)
     {
-        return stateMachine.isMatch(pathCharacters);
+        return compiledStateMachine.isMatch(pathCharacters);
+    }
+
+    /**
+     * Get whether or not the provided path string is the beginning of a path that could match
+     * this PathPattern. If a folder's path followed by a separator isn't a prefix match, then
+     * none of the entries in that folder can match this PathPattern.
+     * @param pathString The beginning of the path strings to compare against this PathPattern.
+     * @return Whether or not the provided path string could be the beginning of a match.
+     */
+    public boolean isPrefixMatch(String pathString)
+    {
+        return compiledStateMachine.isPrefixMatch(pathString);
     }
 
     /**
@@ -114,7 +140,8 @@ public class PathPattern
     }
 
     /**
-     * Parse the provided text into a PathPattern.
+     * Parse the provided text into a PathPattern. Recently parsed PathPatterns are cached, so
+     * parsing the same text again returns the same PathPattern without compiling it again.
      * @param text The text to parse.
      * @return The parsed PathPattern.
      */
@@ -122,6 +149,21 @@ public class PathPattern
     {
         PreCondition.assertNotNull(text, "text");
 
+        PathPattern result = PathPattern.parseCache.getOrDefault(text, null);
+        if (result == null)
+        {
+            result = PathPattern.create(text);
+            if (PathPattern.parseCache.getCount() >= PathPattern.parseCacheCapacity)
+            {
+                PathPattern.parseCache.clear();
+            }
+            PathPattern.parseCache.set(text, result);
+        }
+        return result;
+    }
+
+    private static PathPattern create(String text)
+    {
         final StateMachine stateMachine = new StateMachine();
         State currentState = stateMachine.createState().setStartState(true);
 
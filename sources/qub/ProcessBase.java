@@ -18,13 +18,42 @@ public abstract class ProcessBase<T extends MutableProcess> implements MutablePr
     private final LazyValue<Map<String,String>> systemProperties;
 
     private final AsyncScheduler mainAsyncRunner;
+    /**
+     * The ThreadPool that this process created for its parallel AsyncRunner, or null if the
+     * parallel AsyncRunner was provided when this process was created.
+     */
+    private final ThreadPool threadPool;
     private final AsyncScheduler parallelAsyncRunner;
 
     private final Disposable disposable;
 
     protected ProcessBase(AsyncScheduler mainAsyncRunner)
+    {
+        this(mainAsyncRunner, ThreadPool.create());
+    }
+
+    private ProcessBase(AsyncScheduler mainAsyncRunner, ThreadPool threadPool)
+    {
+        this(mainAsyncRunner, threadPool, ParallelAsyncRunner.create(threadPool));
+    }
+
+    /**
+     * Create a new {@link ProcessBase} that will use the provided {@link AsyncScheduler} as its
+     * parallel {@link AsyncRunner}.
+     * @param mainAsyncRunner The {@link AsyncScheduler} that will be registered with the main
+     *                        thread.
+     * @param parallelAsyncRunner The {@link AsyncScheduler} that will run this process's parallel
+     *                            tasks.
+     */
+    protected ProcessBase(AsyncScheduler mainAsyncRunner, AsyncScheduler parallelAsyncRunner)
+    {
+        this(mainAsyncRunner, null, parallelAsyncRunner);
+    }
+
+    private ProcessBase(AsyncScheduler mainAsyncRunner, ThreadPool threadPool, AsyncScheduler parallelAsyncRunner)
     {
         PreCondition.assertNotNull(mainAsyncRunner, "mainAsyncRunner");
+        PreCondition.assertNotNull(parallelAsyncRunner, "parallelAsyncRunner");
 
         this.outputWriteStream = LazyValue.create();
         this.errorWriteStream = LazyValue.create();
@@ -44,7 +73,8 @@ public abstract class ProcessBase<T extends MutableProcess> implements MutablePr
         this.mainAsyncRunner = mainAsyncRunner;
         CurrentThread.setAsyncRunner(mainAsyncRunner);
 
-        this.parallelAsyncRunner = ParallelAsyncRunner.create();
+        this.threadPool = threadPool;
+        this.parallelAsyncRunner = parallelAsyncRunner;
 
         this.disposable = Disposable.create(() ->
         {
@@ -74,6 +104,11 @@ public abstract class ProcessBase<T extends MutableProcess> implements MutablePr
                     errorWriteStream.dispose().await();
                 }
             }
+
+            if (this.threadPool != null)
+            {
+                this.threadPool.dispose().await();
+            }
         });
     }
 
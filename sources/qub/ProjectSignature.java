@@ -85,6 +85,12 @@ public class ProjectSignature
         return rhs instanceof ProjectSignature && this.equals((ProjectSignature)rhs);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.publisher, this.project, this.version);
+    }
+
     /**
      * Get whether or not this project signature is equal to the provided project signature.
      * @param rhs The project signature to compare to this project signature.
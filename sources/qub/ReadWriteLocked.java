@@ -0,0 +1,104 @@
+package qub;
+
+/**
+ * A class that wraps an object with shared-read and exclusive-write access behavior.
+ * @param <T> The type of object that this class wraps.
+ */
+public class ReadWriteLocked<T>
+{
+    private final T value;
+    private final ReadWriteMutex mutex;
+
+    private ReadWriteLocked(T value, ReadWriteMutex mutex)
+    {
+        PreCondition.assertNotNull(mutex, "mutex");
+
+        this.value = value;
+        this.mutex = mutex;
+    }
+
+    /**
+     * Create a new ReadWriteLocked wrapper around the provided value.
+     * @param value The value to lock.
+     */
+    public static <T> ReadWriteLocked<T> create(T value)
+    {
+        return new ReadWriteLocked<>(value, ReadWriteMutex.create());
+    }
+
+    /**
+     * Create a new ReadWriteLocked wrapper around the provided value.
+     * @param value The value to lock.
+     * @param mutex The mutex that will be used to lock access to the value.
+     */
+    public static <T> ReadWriteLocked<T> create(T value, ReadWriteMutex mutex)
+    {
+        PreCondition.assertNotNull(mutex, "mutex");
+
+        return new ReadWriteLocked<>(value, mutex);
+    }
+
+    /**
+     * Perform the provided action with this object's value while holding a read lock. Other
+     * readers may access the value at the same time, so the action must not modify it.
+     * @param action The action to perform with this object's value.
+     */
+    public void readUnlock(Action1<T> action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        this.mutex.readCriticalSection(() ->
+        {
+            action.run(this.value);
+            return null;
+        }).await();
+    }
+
+    /**
+     * Perform the provided function with this object's value while holding a read lock. Other
+     * readers may access the value at the same time, so the function must not modify it.
+     * @param function The function to perform with this object's value.
+     */
+    public <U> U readUnlock(Function1<T,U> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return this.mutex.readCriticalSection(() -> function.run(this.value)).await();
+    }
+
+    /**
+     * Perform the provided function with this object's value without acquiring a lock. If a writer
+     * modified the value while the function was running, then the function is run again while
+     * holding a read lock. The function must not have side effects, since it may see the value
+     * while it is being modified.
+     * @param function The function to perform with this object's value.
+     */
+    public <U> U optimisticReadUnlock(Function1<T,U> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return this.mutex.optimisticReadCriticalSection(() -> function.run(this.value)).await();
+    }
+
+    /**
+     * Perform the provided action with this object's value while holding the write lock.
+     * @param action The action to perform with this object's value.
+     */
+    public void writeUnlock(Action1<T> action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        this.mutex.writeCriticalSection(() -> action.run(this.value)).await();
+    }
+
+    /**
+     * Perform the provided function with this object's value while holding the write lock.
+     * @param function The function to perform with this object's value.
+     */
+    public <U> U writeUnlock(Function1<T,U> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return this.mutex.writeCriticalSection(() -> function.run(this.value)).await();
+    }
+}
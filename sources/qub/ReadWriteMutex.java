@@ -0,0 +1,499 @@
+package qub;
+
+/**
+ * A mutex/lock that allows any number of threads to read a shared resource at the same time, but
+ * only a single thread to write to it. Threads that can't acquire this mutex park until it is
+ * released. Waiting writers are preferred over new readers so that a steady stream of readers
+ * can't starve a writer. A thread that already holds this mutex for reading can acquire it for
+ * reading again even while a writer is waiting, since that writer can't acquire this mutex until
+ * the thread's existing read is released anyway. Reads should be released by the thread that
+ * acquired them so that this per-thread count stays accurate.
+ * <p>
+ * This mutex also supports optimistic reads. tryOptimisticRead() returns a stamp without acquiring
+ * anything, and validate(long) returns whether a writer acquired this mutex since the stamp was
+ * returned. If it didn't, then the values that were read in between are consistent.
+ */
+public class ReadWriteMutex
+{
+    private static final java.util.concurrent.atomic.AtomicLongFieldUpdater<ReadWriteMutex> stateUpdater =
+        java.util.concurrent.atomic.AtomicLongFieldUpdater.newUpdater(ReadWriteMutex.class, "state");
+
+    /**
+     * The bits of the state that contain the number of threads that have acquired this mutex for
+     * reading.
+     */
+    private static final long readerCountMask = 0x7FFFFFFFL;
+    /**
+     * The bit of the state that is set when a thread has acquired this mutex for writing.
+     */
+    private static final long writerBit = 0x80000000L;
+    /**
+     * The amount that the state's version is incremented by each time a writer releases this
+     * mutex.
+     */
+    private static final long versionIncrement = 0x100000000L;
+
+    private static final int spinCount = 64;
+
+    private final Clock clock;
+    private final java.util.concurrent.ConcurrentLinkedQueue<java.lang.Thread> waitingThreads;
+    private final java.util.concurrent.atomic.AtomicInteger waitingWriterCount;
+    /**
+     * The number of times that each thread has acquired this mutex for reading without releasing
+     * it.
+     */
+    private final java.lang.ThreadLocal<int[]> readHoldCounts;
+    /**
+     * The state of this mutex. The lowest 31 bits are the number of readers, the next bit is set
+     * when a writer owns this mutex, and the highest 32 bits are a version that is incremented
+     * every time a writer releases this mutex.
+     */
+    private volatile long state;
+    private volatile java.lang.Thread writer;
+
+    private ReadWriteMutex(Clock clock)
+    {
+        this.clock = clock;
+        this.waitingThreads = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        this.waitingWriterCount = new java.util.concurrent.atomic.AtomicInteger();
+        this.readHoldCounts = java.lang.ThreadLocal.withInitial(() -> new int[1]);
+    }
+
+    public static ReadWriteMutex create()
+    {
+        return new ReadWriteMutex(null);
+    }
+
+    public static ReadWriteMutex create(Clock clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        return new ReadWriteMutex(clock);
+    }
+
+    /**
+     * Get the number of threads that have acquired this mutex for reading.
+     * @return The number of threads that have acquired this mutex for reading.
+     */
+    public int getReaderCount()
+    {
+        return (int)(this.state & ReadWriteMutex.readerCountMask);
+    }
+
+    /**
+     * Get whether any thread has acquired this mutex for reading.
+     * @return Whether any thread has acquired this mutex for reading.
+     */
+    public boolean isReadAcquired()
+    {
+        return this.getReaderCount() > 0;
+    }
+
+    /**
+     * Get whether the current thread has acquired this mutex for reading.
+     * @return Whether the current thread has acquired this mutex for reading.
+     */
+    public boolean isReadAcquiredByCurrentThread()
+    {
+        return this.readHoldCounts.get()[0] > 0;
+    }
+
+    /**
+     * Get whether a thread has acquired this mutex for writing.
+     * @return Whether a thread has acquired this mutex for writing.
+     */
+    public boolean isWriteAcquired()
+    {
+        return (this.state & ReadWriteMutex.writerBit) != 0;
+    }
+
+    /**
+     * Get whether the current thread has acquired this mutex for writing.
+     * @return Whether the current thread has acquired this mutex for writing.
+     */
+    public boolean isWriteAcquiredByCurrentThread()
+    {
+        return this.writer == java.lang.Thread.currentThread();
+    }
+
+    /**
+     * Acquire this mutex for reading. If a thread has acquired this mutex for writing or is
+     * waiting to, then the current thread will block until that writer releases this mutex.
+     */
+    public Result<Void> acquireRead()
+    {
+        PreCondition.assertFalse(this.isWriteAcquiredByCurrentThread(), "this.isWriteAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            this.waitToAcquire(false, null);
+        });
+    }
+
+    /**
+     * Acquire this mutex for reading. If the mutex can't be acquired within the provided
+     * {@link Duration}, then a {@link TimeoutException} will be returned.
+     * @param durationTimeout The maximum duration to wait.
+     */
+    public Result<Void> acquireRead(Duration durationTimeout)
+    {
+        PreCondition.assertNotNull(durationTimeout, "durationTimeout");
+        PreCondition.assertGreaterThan(durationTimeout, Duration.zero, "durationTimeout");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+        PreCondition.assertFalse(this.isWriteAcquiredByCurrentThread(), "this.isWriteAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            this.waitToAcquireOrThrow(false, durationTimeout);
+        });
+    }
+
+    /**
+     * Try to acquire this mutex for reading and return whether it was acquired.
+     */
+    public Result<Boolean> tryAcquireRead()
+    {
+        return Result.create(() ->
+        {
+            return this.tryAcquireReadNow(false);
+        });
+    }
+
+    /**
+     * Release this mutex for reading.
+     */
+    public Result<Void> releaseRead()
+    {
+        PreCondition.assertTrue(this.isReadAcquired(), "this.isReadAcquired()");
+
+        return Result.create(() ->
+        {
+            final int[] readHoldCount = this.readHoldCounts.get();
+            if (readHoldCount[0] > 0)
+            {
+                --readHoldCount[0];
+            }
+
+            final long newState = ReadWriteMutex.stateUpdater.decrementAndGet(this);
+            if ((newState & ReadWriteMutex.readerCountMask) == 0)
+            {
+                this.unparkWaitingThreads();
+            }
+        });
+    }
+
+    /**
+     * Acquire this mutex for writing. If any thread has acquired this mutex, then the current
+     * thread will block until it is released.
+     */
+    public Result<Void> acquireWrite()
+    {
+        PreCondition.assertFalse(this.isWriteAcquiredByCurrentThread(), "this.isWriteAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            this.waitToAcquire(true, null);
+        });
+    }
+
+    /**
+     * Acquire this mutex for writing. If the mutex can't be acquired within the provided
+     * {@link Duration}, then a {@link TimeoutException} will be returned.
+     * @param durationTimeout The maximum duration to wait.
+     */
+    public Result<Void> acquireWrite(Duration durationTimeout)
+    {
+        PreCondition.assertNotNull(durationTimeout, "durationTimeout");
+        PreCondition.assertGreaterThan(durationTimeout, Duration.zero, "durationTimeout");
+        PreCondition.assertNotNull(this.clock, "this.clock");
+        PreCondition.assertFalse(this.isWriteAcquiredByCurrentThread(), "this.isWriteAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            this.waitToAcquireOrThrow(true, durationTimeout);
+        });
+    }
+
+    /**
+     * Try to acquire this mutex for writing and return whether it was acquired.
+     */
+    public Result<Boolean> tryAcquireWrite()
+    {
+        return Result.create(() ->
+        {
+            return this.tryAcquireWriteNow();
+        });
+    }
+
+    /**
+     * Release this mutex for writing.
+     */
+    public Result<Void> releaseWrite()
+    {
+        PreCondition.assertTrue(this.isWriteAcquiredByCurrentThread(), "this.isWriteAcquiredByCurrentThread()");
+
+        return Result.create(() ->
+        {
+            this.writer = null;
+            ReadWriteMutex.stateUpdater.addAndGet(this, ReadWriteMutex.versionIncrement - ReadWriteMutex.writerBit);
+            this.unparkWaitingThreads();
+        });
+    }
+
+    /**
+     * Get a stamp that can later be passed to validate(long) to determine whether a writer has
+     * acquired this mutex in between. This doesn't block and doesn't acquire this mutex. If a
+     * writer currently owns this mutex, then 0 is returned and validate(0) will always return
+     * false.
+     * @return The stamp for an optimistic read, or 0 if a writer currently owns this mutex.
+     */
+    public long tryOptimisticRead()
+    {
+        final long state = this.state;
+        return (state & ReadWriteMutex.writerBit) != 0
+            ? 0
+            : (state & ~ReadWriteMutex.readerCountMask) | ReadWriteMutex.writerBit;
+    }
+
+    /**
+     * Get whether no writer has acquired this mutex since the provided stamp was returned from
+     * tryOptimisticRead().
+     * @param stamp The stamp that was returned from tryOptimisticRead().
+     * @return Whether the values read since the stamp was returned are consistent.
+     */
+    public boolean validate(long stamp)
+    {
+        java.lang.invoke.VarHandle.acquireFence();
+
+        // The state is only read once so that a writer can't acquire and release this mutex in
+        // between two reads. The current writer bit must be clear, and the version must be the
+        // same as the stamp's.
+        final long state = this.state;
+        return stamp != 0 &&
+            (state & ~ReadWriteMutex.readerCountMask) == (stamp & ~ReadWriteMutex.writerBit);
+    }
+
+    /**
+     * Run the provided function after this mutex has been acquired for reading and automatically
+     * release it when the function completes.
+     * @param function The function to run after acquiring this mutex for reading.
+     * @return The return value of the function.
+     */
+    public <T> Result<T> readCriticalSection(Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return Result.create(() ->
+        {
+            this.acquireRead().await();
+            try
+            {
+                return function.run();
+            }
+            finally
+            {
+                this.releaseRead().await();
+            }
+        });
+    }
+
+    /**
+     * Run the provided function without acquiring this mutex. If a writer acquired this mutex
+     * while the function was running, then the function is run again after this mutex has been
+     * acquired for reading. The function must not have side effects, since it may see values
+     * that are being written.
+     * @param function The function to run.
+     * @return The return value of the function.
+     */
+    public <T> Result<T> optimisticReadCriticalSection(Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return Result.create(() ->
+        {
+            final long stamp = this.tryOptimisticRead();
+            if (stamp != 0)
+            {
+                try
+                {
+                    final T result = function.run();
+                    if (this.validate(stamp))
+                    {
+                        return result;
+                    }
+                }
+                catch (Throwable error)
+                {
+                    if (this.validate(stamp))
+                    {
+                        throw error;
+                    }
+                }
+            }
+            return this.readCriticalSection(function).await();
+        });
+    }
+
+    /**
+     * Run the provided action after this mutex has been acquired for writing and automatically
+     * release it when the action completes.
+     * @param action The action to run after acquiring this mutex for writing.
+     */
+    public Result<Void> writeCriticalSection(Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        return Result.create(() ->
+        {
+            this.acquireWrite().await();
+            try
+            {
+                action.run();
+            }
+            finally
+            {
+                this.releaseWrite().await();
+            }
+        });
+    }
+
+    /**
+     * Run the provided function after this mutex has been acquired for writing and automatically
+     * release it when the function completes.
+     * @param function The function to run after acquiring this mutex for writing.
+     * @return The return value of the function.
+     */
+    public <T> Result<T> writeCriticalSection(Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return Result.create(() ->
+        {
+            this.acquireWrite().await();
+            try
+            {
+                return function.run();
+            }
+            finally
+            {
+                this.releaseWrite().await();
+            }
+        });
+    }
+
+    private boolean tryAcquireReadNow(boolean respectWaitingWriters)
+    {
+        boolean result = false;
+        while (true)
+        {
+            final long state = this.state;
+            if ((state & ReadWriteMutex.writerBit) != 0 ||
+                (respectWaitingWriters && this.waitingWriterCount.get() > 0) ||
+                (state & ReadWriteMutex.readerCountMask) == ReadWriteMutex.readerCountMask)
+            {
+                break;
+            }
+            else if (ReadWriteMutex.stateUpdater.compareAndSet(this, state, state + 1))
+            {
+                ++this.readHoldCounts.get()[0];
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    private boolean tryAcquireWriteNow()
+    {
+        final long state = this.state;
+        final boolean result = (state & (ReadWriteMutex.writerBit | ReadWriteMutex.readerCountMask)) == 0 &&
+            ReadWriteMutex.stateUpdater.compareAndSet(this, state, state | ReadWriteMutex.writerBit);
+        if (result)
+        {
+            this.writer = java.lang.Thread.currentThread();
+        }
+        return result;
+    }
+
+    private boolean tryAcquireNow(boolean write)
+    {
+        return write
+            ? this.tryAcquireWriteNow()
+            : this.tryAcquireReadNow(!this.isReadAcquiredByCurrentThread());
+    }
+
+    private void waitToAcquireOrThrow(boolean write, Duration durationTimeout)
+    {
+        final long deadlineNanoseconds = this.clock.getMonotonicNanoseconds() + (long)durationTimeout.toNanoseconds().getValue();
+        if (!this.waitToAcquire(write, () -> deadlineNanoseconds - this.clock.getMonotonicNanoseconds()))
+        {
+            throw new TimeoutException();
+        }
+    }
+
+    /**
+     * Acquire this mutex for the current thread.
+     * @param write Whether to acquire this mutex for writing.
+     * @param getRemainingNanoseconds A function that returns the number of nanoseconds left before
+     *                                the acquire times out, or null if the acquire never times
+     *                                out.
+     * @return Whether this mutex was acquired before the timeout.
+     */
+    private boolean waitToAcquire(boolean write, Function0<Long> getRemainingNanoseconds)
+    {
+        boolean result = this.tryAcquireNow(write);
+        for (int i = 0; !result && i < ReadWriteMutex.spinCount; ++i)
+        {
+            java.lang.Thread.onSpinWait();
+            result = this.tryAcquireNow(write);
+        }
+
+        if (!result)
+        {
+            final java.lang.Thread currentThread = java.lang.Thread.currentThread();
+            if (write)
+            {
+                this.waitingWriterCount.incrementAndGet();
+            }
+            this.waitingThreads.add(currentThread);
+            try
+            {
+                while (!(result = this.tryAcquireNow(write)))
+                {
+                    if (getRemainingNanoseconds == null)
+                    {
+                        java.util.concurrent.locks.LockSupport.park(this);
+                    }
+                    else
+                    {
+                        final long remainingNanoseconds = getRemainingNanoseconds.run();
+                        if (remainingNanoseconds <= 0)
+                        {
+                            break;
+                        }
+                        java.util.concurrent.locks.LockSupport.parkNanos(this, remainingNanoseconds);
+                    }
+                }
+            }
+            finally
+            {
+                this.waitingThreads.remove(currentThread);
+                if (write && this.waitingWriterCount.decrementAndGet() == 0)
+                {
+                    // Readers may be waiting only because this writer was waiting.
+                    this.unparkWaitingThreads();
+                }
+            }
+        }
+
+        return result;
+    }
+
+    private void unparkWaitingThreads()
+    {
+        for (final java.lang.Thread waitingThread : this.waitingThreads)
+        {
+            java.util.concurrent.locks.LockSupport.unpark(waitingThread);
+        }
+    }
+}
@@ -47,10 +47,41 @@ public class RealDesktopProcess extends DesktopProcessBase<RealDesktopProcess>
         return new RealDesktopProcess(commandLineArguments, mainAsyncRunner);
     }
 
+    /**
+     * Create a new RealDesktopProcess object with the provided command line arguments that will
+     * run its parallel tasks on the provided parallel {@link AsyncScheduler}. For example, passing
+     * a {@link VirtualThreadAsyncRunner} will run each parallel task on its own virtual thread.
+     * @param commandLineArguments The command line arguments provided to the new RealDesktopProcess.
+     * @param mainAsyncRunner The {@link AsyncScheduler} that will be registered with the main
+     *                        thread.
+     * @param parallelAsyncRunner The {@link AsyncScheduler} that will run the new
+     *                            RealDesktopProcess's parallel tasks.
+     */
+    public static RealDesktopProcess create(CommandLineArguments commandLineArguments, AsyncScheduler mainAsyncRunner, AsyncScheduler parallelAsyncRunner)
+    {
+        PreCondition.assertNotNull(commandLineArguments, "commandLineArguments");
+        PreCondition.assertNotNull(mainAsyncRunner, "mainAsyncRunner");
+        PreCondition.assertNotNull(parallelAsyncRunner, "parallelAsyncRunner");
+
+        return new RealDesktopProcess(commandLineArguments, mainAsyncRunner, parallelAsyncRunner);
+    }
+
     protected RealDesktopProcess(CommandLineArguments commandLineArguments, AsyncScheduler mainAsyncRunner)
     {
         super(commandLineArguments, mainAsyncRunner);
 
+        this.initialize();
+    }
+
+    protected RealDesktopProcess(CommandLineArguments commandLineArguments, AsyncScheduler mainAsyncRunner, AsyncScheduler parallelAsyncRunner)
+    {
+        super(commandLineArguments, mainAsyncRunner, parallelAsyncRunner);
+
+        this.initialize();
+    }
+
+    private void initialize()
+    {
         this.setProcessId(() -> java.lang.ProcessHandle.current().pid());
         this.setChildProcessRunner(() -> RealChildProcessRunner.create(this));
         this.setMainClassFullName(() ->
@@ -90,6 +90,12 @@ public class Root
         return rhs != null && this.getPath().equals(rhs.getPath());
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.getPath().hashCode();
+    }
+
     /**
      * Get the total {@link DataSize}/capacity of this {@link Root}.
      */
@@ -78,6 +78,12 @@ public class SaveableValue<T> implements Value<T>, Saveable
         return this.value.toString();
     }
 
+    @Override
+    public int hashCode()
+    {
+        return this.value.hashCode();
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
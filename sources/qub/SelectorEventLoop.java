@@ -0,0 +1,454 @@
+package qub;
+
+/**
+ * A thread that waits on a {@link java.nio.channels.Selector} for non-blocking channels to become
+ * ready, and then completes the {@link AsyncTask}s that were waiting for them. Each operation is
+ * first attempted on the thread that requested it, so the event loop is only involved when an
+ * operation can't complete right away.
+ */
+class SelectorEventLoop implements Disposable
+{
+    private static final int[] operations = new int[]
+    {
+        java.nio.channels.SelectionKey.OP_ACCEPT,
+        java.nio.channels.SelectionKey.OP_CONNECT,
+        java.nio.channels.SelectionKey.OP_READ,
+        java.nio.channels.SelectionKey.OP_WRITE
+    };
+
+    private final java.nio.channels.Selector selector;
+    /**
+     * The actions that other threads have requested to run on the event loop thread.
+     */
+    private final java.util.concurrent.ConcurrentLinkedQueue<Action0> pendingActions;
+    /**
+     * Whether the selector has already been woken up to run the pending actions. This prevents
+     * every action from making its own wakeup system call.
+     */
+    private final java.util.concurrent.atomic.AtomicBoolean wakeupPending;
+    /**
+     * The waiters that have a deadline, ordered by their deadline. This is only accessed on the
+     * event loop thread.
+     */
+    private final java.util.PriorityQueue<Waiter<?>> deadlineWaiters;
+    /**
+     * The scheduler that runs the continuations of operations that were requested from a thread
+     * that doesn't have a registered {@link AsyncRunner}.
+     */
+    private final AsyncScheduler asyncScheduler;
+    private final java.lang.Thread thread;
+    private volatile boolean disposed;
+
+    private SelectorEventLoop(String threadName)
+    {
+        PreCondition.assertNotNullAndNotEmpty(threadName, "threadName");
+
+        try
+        {
+            this.selector = java.nio.channels.Selector.open();
+        }
+        catch (java.io.IOException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+        this.pendingActions = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        this.wakeupPending = new java.util.concurrent.atomic.AtomicBoolean();
+        this.deadlineWaiters = new java.util.PriorityQueue<>((Waiter<?> lhs, Waiter<?> rhs) -> Long.compare(lhs.deadline, rhs.deadline));
+        this.asyncScheduler = ParallelAsyncRunner.create();
+        this.thread = new java.lang.Thread(this::run, threadName);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Create a new SelectorEventLoop and start its thread.
+     * @param threadName The name of the event loop's thread.
+     */
+    static SelectorEventLoop create(String threadName)
+    {
+        return new SelectorEventLoop(threadName);
+    }
+
+    /**
+     * Register the provided non-blocking channel with this SelectorEventLoop.
+     * @param channel The channel to register.
+     * @param closedErrorCreator The function that creates the error that waiting operations will
+     *                           fail with when the channel or this SelectorEventLoop is closed.
+     * @return The registration that the channel's operations can wait on.
+     */
+    Registration register(java.nio.channels.SelectableChannel channel, Function0<Throwable> closedErrorCreator)
+    {
+        PreCondition.assertNotNull(channel, "channel");
+        PreCondition.assertFalse(channel.isBlocking(), "channel.isBlocking()");
+        PreCondition.assertNotNull(closedErrorCreator, "closedErrorCreator");
+
+        return new Registration(channel, closedErrorCreator);
+    }
+
+    private boolean isEventLoopThread()
+    {
+        return java.lang.Thread.currentThread() == this.thread;
+    }
+
+    /**
+     * Run the provided action on the event loop thread. If this SelectorEventLoop has been
+     * disposed, then the action will be run on the current thread instead.
+     * @param action The action to run.
+     */
+    private void execute(Action0 action)
+    {
+        this.pendingActions.add(action);
+        if (this.disposed)
+        {
+            // The event loop thread may have already drained its pending actions for the last
+            // time, so make sure that this action isn't left behind.
+            this.runPendingActions();
+        }
+        else if (!this.isEventLoopThread() && this.wakeupPending.compareAndSet(false, true))
+        {
+            this.selector.wakeup();
+        }
+    }
+
+    private void runPendingActions()
+    {
+        Action0 action;
+        while ((action = this.pendingActions.poll()) != null)
+        {
+            action.run();
+        }
+    }
+
+    private void run()
+    {
+        try
+        {
+            while (!this.disposed)
+            {
+                final long selectTimeoutMilliseconds = this.getSelectTimeoutMilliseconds();
+                if (selectTimeoutMilliseconds < 0)
+                {
+                    this.selector.selectNow(this::onKeySelected);
+                }
+                else
+                {
+                    this.selector.select(this::onKeySelected, selectTimeoutMilliseconds);
+                }
+                this.wakeupPending.set(false);
+                this.runPendingActions();
+                this.expireDeadlineWaiters();
+            }
+        }
+        catch (java.io.IOException e)
+        {
+            this.disposed = true;
+        }
+        finally
+        {
+            this.runPendingActions();
+            for (final java.nio.channels.SelectionKey key : this.selector.keys())
+            {
+                ((Registration)key.attachment()).failAllWaiters();
+            }
+            try
+            {
+                this.selector.close();
+            }
+            catch (java.io.IOException ignored)
+            {
+            }
+        }
+    }
+
+    /**
+     * Get how long the next select should wait for before the earliest deadline passes.
+     * @return The number of milliseconds to wait for, 0 to wait without a timeout, or -1 to not
+     * wait at all.
+     */
+    private long getSelectTimeoutMilliseconds()
+    {
+        Waiter<?> earliestWaiter = this.deadlineWaiters.peek();
+        while (earliestWaiter != null && earliestWaiter.completed)
+        {
+            this.deadlineWaiters.poll();
+            earliestWaiter = this.deadlineWaiters.peek();
+        }
+
+        long result = 0;
+        if (earliestWaiter != null)
+        {
+            final long remainingNanoseconds = earliestWaiter.deadline - java.lang.System.nanoTime();
+            result = remainingNanoseconds <= 0
+                ? -1
+                : java.lang.Math.max(1, (remainingNanoseconds + 999999) / 1000000);
+        }
+        return result;
+    }
+
+    private void expireDeadlineWaiters()
+    {
+        final long now = java.lang.System.nanoTime();
+        Waiter<?> earliestWaiter;
+        while ((earliestWaiter = this.deadlineWaiters.peek()) != null && (earliestWaiter.completed || earliestWaiter.deadline - now <= 0))
+        {
+            this.deadlineWaiters.poll();
+            earliestWaiter.complete(null, new TimeoutException());
+        }
+    }
+
+    private void onKeySelected(java.nio.channels.SelectionKey key)
+    {
+        final Registration registration = (Registration)key.attachment();
+        if (!key.isValid())
+        {
+            registration.failAllWaiters();
+        }
+        else
+        {
+            registration.onReady(key.readyOps());
+        }
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+                this.selector.wakeup();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * An operation that is waiting for its channel to become ready.
+     * @param <T> The type of value that the operation produces.
+     */
+    private static class Waiter<T>
+    {
+        private final int operation;
+        private final Function0<T> attempt;
+        private final long deadline;
+        private final AsyncTask<T> task;
+        private T value;
+        private Throwable error;
+        private boolean completed;
+
+        private Waiter(AsyncScheduler asyncScheduler, int operation, Function0<T> attempt, long deadline)
+        {
+            this.operation = operation;
+            this.attempt = attempt;
+            this.deadline = deadline;
+            this.task = new AsyncTask<>(asyncScheduler, this::getResult);
+        }
+
+        private T getResult()
+        {
+            if (this.error != null)
+            {
+                throw Exceptions.asRuntime(this.error);
+            }
+            return this.value;
+        }
+
+        /**
+         * Attempt the operation.
+         * @return Whether this Waiter is completed.
+         */
+        private boolean tryAttempt()
+        {
+            try
+            {
+                final T attemptValue = this.attempt.run();
+                if (attemptValue != null)
+                {
+                    this.complete(attemptValue, null);
+                }
+            }
+            catch (Throwable attemptError)
+            {
+                this.complete(null, attemptError);
+            }
+            return this.completed;
+        }
+
+        private void complete(T value, Throwable error)
+        {
+            if (!this.completed)
+            {
+                this.completed = true;
+                this.value = value;
+                this.error = error;
+                this.task.run();
+            }
+        }
+    }
+
+    /**
+     * A channel's registration with a SelectorEventLoop.
+     */
+    class Registration
+    {
+        private final java.nio.channels.SelectableChannel channel;
+        private final Function0<Throwable> closedErrorCreator;
+        /**
+         * The waiters for each operation, indexed by the operation's bit position. This is only
+         * accessed on the event loop thread.
+         */
+        private final java.util.ArrayDeque<Waiter<?>>[] waiters;
+        private java.nio.channels.SelectionKey key;
+        private boolean closed;
+
+        @SuppressWarnings("unchecked")
+        private Registration(java.nio.channels.SelectableChannel channel, Function0<Throwable> closedErrorCreator)
+        {
+            this.channel = channel;
+            this.closedErrorCreator = closedErrorCreator;
+            this.waiters = (java.util.ArrayDeque<Waiter<?>>[])new java.util.ArrayDeque<?>[java.nio.channels.SelectionKey.OP_ACCEPT << 1];
+        }
+
+        /**
+         * Attempt the provided operation. If the attempt doesn't complete the operation, then the
+         * operation will be attempted again each time the channel becomes ready for it.
+         * @param operation The {@link java.nio.channels.SelectionKey} operation that the attempt
+         *                  waits for.
+         * @param timeout The maximum amount of time to wait for, or null to wait without a
+         *                timeout.
+         * @param attempt The attempt to perform the operation. It returns null if the operation
+         *                can't complete yet.
+         * @param <T> The type of value that the operation produces.
+         * @return The task that completes when the operation completes.
+         */
+        <T> AsyncTask<T> whenReady(int operation, Duration timeout, Function0<T> attempt)
+        {
+            PreCondition.assertOneOf(operation, SelectorEventLoop.operations, "operation");
+            PreCondition.assertNotNull(attempt, "attempt");
+
+            // Operations can be requested from threads that don't have a registered AsyncRunner,
+            // in which case the event loop's own scheduler runs the operation's continuations.
+            final AsyncScheduler currentAsyncScheduler = CurrentThread.getAsyncRunner().catchError(NotFoundException.class).await();
+            final AsyncScheduler asyncScheduler = currentAsyncScheduler != null ? currentAsyncScheduler : SelectorEventLoop.this.asyncScheduler;
+            final long deadline = timeout == null
+                ? 0
+                : java.lang.System.nanoTime() + (long)timeout.toNanoseconds().getValue();
+            final Waiter<T> waiter = new Waiter<>(asyncScheduler, operation, attempt, deadline);
+            if (timeout != null && timeout.lessThanOrEqualTo(Duration.zero))
+            {
+                waiter.complete(null, new TimeoutException());
+            }
+            else if (!waiter.tryAttempt())
+            {
+                SelectorEventLoop.this.execute(() -> this.addWaiter(waiter, timeout != null));
+            }
+            return waiter.task;
+        }
+
+        private void addWaiter(Waiter<?> waiter, boolean hasDeadline)
+        {
+            if (this.closed || SelectorEventLoop.this.disposed)
+            {
+                waiter.complete(null, this.closedErrorCreator.run());
+            }
+            else if (!waiter.tryAttempt())
+            {
+                try
+                {
+                    if (this.key == null)
+                    {
+                        this.key = this.channel.register(SelectorEventLoop.this.selector, waiter.operation, this);
+                    }
+                    else
+                    {
+                        this.key.interestOps(this.key.interestOps() | waiter.operation);
+                    }
+
+                    final int index = java.lang.Integer.numberOfTrailingZeros(waiter.operation);
+                    if (this.waiters[index] == null)
+                    {
+                        this.waiters[index] = new java.util.ArrayDeque<>();
+                    }
+                    this.waiters[index].add(waiter);
+                    if (hasDeadline)
+                    {
+                        SelectorEventLoop.this.deadlineWaiters.add(waiter);
+                    }
+                }
+                catch (java.nio.channels.ClosedChannelException | java.nio.channels.CancelledKeyException e)
+                {
+                    waiter.complete(null, this.closedErrorCreator.run());
+                }
+            }
+        }
+
+        private void onReady(int readyOperations)
+        {
+            int interestOperations = 0;
+            for (final int operation : SelectorEventLoop.operations)
+            {
+                final java.util.ArrayDeque<Waiter<?>> operationWaiters = this.waiters[java.lang.Integer.numberOfTrailingZeros(operation)];
+                if (operationWaiters != null)
+                {
+                    if ((readyOperations & operation) != 0)
+                    {
+                        Waiter<?> waiter;
+                        while ((waiter = operationWaiters.peek()) != null && (waiter.completed || waiter.tryAttempt()))
+                        {
+                            operationWaiters.poll();
+                        }
+                    }
+                    if (!operationWaiters.isEmpty())
+                    {
+                        interestOperations |= operation;
+                    }
+                }
+            }
+
+            if (this.key.isValid())
+            {
+                this.key.interestOps(interestOperations);
+            }
+        }
+
+        private void failAllWaiters()
+        {
+            for (final java.util.ArrayDeque<Waiter<?>> operationWaiters : this.waiters)
+            {
+                if (operationWaiters != null)
+                {
+                    Waiter<?> waiter;
+                    while ((waiter = operationWaiters.poll()) != null)
+                    {
+                        waiter.complete(null, this.closedErrorCreator.run());
+                    }
+                }
+            }
+        }
+
+        /**
+         * Fail all of the operations that are waiting on this registration. This should be called
+         * after the channel is closed.
+         */
+        void close()
+        {
+            SelectorEventLoop.this.execute(() ->
+            {
+                this.closed = true;
+                this.failAllWaiters();
+                if (this.key != null)
+                {
+                    this.key.cancel();
+                }
+            });
+        }
+    }
+}
@@ -159,6 +159,23 @@ public interface Set<T> extends Iterable<T>
         return result;
     }
 
+    /**
+     * Get the hash code of the provided {@link Set}. The hash code doesn't depend on the order of
+     * the {@link Set}'s values, so equal {@link Set}s have equal hash codes.
+     * @param set The {@link Set} to get the hash code of.
+     */
+    public static int hashCode(Set<?> set)
+    {
+        PreCondition.assertNotNull(set, "set");
+
+        int result = 0;
+        for (final Object value : set)
+        {
+            result += Hash.getHashCode(value);
+        }
+        return result;
+    }
+
     /**
      * Get whether this {@link Set} is equal to the provided {@link Iterable} rhs. If the provided
      * {@link Iterable} is actually a {@link Set}, then this {@link Set} will be compared against
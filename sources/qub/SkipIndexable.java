@@ -33,6 +33,12 @@ public class SkipIndexable<T> implements Indexable<T>
         return this.innerIndexable.iterate().skip(this.toSkip);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
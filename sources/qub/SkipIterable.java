@@ -42,6 +42,12 @@ public class SkipIterable<T> implements Iterable<T>
         return Math.maximum(0, this.innerIterable.getCount() - this.toSkip);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -25,6 +25,12 @@ public class SkipUntilIterable<T> implements Iterable<T>
         return SkipUntilIterator.create(this.iterable.iterate(), this.condition);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -50,6 +50,12 @@ public class Span
                 length == rhs.length;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(startIndex, length);
+    }
+
     public static int getAfterEndIndex(int startIndex, int length)
     {
         return startIndex + length;
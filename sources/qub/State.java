@@ -107,6 +107,15 @@ public class State
             .map(StateTransition::getNextState);
     }
 
+    /**
+     * Get the transitions that leave this State.
+     * @return The transitions that leave this State.
+     */
+    Iterable<StateTransition> getTransitions()
+    {
+        return transitions;
+    }
+
     /**
      * Add a transition create this State to the provided nextState when the provided value is
      * encountered.
@@ -255,6 +255,18 @@ public class StateMachine
         return currentMatches.contains(PossibleMatch::isAtEndState);
     }
 
+    /**
+     * Compile this StateMachine into a CompiledStateMachine that determines whether or not input
+     * values match without simulating each of this StateMachine's possible matches.
+     * @return The compiled version of this StateMachine.
+     */
+    public CompiledStateMachine compile()
+    {
+        PreCondition.assertNotNullAndNotEmpty(getStartStates(), "getStartStates()");
+
+        return CompiledStateMachine.create(this);
+    }
+
     private static String getStateKey(String stateName)
     {
         return stateName.toLowerCase();
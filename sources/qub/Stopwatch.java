@@ -1,12 +1,15 @@
 package qub;
 
 /**
- * A Stopwatch class that can determine the duration between start and stop events.
+ * A Stopwatch class that can determine the duration between start and stop events. The Stopwatch
+ * measures time with its Clock's monotonic tick source, so starting it and reading the elapsed
+ * nanoseconds doesn't allocate any objects.
  */
 public class Stopwatch
 {
     private final Clock clock;
-    private DateTime startTime;
+    private boolean started;
+    private long startNanoseconds;
 
     private Stopwatch(Clock clock)
     {
@@ -26,7 +29,7 @@ public class Stopwatch
      */
     public boolean hasStarted()
     {
-        return this.startTime != null;
+        return this.started;
     }
 
     /**
@@ -36,13 +39,44 @@ public class Stopwatch
     {
         PreCondition.assertFalse(this.hasStarted(), "this.hasStarted()");
 
-        this.startTime = this.clock.getCurrentDateTime();
+        this.startNanoseconds = this.clock.getMonotonicNanoseconds();
+        this.started = true;
 
         PostCondition.assertTrue(this.hasStarted(), "this.hasStarted()");
 
         return this;
     }
 
+    /**
+     * Get the number of nanoseconds that have elapsed since the start() method was called without
+     * stopping this Stopwatch.
+     * @return The number of nanoseconds that have elapsed since the start() method was called.
+     */
+    public long getElapsedNanoseconds()
+    {
+        PreCondition.assertTrue(this.hasStarted(), "this.hasStarted()");
+
+        final long result = this.clock.getMonotonicNanoseconds() - this.startNanoseconds;
+
+        PostCondition.assertGreaterThanOrEqualTo(result, 0, "result");
+
+        return result;
+    }
+
+    /**
+     * Stop the stopwatch and return the number of nanoseconds since the start() method was called.
+     * @return The number of nanoseconds since the start() method was called.
+     */
+    public long stopNanoseconds()
+    {
+        final long result = this.getElapsedNanoseconds();
+        this.started = false;
+
+        PostCondition.assertFalse(this.hasStarted(), "this.hasStarted()");
+
+        return result;
+    }
+
     /**
      * Stop the stopwatch and return the Duration since the start() method was called.
      * @return The Duration since the start() method was called.
@@ -51,9 +85,7 @@ public class Stopwatch
     {
         PreCondition.assertTrue(this.hasStarted(), "this.hasStarted()");
 
-        final DateTime endTime = this.clock.getCurrentDateTime();
-        final Duration result = endTime.minus(this.startTime);
-        this.startTime = null;
+        final Duration result = Duration.nanoseconds(this.stopNanoseconds());
 
         PostCondition.assertNotNull(result, "result");
         PostCondition.assertGreaterThanOrEqualTo(result, Duration.zero, "result");
@@ -0,0 +1,107 @@
+package qub;
+
+/**
+ * A fixed set of {@link Mutex}es that are selected by the hash code of a key. Threads that lock
+ * different keys usually acquire different mutexes and don't contend with each other, while
+ * threads that lock equal keys always acquire the same mutex.
+ */
+public class StripedMutex
+{
+    private final Mutex[] stripes;
+
+    private StripedMutex(int stripeCount, Function0<Mutex> mutexCreator)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(stripeCount, 1, "stripeCount");
+        PreCondition.assertNotNull(mutexCreator, "mutexCreator");
+
+        final int stripeArrayLength = java.lang.Integer.highestOneBit(stripeCount) == stripeCount
+            ? stripeCount
+            : java.lang.Integer.highestOneBit(stripeCount) << 1;
+        this.stripes = new Mutex[stripeArrayLength];
+        for (int i = 0; i < stripeArrayLength; ++i)
+        {
+            this.stripes[i] = mutexCreator.run();
+        }
+    }
+
+    /**
+     * Create a new StripedMutex with four stripes for each available processor.
+     * @return The new StripedMutex.
+     */
+    public static StripedMutex create()
+    {
+        return StripedMutex.create(java.lang.Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Create a new StripedMutex with the provided number of stripes.
+     * @param stripeCount The number of stripes. This will be rounded up to the next power of two.
+     * @return The new StripedMutex.
+     */
+    public static StripedMutex create(int stripeCount)
+    {
+        return StripedMutex.create(stripeCount, ParkingMutex::create);
+    }
+
+    /**
+     * Create a new StripedMutex with the provided number of stripes.
+     * @param stripeCount The number of stripes. This will be rounded up to the next power of two.
+     * @param mutexCreator The function that will create the Mutex for each stripe.
+     * @return The new StripedMutex.
+     */
+    public static StripedMutex create(int stripeCount, Function0<Mutex> mutexCreator)
+    {
+        return new StripedMutex(stripeCount, mutexCreator);
+    }
+
+    /**
+     * Get the number of stripes in this StripedMutex.
+     * @return The number of stripes in this StripedMutex.
+     */
+    public int getStripeCount()
+    {
+        return this.stripes.length;
+    }
+
+    /**
+     * Get the Mutex that guards the provided key.
+     * @param key The key to get the Mutex for.
+     * @return The Mutex that guards the provided key.
+     */
+    public Mutex getMutex(Object key)
+    {
+        final int hash = key == null ? 0 : key.hashCode() * 0x9E3779B9;
+        final Mutex result = this.stripes[(hash ^ (hash >>> 16)) & (this.stripes.length - 1)];
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    /**
+     * Run the provided action after the Mutex that guards the provided key has been acquired and
+     * automatically release it when the action completes.
+     * @param key The key that the action needs exclusive access to.
+     * @param action The action to run.
+     */
+    public Result<Void> criticalSection(Object key, Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        return this.getMutex(key).criticalSection(action);
+    }
+
+    /**
+     * Run the provided function after the Mutex that guards the provided key has been acquired and
+     * automatically release it when the function completes.
+     * @param key The key that the function needs exclusive access to.
+     * @param function The function to run.
+     * @return The return value of the function.
+     */
+    public <T> Result<T> criticalSection(Object key, Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return this.getMutex(key).criticalSection(function);
+    }
+}
@@ -17,6 +17,48 @@ public class Synchronization
         return new Synchronization();
     }
 
+    /**
+     * Create a new Mutex object.
+     * @return The created Mutex.
+     */
+    public Mutex createMutex()
+    {
+        return ParkingMutex.create();
+    }
+
+    /**
+     * Create a new Mutex object that will use the provided Clock for its timeouts.
+     * @param clock The Clock that the created Mutex will use for its timeouts.
+     * @return The created Mutex.
+     */
+    public Mutex createMutex(Clock clock)
+    {
+        PreCondition.assertNotNull(clock, "clock");
+
+        return ParkingMutex.create(clock);
+    }
+
+    /**
+     * Create a new ReadWriteMutex object.
+     * @return The created ReadWriteMutex.
+     */
+    public ReadWriteMutex createReadWriteMutex()
+    {
+        return ReadWriteMutex.create();
+    }
+
+    /**
+     * Create a new StripedMutex object with the provided number of stripes.
+     * @param stripeCount The number of stripes in the created StripedMutex.
+     * @return The created StripedMutex.
+     */
+    public StripedMutex createStripedMutex(int stripeCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(stripeCount, 1, "stripeCount");
+
+        return StripedMutex.create(stripeCount);
+    }
+
     /**
      * Create a new Gate object with the provided initial open state.
      * @param isOpen Whether or not the created Gate will be open.
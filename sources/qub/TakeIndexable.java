@@ -33,6 +33,12 @@ public class TakeIndexable<T> implements Indexable<T>
         return innerIndexable.iterate().take(toTake);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -36,6 +36,12 @@ class TakeIterable<T> implements Iterable<T>
         return Math.minimum(toTake, innerIterable.getCount());
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
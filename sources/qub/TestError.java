@@ -28,6 +28,12 @@ public class TestError extends RuntimeException
         return this.errorMessage;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.getMessage());
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -78,6 +78,12 @@ public class TestGroup implements TestParent
         return builder.toString();
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.name, this.parent, this.skip);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -27,6 +27,12 @@ public class TestRunnerParameters
         return this.testPattern;
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Hash.getHashCode(this.getTestPattern());
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -0,0 +1,448 @@
+package qub;
+
+/**
+ * A pool of reusable worker threads that run scheduled {@link Action0}s. Each worker thread owns
+ * a deque of tasks. Tasks that are scheduled from a worker thread are pushed onto that worker's
+ * deque, and idle workers steal tasks from the other workers' deques when the shared submission
+ * queue is empty.
+ * <p>
+ * A worker thread that waits for a {@link ParallelAsyncRunner} task runs other queued tasks while
+ * it waits, but a worker thread that blocks on anything else (I/O, a mutex, or a task that is
+ * already running on another thread) still counts towards the maximum worker count. If every
+ * worker thread is blocked that way, then newly scheduled tasks wait in the queue until a worker
+ * thread is free. Unlike a ForkJoinPool, this pool doesn't start extra worker threads to
+ * compensate for blocked ones, so the maximum worker count must be large enough for the number of
+ * tasks that can block at the same time.
+ */
+public class ThreadPool implements Disposable
+{
+    /**
+     * The number of milliseconds that a worker thread above the core worker count will wait for a
+     * new task before it exits.
+     */
+    private static final long keepAliveMilliseconds = 10000;
+
+    private final int coreWorkerCount;
+    private final int maximumWorkerCount;
+    private final int maximumQueuedTaskCount;
+
+    /**
+     * The tasks that were scheduled from threads that don't belong to this ThreadPool.
+     */
+    private final java.util.concurrent.ConcurrentLinkedQueue<Action0> submittedTasks;
+    /**
+     * The number of tasks that are waiting in the submission queue and in the worker deques.
+     */
+    private final java.util.concurrent.atomic.AtomicInteger queuedTaskCount;
+    private final java.util.concurrent.CopyOnWriteArrayList<Worker> workers;
+    private final java.util.concurrent.atomic.AtomicInteger workerCount;
+    /**
+     * The worker threads that are parked while they wait for a task. A worker that is removed from
+     * this stack by a scheduling thread has been claimed to run the newly scheduled task.
+     */
+    private final java.util.concurrent.ConcurrentLinkedDeque<Worker> idleWorkers;
+    private final java.util.concurrent.atomic.AtomicInteger nextWorkerId;
+    private volatile boolean disposed;
+
+    private ThreadPool(int coreWorkerCount, int maximumWorkerCount, int maximumQueuedTaskCount)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(coreWorkerCount, 1, "coreWorkerCount");
+        PreCondition.assertGreaterThanOrEqualTo(maximumWorkerCount, coreWorkerCount, "maximumWorkerCount");
+        PreCondition.assertGreaterThanOrEqualTo(maximumQueuedTaskCount, 1, "maximumQueuedTaskCount");
+
+        this.coreWorkerCount = coreWorkerCount;
+        this.maximumWorkerCount = maximumWorkerCount;
+        this.maximumQueuedTaskCount = maximumQueuedTaskCount;
+
+        this.submittedTasks = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        this.queuedTaskCount = new java.util.concurrent.atomic.AtomicInteger();
+        this.workers = new java.util.concurrent.CopyOnWriteArrayList<>();
+        this.workerCount = new java.util.concurrent.atomic.AtomicInteger();
+        this.idleWorkers = new java.util.concurrent.ConcurrentLinkedDeque<>();
+        this.nextWorkerId = new java.util.concurrent.atomic.AtomicInteger();
+    }
+
+    /**
+     * Create a new {@link ThreadPool} that keeps one worker thread per available processor alive
+     * and that can grow up to 256 worker threads when all of its worker threads are busy. No more
+     * than 256 tasks can block at the same time without delaying the tasks that are scheduled
+     * after them.
+     */
+    public static ThreadPool create()
+    {
+        final int processorCount = java.lang.Runtime.getRuntime().availableProcessors();
+        return ThreadPool.create(processorCount, Math.maximum(processorCount, 256));
+    }
+
+    /**
+     * Create a new {@link ThreadPool} with a fixed number of worker threads.
+     * @param workerCount The number of worker threads that the {@link ThreadPool} will use.
+     */
+    public static ThreadPool create(int workerCount)
+    {
+        return ThreadPool.create(workerCount, workerCount);
+    }
+
+    /**
+     * Create a new {@link ThreadPool}.
+     * @param coreWorkerCount The number of worker threads that will be kept alive even when they
+     *                        are idle.
+     * @param maximumWorkerCount The maximum number of worker threads that the {@link ThreadPool}
+     *                           will create.
+     */
+    public static ThreadPool create(int coreWorkerCount, int maximumWorkerCount)
+    {
+        return ThreadPool.create(coreWorkerCount, maximumWorkerCount, 65536);
+    }
+
+    /**
+     * Create a new {@link ThreadPool}.
+     * @param coreWorkerCount The number of worker threads that will be kept alive even when they
+     *                        are idle.
+     * @param maximumWorkerCount The maximum number of worker threads that the {@link ThreadPool}
+     *                           will create.
+     * @param maximumQueuedTaskCount The maximum number of tasks that can be waiting to run before
+     *                               {@link #trySchedule(Action0)} starts to refuse new tasks.
+     */
+    public static ThreadPool create(int coreWorkerCount, int maximumWorkerCount, int maximumQueuedTaskCount)
+    {
+        return new ThreadPool(coreWorkerCount, maximumWorkerCount, maximumQueuedTaskCount);
+    }
+
+    /**
+     * Get the number of worker threads that will be kept alive even when they are idle.
+     */
+    public int getCoreWorkerCount()
+    {
+        return this.coreWorkerCount;
+    }
+
+    /**
+     * Get the maximum number of worker threads that this {@link ThreadPool} will create.
+     */
+    public int getMaximumWorkerCount()
+    {
+        return this.maximumWorkerCount;
+    }
+
+    /**
+     * Get the maximum number of tasks that can be waiting to run in this {@link ThreadPool}.
+     */
+    public int getMaximumQueuedTaskCount()
+    {
+        return this.maximumQueuedTaskCount;
+    }
+
+    /**
+     * Get the number of worker threads that are currently alive in this {@link ThreadPool}.
+     */
+    public int getWorkerCount()
+    {
+        return this.workerCount.get();
+    }
+
+    /**
+     * Get the number of tasks that are waiting to be run by this {@link ThreadPool}'s worker
+     * threads.
+     */
+    public int getQueuedTaskCount()
+    {
+        return this.queuedTaskCount.get();
+    }
+
+    /**
+     * Get whether the current thread is one of this {@link ThreadPool}'s worker threads.
+     */
+    public boolean isWorkerThread()
+    {
+        return this.getCurrentWorker() != null;
+    }
+
+    /**
+     * Try to schedule the provided {@link Action0} to run on one of this {@link ThreadPool}'s
+     * worker threads. If this {@link ThreadPool} has been disposed or if its queue is full, then
+     * the {@link Action0} will not be scheduled and false will be returned. Errors that are thrown
+     * by the {@link Action0} are not reported, so it should store them somewhere that its caller
+     * can find them, the same way that an {@link AsyncTask} stores its error in itself.
+     * @param action The {@link Action0} to run.
+     * @return Whether the {@link Action0} was scheduled.
+     */
+    public boolean trySchedule(Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        boolean result = false;
+        if (!this.disposed)
+        {
+            if (this.queuedTaskCount.incrementAndGet() > this.maximumQueuedTaskCount)
+            {
+                this.queuedTaskCount.decrementAndGet();
+            }
+            else
+            {
+                final Worker currentWorker = this.getCurrentWorker();
+                if (currentWorker != null)
+                {
+                    currentWorker.tasks.addLast(action);
+                }
+                else
+                {
+                    this.submittedTasks.add(action);
+                }
+                this.notifyTaskAvailable();
+                result = true;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Take a task that is waiting to run in this {@link ThreadPool} and run it on the current
+     * thread. This can be used by a worker thread that is waiting for another task to complete so
+     * that it can make progress instead of blocking. An error that is thrown by the task belongs
+     * to that task, so it is not thrown from this method.
+     * @return Whether a task was run.
+     */
+    public boolean tryRunQueuedTask()
+    {
+        final Action0 task = this.takeTask(this.getCurrentWorker());
+        if (task != null)
+        {
+            ThreadPool.runTask(task);
+        }
+        return task != null;
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    /**
+     * Dispose of this {@link ThreadPool}. The tasks that have already been scheduled will still be
+     * run, but new tasks will not be accepted and the worker threads will exit once the queue is
+     * empty.
+     */
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+
+                for (final Worker worker : this.workers)
+                {
+                    java.util.concurrent.locks.LockSupport.unpark(worker);
+                }
+            }
+            return result;
+        });
+    }
+
+    private Worker getCurrentWorker()
+    {
+        Worker result = null;
+        final java.lang.Thread currentThread = java.lang.Thread.currentThread();
+        if (currentThread instanceof Worker)
+        {
+            final Worker worker = (Worker)currentThread;
+            if (worker.threadPool == this)
+            {
+                result = worker;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Wake up an idle worker thread, or start a new worker thread if there are no idle worker
+     * threads and the maximum worker count hasn't been reached.
+     */
+    private void notifyTaskAvailable()
+    {
+        final Worker idleWorker = this.idleWorkers.pollFirst();
+        if (idleWorker != null)
+        {
+            idleWorker.claimed = true;
+            java.util.concurrent.locks.LockSupport.unpark(idleWorker);
+        }
+        else
+        {
+            int currentWorkerCount = this.workerCount.get();
+            while (currentWorkerCount < this.maximumWorkerCount)
+            {
+                if (this.workerCount.compareAndSet(currentWorkerCount, currentWorkerCount + 1))
+                {
+                    final Worker worker = new Worker(this, this.nextWorkerId.incrementAndGet());
+                    this.workers.add(worker);
+                    worker.start();
+                    break;
+                }
+                currentWorkerCount = this.workerCount.get();
+            }
+        }
+    }
+
+    /**
+     * Take the next task that should be run by the provided worker. Workers prefer the most
+     * recently scheduled task from their own deque, then the oldest task in the submission queue,
+     * and then the oldest task in another worker's deque.
+     * @param worker The worker that is looking for a task, or null if the current thread is not a
+     *               worker thread.
+     * @return The next task to run, or null if no tasks are waiting.
+     */
+    private Action0 takeTask(Worker worker)
+    {
+        Action0 result = null;
+        if (worker != null)
+        {
+            result = worker.tasks.pollLast();
+        }
+        if (result == null)
+        {
+            result = this.submittedTasks.poll();
+        }
+        if (result == null)
+        {
+            for (final Worker victim : this.workers)
+            {
+                if (victim != worker)
+                {
+                    result = victim.tasks.pollFirst();
+                    if (result != null)
+                    {
+                        break;
+                    }
+                }
+            }
+        }
+        if (result != null)
+        {
+            this.queuedTaskCount.decrementAndGet();
+        }
+        return result;
+    }
+
+    private void runWorker(Worker worker)
+    {
+        try
+        {
+            while (true)
+            {
+                final Action0 task = this.takeTask(worker);
+                if (task != null)
+                {
+                    ThreadPool.runTask(task);
+                }
+                else if (!this.waitForTask(worker))
+                {
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            this.workers.remove(worker);
+            CurrentThread.setAsyncRunner(null);
+        }
+    }
+
+    /**
+     * Run the provided task. The task is responsible for reporting its own errors, so an error that
+     * it throws isn't allowed to escape into the thread that happened to run it.
+     * @param task The task to run.
+     */
+    private static void runTask(Action0 task)
+    {
+        try
+        {
+            task.run();
+        }
+        catch (Throwable ignored)
+        {
+        }
+    }
+
+    /**
+     * Wait until a task may be available for the provided worker.
+     * @param worker The worker that is waiting.
+     * @return Whether the worker should continue running, or false if it should exit.
+     */
+    private boolean waitForTask(Worker worker)
+    {
+        boolean claimed = false;
+        boolean timedOut = false;
+
+        worker.claimed = false;
+        this.idleWorkers.addFirst(worker);
+        final long keepAliveDeadline = java.lang.System.nanoTime() + ThreadPool.keepAliveMilliseconds * 1000000L;
+        while (!claimed && !timedOut)
+        {
+            if (this.queuedTaskCount.get() > 0 || this.disposed)
+            {
+                // Don't park if a task was scheduled after this worker last looked for one.
+                break;
+            }
+
+            java.util.concurrent.locks.LockSupport.parkNanos(this, keepAliveDeadline - java.lang.System.nanoTime());
+
+            claimed = worker.claimed;
+            timedOut = java.lang.System.nanoTime() >= keepAliveDeadline;
+        }
+
+        if (!claimed && !this.idleWorkers.remove(worker))
+        {
+            // A scheduling thread claimed this worker after it stopped waiting.
+            claimed = true;
+        }
+
+        boolean result = true;
+        if (!claimed && this.queuedTaskCount.get() == 0 && (this.disposed || timedOut))
+        {
+            int currentWorkerCount = this.workerCount.get();
+            while (this.disposed || currentWorkerCount > this.coreWorkerCount)
+            {
+                if (this.workerCount.compareAndSet(currentWorkerCount, currentWorkerCount - 1))
+                {
+                    result = false;
+                    break;
+                }
+                currentWorkerCount = this.workerCount.get();
+            }
+
+            if (!result && this.queuedTaskCount.get() > 0)
+            {
+                // A task was scheduled while this worker was exiting, so make sure that another
+                // worker is available to run it.
+                this.notifyTaskAvailable();
+            }
+        }
+        return result;
+    }
+
+    private static class Worker extends java.lang.Thread
+    {
+        private final ThreadPool threadPool;
+        private final java.util.concurrent.ConcurrentLinkedDeque<Action0> tasks;
+        private volatile boolean claimed;
+
+        Worker(ThreadPool threadPool, int id)
+        {
+            super("ThreadPool-worker-" + id);
+
+            this.threadPool = threadPool;
+            this.tasks = new java.util.concurrent.ConcurrentLinkedDeque<>();
+            this.setDaemon(true);
+        }
+
+        @Override
+        public void run()
+        {
+            this.threadPool.runWorker(this);
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package qub;
+
+/**
+ * A hashed timer wheel that runs timer actions on a single timer thread. Adding a timer is an O(1)
+ * lock-free operation, and a pending timer can be cancelled by disposing the
+ * {@link TimerWheelTimer} that is returned when it is added.
+ */
+public class TimerWheel implements Disposable
+{
+    private final long tickNanoseconds;
+    private final int mask;
+    private final long startNanoseconds;
+
+    /**
+     * The buckets of this wheel. Each bucket is the head of a doubly-linked list of timers. The
+     * buckets are only accessed by the timer thread.
+     */
+    private final TimerWheelTimer[] buckets;
+    /**
+     * The timers that have been added to this wheel but that haven't been moved into a bucket by
+     * the timer thread yet.
+     */
+    private final java.util.concurrent.ConcurrentLinkedQueue<TimerWheelTimer> addedTimers;
+    private final java.util.concurrent.atomic.AtomicInteger pendingTimerCount;
+    private final java.util.concurrent.atomic.AtomicBoolean started;
+
+    /**
+     * The last tick that the timer thread has processed. This is only used by the timer thread.
+     */
+    private long currentTick;
+    private volatile java.lang.Thread timerThread;
+    private volatile boolean timerThreadIsIdle;
+    private volatile boolean disposed;
+
+    private TimerWheel(Duration tickDuration, int bucketCount)
+    {
+        PreCondition.assertNotNull(tickDuration, "tickDuration");
+        PreCondition.assertGreaterThanOrEqualTo(tickDuration.toNanoseconds().getValue(), 1, "tickDuration.toNanoseconds().getValue()");
+        PreCondition.assertGreaterThanOrEqualTo(bucketCount, 1, "bucketCount");
+
+        this.tickNanoseconds = (long)tickDuration.toNanoseconds().getValue();
+        final int bucketArrayLength = java.lang.Integer.highestOneBit(bucketCount) == bucketCount
+            ? bucketCount
+            : java.lang.Integer.highestOneBit(bucketCount) << 1;
+        this.mask = bucketArrayLength - 1;
+        this.startNanoseconds = java.lang.System.nanoTime();
+        this.buckets = new TimerWheelTimer[bucketArrayLength];
+        this.addedTimers = new java.util.concurrent.ConcurrentLinkedQueue<>();
+        this.pendingTimerCount = new java.util.concurrent.atomic.AtomicInteger();
+        this.started = new java.util.concurrent.atomic.AtomicBoolean();
+    }
+
+    /**
+     * Create a new TimerWheel with a one millisecond tick and 1024 buckets.
+     * @return The new TimerWheel.
+     */
+    public static TimerWheel create()
+    {
+        return TimerWheel.create(Duration.milliseconds(1), 1024);
+    }
+
+    /**
+     * Create a new TimerWheel.
+     * @param tickDuration The resolution of the new TimerWheel. Timers will never fire before
+     *                     their deadline, but they may fire up to one tick after it.
+     * @param bucketCount The number of buckets in the new TimerWheel. This will be rounded up to
+     *                    the next power of two.
+     * @return The new TimerWheel.
+     */
+    public static TimerWheel create(Duration tickDuration, int bucketCount)
+    {
+        return new TimerWheel(tickDuration, bucketCount);
+    }
+
+    /**
+     * Get the number of timers that have been added to this wheel that have not fired or been
+     * cancelled.
+     * @return The number of pending timers.
+     */
+    public int getPendingTimerCount()
+    {
+        return this.pendingTimerCount.get();
+    }
+
+    /**
+     * Add a timer that will run the provided action on this wheel's timer thread after the
+     * provided delay has elapsed. The action should be short and should not block, since it runs
+     * on the thread that fires every other timer in this wheel.
+     * @param delay The duration to wait before running the action.
+     * @param action The action to run.
+     * @return The timer that can be disposed to cancel the action.
+     */
+    public TimerWheelTimer schedule(Duration delay, Action0 action)
+    {
+        PreCondition.assertNotNull(delay, "delay");
+        PreCondition.assertNotNull(action, "action");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        return this.scheduleNanoseconds((long)delay.toNanoseconds().getValue(), action);
+    }
+
+    /**
+     * Add a timer that will run the provided action on this wheel's timer thread after the
+     * provided number of nanoseconds have elapsed.
+     * @param delayNanoseconds The number of nanoseconds to wait before running the action.
+     * @param action The action to run.
+     * @return The timer that can be disposed to cancel the action.
+     */
+    public TimerWheelTimer scheduleNanoseconds(long delayNanoseconds, Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+        PreCondition.assertFalse(this.isDisposed(), "this.isDisposed()");
+
+        final TimerWheelTimer result = new TimerWheelTimer(this, java.lang.System.nanoTime() + java.lang.Math.max(0, delayNanoseconds), action);
+        this.pendingTimerCount.incrementAndGet();
+        this.addedTimers.add(result);
+
+        if (this.started.compareAndSet(false, true))
+        {
+            final java.lang.Thread thread = new java.lang.Thread(this::runTimerThread, "qub.TimerWheel");
+            thread.setDaemon(true);
+            this.timerThread = thread;
+            thread.start();
+        }
+        else if (this.timerThreadIsIdle)
+        {
+            java.util.concurrent.locks.LockSupport.unpark(this.timerThread);
+        }
+
+        PostCondition.assertNotNull(result, "result");
+
+        return result;
+    }
+
+    @Override
+    public boolean isDisposed()
+    {
+        return this.disposed;
+    }
+
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = !this.disposed;
+            if (result)
+            {
+                this.disposed = true;
+                final java.lang.Thread thread = this.timerThread;
+                if (thread != null)
+                {
+                    java.util.concurrent.locks.LockSupport.unpark(thread);
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Notify this wheel that one of its pending timers has fired or been cancelled. A cancelled
+     * timer stays in its bucket until the timer thread reaches it.
+     */
+    void timerCompleted()
+    {
+        this.pendingTimerCount.decrementAndGet();
+    }
+
+    /**
+     * Get the tick that a timer with the provided deadline must fire on. This rounds up so that a
+     * timer never fires before its deadline.
+     * @param deadlineNanoseconds The deadline of the timer.
+     * @return The tick that the timer must fire on.
+     */
+    private long getTick(long deadlineNanoseconds)
+    {
+        final long elapsed = deadlineNanoseconds - this.startNanoseconds;
+        return elapsed <= 0 ? 0 : (elapsed + this.tickNanoseconds - 1) / this.tickNanoseconds;
+    }
+
+    /**
+     * Get the last tick that has completely elapsed at the provided time.
+     * @param nanoseconds The time to get the elapsed tick for.
+     * @return The last tick that has completely elapsed.
+     */
+    private long getElapsedTick(long nanoseconds)
+    {
+        final long elapsed = nanoseconds - this.startNanoseconds;
+        return elapsed <= 0 ? 0 : elapsed / this.tickNanoseconds;
+    }
+
+    private void runTimerThread()
+    {
+        this.currentTick = this.getElapsedTick(java.lang.System.nanoTime());
+        while (!this.disposed)
+        {
+            this.moveAddedTimersToBuckets();
+
+            if (this.pendingTimerCount.get() == 0)
+            {
+                this.timerThreadIsIdle = true;
+                if (this.addedTimers.isEmpty() && this.pendingTimerCount.get() == 0 && !this.disposed)
+                {
+                    java.util.concurrent.locks.LockSupport.park(this);
+                }
+                this.timerThreadIsIdle = false;
+
+                // Any timers that are still in the buckets have been cancelled, so the ticks that
+                // passed while this thread was idle don't need to be visited.
+                this.clearBuckets();
+                this.currentTick = this.getElapsedTick(java.lang.System.nanoTime());
+            }
+            else
+            {
+                final long nextTick = this.currentTick + 1;
+                final long nextTickNanoseconds = this.startNanoseconds + (nextTick * this.tickNanoseconds);
+                final long waitNanoseconds = nextTickNanoseconds - java.lang.System.nanoTime();
+                if (waitNanoseconds > 0)
+                {
+                    java.util.concurrent.locks.LockSupport.parkNanos(this, waitNanoseconds);
+                }
+                else
+                {
+                    this.currentTick = nextTick;
+                    this.fireBucket(nextTick);
+                }
+            }
+        }
+    }
+
+    private void moveAddedTimersToBuckets()
+    {
+        TimerWheelTimer timer = this.addedTimers.poll();
+        while (timer != null)
+        {
+            if (timer.isPending())
+            {
+                timer.tick = this.getTick(timer.getDeadlineNanoseconds());
+                if (timer.tick <= this.currentTick)
+                {
+                    this.fire(timer);
+                }
+                else
+                {
+                    final int bucketIndex = (int)(timer.tick & this.mask);
+                    final TimerWheelTimer head = this.buckets[bucketIndex];
+                    timer.previous = null;
+                    timer.next = head;
+                    if (head != null)
+                    {
+                        head.previous = timer;
+                    }
+                    this.buckets[bucketIndex] = timer;
+                }
+            }
+            timer = this.addedTimers.poll();
+        }
+    }
+
+    private void fireBucket(long tick)
+    {
+        final int bucketIndex = (int)(tick & this.mask);
+        TimerWheelTimer timer = this.buckets[bucketIndex];
+        while (timer != null)
+        {
+            final TimerWheelTimer next = timer.next;
+            final boolean isCancelled = timer.isDisposed();
+            if (isCancelled || timer.tick <= tick)
+            {
+                if (timer.previous == null)
+                {
+                    this.buckets[bucketIndex] = next;
+                }
+                else
+                {
+                    timer.previous.next = next;
+                }
+                if (next != null)
+                {
+                    next.previous = timer.previous;
+                }
+                timer.previous = null;
+                timer.next = null;
+
+                if (!isCancelled)
+                {
+                    this.fire(timer);
+                }
+            }
+            timer = next;
+        }
+    }
+
+    private void fire(TimerWheelTimer timer)
+    {
+        try
+        {
+            timer.fire();
+        }
+        catch (Throwable error)
+        {
+            // A failing timer action shouldn't stop the rest of this wheel's timers from firing.
+        }
+    }
+
+    private void clearBuckets()
+    {
+        for (int i = 0; i < this.buckets.length; ++i)
+        {
+            TimerWheelTimer timer = this.buckets[i];
+            while (timer != null)
+            {
+                final TimerWheelTimer next = timer.next;
+                timer.previous = null;
+                timer.next = null;
+                timer = next;
+            }
+            this.buckets[i] = null;
+        }
+    }
+}
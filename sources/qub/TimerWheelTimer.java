@@ -0,0 +1,115 @@
+package qub;
+
+/**
+ * A timer that has been added to a {@link TimerWheel}. Disposing a {@link TimerWheelTimer}
+ * before it fires cancels it.
+ */
+public class TimerWheelTimer implements Disposable
+{
+    private static final int pendingState = 0;
+    private static final int firedState = 1;
+    private static final int cancelledState = 2;
+
+    private final TimerWheel timerWheel;
+    private final long deadlineNanoseconds;
+    private final Action0 action;
+    private final java.util.concurrent.atomic.AtomicInteger state;
+
+    /**
+     * The tick of the TimerWheel that this timer will fire on. This is only used by the
+     * TimerWheel's thread.
+     */
+    long tick;
+    /**
+     * The previous timer in this timer's TimerWheel bucket. This is only used by the TimerWheel's
+     * thread.
+     */
+    TimerWheelTimer previous;
+    /**
+     * The next timer in this timer's TimerWheel bucket. This is only used by the TimerWheel's
+     * thread.
+     */
+    TimerWheelTimer next;
+
+    TimerWheelTimer(TimerWheel timerWheel, long deadlineNanoseconds, Action0 action)
+    {
+        PreCondition.assertNotNull(timerWheel, "timerWheel");
+        PreCondition.assertNotNull(action, "action");
+
+        this.timerWheel = timerWheel;
+        this.deadlineNanoseconds = deadlineNanoseconds;
+        this.action = action;
+        this.state = new java.util.concurrent.atomic.AtomicInteger(TimerWheelTimer.pendingState);
+    }
+
+    /**
+     * Get the value of java.lang.System.nanoTime() that this timer will fire at or after.
+     * @return The value of java.lang.System.nanoTime() that this timer will fire at or after.
+     */
+    public long getDeadlineNanoseconds()
+    {
+        return this.deadlineNanoseconds;
+    }
+
+    /**
+     * Get whether this timer is still waiting to fire.
+     * @return Whether this timer is still waiting to fire.
+     */
+    public boolean isPending()
+    {
+        return this.state.get() == TimerWheelTimer.pendingState;
+    }
+
+    /**
+     * Get whether this timer has fired.
+     * @return Whether this timer has fired.
+     */
+    public boolean hasFired()
+    {
+        return this.state.get() == TimerWheelTimer.firedState;
+    }
+
+    /**
+     * Get whether this timer was cancelled before it fired.
+     * @return Whether this timer was cancelled before it fired.
+     */
+    @Override
+    public boolean isDisposed()
+    {
+        return this.state.get() == TimerWheelTimer.cancelledState;
+    }
+
+    /**
+     * Cancel this timer. The returned Result will contain true if this timer was pending and is
+     * now cancelled, or false if this timer had already fired or been cancelled.
+     * @return Whether this timer was cancelled.
+     */
+    @Override
+    public Result<Boolean> dispose()
+    {
+        return Result.create(() ->
+        {
+            final boolean result = this.state.compareAndSet(TimerWheelTimer.pendingState, TimerWheelTimer.cancelledState);
+            if (result)
+            {
+                this.timerWheel.timerCompleted();
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Fire this timer if it is still pending. This is only called by the TimerWheel's thread.
+     * @return Whether this timer was fired.
+     */
+    boolean fire()
+    {
+        final boolean result = this.state.compareAndSet(TimerWheelTimer.pendingState, TimerWheelTimer.firedState);
+        if (result)
+        {
+            this.timerWheel.timerCompleted();
+            this.action.run();
+        }
+        return result;
+    }
+}
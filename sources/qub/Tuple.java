@@ -52,6 +52,13 @@ public interface Tuple
             tuple.getValues().equals(((Tuple)rhs).getValues());
     }
 
+    static int hashCode(Tuple tuple)
+    {
+        PreCondition.assertNotNull(tuple, "tuple");
+
+        return Hash.getHashCode(tuple.getValues());
+    }
+
     static String toString(Tuple tuple)
     {
         PreCondition.assertNotNull(tuple, "tuple");
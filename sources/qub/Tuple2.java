@@ -38,6 +38,12 @@ public class Tuple2<T1,T2> implements Tuple
         return Tuple.equals(this, rhs);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Tuple.hashCode(this);
+    }
+
     @Override
     public String toString()
     {
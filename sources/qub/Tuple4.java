@@ -52,6 +52,12 @@ public class Tuple4<T1,T2,T3,T4> implements Tuple
         return Tuple.equals(this, rhs);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Tuple.hashCode(this);
+    }
+
     @Override
     public String toString()
     {
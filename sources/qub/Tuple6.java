@@ -66,6 +66,12 @@ public class Tuple6<T1,T2,T3,T4,T5,T6> implements Tuple
         return Tuple.equals(this, rhs);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Tuple.hashCode(this);
+    }
+
     @Override
     public String toString()
     {
@@ -73,6 +73,12 @@ public class Tuple7<T1,T2,T3,T4,T5,T6,T7> implements Tuple
         return Tuple.equals(this, rhs);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Tuple.hashCode(this);
+    }
+
     @Override
     public String toString()
     {
@@ -96,6 +96,22 @@ public interface URL
         return url == rhs || (url != null && rhs instanceof URL && url.equals((URL)rhs));
     }
 
+    /**
+     * Get the hash code of the provided {@link URL}.
+     * @param url The {@link URL} to get the hash code of.
+     */
+    public static int hashCode(URL url)
+    {
+        PreCondition.assertNotNull(url, "url");
+
+        return Hash.getHashCode(
+            url.getScheme().catchError(NotFoundException.class).await(),
+            url.getHost().catchError(NotFoundException.class).await(),
+            url.getPort().catchError(NotFoundException.class).await(),
+            url.getPath().catchError(NotFoundException.class).await(),
+            url.getFragment().catchError(NotFoundException.class).await());
+    }
+
     /**
      * Get whether this {@link URL} is equal to the provided {@link URL}.
      * @param rhs The {@link URL} to compare against this {@link URL}.
@@ -27,6 +27,29 @@ public class USASCIICharacterEncoding implements CharacterEncoding
         });
     }
 
+    @Override
+    public int decodeCharacters(byte[] bytes, int startIndex, int length, char[] outputCharacters, int outputStartIndex)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertStartIndex(startIndex, bytes.length);
+        PreCondition.assertLength(length, startIndex, bytes.length);
+        PreCondition.assertNotNull(outputCharacters, "outputCharacters");
+        PreCondition.assertBetween(0, outputStartIndex, outputCharacters.length, "outputStartIndex");
+        PreCondition.assertLessThanOrEqualTo(length, outputCharacters.length - outputStartIndex, "length");
+
+        for (int i = 0; i < length; ++i)
+        {
+            outputCharacters[outputStartIndex + i] = (char)(bytes[startIndex + i] & 0xFF);
+        }
+        return length;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return CharacterEncoding.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -94,12 +94,246 @@ public class UTF8CharacterEncoding implements UnicodeCharacterEncoding
         });
     }
 
+    @Override
+    public Result<Integer> encodeCharacters(String text, ByteWriteStream byteWriteStream)
+    {
+        PreCondition.assertNotNull(text, "text");
+        PreCondition.assertNotNull(byteWriteStream, "byteWriteStream");
+        PreCondition.assertNotDisposed(byteWriteStream, "byteWriteStream");
+
+        return Result.create(() ->
+        {
+            return UTF8CharacterEncoding.encodeCharacters(text, 0, text.length(), byteWriteStream);
+        });
+    }
+
+    @Override
+    public Result<Integer> encodeCharacters(char[] characters, int startIndex, int length, ByteWriteStream byteWriteStream)
+    {
+        PreCondition.assertNotNull(characters, "characters");
+        PreCondition.assertStartIndex(startIndex, characters.length);
+        PreCondition.assertLength(length, startIndex, characters.length);
+        PreCondition.assertNotNull(byteWriteStream, "byteWriteStream");
+        PreCondition.assertNotDisposed(byteWriteStream, "byteWriteStream");
+
+        return Result.create(() ->
+        {
+            return UTF8CharacterEncoding.encodeCharacters(java.nio.CharBuffer.wrap(characters), startIndex, length, byteWriteStream);
+        });
+    }
+
+    /**
+     * Encode the provided characters into chunks of bytes so that the ByteWriteStream is written
+     * to once per chunk instead of once per byte. If an invalid character is found, then the
+     * bytes for the characters before it are still written, just like encoding one character at
+     * a time would have, before the error is thrown.
+     * @param characters The characters to encode. A String is read in place, and a char[] is
+     *                   wrapped instead of copied.
+     * @param startIndex The index of the first character to encode.
+     * @param length The number of characters to encode.
+     * @param byteWriteStream The ByteWriteStream to write the encoded bytes to.
+     * @return The number of bytes that were written.
+     */
+    private static int encodeCharacters(java.lang.CharSequence characters, int startIndex, int length, ByteWriteStream byteWriteStream)
+    {
+        int result = 0;
+
+        final byte[] encodedBytes = new byte[Math.minimum(length, 1024) * 4];
+        int encodedByteCount = 0;
+        IllegalArgumentException error = null;
+        final int endIndex = startIndex + length;
+        int index = startIndex;
+        while (index < endIndex && error == null)
+        {
+            if (encodedBytes.length - encodedByteCount < 4)
+            {
+                result += byteWriteStream.writeAll(encodedBytes, 0, encodedByteCount).await();
+                encodedByteCount = 0;
+            }
+
+            final char character = characters.charAt(index++);
+            if (character <= 0x7F)
+            {
+                encodedBytes[encodedByteCount++] = (byte)character;
+            }
+            else if (character <= 0x7FF)
+            {
+                encodedBytes[encodedByteCount++] = (byte)(0xC0 | ((character >>> 6) & 0x1F));
+                encodedBytes[encodedByteCount++] = (byte)(0x80 | (character & 0x3F));
+            }
+            else if (UTF16CharacterEncoding.isHighSurrogate(character))
+            {
+                if (index == endIndex)
+                {
+                    error = new IllegalArgumentException("Missing low-surrogate character (between 0xDC00 and 0xDFFF) after high-surrogate character (between 0xD800 and 0xDBFF).");
+                }
+                else
+                {
+                    final char lowSurrogate = characters.charAt(index++);
+                    if (!UTF16CharacterEncoding.isLowSurrogate(lowSurrogate))
+                    {
+                        error = new IllegalArgumentException("Expected low-surrogate character (between 0xDC00 and 0xDFFF) after high surrogate character (between 0xD800 and 0xDBFF), but found 0x" + Integers.toHexString(lowSurrogate, true) + " instead.");
+                    }
+                    else
+                    {
+                        final int unicodeCodePoint = ((character - 0xD800) << 10) + (lowSurrogate - 0xDC00) + 0x10000;
+                        encodedBytes[encodedByteCount++] = (byte)(0xF0 | ((unicodeCodePoint >>> 18) & 0x7));
+                        encodedBytes[encodedByteCount++] = (byte)(0x80 | ((unicodeCodePoint >>> 12) & 0x3F));
+                        encodedBytes[encodedByteCount++] = (byte)(0x80 | ((unicodeCodePoint >>> 6) & 0x3F));
+                        encodedBytes[encodedByteCount++] = (byte)(0x80 | (unicodeCodePoint & 0x3F));
+                    }
+                }
+            }
+            else if (UTF16CharacterEncoding.isLowSurrogate(character))
+            {
+                error = new IllegalArgumentException("Expected to find a non-surrogate character (not between 0xD800 and 0xDFFF) or high-surrogate character (between 0xD800 and 0xDBFF, but found a low surrogate character instead (0x" + Integers.toHexString((int)character, true) + ").");
+            }
+            else
+            {
+                encodedBytes[encodedByteCount++] = (byte)(0xE0 | ((character >>> 12) & 0xF));
+                encodedBytes[encodedByteCount++] = (byte)(0x80 | ((character >>> 6) & 0x3F));
+                encodedBytes[encodedByteCount++] = (byte)(0x80 | (character & 0x3F));
+            }
+        }
+
+        if (encodedByteCount > 0)
+        {
+            result += byteWriteStream.writeAll(encodedBytes, 0, encodedByteCount).await();
+        }
+
+        if (error != null)
+        {
+            throw error;
+        }
+
+        return result;
+    }
+
     @Override
     public UTF8BytesToUnicodeCodePointIterator iterateDecodedUnicodeCodePoints(Iterator<Byte> bytes)
     {
         return UTF8BytesToUnicodeCodePointIterator.create(bytes);
     }
 
+    @Override
+    public int getMissingByteCount(byte[] bytes, int startIndex, int length)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertStartIndex(startIndex, bytes.length);
+        PreCondition.assertLength(length, startIndex, bytes.length);
+
+        // Walk back over the trailing continuation bytes to find the leading byte of the last
+        // encoded character. An encoded character is at most 4 bytes long, so there is no need to
+        // look any further back than that.
+        int result = 0;
+        final int endIndex = startIndex + length;
+        final int lowestIndex = java.lang.Math.max(startIndex, endIndex - 4);
+        for (int i = endIndex - 1; i >= lowestIndex; --i)
+        {
+            final byte value = bytes[i];
+            if (!UTF8CharacterEncoding.isContinuationByte(value))
+            {
+                final int bytesInCharacter = Bytes.getLeadingOneBits(value);
+                if (2 <= bytesInCharacter && bytesInCharacter <= 4)
+                {
+                    result = java.lang.Math.max(0, bytesInCharacter - (endIndex - i));
+                }
+                break;
+            }
+        }
+
+        PostCondition.assertBetween(0, result, 3, "result");
+
+        return result;
+    }
+
+    @Override
+    public int decodeCharacters(byte[] bytes, int startIndex, int length, char[] outputCharacters, int outputStartIndex)
+    {
+        PreCondition.assertNotNull(bytes, "bytes");
+        PreCondition.assertStartIndex(startIndex, bytes.length);
+        PreCondition.assertLength(length, startIndex, bytes.length);
+        PreCondition.assertNotNull(outputCharacters, "outputCharacters");
+        PreCondition.assertBetween(0, outputStartIndex, outputCharacters.length, "outputStartIndex");
+        PreCondition.assertLessThanOrEqualTo(length, outputCharacters.length - outputStartIndex, "length");
+
+        final int endIndex = startIndex + length;
+        int byteIndex = startIndex;
+        int characterIndex = outputStartIndex;
+        while (byteIndex < endIndex)
+        {
+            // Most text is mostly ASCII, so find the length of the current run of ASCII bytes and
+            // then widen the whole run with a simple counted loop that the JIT can vectorize.
+            int asciiCount = 0;
+            while (byteIndex + asciiCount < endIndex && bytes[byteIndex + asciiCount] >= 0)
+            {
+                ++asciiCount;
+            }
+            for (int i = 0; i < asciiCount; ++i)
+            {
+                outputCharacters[characterIndex + i] = (char)bytes[byteIndex + i];
+            }
+            byteIndex += asciiCount;
+            characterIndex += asciiCount;
+
+            if (byteIndex < endIndex)
+            {
+                final byte firstByte = bytes[byteIndex];
+                if (UTF8CharacterEncoding.isContinuationByte(firstByte))
+                {
+                    throw new IllegalArgumentException("Expected a leading byte, but found a continuation byte (" + Bytes.toHexString(firstByte) + ") instead.");
+                }
+
+                final int bytesInCharacter = Bytes.getLeadingOneBits(firstByte);
+                if (bytesInCharacter >= 5)
+                {
+                    throw new IllegalArgumentException("Found an invalid leading byte (" + Bytes.toHexString(firstByte) + ").");
+                }
+
+                int unicodeCodePoint = Bytes.toUnsignedInt(firstByte) & (0x7F >>> bytesInCharacter);
+                for (int byteNumber = 2; byteNumber <= bytesInCharacter; ++byteNumber)
+                {
+                    final int continuationByteIndex = byteIndex + byteNumber - 1;
+                    if (continuationByteIndex >= endIndex)
+                    {
+                        throw new IllegalArgumentException("Missing " + UTF8CharacterEncoding.getOrdinal(byteNumber) + " byte of " + bytesInCharacter + " in decoded character.");
+                    }
+
+                    final byte continuationByte = bytes[continuationByteIndex];
+                    if (!UTF8CharacterEncoding.isContinuationByte(continuationByte))
+                    {
+                        throw new IllegalArgumentException("Expected " + UTF8CharacterEncoding.getOrdinal(byteNumber) + " byte of " + bytesInCharacter + " to be a continuation byte (10xxxxxx), but found " + Bytes.toHexString(continuationByte) + " instead.");
+                    }
+
+                    unicodeCodePoint = (unicodeCodePoint << 6) | (continuationByte & 0x3F);
+                }
+                byteIndex += bytesInCharacter;
+
+                if (unicodeCodePoint < 0x10000)
+                {
+                    outputCharacters[characterIndex++] = (char)unicodeCodePoint;
+                }
+                else
+                {
+                    outputCharacters[characterIndex++] = (char)(((unicodeCodePoint - 0x10000) >>> 10) + 0xD800);
+                    outputCharacters[characterIndex++] = (char)((unicodeCodePoint & 0x3FF) + 0xDC00);
+                }
+            }
+        }
+
+        final int result = characterIndex - outputStartIndex;
+
+        PostCondition.assertBetween(0, result, length, "result");
+
+        return result;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return CharacterEncoding.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -117,4 +351,17 @@ public class UTF8CharacterEncoding implements UnicodeCharacterEncoding
     {
         return (value & 0xC0) == 0x80;
     }
+
+    /**
+     * Get the ordinal name ("2nd", "3rd", or "4th") of the provided byte number within an encoded
+     * character.
+     * @param byteNumber The 1-based number of the byte within an encoded character.
+     * @return The ordinal name of the provided byte number.
+     */
+    private static String getOrdinal(int byteNumber)
+    {
+        PreCondition.assertBetween(2, byteNumber, 4, "byteNumber");
+
+        return byteNumber == 2 ? "2nd" : byteNumber == 3 ? "3rd" : "4th";
+    }
 }
@@ -111,6 +111,13 @@ public interface VersionNumber extends Comparable<VersionNumber>
         return lhs == rhs || (lhs != null && rhs instanceof VersionNumber && lhs.equals((VersionNumber)rhs));
     }
 
+    static int hashCode(VersionNumber versionNumber)
+    {
+        PreCondition.assertNotNull(versionNumber, "versionNumber");
+
+        return Hash.getHashCode(Hash.getHashCode(versionNumber.getParts()), versionNumber.getSuffix());
+    }
+
     default boolean equals(VersionNumber rhs)
     {
         return rhs != null &&
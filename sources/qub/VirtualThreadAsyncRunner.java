@@ -0,0 +1,94 @@
+package qub;
+
+/**
+ * An AsyncRunner implementation that runs each of its tasks on its own virtual thread. Virtual
+ * threads are cheap to create and don't hold onto a platform thread while they are blocked, which
+ * makes this AsyncRunner a good fit for large numbers of tasks that spend most of their time
+ * waiting on I/O.
+ */
+public class VirtualThreadAsyncRunner implements AsyncScheduler
+{
+    /**
+     * The factory that creates the virtual threads that this VirtualThreadAsyncRunner's tasks run
+     * on.
+     */
+    private final java.util.concurrent.ThreadFactory threadFactory;
+
+    private VirtualThreadAsyncRunner()
+    {
+        this.threadFactory = java.lang.Thread.ofVirtual()
+            .name("VirtualThreadAsyncRunner-", 1)
+            .factory();
+    }
+
+    public static VirtualThreadAsyncRunner create()
+    {
+        return new VirtualThreadAsyncRunner();
+    }
+
+    @Override
+    public AsyncTask<Void> schedule(Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        return this.schedule(this.create(action));
+    }
+
+    @Override
+    public <T> AsyncTask<T> schedule(Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return this.schedule(this.create(function));
+    }
+
+    @Override
+    public AsyncTask<Void> create(Action0 action)
+    {
+        PreCondition.assertNotNull(action, "action");
+
+        return new AsyncTask<>(this, action);
+    }
+
+    @Override
+    public <T> AsyncTask<T> create(Function0<T> function)
+    {
+        PreCondition.assertNotNull(function, "function");
+
+        return new AsyncTask<>(this, function);
+    }
+
+    @Override
+    public <T> AsyncTask<T> schedule(AsyncTask<T> task)
+    {
+        PreCondition.assertNotNull(task, "task");
+        PreCondition.assertFalse(task.isCompleted(), "task.isCompleted()");
+
+        this.threadFactory.newThread(() ->
+        {
+            CurrentThread.setAsyncRunner(this);
+            try
+            {
+                task.run();
+            }
+            finally
+            {
+                // Virtual threads are never reused, so remove the registration to keep the
+                // CurrentThread registry from growing with every task.
+                CurrentThread.setAsyncRunner(null);
+            }
+        }).start();
+        return task;
+    }
+
+    @Override
+    public void await(Result<?> result)
+    {
+        PreCondition.assertNotNull(result, "result");
+
+        // Parking unmounts the virtual thread and lets the task that it is waiting for run.
+        // Yielding instead can put a virtual thread straight back at the front of its carrier's
+        // queue.
+        AsyncTask.waitFor(result, null);
+    }
+}
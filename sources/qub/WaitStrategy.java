@@ -0,0 +1,24 @@
+package qub;
+
+/**
+ * The ways that a thread can wait for a concurrent data structure to become ready.
+ */
+public enum WaitStrategy
+{
+    /**
+     * Busy-wait on the current thread. This has the lowest latency, but it keeps a processor busy
+     * for as long as the thread is waiting.
+     */
+    Spin,
+
+    /**
+     * Yield the rest of the current thread's time slice to other threads between checks.
+     */
+    Yield,
+
+    /**
+     * Park the current thread until another thread wakes it up. This doesn't use any processor
+     * time while waiting, but waking up takes longer than the other strategies.
+     */
+    Park
+}
@@ -29,6 +29,12 @@ public class WhereIterable<T> implements Iterable<T>
         return WhereIterator.create(innerIterable.iterate(), condition);
     }
 
+    @Override
+    public int hashCode()
+    {
+        return Iterable.hashCode(this);
+    }
+
     @Override
     public boolean equals(Object rhs)
     {
@@ -0,0 +1,335 @@
+package qub;
+
+public interface ArrayBlockingQueueTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ArrayBlockingQueue.class, () ->
+        {
+            runner.testGroup("create(int)", () ->
+            {
+                final Action2<Integer,Integer> createTest = (Integer capacity, Integer expectedCapacity) ->
+                {
+                    runner.test("with " + capacity, (Test test) ->
+                    {
+                        final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(capacity);
+                        test.assertEqual(expectedCapacity, queue.getCapacity());
+                        test.assertEqual(WaitStrategy.Park, queue.getWaitStrategy());
+                        test.assertEqual(0, queue.getCount());
+                        test.assertFalse(queue.any());
+                    });
+                };
+
+                createTest.run(1, 2);
+                createTest.run(2, 2);
+                createTest.run(3, 4);
+                createTest.run(1000, 1024);
+
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> ArrayBlockingQueue.create(0),
+                        new PreConditionFailure("capacity (0) must be between 1 and 1073741824."));
+                });
+            });
+
+            runner.testGroup("create(int,WaitStrategy)", () ->
+            {
+                runner.test("with null waitStrategy", (Test test) ->
+                {
+                    test.assertThrows(() -> ArrayBlockingQueue.create(4, null),
+                        new PreConditionFailure("waitStrategy cannot be null."));
+                });
+
+                runner.test("with " + WaitStrategy.Spin, (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4, WaitStrategy.Spin);
+                    test.assertEqual(WaitStrategy.Spin, queue.getWaitStrategy());
+                });
+            });
+
+            runner.testGroup("tryEnqueue(T)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertThrows(() -> queue.tryEnqueue(null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                runner.test("until full", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    for (int i = 0; i < 4; ++i)
+                    {
+                        test.assertTrue(queue.tryEnqueue(i));
+                        test.assertEqual(i + 1, queue.getCount());
+                    }
+                    test.assertFalse(queue.tryEnqueue(4));
+                    test.assertEqual(4, queue.getCount());
+                });
+            });
+
+            runner.testGroup("tryDequeue()", () ->
+            {
+                runner.test("with empty queue", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertNull(queue.tryDequeue());
+                });
+
+                runner.test("with values that wrap around the ring buffer", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    for (int i = 0; i < 10; ++i)
+                    {
+                        test.assertTrue(queue.tryEnqueue(i));
+                        test.assertTrue(queue.tryEnqueue(i + 100));
+                        test.assertEqual(i, queue.tryDequeue());
+                        test.assertEqual(i + 100, queue.tryDequeue());
+                    }
+                    test.assertNull(queue.tryDequeue());
+                    test.assertFalse(queue.any());
+                });
+            });
+
+            runner.testGroup("enqueue(T)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertThrows(() -> queue.enqueue(null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                runner.test("when full", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(2);
+                    queue.enqueue(1).await();
+                    queue.enqueue(2).await();
+                    final java.util.concurrent.CountDownLatch enqueued = new java.util.concurrent.CountDownLatch(1);
+                    final java.lang.Thread producer = new java.lang.Thread(() ->
+                    {
+                        queue.enqueue(3).await();
+                        enqueued.countDown();
+                    });
+                    producer.start();
+                    test.assertEqual(1, queue.dequeue().await());
+                    test.assertTrue(TimerWheelTests.await(enqueued));
+                    test.assertEqual(2, queue.dequeue().await());
+                    test.assertEqual(3, queue.dequeue().await());
+                });
+            });
+
+            runner.testGroup("enqueueAll(Iterable<T>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertThrows(() -> queue.enqueueAll(null),
+                        new PreConditionFailure("values cannot be null."));
+                });
+
+                runner.test("with null value", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertThrows(() -> queue.enqueueAll(Iterable.create(1, null)),
+                        new PreConditionFailure("values.contains(null) cannot be true."));
+                });
+
+                runner.test("with fewer values than the capacity", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(8);
+                    queue.enqueueAll(Iterable.create(1, 2, 3)).await();
+                    test.assertEqual(3, queue.getCount());
+                    test.assertEqual(1, queue.dequeue().await());
+                    test.assertEqual(2, queue.dequeue().await());
+                    test.assertEqual(3, queue.dequeue().await());
+                });
+
+                runner.test("with more values than the capacity", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    final List<Integer> dequeuedValues = List.create();
+                    final java.lang.Thread consumer = new java.lang.Thread(() ->
+                    {
+                        while (dequeuedValues.getCount() < 10)
+                        {
+                            queue.dequeueUpTo(3, dequeuedValues).await();
+                        }
+                    });
+                    consumer.start();
+                    queue.enqueueAll(Iterable.create(0, 1, 2, 3, 4, 5, 6, 7, 8, 9)).await();
+                    TestThreads.join(consumer);
+                    test.assertEqual(Iterable.create(0, 1, 2, 3, 4, 5, 6, 7, 8, 9), dequeuedValues);
+                });
+            });
+
+            runner.testGroup("tryDequeueUpTo(int,List<T>)", () ->
+            {
+                runner.test("with 0 maximumCount", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertThrows(() -> queue.tryDequeueUpTo(0, List.create()),
+                        new PreConditionFailure("maximumCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with null buffer", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    test.assertThrows(() -> queue.tryDequeueUpTo(1, null),
+                        new PreConditionFailure("buffer cannot be null."));
+                });
+
+                runner.test("with empty queue", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    final List<Integer> buffer = List.create();
+                    test.assertEqual(0, queue.tryDequeueUpTo(3, buffer));
+                    test.assertEqual(Iterable.create(), buffer);
+                });
+
+                runner.test("with fewer values than the maximumCount", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    queue.enqueueAll(Iterable.create(1, 2)).await();
+                    final List<Integer> buffer = List.create();
+                    test.assertEqual(2, queue.tryDequeueUpTo(3, buffer));
+                    test.assertEqual(Iterable.create(1, 2), buffer);
+                    test.assertFalse(queue.any());
+                });
+
+                runner.test("with more values than the maximumCount", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    queue.enqueueAll(Iterable.create(1, 2, 3, 4)).await();
+                    final List<Integer> buffer = List.create();
+                    test.assertEqual(3, queue.tryDequeueUpTo(3, buffer));
+                    test.assertEqual(Iterable.create(1, 2, 3), buffer);
+                    test.assertEqual(1, queue.getCount());
+                    test.assertTrue(queue.tryEnqueue(5));
+                    test.assertEqual(2, queue.tryDequeueUpTo(3, buffer));
+                    test.assertEqual(Iterable.create(1, 2, 3, 4, 5), buffer);
+                });
+
+                runner.test("with a buffer that throws", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    queue.enqueueAll(Iterable.create(1, 2, 3)).await();
+                    final List<Integer> throwingBuffer = new JavaList<>(java.util.Collections.unmodifiableList(new java.util.ArrayList<>()));
+                    test.assertThrows(() -> queue.tryDequeueUpTo(2, throwingBuffer),
+                        new java.lang.UnsupportedOperationException());
+                    test.assertEqual(1, queue.getCount());
+
+                    // The positions that the failed call claimed must be usable again.
+                    queue.enqueueAll(Iterable.create(4, 5, 6)).await();
+                    final List<Integer> buffer = List.create();
+                    test.assertEqual(4, queue.tryDequeueUpTo(4, buffer));
+                    test.assertEqual(Iterable.create(3, 4, 5, 6), buffer);
+                    test.assertFalse(queue.any());
+                });
+            });
+
+            runner.testGroup("dequeue()", () ->
+            {
+                runner.test("when empty", (Test test) ->
+                {
+                    final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(4);
+                    final java.lang.Thread producer = new java.lang.Thread(() ->
+                    {
+                        queue.enqueue(7).await();
+                    });
+                    producer.start();
+                    test.assertEqual(7, queue.dequeue().await());
+                    TestThreads.join(producer);
+                });
+            });
+
+            runner.testGroup("with multiple producers and consumers", () ->
+            {
+                final Action1<WaitStrategy> multipleThreadsTest = (WaitStrategy waitStrategy) ->
+                {
+                    runner.test("with " + waitStrategy, (Test test) ->
+                    {
+                        final ArrayBlockingQueue<Integer> queue = ArrayBlockingQueue.create(16, waitStrategy);
+                        final int threadCount = 2;
+                        final int valuesPerThread = 1000;
+                        final java.util.concurrent.atomic.AtomicLong sum = new java.util.concurrent.atomic.AtomicLong();
+                        TestThreads.run(threadCount * 2, (Integer threadIndex) ->
+                        {
+                            if (threadIndex < threadCount)
+                            {
+                                for (int j = 0; j < valuesPerThread; ++j)
+                                {
+                                    queue.enqueue(threadIndex * valuesPerThread + j).await();
+                                }
+                            }
+                            else
+                            {
+                                for (int j = 0; j < valuesPerThread; ++j)
+                                {
+                                    sum.addAndGet(queue.dequeue().await());
+                                }
+                            }
+                        });
+
+                        final long valueCount = threadCount * valuesPerThread;
+                        test.assertEqual(valueCount * (valueCount - 1) / 2, sum.get());
+                        test.assertFalse(queue.any());
+                    });
+                };
+
+                multipleThreadsTest.run(WaitStrategy.Spin);
+                multipleThreadsTest.run(WaitStrategy.Yield);
+                multipleThreadsTest.run(WaitStrategy.Park);
+            });
+
+            runner.testGroup("producer and consumer speed tests", () ->
+            {
+                final int threadCount = 2;
+                final Action4<String,Function0<BlockingQueue<Integer>>,Integer,Integer> speedTest = (String queueName, Function0<BlockingQueue<Integer>> queueCreator, Integer batchSize, Integer valuesPerThread) ->
+                {
+                    runner.speedTest("with " + queueName + ", batches of " + batchSize + ", " + threadCount + " producers, " + threadCount + " consumers, and " + valuesPerThread + " values per thread",
+                        Duration.seconds(2),
+                        (Test test) ->
+                    {
+                        final BlockingQueue<Integer> queue = queueCreator.run();
+                        TestThreads.run(threadCount * 2, (Integer threadIndex) ->
+                        {
+                            final List<Integer> batch = List.create();
+                            if (threadIndex < threadCount)
+                            {
+                                for (int j = 0; j < valuesPerThread; ++j)
+                                {
+                                    batch.add(j);
+                                    if (batch.getCount() == batchSize)
+                                    {
+                                        queue.enqueueAll(batch).await();
+                                        batch.clear();
+                                    }
+                                }
+                                queue.enqueueAll(batch).await();
+                            }
+                            else
+                            {
+                                int dequeuedCount = 0;
+                                while (dequeuedCount < valuesPerThread)
+                                {
+                                    dequeuedCount += queue.dequeueUpTo(java.lang.Math.min(batchSize, valuesPerThread - dequeuedCount), batch).await();
+                                    batch.clear();
+                                }
+                            }
+                        });
+                        test.assertFalse(queue.any());
+                    });
+                };
+
+                // Values that are passed one at a time wake up the other side much more often than
+                // values that are passed in batches, so the unbatched runs move fewer values.
+                speedTest.run(Types.getTypeName(JavaBlockingQueue.class), () -> new JavaBlockingQueue<>(1024), 1, 25000);
+                speedTest.run(Types.getTypeName(ArrayBlockingQueue.class) + " (" + WaitStrategy.Park + ")", () -> ArrayBlockingQueue.create(1024, WaitStrategy.Park), 1, 25000);
+                speedTest.run(Types.getTypeName(ArrayBlockingQueue.class) + " (" + WaitStrategy.Yield + ")", () -> ArrayBlockingQueue.create(1024, WaitStrategy.Yield), 1, 25000);
+                speedTest.run(Types.getTypeName(ArrayBlockingQueue.class) + " (" + WaitStrategy.Park + ")", () -> ArrayBlockingQueue.create(1024, WaitStrategy.Park), 64, 100000);
+            });
+        });
+    }
+}
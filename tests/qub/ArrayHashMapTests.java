@@ -8,6 +8,109 @@ public interface ArrayHashMapTests
         {
             MutableMapTests.test(runner, ArrayHashMap::create, true, true);
 
+            runner.testGroup("createWithCapacity(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> ArrayHashMap.createWithCapacity(0),
+                        new PreConditionFailure("initialCapacity (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1", (Test test) ->
+                {
+                    final ArrayHashMap<Integer,Boolean> map = ArrayHashMap.createWithCapacity(1);
+                    test.assertEqual(0, map.getCount());
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        map.set(i, Math.isOdd(i));
+                    }
+                    test.assertEqual(100, map.getCount());
+                });
+            });
+
+            runner.testGroup("getOrDefault(TKey,TValue)", () ->
+            {
+                runner.test("with missing key", (Test test) ->
+                {
+                    final ArrayHashMap<String,Integer> map = ArrayHashMap.create();
+                    test.assertEqual(5, map.getOrDefault("a", 5));
+                    test.assertNull(map.getOrDefault("a", null));
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final ArrayHashMap<String,Integer> map = ArrayHashMap.create();
+                    map.set("a", 1);
+                    test.assertEqual(1, map.getOrDefault("a", 5));
+                });
+
+                runner.test("with existing key with null value", (Test test) ->
+                {
+                    final ArrayHashMap<String,Integer> map = ArrayHashMap.create();
+                    map.set("a", null);
+                    test.assertNull(map.getOrDefault("a", 5));
+                });
+
+                runner.test("with null key", (Test test) ->
+                {
+                    final ArrayHashMap<String,Integer> map = ArrayHashMap.create();
+                    test.assertEqual(5, map.getOrDefault(null, 5));
+                    map.set(null, 2);
+                    test.assertEqual(2, map.getOrDefault(null, 5));
+                });
+            });
+
+            runner.testGroup("remove(TKey)", () ->
+            {
+                runner.test("with keys that share probe runs", (Test test) ->
+                {
+                    final ArrayHashMap<Integer,Integer> map = ArrayHashMap.create();
+                    final int keyCount = 1000;
+                    for (int i = 0; i < keyCount; ++i)
+                    {
+                        map.set(i * 16, i);
+                    }
+
+                    for (int i = 0; i < keyCount; i += 2)
+                    {
+                        test.assertEqual(i, map.remove(i * 16).await());
+                    }
+                    test.assertEqual(keyCount / 2, map.getCount());
+
+                    for (int i = 0; i < keyCount; ++i)
+                    {
+                        if (Math.isOdd(i))
+                        {
+                            test.assertTrue(map.containsKey(i * 16));
+                            test.assertEqual(i, map.get(i * 16).await());
+                        }
+                        else
+                        {
+                            test.assertFalse(map.containsKey(i * 16));
+                        }
+                    }
+
+                    int entriesReturned = 0;
+                    for (final MapEntry<Integer,Integer> entry : map)
+                    {
+                        test.assertEqual(entry.getKey(), entry.getValue() * 16);
+                        test.assertTrue(Math.isOdd(entry.getValue()));
+                        ++entriesReturned;
+                    }
+                    test.assertEqual(keyCount / 2, entriesReturned);
+                });
+
+                runner.test("with null key", (Test test) ->
+                {
+                    final ArrayHashMap<Integer,Integer> map = ArrayHashMap.create();
+                    map.set(null, 1).set(0, 2);
+                    test.assertEqual(1, map.remove(null).await());
+                    test.assertFalse(map.containsKey(null));
+                    test.assertEqual(2, map.get(0).await());
+                    test.assertEqual(1, map.getCount());
+                });
+            });
+
             runner.testGroup("set(TKey,TValue)", () ->
             {
                 runner.testGroup("speed tests", () ->
@@ -82,6 +185,67 @@ public interface ArrayHashMapTests
                     // conflictsSpeedTest.run(1000000, Duration.seconds(a really long time));
                 });
             });
+
+            runner.testGroup("lookup speed tests", () ->
+            {
+                final int lookupCount = 100000;
+                final Action4<String,Function0<MutableMap<Integer,Integer>>,Integer,Duration> lookupSpeedTest = (String mapType, Function0<MutableMap<Integer,Integer>> creator, Integer entryCount, Duration expectedDuration) ->
+                {
+                    final MutableMap<Integer,Integer> map = creator.run();
+                    for (int i = 0; i < entryCount; ++i)
+                    {
+                        map.set(i * 2, i);
+                    }
+
+                    runner.speedTest("with " + lookupCount + " get() and containsKey() calls on a " + mapType + " with " + entryCount + " entries", expectedDuration, (Test test) ->
+                    {
+                        final int keyRange = entryCount * 2;
+                        int hitCount = 0;
+                        for (int i = 0; i < lookupCount; ++i)
+                        {
+                            // Even keys are in the map and odd keys are not.
+                            final int key = i % keyRange;
+                            if (map.containsKey(key))
+                            {
+                                test.assertEqual(key / 2, map.get(key).await());
+                                ++hitCount;
+                            }
+                        }
+                        test.assertEqual(lookupCount / 2, hitCount);
+                    });
+                };
+
+                for (final int entryCount : new int[] { 10, 1000, 100000 })
+                {
+                    lookupSpeedTest.run("ArrayHashMap", ArrayHashMap::create, entryCount, Duration.seconds(0.1));
+                    lookupSpeedTest.run("JavaHashMap", JavaHashMap::create, entryCount, Duration.seconds(0.1));
+                }
+                lookupSpeedTest.run("ListMap", ListMap::create, 10, Duration.seconds(1));
+                lookupSpeedTest.run("ListMap", ListMap::create, 100, Duration.seconds(1.5));
+
+                for (final int entryCount : new int[] { 10, 1000, 100000 })
+                {
+                    final ArrayHashMap<Integer,Integer> map = ArrayHashMap.create();
+                    for (int i = 0; i < entryCount; ++i)
+                    {
+                        map.set(i * 2, i);
+                    }
+
+                    runner.speedTest("with " + lookupCount + " getOrDefault() misses on an ArrayHashMap with " + entryCount + " entries", Duration.seconds(0.1), (Test test) ->
+                    {
+                        int missCount = 0;
+                        for (int i = 0; i < lookupCount; ++i)
+                        {
+                            // Odd keys are never in the map.
+                            if (map.getOrDefault(i * 2 + 1, null) == null)
+                            {
+                                ++missCount;
+                            }
+                        }
+                        test.assertEqual(lookupCount, missCount);
+                    });
+                }
+            });
         });
     }
 }
@@ -0,0 +1,23 @@
+package qub;
+
+public interface ArrayHashSetTests
+{
+    public static void test(TestRunner runner)
+    {
+        runner.testGroup(ArrayHashSet.class, () ->
+        {
+            MutableSetTests.test(runner, (Integer valueCount) ->
+            {
+                final ArrayHashSet<Integer> result = ArrayHashSet.create();
+                if (valueCount != null && valueCount > 0)
+                {
+                    for (int i = 0; i < valueCount; i++)
+                    {
+                        result.add(i);
+                    }
+                }
+                return result;
+            });
+        });
+    }
+}
@@ -1184,6 +1184,90 @@ public interface AsyncTaskTests
                         test.assertTrue(value3.get());
                     });
                 });
+
+                runner.test("with non-null function when parent has already completed", (Test test) ->
+                {
+                    CurrentThread.withManualAsyncScheduler((ManualAsyncRunner asyncRunner) ->
+                    {
+                        final AsyncTask<Integer> asyncTask = asyncRunner.schedule(() -> 5);
+                        test.assertEqual(5, asyncTask.await());
+
+                        final AsyncTask<Integer> result = asyncTask.then((Integer parentValue) -> parentValue + 1);
+                        test.assertNotNull(result);
+                        test.assertEqual(Iterable.create(), asyncTask.getNextTasks());
+
+                        test.assertEqual(6, result.await());
+                    });
+                });
+
+                runner.test("with non-null functions registered on many threads while the parent completes", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create();
+                    try
+                    {
+                        final ParallelAsyncRunner asyncRunner = ParallelAsyncRunner.create(threadPool);
+                        final int threadCount = 8;
+                        final int continuationsPerThread = 1000;
+                        for (int iteration = 0; iteration < 10; ++iteration)
+                        {
+                            final AsyncTask<Integer> asyncTask = asyncRunner.create(() -> 5);
+                            final java.util.concurrent.atomic.AtomicInteger runCount = new java.util.concurrent.atomic.AtomicInteger();
+                            final java.util.concurrent.CyclicBarrier barrier = new java.util.concurrent.CyclicBarrier(threadCount + 1);
+                            final java.util.concurrent.ConcurrentLinkedQueue<AsyncTask<Integer>> results = new java.util.concurrent.ConcurrentLinkedQueue<>();
+                            final List<java.lang.Thread> threads = List.create();
+                            for (int i = 0; i < threadCount; ++i)
+                            {
+                                final java.lang.Thread thread = new java.lang.Thread(() ->
+                                {
+                                    try
+                                    {
+                                        barrier.await();
+                                    }
+                                    catch (java.lang.InterruptedException | java.util.concurrent.BrokenBarrierException e)
+                                    {
+                                        throw Exceptions.asRuntime(e);
+                                    }
+                                    for (int j = 0; j < continuationsPerThread; ++j)
+                                    {
+                                        results.add(asyncTask.then((Integer parentValue) ->
+                                        {
+                                            runCount.incrementAndGet();
+                                            return parentValue + 1;
+                                        }));
+                                    }
+                                });
+                                thread.start();
+                                threads.add(thread);
+                            }
+
+                            try
+                            {
+                                barrier.await();
+                                asyncTask.schedule();
+                                for (final java.lang.Thread thread : threads)
+                                {
+                                    thread.join();
+                                }
+                            }
+                            catch (java.lang.InterruptedException | java.util.concurrent.BrokenBarrierException e)
+                            {
+                                throw Exceptions.asRuntime(e);
+                            }
+
+                            test.assertEqual(threadCount * continuationsPerThread, results.size());
+                            for (final AsyncTask<Integer> result : results)
+                            {
+                                test.assertEqual(6, result.await());
+                            }
+                            test.assertEqual(threadCount * continuationsPerThread, runCount.get());
+                            test.assertEqual(Iterable.create(), asyncTask.getNextTasks());
+                        }
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
             });
 
             runner.testGroup("onValue(Action0)", () ->
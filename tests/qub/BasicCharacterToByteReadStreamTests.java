@@ -36,6 +36,115 @@ public interface BasicCharacterToByteReadStreamTests
                     test.assertFalse(characterReadStream.isDisposed());
                 });
             });
+
+            runner.testGroup("readCharacter()", () ->
+            {
+                final Action3<byte[],CharacterEncoding,char[]> readCharacterTest = (byte[] bytes, CharacterEncoding characterEncoding, char[] expectedCharacters) ->
+                {
+                    runner.test("with " + Array.toString(bytes) + " and " + characterEncoding.getClass().getSimpleName(), (Test test) ->
+                    {
+                        final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(bytes), characterEncoding);
+                        for (final char expectedCharacter : expectedCharacters)
+                        {
+                            test.assertEqual(expectedCharacter, characterReadStream.readCharacter().await());
+                        }
+                        test.assertThrows(() -> characterReadStream.readCharacter().await(),
+                            new EmptyException());
+                    });
+                };
+
+                readCharacterTest.run(new byte[0], CharacterEncoding.UTF_8, new char[0]);
+                readCharacterTest.run(new byte[] { 97, 98 }, CharacterEncoding.UTF_8, new char[] { 'a', 'b' });
+                readCharacterTest.run(new byte[] { (byte)0xE2, (byte)0x82, (byte)0xAC, 97 }, CharacterEncoding.UTF_8, new char[] { '\u20AC', 'a' });
+                readCharacterTest.run(new byte[] { (byte)0xF0, (byte)0x9F, (byte)0x98, (byte)0x80 }, CharacterEncoding.UTF_8, new char[] { (char)0xD83D, (char)0xDE00 });
+                readCharacterTest.run(new byte[] { (byte)0xEF, (byte)0xBB, (byte)0xBF, 97, (byte)0xEF, (byte)0xBB, (byte)0xBF }, CharacterEncoding.UTF_8, new char[] { 'a', (char)0xFEFF });
+                readCharacterTest.run(new byte[] { 97, (byte)0xE9 }, CharacterEncoding.US_ASCII, new char[] { 'a', (char)0xE9 });
+
+                runner.test("with incomplete character", (Test test) ->
+                {
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(new byte[] { 97, (byte)0xE2, (byte)0x82 }), CharacterEncoding.UTF_8);
+                    test.assertEqual('a', characterReadStream.readCharacter().await());
+                    test.assertThrows(() -> characterReadStream.readCharacter().await(),
+                        new IllegalArgumentException("Missing 3rd byte of 3 in decoded character."));
+                });
+
+                runner.test("doesn't read the bytes after the character", (Test test) ->
+                {
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(new byte[] { (byte)0xC2, (byte)0x84, 1, 2 }), CharacterEncoding.UTF_8);
+                    test.assertEqual((char)132, characterReadStream.readCharacter().await());
+                    test.assertEqual(1, characterReadStream.readByteAsInt());
+                    test.assertEqual(2, characterReadStream.readByteAsInt());
+                    test.assertEqual(-1, characterReadStream.readByteAsInt());
+                });
+            });
+
+            runner.testGroup("readCharactersInto(char[],int,int)", () ->
+            {
+                runner.test("with 0 length", (Test test) ->
+                {
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(new byte[] { 97 }), CharacterEncoding.UTF_8);
+                    test.assertEqual(0, characterReadStream.readCharactersInto(new char[3], 1, 0));
+                    test.assertEqual('a', characterReadStream.readCharacterAsInt());
+                });
+
+                runner.test("with empty stream", (Test test) ->
+                {
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(), CharacterEncoding.UTF_8);
+                    test.assertEqual(-1, characterReadStream.readCharactersInto(new char[3], 0, 3));
+                    test.assertEqual(-1, characterReadStream.readCharacterAsInt());
+                });
+
+                runner.test("with byte order mark and multi-byte characters", (Test test) ->
+                {
+                    final byte[] bytes = new byte[] { (byte)0xEF, (byte)0xBB, (byte)0xBF, 97, (byte)0xE2, (byte)0x82, (byte)0xAC, 98 };
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(bytes), CharacterEncoding.UTF_8);
+                    final char[] outputCharacters = new char[10];
+                    test.assertEqual(3, characterReadStream.readCharactersInto(outputCharacters, 0, 10));
+                    test.assertEqual("a\u20ACb", String.valueOf(outputCharacters, 0, 3));
+                    test.assertEqual(-1, characterReadStream.readCharactersInto(outputCharacters, 0, 10));
+                });
+
+                runner.test("with surrogate pair that doesn't fit", (Test test) ->
+                {
+                    final byte[] bytes = new byte[] { 97, (byte)0xF0, (byte)0x9F, (byte)0x98, (byte)0x80, 98 };
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(bytes), CharacterEncoding.UTF_8);
+                    final char[] outputCharacters = new char[2];
+                    test.assertEqual(2, characterReadStream.readCharactersInto(outputCharacters, 0, 2));
+                    test.assertEqual(CharacterArray.create('a', (char)0xD83D), CharacterArray.create(outputCharacters));
+                    test.assertEqual(1, characterReadStream.readCharactersInto(outputCharacters, 0, 2));
+                    test.assertEqual((char)0xDE00, outputCharacters[0]);
+                    test.assertEqual(1, characterReadStream.readCharactersInto(outputCharacters, 0, 2));
+                    test.assertEqual('b', outputCharacters[0]);
+                    test.assertEqual(-1, characterReadStream.readCharactersInto(outputCharacters, 0, 2));
+                });
+
+                runner.test("doesn't read the bytes after the characters", (Test test) ->
+                {
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(new byte[] { 97, 98, 99, 100 }), CharacterEncoding.UTF_8);
+                    final char[] outputCharacters = new char[2];
+                    test.assertEqual(2, characterReadStream.readCharactersInto(outputCharacters, 0, 2));
+                    test.assertEqual(CharacterArray.create('a', 'b'), CharacterArray.create(outputCharacters));
+                    test.assertEqual(99, characterReadStream.readByteAsInt());
+                    test.assertEqual('d', characterReadStream.readCharacterAsInt());
+                });
+
+                final int characterCount = 1000000;
+                runner.speedTest("with " + characterCount + " characters", Duration.milliseconds(100), (Test test) ->
+                {
+                    final byte[] bytes = new byte[characterCount];
+                    java.util.Arrays.fill(bytes, (byte)'a');
+                    final BasicCharacterToByteReadStream characterReadStream = BasicCharacterToByteReadStream.create(ByteReadStream.create(bytes), CharacterEncoding.UTF_8);
+                    final char[] outputCharacters = new char[1000];
+
+                    int charactersRead = 0;
+                    int readCount;
+                    while ((readCount = characterReadStream.readCharactersInto(outputCharacters, 0, outputCharacters.length)) != -1)
+                    {
+                        charactersRead += readCount;
+                    }
+                    test.assertEqual(characterCount, charactersRead);
+                });
+            });
         });
     }
 }
@@ -0,0 +1,285 @@
+package qub;
+
+public interface BufferPoolTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(BufferPool.class, () ->
+        {
+            runner.test("getDefault()", (Test test) ->
+            {
+                final BufferPool bufferPool = BufferPool.getDefault();
+                test.assertNotNull(bufferPool);
+                test.assertSame(bufferPool, BufferPool.getDefault());
+                test.assertEqual(java.lang.Boolean.getBoolean(BufferPool.leakDetectionPropertyName), bufferPool.getLeakDetection());
+            });
+
+            runner.test("create()", (Test test) ->
+            {
+                final BufferPool bufferPool = BufferPool.create();
+                test.assertEqual(BufferPool.defaultMinimumBufferSize, bufferPool.getMinimumBufferSize());
+                test.assertEqual(BufferPool.defaultMaximumBufferSize, bufferPool.getMaximumBufferSize());
+                test.assertEqual(BufferPool.defaultBuffersPerSizeClass, bufferPool.getBuffersPerSizeClass());
+                test.assertFalse(bufferPool.getLeakDetection());
+                test.assertEqual(0, bufferPool.getTakeCount());
+                test.assertEqual(0, bufferPool.getHitCount());
+                test.assertEqual(0, bufferPool.getReturnCount());
+                test.assertEqual(0.0, bufferPool.getHitRate());
+            });
+
+            runner.testGroup("create(int,int,int)", () ->
+            {
+                runner.test("with 0 minimumBufferSize", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create(0, 16, 1),
+                        new PreConditionFailure("minimumBufferSize (0) must be between 1 and 1073741824."));
+                });
+
+                runner.test("with maximumBufferSize less than minimumBufferSize", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create(16, 8, 1),
+                        new PreConditionFailure("maximumBufferSize (8) must be between 16 and 1073741824."));
+                });
+
+                runner.test("with 0 buffersPerSizeClass", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create(8, 16, 0),
+                        new PreConditionFailure("buffersPerSizeClass (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with sizes that aren't powers of two", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(5, 100, 3);
+                    test.assertEqual(8, bufferPool.getMinimumBufferSize());
+                    test.assertEqual(128, bufferPool.getMaximumBufferSize());
+                    test.assertEqual(3, bufferPool.getBuffersPerSizeClass());
+                });
+            });
+
+            runner.testGroup("getBufferSize(int)", () ->
+            {
+                final Action2<Integer,Integer> getBufferSizeTest = (Integer minimumSize, Integer expected) ->
+                {
+                    runner.test("with " + minimumSize, (Test test) ->
+                    {
+                        final BufferPool bufferPool = BufferPool.create(8, 64, 1);
+                        test.assertEqual(expected, bufferPool.getBufferSize(minimumSize));
+                    });
+                };
+
+                getBufferSizeTest.run(0, 8);
+                getBufferSizeTest.run(1, 8);
+                getBufferSizeTest.run(8, 8);
+                getBufferSizeTest.run(9, 16);
+                getBufferSizeTest.run(64, 64);
+                getBufferSizeTest.run(65, 65);
+
+                runner.test("with -1", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create().getBufferSize(-1),
+                        new PreConditionFailure("minimumSize (-1) must be greater than or equal to 0."));
+                });
+            });
+
+            runner.testGroup("takeBytes(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create().takeBytes(-1),
+                        new PreConditionFailure("minimumLength (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with empty pool", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final byte[] bytes = bufferPool.takeBytes(10);
+                    test.assertEqual(16, bytes.length);
+                    test.assertEqual(1, bufferPool.getTakeCount());
+                    test.assertEqual(0, bufferPool.getHitCount());
+                    test.assertEqual(0.0, bufferPool.getHitRate());
+                });
+
+                runner.test("after a buffer of the same size class was returned", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final byte[] bytes = bufferPool.takeBytes(10);
+                    bufferPool.returnBytes(bytes);
+                    test.assertEqual(1, bufferPool.getReturnCount());
+
+                    test.assertSame(bytes, bufferPool.takeBytes(16));
+                    test.assertEqual(2, bufferPool.getTakeCount());
+                    test.assertEqual(1, bufferPool.getHitCount());
+                    test.assertEqual(0.5, bufferPool.getHitRate());
+                });
+
+                runner.test("after a buffer of a different size class was returned", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final byte[] bytes = bufferPool.takeBytes(10);
+                    bufferPool.returnBytes(bytes);
+
+                    final byte[] bytes2 = bufferPool.takeBytes(20);
+                    test.assertNotSame(bytes, bytes2);
+                    test.assertEqual(32, bytes2.length);
+                    test.assertEqual(0, bufferPool.getHitCount());
+                });
+
+                runner.test("with more than the maximum buffer size", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final byte[] bytes = bufferPool.takeBytes(100);
+                    test.assertEqual(100, bytes.length);
+                    bufferPool.returnBytes(bytes);
+
+                    test.assertNotSame(bytes, bufferPool.takeBytes(100));
+                    test.assertEqual(0, bufferPool.getHitCount());
+                });
+            });
+
+            runner.testGroup("returnBytes(byte[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create().returnBytes(null),
+                        new PreConditionFailure("bytes cannot be null."));
+                });
+
+                runner.test("when the size class is full", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final List<byte[]> taken = List.create();
+                    for (int i = 0; i < 3; ++i)
+                    {
+                        taken.add(bufferPool.takeBytes(8));
+                    }
+                    for (final byte[] bytes : taken)
+                    {
+                        bufferPool.returnBytes(bytes);
+                    }
+                    test.assertEqual(3, bufferPool.getReturnCount());
+
+                    for (int i = 0; i < 3; ++i)
+                    {
+                        bufferPool.takeBytes(8);
+                    }
+                    test.assertEqual(2, bufferPool.getHitCount());
+                });
+
+                runner.test("twice with leak detection", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2).setLeakDetection(true);
+                    final byte[] bytes = bufferPool.takeBytes(8);
+                    test.assertEqual(1, bufferPool.getOutstandingCount());
+                    bufferPool.returnBytes(bytes);
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+
+                    test.assertThrows(() -> bufferPool.returnBytes(bytes),
+                        new PreConditionFailure("this.isOutstanding(buffer) cannot be false."));
+                });
+
+                runner.test("that wasn't taken from the pool with leak detection", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2).setLeakDetection(true);
+                    test.assertThrows(() -> bufferPool.returnBytes(new byte[8]),
+                        new PreConditionFailure("this.isOutstanding(buffer) cannot be false."));
+                });
+            });
+
+            runner.testGroup("takeDirectBuffer(int)", () ->
+            {
+                runner.test("with -1", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create().takeDirectBuffer(-1),
+                        new PreConditionFailure("minimumCapacity (-1) must be greater than or equal to 0."));
+                });
+
+                runner.test("with empty pool", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final java.nio.ByteBuffer buffer = bufferPool.takeDirectBuffer(10);
+                    test.assertTrue(buffer.isDirect());
+                    test.assertEqual(16, buffer.capacity());
+                    test.assertEqual(0, buffer.position());
+                    test.assertEqual(16, buffer.limit());
+                });
+
+                runner.test("after a buffer of the same size class was returned", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    final java.nio.ByteBuffer buffer = bufferPool.takeDirectBuffer(10);
+                    buffer.put((byte)1).flip();
+                    bufferPool.returnDirectBuffer(buffer);
+
+                    test.assertSame(buffer, bufferPool.takeDirectBuffer(9));
+                    test.assertEqual(0, buffer.position());
+                    test.assertEqual(16, buffer.limit());
+                    test.assertEqual(1, bufferPool.getHitCount());
+                });
+
+                runner.test("doesn't share buffers with takeBytes(int)", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    bufferPool.returnBytes(bufferPool.takeBytes(8));
+                    test.assertTrue(bufferPool.takeDirectBuffer(8).isDirect());
+                    test.assertEqual(0, bufferPool.getHitCount());
+                });
+            });
+
+            runner.testGroup("returnDirectBuffer(java.nio.ByteBuffer)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create().returnDirectBuffer(null),
+                        new PreConditionFailure("buffer cannot be null."));
+                });
+
+                runner.test("with heap buffer", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferPool.create().returnDirectBuffer(java.nio.ByteBuffer.allocate(8)),
+                        new PreConditionFailure("buffer.isDirect() cannot be false."));
+                });
+            });
+
+            runner.testGroup("getLeakCount()", () ->
+            {
+                runner.test("with no leaks", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2).setLeakDetection(true);
+                    bufferPool.returnBytes(bufferPool.takeBytes(8));
+                    bufferPool.returnDirectBuffer(bufferPool.takeDirectBuffer(8));
+                    test.assertEqual(0, bufferPool.getLeakCount());
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+                    test.assertFalse(bufferPool.getLeakTraces().any());
+                });
+
+                runner.test("with a buffer that is never returned", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2).setLeakDetection(true);
+                    final Value<byte[]> bytes = Value.create(bufferPool.takeBytes(20));
+                    test.assertEqual(1, bufferPool.getOutstandingCount());
+                    bytes.clear();
+
+                    for (int i = 0; i < 100 && bufferPool.getLeakCount() == 0; ++i)
+                    {
+                        java.lang.System.gc();
+                        CurrentThread.sleep(Duration.milliseconds(10)).await();
+                    }
+                    test.assertEqual(1, bufferPool.getLeakCount());
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+
+                    final Throwable leakTrace = bufferPool.getLeakTraces().first().await();
+                    test.assertEqual("Buffer of 32 bytes taken from a BufferPool and never returned.", leakTrace.getMessage());
+                });
+
+                runner.test("without leak detection", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(8, 64, 2);
+                    bufferPool.takeBytes(20);
+                    java.lang.System.gc();
+                    test.assertEqual(0, bufferPool.getLeakCount());
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+                });
+            });
+        });
+    }
+}
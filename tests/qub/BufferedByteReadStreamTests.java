@@ -179,6 +179,196 @@ public interface BufferedByteReadStreamTests
                     test.assertEqual(false, byteReadStream.getGrowOnNextBufferFill());
                 });
             });
+
+            runner.testGroup("readByteAsInt()", () ->
+            {
+                runner.test("when disposed", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 0, 1, 2 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 1);
+                    test.assertTrue(byteReadStream.dispose().await());
+                    test.assertThrows(byteReadStream::readByteAsInt,
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("when empty", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create().endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 1);
+                    test.assertEqual(-1, byteReadStream.readByteAsInt());
+                    test.assertEqual(-1, byteReadStream.readByteAsInt());
+                });
+
+                runner.test("when buffer size is smaller than inner stream byte count", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 0, 1, 2, -3 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 1, 10);
+
+                    test.assertEqual(0, byteReadStream.readByteAsInt());
+                    test.assertEqual(1, byteReadStream.getBufferedByteCount());
+                    test.assertEqual(1, byteReadStream.getBufferSize());
+                    test.assertEqual(true, byteReadStream.getGrowOnNextBufferFill());
+
+                    test.assertEqual(1, byteReadStream.readByteAsInt());
+                    test.assertEqual(2, byteReadStream.getBufferedByteCount());
+                    test.assertEqual(2, byteReadStream.getBufferSize());
+
+                    test.assertEqual(2, byteReadStream.readByteAsInt());
+                    test.assertEqual(1, byteReadStream.getBufferedByteCount());
+
+                    test.assertEqual(253, byteReadStream.readByteAsInt());
+                    test.assertEqual(1, byteReadStream.getBufferedByteCount());
+                    test.assertEqual(4, byteReadStream.getBufferSize());
+                    test.assertEqual(false, byteReadStream.getGrowOnNextBufferFill());
+
+                    test.assertEqual(-1, byteReadStream.readByteAsInt());
+                    test.assertEqual(0, byteReadStream.getBufferedByteCount());
+                    test.assertEqual(0, byteReadStream.getBufferSize());
+                    test.assertEqual(false, byteReadStream.getGrowOnNextBufferFill());
+                });
+
+                runner.test("when error occurs", (Test test) ->
+                {
+                    final ByteReadStream innerStream = FakeByteReadStream.create(() -> Result.error(new Exception("BLAH")));
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 123);
+
+                    test.assertThrows(byteReadStream::readByteAsInt,
+                        new RuntimeException(new Exception("BLAH")));
+                    test.assertEqual(0, byteReadStream.getBufferedByteCount());
+                    test.assertEqual(123, byteReadStream.getBufferSize());
+                });
+
+                final int byteCount = 1000000;
+                runner.speedTest("with " + byteCount + " bytes", Duration.milliseconds(100), (Test test) ->
+                {
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(InputStreamToByteReadStream.create(new java.io.ByteArrayInputStream(new byte[byteCount])));
+
+                    int bytesRead = 0;
+                    while (byteReadStream.readByteAsInt() != -1)
+                    {
+                        ++bytesRead;
+                    }
+                    test.assertEqual(byteCount, bytesRead);
+                });
+            });
+
+            runner.testGroup("readBytesInto(byte[],int,int)", () ->
+            {
+                runner.test("when disposed", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 0, 1, 2 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 1);
+                    test.assertTrue(byteReadStream.dispose().await());
+                    test.assertThrows(() -> byteReadStream.readBytesInto(new byte[3], 0, 3),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("with null outputBytes", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 0, 1, 2 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 1);
+                    test.assertThrows(() -> byteReadStream.readBytesInto(null, 0, 0),
+                        new PreConditionFailure("outputBytes cannot be null."));
+                });
+
+                runner.test("with empty outputBytes", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 0, 1, 2 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 1);
+                    test.assertEqual(0, byteReadStream.readBytesInto(new byte[0], 0, 0));
+                    test.assertEqual(0, byteReadStream.readByteAsInt());
+                });
+
+                runner.test("when empty", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create().endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 2);
+                    test.assertEqual(-1, byteReadStream.readBytesInto(new byte[1], 0, 1));
+                    test.assertEqual(-1, byteReadStream.readBytesInto(new byte[5], 0, 5));
+                });
+
+                runner.test("with length smaller than the buffer", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 1, 2, 3, 4, 5 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 4);
+                    final byte[] outputBytes = new byte[3];
+
+                    test.assertEqual(3, byteReadStream.readBytesInto(outputBytes, 0, 3));
+                    test.assertEqual(new byte[] { 1, 2, 3 }, outputBytes);
+                    test.assertEqual(2, byteReadStream.getBufferedByteCount());
+
+                    test.assertEqual(1, byteReadStream.readBytesInto(outputBytes, 0, 3));
+                    test.assertEqual(new byte[] { 4, 2, 3 }, outputBytes);
+
+                    test.assertEqual(1, byteReadStream.readBytesInto(outputBytes, 1, 2));
+                    test.assertEqual(new byte[] { 4, 5, 3 }, outputBytes);
+
+                    test.assertEqual(-1, byteReadStream.readBytesInto(outputBytes, 0, 3));
+                    test.assertEqual(0, byteReadStream.getBufferSize());
+                });
+
+                runner.test("with length larger than the buffer", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 1, 2, 3, 4, 5 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 2);
+                    final byte[] outputBytes = new byte[4];
+
+                    test.assertEqual(4, byteReadStream.readBytesInto(outputBytes, 0, 4));
+                    test.assertEqual(new byte[] { 1, 2, 3, 4 }, outputBytes);
+                    test.assertEqual(0, byteReadStream.getBufferedByteCount());
+
+                    test.assertEqual(5, byteReadStream.readByteAsInt());
+                    test.assertEqual(-1, byteReadStream.readBytesInto(outputBytes, 0, 4));
+                });
+            });
+
+            runner.testGroup("create(ByteReadStream,int,int,BufferPool)", () ->
+            {
+                runner.test("with null bufferPool", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferedByteReadStream.create(InMemoryByteStream.create(), 2, 4, null),
+                        new PreConditionFailure("bufferPool cannot be null."));
+                });
+
+                runner.test("gives its buffers back to the pool", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(2, 16, 4).setLeakDetection(true);
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 1, 2, 3, 4, 5, 6, 7 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 3, 8, bufferPool);
+                    test.assertSame(bufferPool, byteReadStream.getBufferPool());
+                    test.assertEqual(3, byteReadStream.getBufferSize());
+                    test.assertEqual(1, bufferPool.getOutstandingCount());
+
+                    final byte[] outputBytes = new byte[2];
+                    test.assertEqual(2, byteReadStream.readBytesInto(outputBytes, 0, 2));
+                    test.assertEqual(1, byteReadStream.readBytesInto(outputBytes, 0, 2));
+                    test.assertEqual(2, byteReadStream.readBytesInto(outputBytes, 0, 2));
+                    test.assertEqual(6, byteReadStream.getBufferSize());
+                    test.assertEqual(2, bufferPool.getTakeCount());
+                    test.assertEqual(1, bufferPool.getOutstandingCount());
+
+                    test.assertTrue(byteReadStream.dispose().await());
+                    test.assertEqual(0, byteReadStream.getBufferSize());
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+                    test.assertEqual(2, bufferPool.getReturnCount());
+
+                    final BufferedByteReadStream byteReadStream2 = BufferedByteReadStream.create(InMemoryByteStream.create(), 3, 8, bufferPool);
+                    test.assertEqual(3, bufferPool.getTakeCount());
+                    test.assertEqual(1, bufferPool.getHitCount());
+                    test.assertTrue(byteReadStream2.dispose().await());
+                });
+
+                runner.test("gives its buffer back to the pool at the end of the stream", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(2, 16, 4).setLeakDetection(true);
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create(new byte[] { 1, 2 }).endOfStream();
+                    final BufferedByteReadStream byteReadStream = BufferedByteReadStream.create(innerStream, 4, 4, bufferPool);
+                    test.assertEqual(new byte[] { 1, 2 }, byteReadStream.readAllBytes().await());
+                    test.assertEqual(0, byteReadStream.getBufferSize());
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+                    test.assertEqual(1, bufferPool.getReturnCount());
+                });
+            });
         });
     }
 }
@@ -238,6 +238,45 @@ public interface BufferedByteWriteStreamTests
                 });
             });
 
+            runner.testGroup("write(java.nio.ByteBuffer[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final BufferedByteWriteStream byteWriteStream = BufferedByteWriteStream.create(InMemoryByteStream.create(), 5);
+                    test.assertThrows(() -> byteWriteStream.write((java.nio.ByteBuffer[])null),
+                        new PreConditionFailure("toWrite cannot be null."));
+                });
+
+                runner.test("with bytes that fit in the buffer", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create();
+                    final BufferedByteWriteStream byteWriteStream = BufferedByteWriteStream.create(innerStream, 5);
+                    test.assertEqual(4, byteWriteStream.write(new byte[][] { new byte[] { 1, 2 }, new byte[] { 3, 4 } }).await());
+                    test.assertEqual(4, byteWriteStream.getBufferByteCount());
+                    test.assertEqual(new byte[0], innerStream.getBytes());
+                });
+
+                runner.test("with bytes that fill the buffer", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create();
+                    final BufferedByteWriteStream byteWriteStream = BufferedByteWriteStream.create(innerStream, 5);
+                    test.assertEqual(1, byteWriteStream.write((byte)1).await());
+                    test.assertEqual(4, byteWriteStream.write(new byte[][] { new byte[] { 2, 3 }, new byte[] { 4, 5 } }).await());
+                    test.assertEqual(0, byteWriteStream.getBufferByteCount());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5 }, innerStream.getBytes());
+                });
+
+                runner.test("with more bytes than fit in the buffer", (Test test) ->
+                {
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create();
+                    final BufferedByteWriteStream byteWriteStream = BufferedByteWriteStream.create(innerStream, 5);
+                    test.assertEqual(1, byteWriteStream.write((byte)1).await());
+                    test.assertEqual(6, byteWriteStream.write(new byte[][] { new byte[] { 2, 3, 4 }, new byte[] { 5, 6, 7 } }).await());
+                    test.assertEqual(0, byteWriteStream.getBufferByteCount());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, innerStream.getBytes());
+                });
+            });
+
             runner.testGroup("dispose()", () ->
             {
                 runner.test("with no bytes to write", (Test test) ->
@@ -276,6 +315,38 @@ public interface BufferedByteWriteStreamTests
                     test.assertEqual(new byte[] { 1, 2, 3 }, innerStream.getBytes());
                 });
             });
+
+            runner.testGroup("create(ByteWriteStream,int,int,BufferPool)", () ->
+            {
+                runner.test("with null bufferPool", (Test test) ->
+                {
+                    test.assertThrows(() -> BufferedByteWriteStream.create(InMemoryByteStream.create(), 2, 4, null),
+                        new PreConditionFailure("bufferPool cannot be null."));
+                });
+
+                runner.test("gives its buffers back to the pool", (Test test) ->
+                {
+                    final BufferPool bufferPool = BufferPool.create(2, 16, 4).setLeakDetection(true);
+                    final InMemoryByteStream innerStream = InMemoryByteStream.create();
+                    final BufferedByteWriteStream byteWriteStream = BufferedByteWriteStream.create(innerStream, 3, 8, bufferPool);
+                    test.assertSame(bufferPool, byteWriteStream.getBufferPool());
+                    test.assertEqual(3, byteWriteStream.getBufferCapacity());
+                    test.assertEqual(1, bufferPool.getOutstandingCount());
+
+                    test.assertEqual(3, byteWriteStream.write(new byte[] { 1, 2, 3, 4 }).await());
+                    test.assertEqual(6, byteWriteStream.getBufferCapacity());
+                    test.assertEqual(4, byteWriteStream.write(new byte[] { 4, 5, 6, 7 }).await());
+                    test.assertEqual(4, byteWriteStream.getBufferByteCount());
+                    test.assertEqual(2, bufferPool.getTakeCount());
+                    test.assertEqual(1, bufferPool.getOutstandingCount());
+
+                    test.assertTrue(byteWriteStream.dispose().await());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5, 6, 7 }, innerStream.getBytes());
+                    test.assertEqual(0, byteWriteStream.getBufferCapacity());
+                    test.assertEqual(0, bufferPool.getOutstandingCount());
+                    test.assertEqual(2, bufferPool.getReturnCount());
+                });
+            });
         });
     }
 }
@@ -21,6 +21,18 @@ public interface ClockTests
                 test.assertNotNull(currentDateTime);
             });
 
+            runner.test("getMonotonicNanoseconds()", (Test test) ->
+            {
+                final Clock clock = creator.run();
+                long previous = clock.getMonotonicNanoseconds();
+                for (int i = 0; i < 1000; ++i)
+                {
+                    final long current = clock.getMonotonicNanoseconds();
+                    test.assertGreaterThanOrEqualTo(current, previous);
+                    previous = current;
+                }
+            });
+
             runner.testGroup("scheduleAfter(Duration,Action0)", () ->
             {
                 final Action3<Duration,Action0,Throwable> scheduleAfterErrorTest = (Duration duration, Action0 action, Throwable expected) ->
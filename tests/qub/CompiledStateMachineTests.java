@@ -0,0 +1,243 @@
+package qub;
+
+public interface CompiledStateMachineTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(CompiledStateMachine.class, () ->
+        {
+            runner.testGroup("create(StateMachine)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> CompiledStateMachine.create(null),
+                        new PreConditionFailure("stateMachine cannot be null."));
+                });
+
+                runner.test("with no start states", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    stateMachine.createState("a");
+                    test.assertThrows(() -> CompiledStateMachine.create(stateMachine),
+                        new PreConditionFailure("stateMachine.getStartStates() cannot be empty."));
+                });
+
+                runner.test("with one start state", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    stateMachine.createState("a").setStartState(true);
+                    final CompiledStateMachine compiledStateMachine = CompiledStateMachine.create(stateMachine);
+                    test.assertEqual(2, compiledStateMachine.getCompiledStateCount());
+                });
+            });
+
+            runner.testGroup("isMatch(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CompiledStateMachine compiledStateMachine = createOneZerosStateMachine().compile();
+                    test.assertThrows(() -> compiledStateMachine.isMatch((String)null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                final Action2<String,Boolean> isMatchTest = (String input, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(input), (Test test) ->
+                    {
+                        final StateMachine stateMachine = createOneZerosStateMachine();
+                        final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                        test.assertEqual(expected, compiledStateMachine.isMatch(input));
+                        test.assertEqual(stateMachine.isMatch(input), compiledStateMachine.isMatch(input));
+                    });
+                };
+
+                isMatchTest.run("", false);
+                isMatchTest.run("1", true);
+                isMatchTest.run("10", true);
+                isMatchTest.run("100", true);
+                isMatchTest.run("11", false);
+                isMatchTest.run("1\u00E90", false);
+
+                runner.test("with instant next states", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    final State start = stateMachine.createState("start").setStartState(true);
+                    final State waitingForA = stateMachine.createState("waiting for a");
+                    final State waitingForB = stateMachine.createState("waiting for b");
+                    final State end = stateMachine.createState("end").setEndState(true);
+                    start.addInstantNextState(waitingForA);
+                    waitingForA.addInstantNextState(waitingForB);
+                    waitingForA.addNextState('a', end);
+                    waitingForB.addNextState('b', end);
+
+                    final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                    test.assertFalse(compiledStateMachine.isMatch(""));
+                    test.assertTrue(compiledStateMachine.isMatch("a"));
+                    test.assertTrue(compiledStateMachine.isMatch("b"));
+                    test.assertFalse(compiledStateMachine.isMatch("c"));
+                    test.assertFalse(compiledStateMachine.isMatch("ab"));
+                });
+
+                runner.test("with non-ASCII characters", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    final State start = stateMachine.createState("start").setStartState(true);
+                    final State end = stateMachine.createState("end").setEndState(true);
+                    start.addNextState('\u00E9', end);
+                    end.addNextState(Characters.all, end);
+
+                    final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                    test.assertTrue(compiledStateMachine.isMatch("\u00E9"));
+                    test.assertTrue(compiledStateMachine.isMatch("\u00E9\u4E2Da"));
+                    test.assertFalse(compiledStateMachine.isMatch("e"));
+                    test.assertFalse(compiledStateMachine.isMatch("\u00E8"));
+                });
+
+                runner.test("with many different non-ASCII characters", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    final State start = stateMachine.createState("start").setStartState(true);
+                    final State end = stateMachine.createState("end").setEndState(true);
+                    start.addNextState(Characters.all, end);
+
+                    final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                    for (int i = 0; i < 200; ++i)
+                    {
+                        // Visit the characters out of order so that the cached transitions have to
+                        // be inserted in the middle of the sorted array.
+                        final char character = (char)(0x4E00 + ((i * 37) % 200));
+                        test.assertTrue(compiledStateMachine.isMatch(String.valueOf(character)));
+                        test.assertFalse(compiledStateMachine.isMatch(String.valueOf(character) + character));
+                    }
+                    for (int i = 0; i < 200; ++i)
+                    {
+                        test.assertTrue(compiledStateMachine.isMatch(String.valueOf((char)(0x4E00 + i))));
+                    }
+                    test.assertEqual(3, compiledStateMachine.getCompiledStateCount());
+                });
+
+                runner.test("from multiple threads", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    final State start = stateMachine.createState("start").setStartState(true);
+                    final State end = stateMachine.createState("end").setEndState(true);
+                    start.addNextState('\u00E9', end);
+                    end.addNextState(Characters.all, end);
+
+                    final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                    TestThreads.run(4, (Integer threadIndex) ->
+                    {
+                        for (int i = 0; i < 1000; ++i)
+                        {
+                            final String suffix = String.valueOf((char)(0x4E00 + (i % 500))) + (char)('a' + (i % 26));
+                            test.assertTrue(compiledStateMachine.isMatch("\u00E9" + suffix));
+                            test.assertFalse(compiledStateMachine.isMatch("e" + suffix));
+                        }
+                    });
+                    test.assertEqual(3, compiledStateMachine.getCompiledStateCount());
+                });
+
+                runner.test("only compiles the states that are visited", (Test test) ->
+                {
+                    final CompiledStateMachine compiledStateMachine = createOneZerosStateMachine().compile();
+                    test.assertEqual(2, compiledStateMachine.getCompiledStateCount());
+
+                    test.assertFalse(compiledStateMachine.isMatch("0"));
+                    test.assertEqual(2, compiledStateMachine.getCompiledStateCount());
+
+                    test.assertTrue(compiledStateMachine.isMatch("100"));
+                    test.assertEqual(3, compiledStateMachine.getCompiledStateCount());
+
+                    test.assertTrue(compiledStateMachine.isMatch("10"));
+                    test.assertEqual(3, compiledStateMachine.getCompiledStateCount());
+                });
+
+                runner.test("after the StateMachine is changed", (Test test) ->
+                {
+                    final StateMachine stateMachine = createOneZerosStateMachine();
+                    final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                    stateMachine.getStartStates().first().await().addNextState('2', stateMachine.getStartStates().first().await());
+
+                    test.assertTrue(stateMachine.isMatch("21"));
+                    test.assertFalse(compiledStateMachine.isMatch("21"));
+                });
+            });
+
+            runner.testGroup("isPrefixMatch(String)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CompiledStateMachine compiledStateMachine = createOneZerosStateMachine().compile();
+                    test.assertThrows(() -> compiledStateMachine.isPrefixMatch(null),
+                        new PreConditionFailure("value cannot be null."));
+                });
+
+                final Action2<String,Boolean> isPrefixMatchTest = (String input, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(input), (Test test) ->
+                    {
+                        final CompiledStateMachine compiledStateMachine = createOneZerosStateMachine().compile();
+                        test.assertEqual(expected, compiledStateMachine.isPrefixMatch(input));
+                    });
+                };
+
+                isPrefixMatchTest.run("", true);
+                isPrefixMatchTest.run("1", true);
+                isPrefixMatchTest.run("100", true);
+                isPrefixMatchTest.run("0", false);
+                isPrefixMatchTest.run("11", false);
+
+                runner.test("with a state that can't reach an end state", (Test test) ->
+                {
+                    final StateMachine stateMachine = new StateMachine();
+                    final State start = stateMachine.createState("start").setStartState(true);
+                    final State end = stateMachine.createState("end").setEndState(true);
+                    final State trap = stateMachine.createState("trap");
+                    start.addNextState('a', end);
+                    start.addNextState('b', trap);
+                    trap.addNextState(Characters.all, trap);
+
+                    final CompiledStateMachine compiledStateMachine = stateMachine.compile();
+                    test.assertTrue(compiledStateMachine.isPrefixMatch("a"));
+                    test.assertFalse(compiledStateMachine.isPrefixMatch("b"));
+                    test.assertFalse(compiledStateMachine.isPrefixMatch("bbbb"));
+                    test.assertFalse(compiledStateMachine.isMatch("bbbb"));
+                });
+            });
+
+            runner.testGroup("isMatch(Iterator<Character>)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final CompiledStateMachine compiledStateMachine = createOneZerosStateMachine().compile();
+                    test.assertThrows(() -> compiledStateMachine.isMatch((Iterator<Character>)null),
+                        new PreConditionFailure("values cannot be null."));
+                });
+
+                final Action2<String,Boolean> isMatchTest = (String input, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(input), (Test test) ->
+                    {
+                        final CompiledStateMachine compiledStateMachine = createOneZerosStateMachine().compile();
+                        test.assertEqual(expected, compiledStateMachine.isMatch(Strings.iterate(input)));
+                    });
+                };
+
+                isMatchTest.run("", false);
+                isMatchTest.run("1", true);
+                isMatchTest.run("100", true);
+                isMatchTest.run("11", false);
+            });
+        });
+    }
+
+    static StateMachine createOneZerosStateMachine()
+    {
+        final StateMachine stateMachine = new StateMachine();
+        final State a = stateMachine.createState("a").setStartState(true);
+        final State b = stateMachine.createState("b").setEndState(true);
+        a.addNextState('1', b);
+        b.addNextState('0', b);
+        return stateMachine;
+    }
+}
@@ -0,0 +1,309 @@
+package qub;
+
+public interface ConcurrentHashMapTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ConcurrentHashMap.class, () ->
+        {
+            MutableMapTests.test(runner, ConcurrentHashMap::create, true, true);
+
+            runner.testGroup("createWithCapacity(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> ConcurrentHashMap.createWithCapacity(0),
+                        new PreConditionFailure("initialCapacity (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1000", (Test test) ->
+                {
+                    final ConcurrentHashMap<Integer,Integer> map = ConcurrentHashMap.createWithCapacity(1000);
+                    test.assertEqual(0, map.getCount());
+                    test.assertFalse(map.any());
+                });
+            });
+
+            runner.testGroup("set(TKey,TValue)", () ->
+            {
+                runner.test("with enough keys to grow the table", (Test test) ->
+                {
+                    final ConcurrentHashMap<Integer,Integer> map = ConcurrentHashMap.create();
+                    for (int i = 0; i < 10000; ++i)
+                    {
+                        map.set(i, i * 2);
+                    }
+                    test.assertEqual(10000, map.getCount());
+                    for (int i = 0; i < 10000; ++i)
+                    {
+                        test.assertEqual(i * 2, map.get(i).await());
+                    }
+                    test.assertEqual(10000, map.iterate().getCount());
+                });
+
+                runner.test("with multiple threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ConcurrentHashMap<Integer,Integer> map = ConcurrentHashMap.create();
+                    final int taskCount = 8;
+                    final int keysPerTask = 1000;
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < taskCount; ++i)
+                    {
+                        final int taskIndex = i;
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            for (int j = 0; j < keysPerTask; ++j)
+                            {
+                                final int key = taskIndex * keysPerTask + j;
+                                map.set(key, key);
+                            }
+                        }));
+                    }
+                    Result.await(tasks);
+                    test.assertEqual(taskCount * keysPerTask, map.getCount());
+                    for (int i = 0; i < taskCount * keysPerTask; ++i)
+                    {
+                        test.assertEqual(i, map.get(i).await());
+                    }
+                });
+            });
+
+            runner.testGroup("remove(TKey)", () ->
+            {
+                runner.test("with keys in the same bin", (Test test) ->
+                {
+                    final ConcurrentHashMap<Integer,Integer> map = ConcurrentHashMap.create();
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        map.set(i, i);
+                    }
+                    for (int i = 0; i < 100; i += 2)
+                    {
+                        test.assertEqual(i, map.remove(i).await());
+                    }
+                    test.assertEqual(50, map.getCount());
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        test.assertEqual(Math.isOdd(i), map.containsKey(i));
+                    }
+                });
+            });
+
+            runner.testGroup("getOrDefault(TKey,TValue)", () ->
+            {
+                runner.test("with missing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertEqual(5, map.getOrDefault("a", 5));
+                    test.assertNull(map.getOrDefault("a", null));
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    map.set("a", 1);
+                    test.assertEqual(1, map.getOrDefault("a", 5));
+                });
+
+                runner.test("with existing key with null value", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    map.set("a", null);
+                    test.assertNull(map.getOrDefault("a", 5));
+                });
+
+                runner.test("with null key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertEqual(5, map.getOrDefault(null, 5));
+                    map.set(null, 2);
+                    test.assertEqual(2, map.getOrDefault(null, 5));
+                });
+            });
+
+            runner.testGroup("getOrSet(TKey,Function0<TValue>)", () ->
+            {
+                runner.test("with null valueCreator", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertThrows(() -> map.getOrSet("a", null),
+                        new PreConditionFailure("valueCreator cannot be null."));
+                });
+
+                runner.test("with missing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertEqual(3, map.getOrSet("a", () -> 3).await());
+                    test.assertEqual(3, map.get("a").await());
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    map.set("a", 1);
+                    test.assertEqual(1, map.getOrSet("a", () -> { throw new RuntimeException("Shouldn't be called."); }).await());
+                });
+
+                runner.test("with valueCreator that throws", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertThrows(() -> map.getOrSet("a", () -> { throw new RuntimeException("oops"); }).await(),
+                        new RuntimeException("oops"));
+                    test.assertFalse(map.containsKey("a"));
+                    test.assertEqual(4, map.getOrSet("a", () -> 4).await());
+                });
+
+                runner.test("with multiple threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ConcurrentHashMap<Integer,IntegerValue> map = ConcurrentHashMap.create();
+                    final java.util.concurrent.atomic.AtomicInteger createCount = new java.util.concurrent.atomic.AtomicInteger();
+                    final int keyCount = 10;
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        final int key = i % keyCount;
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            map.getOrSet(key, () ->
+                            {
+                                createCount.incrementAndGet();
+                                return Value.create(key);
+                            }).await();
+                        }));
+                    }
+                    Result.await(tasks);
+                    test.assertEqual(keyCount, createCount.get());
+                    test.assertEqual(keyCount, map.getCount());
+                });
+            });
+
+            runner.testGroup("update(TKey,Function1<TValue,TValue>)", () ->
+            {
+                runner.test("with null valueUpdater", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertThrows(() -> map.update("a", null),
+                        new PreConditionFailure("valueUpdater cannot be null."));
+                });
+
+                runner.test("with missing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertThrows(() -> map.update("a", (Integer value) -> value + 1).await(),
+                        new NotFoundException("Could not find the provided key (a) in this Map."));
+                    test.assertFalse(map.containsKey("a"));
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    map.set("a", 1);
+                    test.assertEqual(2, map.update("a", (Integer value) -> value + 1).await());
+                    test.assertEqual(2, map.get("a").await());
+                });
+            });
+
+            runner.testGroup("compute(TKey,Function0<TValue>,Function1<TValue,TValue>)", () ->
+            {
+                runner.test("with null valueCreator", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertThrows(() -> map.compute("a", null, (Integer value) -> value + 1),
+                        new PreConditionFailure("valueCreator cannot be null."));
+                });
+
+                runner.test("with null valueUpdater", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertThrows(() -> map.compute("a", () -> 1, null),
+                        new PreConditionFailure("valueUpdater cannot be null."));
+                });
+
+                runner.test("with missing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    test.assertEqual(1, map.compute("a", () -> 1, (Integer value) -> value + 1).await());
+                    test.assertEqual(1, map.get("a").await());
+                });
+
+                runner.test("with existing key", (Test test) ->
+                {
+                    final ConcurrentHashMap<String,Integer> map = ConcurrentHashMap.create();
+                    map.set("a", 5);
+                    test.assertEqual(6, map.compute("a", () -> 1, (Integer value) -> value + 1).await());
+                    test.assertEqual(6, map.get("a").await());
+                });
+
+                runner.test("with multiple threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ConcurrentHashMap<Integer,Integer> map = ConcurrentHashMap.create();
+                    final int keyCount = 50;
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < 8; ++i)
+                    {
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            for (int j = 0; j < 1000; ++j)
+                            {
+                                map.compute(j % keyCount, () -> 1, (Integer value) -> value + 1).await();
+                            }
+                        }));
+                    }
+                    Result.await(tasks);
+                    test.assertEqual(keyCount, map.getCount());
+                    for (int i = 0; i < keyCount; ++i)
+                    {
+                        test.assertEqual(8 * 1000 / keyCount, map.get(i).await());
+                    }
+                });
+            });
+
+            runner.testGroup("multi-threaded throughput speed tests", () ->
+            {
+                final int threadCount = 4;
+                final int operationsPerThread = 100000;
+                final int keyCount = 1000;
+                final Action2<String,Function0<MutableMap<Integer,Integer>>> throughputSpeedTest = (String mapName, Function0<MutableMap<Integer,Integer>> mapCreator) ->
+                {
+                    runner.speedTest("with " + mapName + ", " + threadCount + " threads, and " + operationsPerThread + " operations per thread",
+                        Duration.seconds(2),
+                        (Test test) ->
+                    {
+                        final MutableMap<Integer,Integer> map = mapCreator.run();
+                        for (int i = 0; i < keyCount; ++i)
+                        {
+                            map.set(i, i);
+                        }
+
+                        TestThreads.run(threadCount, (Integer threadIndex) ->
+                        {
+                            for (int j = 0; j < operationsPerThread; ++j)
+                            {
+                                final int key = (threadIndex * operationsPerThread + j) % keyCount;
+                                if (j % 10 == 0)
+                                {
+                                    map.set(key, j);
+                                }
+                                else
+                                {
+                                    map.containsKey(key);
+                                    map.get(key).await();
+                                }
+                            }
+                        });
+                        test.assertEqual(keyCount, map.getCount());
+                    });
+                };
+
+                throughputSpeedTest.run(Types.getTypeName(JavaConcurrentHashMap.class), JavaConcurrentHashMap::create);
+                throughputSpeedTest.run(Types.getTypeName(ConcurrentHashMap.class), ConcurrentHashMap::create);
+            });
+        });
+    }
+}
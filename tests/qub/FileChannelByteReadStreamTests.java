@@ -0,0 +1,226 @@
+package qub;
+
+public interface FileChannelByteReadStreamTests
+{
+    static void test(TestRunner runner)
+    {
+        final Path tempFolderPath = Path.parse(System.getProperty("java.io.tmpdir")).concatenateSegments("qub-tests").concatenateSegments("FileChannelByteReadStream");
+        final IntegerValue testNumber = IntegerValue.create(0);
+        final Value<Path> testFilePath = Value.create();
+
+        runner.afterTest((Test test) ->
+        {
+            if (testFilePath.hasValue())
+            {
+                JavaFileSystem.create().deleteFile(testFilePath.get()).catchError().await();
+                testFilePath.clear();
+            }
+        });
+
+        final Function2<Integer,Boolean,FileChannelByteReadStream> createReadStream = (Integer byteCount, Boolean memoryMap) ->
+        {
+            final byte[] bytes = new byte[byteCount];
+            for (int i = 0; i < byteCount; ++i)
+            {
+                bytes[i] = (byte)i;
+            }
+            final JavaFileSystem fileSystem = JavaFileSystem.create();
+            testFilePath.set(tempFolderPath.concatenateSegments(testNumber.increment().toString() + ".bin"));
+            fileSystem.setFileContents(testFilePath.get(), bytes).await();
+            try
+            {
+                final java.nio.channels.FileChannel fileChannel = java.nio.channels.FileChannel.open(java.nio.file.Paths.get(testFilePath.get().toString()));
+                return memoryMap
+                    ? FileChannelByteReadStream.createMemoryMapped(fileChannel)
+                    : FileChannelByteReadStream.create(fileChannel);
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        };
+
+        runner.testGroup(FileChannelByteReadStream.class, () ->
+        {
+            runner.testGroup("create(java.nio.channels.FileChannel)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> FileChannelByteReadStream.create(null),
+                        new PreConditionFailure("fileChannel cannot be null."));
+                });
+            });
+
+            runner.testGroup("createMemoryMapped(java.nio.channels.FileChannel)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> FileChannelByteReadStream.createMemoryMapped(null),
+                        new PreConditionFailure("fileChannel cannot be null."));
+                });
+            });
+
+            final Action1<Boolean> readStreamTests = (Boolean memoryMap) ->
+            {
+                runner.testGroup(memoryMap ? "when memory-mapped" : "when not memory-mapped", () ->
+                {
+                    runner.test("isMemoryMapped()", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(5, memoryMap))
+                        {
+                            test.assertEqual(memoryMap, readStream.isMemoryMapped());
+                            test.assertEqual(5, readStream.getSize());
+                            test.assertEqual(0, readStream.getPosition());
+                        }
+                    });
+
+                    runner.test("dispose()", (Test test) ->
+                    {
+                        final FileChannelByteReadStream readStream = createReadStream.run(5, memoryMap);
+                        test.assertTrue(readStream.dispose().await());
+                        test.assertTrue(readStream.isDisposed());
+                        test.assertFalse(readStream.dispose().await());
+                        test.assertThrows(readStream::readByte,
+                            new PreConditionFailure("this.isDisposed() cannot be true."));
+                    });
+
+                    runner.test("readByte()", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(3, memoryMap))
+                        {
+                            test.assertEqual(0, readStream.readByte().await());
+                            test.assertEqual(1, readStream.readByte().await());
+                            test.assertEqual(2, readStream.readByte().await());
+                            test.assertEqual(3, readStream.getPosition());
+                            test.assertThrows(() -> readStream.readByte().await(),
+                                new EmptyException());
+                            test.assertEqual(-1, readStream.readByteAsInt());
+                        }
+                    });
+
+                    runner.test("readBytes(byte[],int,int)", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(10, memoryMap))
+                        {
+                            final byte[] bytes = new byte[8];
+                            test.assertEqual(3, readStream.readBytes(bytes, 1, 3).await());
+                            test.assertEqual(new byte[] { 0, 0, 1, 2, 0, 0, 0, 0 }, bytes);
+                            test.assertEqual(3, readStream.getPosition());
+                            test.assertEqual(7, readStream.readBytesInto(bytes, 0, 8));
+                            test.assertEqual(new byte[] { 3, 4, 5, 6, 7, 8, 9, 0 }, bytes);
+                            test.assertThrows(() -> readStream.readBytes(bytes, 0, 8).await(),
+                                new EmptyException());
+                            test.assertEqual(-1, readStream.readBytesInto(bytes, 0, 8));
+                        }
+                    });
+
+                    runner.test("readBytes(byte[],int,int) with more bytes than the buffer", (Test test) ->
+                    {
+                        final int byteCount = 20000;
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(byteCount, memoryMap))
+                        {
+                            test.assertEqual(0, readStream.readByte().await());
+                            final byte[] bytes = new byte[byteCount];
+                            int bytesRead = 0;
+                            while (bytesRead < byteCount - 1)
+                            {
+                                bytesRead += readStream.readBytes(bytes, bytesRead, byteCount - bytesRead).await();
+                            }
+                            test.assertEqual(byteCount - 1, bytesRead);
+                            test.assertEqual((byte)1, bytes[0]);
+                            test.assertEqual((byte)(byteCount - 1), bytes[byteCount - 2]);
+                            test.assertEqual(byteCount, readStream.getPosition());
+                        }
+                    });
+
+                    runner.test("readBytesAt(long,byte[],int,int)", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(10, memoryMap))
+                        {
+                            readStream.readByte().await();
+                            final byte[] bytes = new byte[4];
+                            test.assertEqual(4, readStream.readBytesAt(5, bytes, 0, 4).await());
+                            test.assertEqual(new byte[] { 5, 6, 7, 8 }, bytes);
+                            test.assertEqual(2, readStream.readBytesAt(8, bytes, 0, 4).await());
+                            test.assertEqual(new byte[] { 8, 9, 7, 8 }, bytes);
+                            test.assertThrows(() -> readStream.readBytesAt(10, bytes, 0, 4).await(),
+                                new EmptyException());
+                            test.assertEqual(1, readStream.getPosition());
+                            test.assertEqual(1, readStream.readByte().await());
+                        }
+                    });
+
+                    runner.test("setPosition(long)", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(10, memoryMap))
+                        {
+                            test.assertEqual(0, readStream.readByte().await());
+                            test.assertSame(readStream, readStream.setPosition(7));
+                            test.assertEqual(7, readStream.getPosition());
+                            test.assertEqual(7, readStream.readByte().await());
+                            test.assertEqual(0, readStream.setPosition(0).readByte().await());
+                            test.assertThrows(() -> readStream.setPosition(11),
+                                new PreConditionFailure("position (11) must be between 0 and 10."));
+                        }
+                    });
+
+                    runner.test("readAllBytes()", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(20000, memoryMap))
+                        {
+                            test.assertEqual(0, readStream.readByte().await());
+                            final byte[] bytes = readStream.readAllBytes().await();
+                            test.assertEqual(19999, bytes.length);
+                            test.assertEqual((byte)1, bytes[0]);
+                            test.assertEqual(0, readStream.readAllBytes().await().length);
+                        }
+                    });
+
+                    if (!memoryMap)
+                    {
+                        // Truncating a memory-mapped file makes reads of the mapping fail, so
+                        // only the channel-backed stream is expected to handle a shrinking file.
+                        runner.test("readAllBytes() after the file shrinks", (Test test) ->
+                        {
+                            try (final FileChannelByteReadStream readStream = createReadStream.run(40000, memoryMap))
+                            {
+                                try (final java.nio.channels.FileChannel writeChannel = java.nio.channels.FileChannel.open(java.nio.file.Paths.get(testFilePath.get().toString()), java.nio.file.StandardOpenOption.WRITE))
+                                {
+                                    writeChannel.truncate(10000);
+                                }
+                                catch (java.io.IOException e)
+                                {
+                                    throw Exceptions.asRuntime(e);
+                                }
+
+                                final byte[] bytes = readStream.readAllBytes().await();
+                                test.assertEqual(10000, bytes.length);
+                                test.assertEqual((byte)9999, bytes[9999]);
+                                test.assertEqual(-1, readStream.readByteAsInt());
+                            }
+                        });
+                    }
+
+                    runner.test("getByteBuffer(long,int)", (Test test) ->
+                    {
+                        try (final FileChannelByteReadStream readStream = createReadStream.run(10, memoryMap))
+                        {
+                            final java.nio.ByteBuffer byteBuffer = readStream.getByteBuffer(2, 5).await();
+                            test.assertTrue(byteBuffer.isReadOnly());
+                            test.assertEqual(memoryMap, byteBuffer.isDirect());
+                            test.assertEqual(5, byteBuffer.remaining());
+                            test.assertEqual(2, byteBuffer.get(0));
+                            test.assertEqual(6, byteBuffer.get(4));
+                            test.assertEqual(0, readStream.getPosition());
+                            test.assertThrows(() -> readStream.getByteBuffer(8, 5),
+                                new PreConditionFailure("length (5) must be between 0 and 2."));
+                        }
+                    });
+                });
+            };
+
+            readStreamTests.run(false);
+            readStreamTests.run(true);
+        });
+    }
+}
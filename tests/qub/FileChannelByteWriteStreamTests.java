@@ -0,0 +1,168 @@
+package qub;
+
+public interface FileChannelByteWriteStreamTests
+{
+    static void test(TestRunner runner)
+    {
+        final Path tempFolderPath = Path.parse(System.getProperty("java.io.tmpdir")).concatenateSegments("qub-tests").concatenateSegments("FileChannelByteWriteStream");
+        final IntegerValue testNumber = IntegerValue.create(0);
+        final Value<Path> testFilePath = Value.create();
+
+        runner.afterTest((Test test) ->
+        {
+            if (testFilePath.hasValue())
+            {
+                JavaFileSystem.create().deleteFile(testFilePath.get()).catchError().await();
+                testFilePath.clear();
+            }
+        });
+
+        final Function0<FileChannelByteWriteStream> createWriteStream = () ->
+        {
+            final JavaFileSystem fileSystem = JavaFileSystem.create();
+            testFilePath.set(tempFolderPath.concatenateSegments(testNumber.increment().toString() + ".bin"));
+            fileSystem.createFolder(tempFolderPath).catchError(FolderAlreadyExistsException.class).await();
+            try
+            {
+                final java.nio.channels.FileChannel fileChannel = java.nio.channels.FileChannel.open(java.nio.file.Paths.get(testFilePath.get().toString()),
+                    java.nio.file.StandardOpenOption.WRITE,
+                    java.nio.file.StandardOpenOption.CREATE,
+                    java.nio.file.StandardOpenOption.TRUNCATE_EXISTING);
+                return FileChannelByteWriteStream.create(fileChannel);
+            }
+            catch (java.io.IOException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+        };
+
+        final Function0<byte[]> getFileContents = () ->
+        {
+            return JavaFileSystem.create().getFileContent(testFilePath.get()).await();
+        };
+
+        runner.testGroup(FileChannelByteWriteStream.class, () ->
+        {
+            runner.testGroup("create(java.nio.channels.FileChannel)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> FileChannelByteWriteStream.create(null),
+                        new PreConditionFailure("fileChannel cannot be null."));
+                });
+            });
+
+            runner.testGroup("write(byte)", () ->
+            {
+                runner.test("when disposed", (Test test) ->
+                {
+                    final FileChannelByteWriteStream writeStream = createWriteStream.run();
+                    test.assertTrue(writeStream.dispose().await());
+                    test.assertThrows(() -> writeStream.write((byte)1),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("when not disposed", (Test test) ->
+                {
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        test.assertEqual(1, writeStream.write((byte)1).await());
+                        test.assertEqual(1, writeStream.write((byte)2).await());
+                    }
+                    test.assertEqual(new byte[] { 1, 2 }, getFileContents.run());
+                });
+            });
+
+            runner.testGroup("write(byte[],int,int)", () ->
+            {
+                runner.test("with null toWrite", (Test test) ->
+                {
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        test.assertThrows(() -> writeStream.write(null, 0, 0),
+                            new PreConditionFailure("toWrite cannot be null."));
+                    }
+                });
+
+                runner.test("with a subsection of toWrite", (Test test) ->
+                {
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        test.assertEqual(3, writeStream.write(new byte[] { 1, 2, 3, 4, 5 }, 1, 3).await());
+                    }
+                    test.assertEqual(new byte[] { 2, 3, 4 }, getFileContents.run());
+                });
+            });
+
+            runner.testGroup("write(java.nio.ByteBuffer[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        test.assertThrows(() -> writeStream.write((java.nio.ByteBuffer[])null),
+                            new PreConditionFailure("toWrite cannot be null."));
+                    }
+                });
+
+                runner.test("with heap and direct buffers", (Test test) ->
+                {
+                    final java.nio.ByteBuffer heapBuffer = java.nio.ByteBuffer.wrap(new byte[] { 1, 2 });
+                    final java.nio.ByteBuffer directBuffer = java.nio.ByteBuffer.allocateDirect(3).put(new byte[] { 3, 4, 5 }).flip();
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        test.assertEqual(5, writeStream.write(new java.nio.ByteBuffer[] { heapBuffer, directBuffer }).await());
+                    }
+                    test.assertFalse(heapBuffer.hasRemaining());
+                    test.assertFalse(directBuffer.hasRemaining());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5 }, getFileContents.run());
+                });
+
+                final int messageCount = 20000;
+                final byte[] header = new byte[8];
+                final byte[] payload = new byte[100];
+                final byte[] trailer = new byte[4];
+                final int messageLength = header.length + payload.length + trailer.length;
+
+                runner.speedTest("with " + messageCount + " framed " + messageLength + " byte messages written one part at a time", Duration.seconds(2), (Test test) ->
+                {
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        for (int i = 0; i < messageCount; ++i)
+                        {
+                            writeStream.writeAll(header).await();
+                            writeStream.writeAll(payload).await();
+                            writeStream.writeAll(trailer).await();
+                        }
+                    }
+                    test.assertEqual(messageCount * messageLength, getFileContents.run().length);
+                });
+
+                runner.speedTest("with " + messageCount + " framed " + messageLength + " byte messages written with vectored writes", Duration.seconds(2), (Test test) ->
+                {
+                    try (final FileChannelByteWriteStream writeStream = createWriteStream.run())
+                    {
+                        final byte[][] message = new byte[][] { header, payload, trailer };
+                        for (int i = 0; i < messageCount; ++i)
+                        {
+                            writeStream.writeAll(message).await();
+                        }
+                    }
+                    test.assertEqual(messageCount * messageLength, getFileContents.run().length);
+                });
+            });
+
+            runner.testGroup("dispose()", () ->
+            {
+                runner.test("multiple times", (Test test) ->
+                {
+                    final FileChannelByteWriteStream writeStream = createWriteStream.run();
+                    test.assertFalse(writeStream.isDisposed());
+                    test.assertTrue(writeStream.dispose().await());
+                    test.assertTrue(writeStream.isDisposed());
+                    test.assertFalse(writeStream.dispose().await());
+                });
+            });
+        });
+    }
+}
@@ -4468,6 +4468,286 @@ public interface FileSystemTests
                 });
             });
 
+            runner.testGroup("copyFolderTo(Path,Path)", () ->
+            {
+                runner.test("with null sourceFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.copyFolderTo(null, Path.parse("/destination/")),
+                        new PreConditionFailure("sourceFolderPath cannot be null."));
+                    test.assertFalse(fileSystem.folderExists("/destination/").await());
+                });
+
+                runner.test("with null destinationFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.copyFolderTo(Path.parse("/source/"), null),
+                        new PreConditionFailure("destinationFolderPath cannot be null."));
+                });
+
+                runner.test("with non-existing sourceFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/")).await(),
+                        new FolderNotFoundException("/source/"));
+                    test.assertFalse(fileSystem.folderExists("/destination/").await());
+                });
+
+                runner.test("with empty sourceFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    fileSystem.createFolder("/source/").await();
+                    test.assertNull(fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/")).await());
+                    test.assertTrue(fileSystem.folderExists("/destination/").await());
+                    test.assertFalse(fileSystem.iterateEntries(Path.parse("/destination/")).any());
+                });
+
+                runner.test("with files and folders in sourceFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    fileSystem.setFileContentsAsString("/source/a.txt", "A").await();
+                    fileSystem.setFileContentsAsString("/source/b/c.txt", "C").await();
+                    fileSystem.createFolder("/source/d/e/").await();
+                    fileSystem.setFileContentsAsString("/destination/a.txt", "oops").await();
+                    test.assertNull(fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/")).await());
+                    test.assertEqual("A", fileSystem.getFileContentsAsString("/destination/a.txt").await());
+                    test.assertEqual("C", fileSystem.getFileContentsAsString("/destination/b/c.txt").await());
+                    test.assertTrue(fileSystem.folderExists("/destination/d/e/").await());
+                    test.assertEqual("C", fileSystem.getFileContentsAsString("/source/b/c.txt").await());
+                });
+            });
+
+            runner.testGroup("copyFolderTo(Path,Path,AsyncRunner)", () ->
+            {
+                runner.test("with null asyncRunner", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/"), null),
+                        new PreConditionFailure("asyncRunner cannot be null."));
+                });
+
+                runner.test("with non-existing sourceFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                    test.assertThrows(() -> fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/"), asyncRunner).await(),
+                        new FolderNotFoundException("/source/"));
+                    test.assertFalse(fileSystem.folderExists("/destination/").await());
+                    test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                });
+
+                runner.test("with files and folders in sourceFolderPath", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    fileSystem.setFileContentsAsString("/source/a.txt", "A").await();
+                    fileSystem.setFileContentsAsString("/source/b/c.txt", "C").await();
+                    fileSystem.setFileContentsAsString("/source/b/d/e.txt", "E").await();
+                    fileSystem.createFolder("/source/f/").await();
+                    final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                    test.assertNull(fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/"), asyncRunner).await());
+                    test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                    test.assertEqual("A", fileSystem.getFileContentsAsString("/destination/a.txt").await());
+                    test.assertEqual("C", fileSystem.getFileContentsAsString("/destination/b/c.txt").await());
+                    test.assertEqual("E", fileSystem.getFileContentsAsString("/destination/b/d/e.txt").await());
+                    test.assertTrue(fileSystem.folderExists("/destination/f/").await());
+                });
+
+                runner.test("with an AsyncScheduler that isn't registered to any thread", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    fileSystem.setFileContentsAsString("/source/a.txt", "A").await();
+                    fileSystem.setFileContentsAsString("/source/b/c.txt", "C").await();
+                    final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                    test.assertNotSame(asyncRunner, CurrentThread.getAsyncRunner().catchError().await());
+
+                    test.assertNull(fileSystem.copyFolderTo(Path.parse("/source/"), Path.parse("/destination/"), asyncRunner).await());
+                    test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                    test.assertEqual("A", fileSystem.getFileContentsAsString("/destination/a.txt").await());
+                    test.assertEqual("C", fileSystem.getFileContentsAsString("/destination/b/c.txt").await());
+                });
+            });
+
+            runner.testGroup("iterateEntriesRecursively(Path,PathPattern)", () ->
+            {
+                runner.test("with null pattern", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.iterateEntriesRecursively(Path.parse("/"), (PathPattern)null),
+                        new PreConditionFailure("pattern cannot be null."));
+                });
+
+                runner.test("with non-existing folder", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.iterateEntriesRecursively(Path.parse("/folder/"), PathPattern.parse("**")).toList(),
+                        new FolderNotFoundException("/folder/"));
+                });
+
+                final Action2<String,Iterable<String>> iterateEntriesRecursivelyTest = (String pattern, Iterable<String> expectedEntryPaths) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(pattern), (Test test) ->
+                    {
+                        final FileSystem fileSystem = creator.run(null);
+                        fileSystem.createFile("/folder/file1.txt").await();
+                        fileSystem.createFile("/folder/folderA/file2.csv").await();
+                        fileSystem.createFile("/folder/folderA/folderB/file3.csv").await();
+                        fileSystem.createFile("/folder/folderC/file4.txt").await();
+                        fileSystem.createFile("/other/file5.txt").await();
+
+                        final Iterator<FileSystemEntry> result = fileSystem.iterateEntriesRecursively(Path.parse("/folder/"), PathPattern.parse(pattern));
+                        test.assertEqual(expectedEntryPaths, result.map(FileSystemEntry::toString).toList().sort(String::compareTo));
+                    });
+                };
+
+                iterateEntriesRecursivelyTest.run("**",
+                    Iterable.create("/folder/file1.txt", "/folder/folderA/", "/folder/folderA/file2.csv", "/folder/folderA/folderB/", "/folder/folderA/folderB/file3.csv", "/folder/folderC/", "/folder/folderC/file4.txt"));
+                iterateEntriesRecursivelyTest.run("*",
+                    Iterable.create("/folder/file1.txt", "/folder/folderA/", "/folder/folderC/"));
+                iterateEntriesRecursivelyTest.run("*.txt",
+                    Iterable.create("/folder/file1.txt"));
+                iterateEntriesRecursivelyTest.run("**.csv",
+                    Iterable.create("/folder/folderA/file2.csv", "/folder/folderA/folderB/file3.csv"));
+                iterateEntriesRecursivelyTest.run("folderA/*",
+                    Iterable.create("/folder/folderA/file2.csv", "/folder/folderA/folderB/"));
+                iterateEntriesRecursivelyTest.run("folderC/**",
+                    Iterable.create("/folder/folderC/file4.txt"));
+                iterateEntriesRecursivelyTest.run("folderD/**",
+                    Iterable.create());
+            });
+
+            runner.testGroup("visitEntriesRecursively(Path,AsyncRunner,Action1<FileSystemEntry>)", () ->
+            {
+                runner.test("with null asyncRunner", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.visitEntriesRecursively(Path.parse("/"), null, (FileSystemEntry entry) -> {}),
+                        new PreConditionFailure("asyncRunner cannot be null."));
+                });
+
+                runner.test("with null visitor", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.visitEntriesRecursively(Path.parse("/"), ManualAsyncRunner.create(), null),
+                        new PreConditionFailure("visitor cannot be null."));
+                });
+
+                runner.test("with non-existing folder", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                    test.assertThrows(() -> fileSystem.visitEntriesRecursively(Path.parse("/folder/"), asyncRunner, (FileSystemEntry entry) -> {}).await(),
+                        new FolderNotFoundException("/folder/"));
+                    test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                });
+
+                runner.test("with files and folders", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    fileSystem.createFile("/folder/file1.txt").await();
+                    fileSystem.createFile("/folder/folderA/file2.csv").await();
+                    fileSystem.createFile("/folder/folderA/folderB/file3.csv").await();
+                    fileSystem.createFolder("/folder/folderC/").await();
+                    final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                    final List<String> visitedEntryPaths = List.create();
+                    test.assertNull(fileSystem.visitEntriesRecursively(Path.parse("/folder/"), asyncRunner, (FileSystemEntry entry) ->
+                    {
+                        visitedEntryPaths.add(entry.toString());
+                    }).await());
+                    test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                    test.assertEqual(
+                        Iterable.create("/folder/file1.txt", "/folder/folderA/", "/folder/folderA/file2.csv", "/folder/folderA/folderB/", "/folder/folderA/folderB/file3.csv", "/folder/folderC/"),
+                        visitedEntryPaths.sort(String::compareTo));
+                });
+
+                runner.test("with a ParallelAsyncRunner", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    final List<String> expectedEntryPaths = List.create();
+                    for (int i = 0; i < 5; ++i)
+                    {
+                        expectedEntryPaths.add("/folder/folder" + i + "/");
+                        for (int j = 0; j < 5; ++j)
+                        {
+                            final String filePath = "/folder/folder" + i + "/file" + j + ".txt";
+                            fileSystem.createFile(filePath).await();
+                            expectedEntryPaths.add(filePath);
+                        }
+                    }
+                    final ParallelAsyncRunner asyncRunner = ParallelAsyncRunner.create(ThreadPool.create(2, 4));
+                    final java.util.Queue<String> visitedEntryPaths = new java.util.concurrent.ConcurrentLinkedQueue<>();
+                    test.assertNull(fileSystem.visitEntriesRecursively(Path.parse("/folder/"), asyncRunner, (FileSystemEntry entry) ->
+                    {
+                        visitedEntryPaths.add(entry.toString());
+                    }).await());
+                    test.assertEqual(expectedEntryPaths.sort(String::compareTo), List.create(visitedEntryPaths.toArray(new String[0])).sort(String::compareTo));
+                });
+
+                runner.test("when the visitor fails", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    fileSystem.createFile("/folder/folderA/file1.txt").await();
+                    fileSystem.createFile("/folder/folderA/file2.txt").await();
+                    fileSystem.createFile("/folder/folderB/file3.txt").await();
+                    final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                    final List<String> visitedFilePaths = List.create();
+                    final NotFoundException error = test.assertThrows(() -> fileSystem.visitEntriesRecursively(Path.parse("/folder/"), asyncRunner, (FileSystemEntry entry) ->
+                        {
+                            if (entry instanceof File)
+                            {
+                                visitedFilePaths.add(entry.toString());
+                                throw new NotFoundException(entry.toString());
+                            }
+                        }).await(),
+                        NotFoundException.class);
+
+                    // Run the folder tasks that were still scheduled when the visit failed.
+                    asyncRunner.await(asyncRunner.schedule(() -> {}));
+                    test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                    test.assertEqual(1, visitedFilePaths.getCount());
+                    test.assertEqual(visitedFilePaths.first().await(), error.getMessage());
+                });
+            });
+
+            runner.testGroup("visitEntriesRecursively(Path,PathPattern,AsyncRunner,Action1<FileSystemEntry>)", () ->
+            {
+                runner.test("with null pattern", (Test test) ->
+                {
+                    final FileSystem fileSystem = creator.run(null);
+                    test.assertThrows(() -> fileSystem.visitEntriesRecursively(Path.parse("/"), null, ManualAsyncRunner.create(), (FileSystemEntry entry) -> {}),
+                        new PreConditionFailure("pattern cannot be null."));
+                });
+
+                final Action2<String,Iterable<String>> visitEntriesRecursivelyTest = (String pattern, Iterable<String> expectedEntryPaths) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(pattern), (Test test) ->
+                    {
+                        final FileSystem fileSystem = creator.run(null);
+                        fileSystem.createFile("/folder/file1.txt").await();
+                        fileSystem.createFile("/folder/folderA/file2.csv").await();
+                        fileSystem.createFile("/folder/folderA/folderB/file3.csv").await();
+                        fileSystem.createFile("/folder/folderC/file4.txt").await();
+
+                        final ManualAsyncRunner asyncRunner = ManualAsyncRunner.create();
+                        final List<String> visitedEntryPaths = List.create();
+                        test.assertNull(fileSystem.visitEntriesRecursively(Path.parse("/folder/"), PathPattern.parse(pattern), asyncRunner, (FileSystemEntry entry) ->
+                        {
+                            visitedEntryPaths.add(entry.toString());
+                        }).await());
+                        test.assertEqual(0, asyncRunner.getScheduledTaskCount());
+                        test.assertEqual(expectedEntryPaths, visitedEntryPaths.sort(String::compareTo));
+                    });
+                };
+
+                visitEntriesRecursivelyTest.run("**",
+                    Iterable.create("/folder/file1.txt", "/folder/folderA/", "/folder/folderA/file2.csv", "/folder/folderA/folderB/", "/folder/folderA/folderB/file3.csv", "/folder/folderC/", "/folder/folderC/file4.txt"));
+                visitEntriesRecursivelyTest.run("*.txt",
+                    Iterable.create("/folder/file1.txt"));
+                visitEntriesRecursivelyTest.run("folderA/*.csv",
+                    Iterable.create("/folder/folderA/file2.csv"));
+                visitEntriesRecursivelyTest.run("folderA/**.csv",
+                    Iterable.create("/folder/folderA/file2.csv", "/folder/folderA/folderB/file3.csv"));
+            });
+
             runner.testGroup("containsInvalidCharacters(Path)", () ->
             {
                 final Action2<String,Boolean> containsInvalidCharactersTest = (String pathString, Boolean expected) ->
@@ -75,6 +75,34 @@ public interface InMemoryByteStreamTests
                 });
             });
 
+            runner.testGroup("readByteAsInt()", () ->
+            {
+                runner.test("with no bytes to read", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStreamTests.create();
+
+                    test.assertEqual(-1, stream.readByteAsInt());
+                });
+
+                runner.test("with two bytes to read", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStreamTests.create(new byte[] { 10, -20 });
+
+                    test.assertEqual(10, stream.readByteAsInt());
+                    test.assertEqual(236, stream.readByteAsInt());
+                    test.assertEqual(-1, stream.readByteAsInt());
+                    test.assertEqual(-1, stream.readByteAsInt());
+                });
+
+                runner.test("with disposed ByteReadStream", (Test test) ->
+                {
+                    final InMemoryByteStream readStream = InMemoryByteStreamTests.create();
+                    readStream.dispose().await();
+
+                    test.assertThrows(readStream::readByteAsInt, new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+            });
+
             runner.test("readBytes(int)", (Test test) ->
             {
                 final InMemoryByteStream readStream1 = InMemoryByteStreamTests.create();
@@ -278,6 +306,40 @@ public interface InMemoryByteStreamTests
                 });
             });
 
+            runner.testGroup("readBytesInto(byte[],int,int)", () ->
+            {
+                runner.test("with 0 length", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStreamTests.create();
+                    test.assertEqual(0, stream.readBytesInto(new byte[5], 2, 0));
+                });
+
+                runner.test("with no bytes to read", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStreamTests.create();
+                    test.assertEqual(-1, stream.readBytesInto(new byte[5], 0, 5));
+                });
+
+                runner.test("with bytes to read", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStreamTests.create(new byte[] { 1, 2, 3 });
+                    final byte[] outputBytes = new byte[5];
+                    test.assertEqual(2, stream.readBytesInto(outputBytes, 3, 2));
+                    test.assertEqual(new byte[] { 0, 0, 0, 1, 2 }, outputBytes);
+                    test.assertEqual(1, stream.readBytesInto(outputBytes, 0, 5));
+                    test.assertEqual(new byte[] { 3, 0, 0, 1, 2 }, outputBytes);
+                    test.assertEqual(-1, stream.readBytesInto(outputBytes, 0, 5));
+                });
+
+                runner.test("with disposed ByteReadStream", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStreamTests.create(new byte[] { 1, 2, 3 });
+                    stream.dispose().await();
+
+                    test.assertThrows(() -> stream.readBytesInto(new byte[5], 0, 5), new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+            });
+
             runner.testGroup("readAllBytes()", () ->
             {
                 runner.test("with disposed ByteReadStream", (Test test) ->
@@ -513,6 +575,109 @@ public interface InMemoryByteStreamTests
                 });
             });
 
+            runner.testGroup("write(byte[][])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    test.assertThrows(() -> stream.write((byte[][])null),
+                        new PreConditionFailure("toWrite cannot be null."));
+                });
+
+                runner.test("with a null byte[]", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    test.assertThrows(() -> stream.write(new byte[][] { new byte[] { 1 }, null }),
+                        new PreConditionFailure("toWrite[1] cannot be null."));
+                    test.assertEqual(new byte[0], stream.getBytes());
+                });
+
+                runner.test("with no byte[]s", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    test.assertEqual(0, stream.write(new byte[0][]).await());
+                    test.assertEqual(new byte[0], stream.getBytes());
+                });
+
+                runner.test("with empty and non-empty byte[]s", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    test.assertEqual(5, stream.write(new byte[][] { new byte[] { 1, 2 }, new byte[0], new byte[] { 3, 4, 5 } }).await());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5 }, stream.getBytes());
+                });
+            });
+
+            runner.testGroup("write(java.nio.ByteBuffer[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    test.assertThrows(() -> stream.write((java.nio.ByteBuffer[])null),
+                        new PreConditionFailure("toWrite cannot be null."));
+                });
+
+                runner.test("when disposed", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    stream.dispose().await();
+                    test.assertThrows(() -> stream.write(new java.nio.ByteBuffer[0]),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("with heap, direct and read-only buffers", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    final java.nio.ByteBuffer heapBuffer = java.nio.ByteBuffer.wrap(new byte[] { 0, 1, 2, 0 }, 1, 2);
+                    final java.nio.ByteBuffer directBuffer = java.nio.ByteBuffer.allocateDirect(2).put((byte)3).put((byte)4).flip();
+                    final java.nio.ByteBuffer readOnlyBuffer = java.nio.ByteBuffer.wrap(new byte[] { 5 }).asReadOnlyBuffer();
+                    test.assertEqual(5, stream.write(new java.nio.ByteBuffer[] { heapBuffer, directBuffer, readOnlyBuffer }).await());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5 }, stream.getBytes());
+                    test.assertFalse(heapBuffer.hasRemaining());
+                    test.assertFalse(directBuffer.hasRemaining());
+                    test.assertFalse(readOnlyBuffer.hasRemaining());
+                });
+
+                runner.test("when the bytes wrap around the end of the ring buffer", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    stream.write(new byte[12]).await();
+                    test.assertEqual(12, stream.readBytesInto(new byte[12], 0, 12));
+
+                    final byte[] bytes = new byte[] { 1, 2, 3, 4, 5, 6 };
+                    test.assertEqual(12, stream.write(new java.nio.ByteBuffer[] { java.nio.ByteBuffer.wrap(bytes), java.nio.ByteBuffer.wrap(bytes) }).await());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5, 6, 1, 2, 3, 4, 5, 6 }, stream.getBytes());
+                });
+
+                final int messageCount = 100000;
+                final byte[] header = new byte[8];
+                final byte[] payload = new byte[100];
+                final byte[] trailer = new byte[4];
+                final int messageLength = header.length + payload.length + trailer.length;
+
+                runner.speedTest("with " + messageCount + " framed " + messageLength + " byte messages written one part at a time", Duration.milliseconds(200), (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    for (int i = 0; i < messageCount; ++i)
+                    {
+                        stream.write(header).await();
+                        stream.write(payload).await();
+                        stream.write(trailer).await();
+                    }
+                    test.assertEqual(messageCount * messageLength, stream.getCount());
+                });
+
+                runner.speedTest("with " + messageCount + " framed " + messageLength + " byte messages written with vectored writes", Duration.milliseconds(200), (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    final byte[][] message = new byte[][] { header, payload, trailer };
+                    for (int i = 0; i < messageCount; ++i)
+                    {
+                        stream.write(message).await();
+                    }
+                    test.assertEqual(messageCount * messageLength, stream.getCount());
+                });
+            });
+
             runner.testGroup("writeAll(ByteReadStream)", () ->
             {
                 runner.test("with null ByteReadStream", (Test test) ->
@@ -559,6 +724,109 @@ public interface InMemoryByteStreamTests
                     test.assertEqual(new byte[] { 0, 1, 2, 3 }, stream.getBytes());
                 });
             });
+
+            runner.testGroup("ring buffer", () ->
+            {
+                runner.test("with writes that wrap around and grow the buffer", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    final byte[] outputBytes = new byte[100];
+                    byte nextByteToWrite = 0;
+                    byte nextByteToRead = 0;
+                    for (int round = 1; round <= 40; ++round)
+                    {
+                        final byte[] bytesToWrite = new byte[round];
+                        for (int i = 0; i < bytesToWrite.length; ++i)
+                        {
+                            bytesToWrite[i] = nextByteToWrite++;
+                        }
+                        test.assertEqual(round, stream.write(bytesToWrite).await());
+
+                        final int bytesToRead = Math.minimum(stream.getCount(), round - 1);
+                        if (bytesToRead > 0)
+                        {
+                            test.assertEqual(bytesToRead, stream.readBytesInto(outputBytes, 0, bytesToRead));
+                            for (int i = 0; i < bytesToRead; ++i)
+                            {
+                                test.assertEqual(nextByteToRead++, outputBytes[i]);
+                            }
+                        }
+                    }
+
+                    final byte[] remainingBytes = stream.getBytes();
+                    test.assertEqual(stream.getCount(), remainingBytes.length);
+                    for (final byte remainingByte : remainingBytes)
+                    {
+                        test.assertEqual(nextByteToRead++, remainingByte);
+                        test.assertEqual(Bytes.toUnsignedInt(remainingByte), stream.readByteAsInt());
+                    }
+                    test.assertEqual(nextByteToWrite, nextByteToRead);
+                    test.assertEqual(0, stream.getCount());
+                });
+
+                runner.test("with a reader that waits for a writer on another thread", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    final java.lang.Thread writer = new java.lang.Thread(() ->
+                    {
+                        CurrentThread.sleep(Duration.milliseconds(10)).await();
+                        stream.write(new byte[] { 1, 2, 3 }).await();
+                        CurrentThread.sleep(Duration.milliseconds(10)).await();
+                        stream.endOfStream();
+                    });
+                    writer.start();
+
+                    test.assertEqual(new byte[] { 1, 2, 3 }, stream.readAllBytes().await());
+                    test.assertEqual(-1, stream.readByteAsInt());
+                });
+
+                runner.test("with a reader that waits when the stream is disposed on another thread", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    final java.lang.Thread disposer = new java.lang.Thread(() ->
+                    {
+                        CurrentThread.sleep(Duration.milliseconds(10)).await();
+                        stream.dispose().await();
+                    });
+                    disposer.start();
+
+                    test.assertThrows(stream::readByteAsInt,
+                        new IllegalStateException("this.isDisposed() cannot be true."));
+                });
+
+                final Action2<String,Function0<InMemoryByteStream>> pipeSpeedTest = (String streamType, Function0<InMemoryByteStream> creator) ->
+                {
+                    final int chunkCount = 8192;
+                    final int chunkLength = 4096;
+                    runner.speedTest("with " + (chunkCount * chunkLength) + " bytes piped between two threads through " + streamType, Duration.seconds(1), (Test test) ->
+                    {
+                        final InMemoryByteStream stream = creator.run();
+                        final java.lang.Thread writer = new java.lang.Thread(() ->
+                        {
+                            final byte[] chunk = new byte[chunkLength];
+                            for (int i = 0; i < chunkCount; ++i)
+                            {
+                                chunk[0] = (byte)i;
+                                stream.write(chunk).await();
+                            }
+                            stream.endOfStream();
+                        });
+                        writer.start();
+
+                        final byte[] outputBytes = new byte[chunkLength];
+                        long totalBytesRead = 0;
+                        int bytesRead;
+                        while ((bytesRead = stream.readBytesInto(outputBytes, 0, outputBytes.length)) != -1)
+                        {
+                            totalBytesRead += bytesRead;
+                        }
+                        test.assertEqual((long)chunkCount * chunkLength, totalBytesRead);
+                    });
+                };
+
+                pipeSpeedTest.run("create()", InMemoryByteStream::create);
+                pipeSpeedTest.run("createSingleProducerSingleConsumer()", InMemoryByteStream::createSingleProducerSingleConsumer);
+            });
         });
     }
 
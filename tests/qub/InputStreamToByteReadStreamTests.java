@@ -61,6 +61,37 @@ public interface InputStreamToByteReadStreamTests
                 });
             });
 
+            runner.testGroup("readByteAsInt()", () ->
+            {
+                runner.test("when disposed", (Test test) ->
+                {
+                    final InputStreamToByteReadStream readStream = InputStreamToByteReadStreamTests.getByteReadStream(test, 5);
+                    test.assertTrue(readStream.dispose().await());
+                    test.assertThrows(readStream::readByteAsInt,
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("with bytes to read", (Test test) ->
+                {
+                    final InputStreamToByteReadStream readStream = InputStreamToByteReadStream.create(new java.io.ByteArrayInputStream(new byte[] { 0, 1, -1 }));
+                    test.assertEqual(0, readStream.readByteAsInt());
+                    test.assertEqual(1, readStream.readByteAsInt());
+                    test.assertEqual(255, readStream.readByteAsInt());
+                    test.assertEqual(-1, readStream.readByteAsInt());
+                    test.assertEqual(-1, readStream.readByteAsInt());
+                });
+
+                runner.test("when exception is thrown", (Test test) ->
+                {
+                    final TestStubInputStream inputStream = new TestStubInputStream();
+                    inputStream.setThrowOnRead(true);
+
+                    final InputStreamToByteReadStream byteReadStream = InputStreamToByteReadStreamTests.getByteReadStream(test, inputStream);
+                    test.assertThrows(byteReadStream::readByteAsInt,
+                        new RuntimeException(new java.io.IOException()));
+                });
+            });
+
             runner.testGroup("readBytes(int)", () ->
             {
                 runner.test("when disposed", (Test test) ->
@@ -306,6 +337,56 @@ public interface InputStreamToByteReadStreamTests
                 });
             });
 
+            runner.testGroup("readBytesInto(byte[],int,int)", () ->
+            {
+                runner.test("when disposed", (Test test) ->
+                {
+                    final InputStreamToByteReadStream readStream = InputStreamToByteReadStreamTests.getByteReadStream(test, 5);
+                    test.assertTrue(readStream.dispose().await());
+                    final byte[] outputBytes = new byte[10];
+                    test.assertThrows(() -> readStream.readBytesInto(outputBytes, 0, 1),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("with null", (Test test) ->
+                {
+                    final InputStreamToByteReadStream byteReadStream = InputStreamToByteReadStreamTests.getByteReadStream(test, 5);
+                    test.assertThrows(() -> byteReadStream.readBytesInto(null, 0, 0),
+                        new PreConditionFailure("outputBytes cannot be null."));
+                });
+
+                runner.test("with 0 length", (Test test) ->
+                {
+                    final InputStreamToByteReadStream byteReadStream = InputStreamToByteReadStreamTests.getByteReadStream(test, 5);
+                    final byte[] outputBytes = new byte[3];
+                    test.assertEqual(0, byteReadStream.readBytesInto(outputBytes, 1, 0));
+                    test.assertEqual(new byte[] { 0, 0, 0 }, outputBytes);
+                });
+
+                runner.test("with bytes to read", (Test test) ->
+                {
+                    final InputStreamToByteReadStream byteReadStream = InputStreamToByteReadStream.create(new java.io.ByteArrayInputStream(new byte[] { 1, 2, 3 }));
+                    final byte[] outputBytes = new byte[4];
+                    test.assertEqual(2, byteReadStream.readBytesInto(outputBytes, 1, 2));
+                    test.assertEqual(new byte[] { 0, 1, 2, 0 }, outputBytes);
+                    test.assertEqual(1, byteReadStream.readBytesInto(outputBytes, 0, 4));
+                    test.assertEqual(new byte[] { 3, 1, 2, 0 }, outputBytes);
+                    test.assertEqual(-1, byteReadStream.readBytesInto(outputBytes, 0, 4));
+                    test.assertEqual(new byte[] { 3, 1, 2, 0 }, outputBytes);
+                });
+
+                runner.test("when exception is thrown", (Test test) ->
+                {
+                    final TestStubInputStream inputStream = new TestStubInputStream();
+                    inputStream.setThrowOnRead(true);
+
+                    final InputStreamToByteReadStream byteReadStream = InputStreamToByteReadStreamTests.getByteReadStream(test, inputStream);
+                    final byte[] outputBytes = new byte[3];
+                    test.assertThrows(() -> byteReadStream.readBytesInto(outputBytes, 0, 3),
+                        new RuntimeException(new java.io.IOException()));
+                });
+            });
+
             runner.testGroup("readAllBytes()", () ->
             {
                 runner.test("when disposed", (Test test) ->
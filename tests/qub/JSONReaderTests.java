@@ -0,0 +1,267 @@
+package qub;
+
+public interface JSONReaderTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(JSONReader.class, () ->
+        {
+            runner.testGroup("create(JSONTokenizer)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONReader.create((JSONTokenizer)null),
+                        new PreConditionFailure("tokenizer cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create(JSONTokenizer.create("{}"));
+                    test.assertNotNull(reader);
+                    test.assertFalse(reader.hasStarted());
+                    test.assertFalse(reader.hasCurrent());
+                });
+            });
+
+            runner.testGroup("next()", () ->
+            {
+                final Action2<String,Iterable<JSONEventType>> nextTest = (String text, Iterable<JSONEventType> expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        final JSONReader reader = JSONReader.create(text);
+                        test.assertEqual(expected, reader.toList());
+                        test.assertTrue(reader.hasStarted());
+                        test.assertFalse(reader.hasCurrent());
+                    });
+                };
+
+                nextTest.run("", Iterable.create());
+                nextTest.run("  // comment\n", Iterable.create());
+                nextTest.run("null", Iterable.create(JSONEventType.Null));
+                nextTest.run("true", Iterable.create(JSONEventType.Boolean));
+                nextTest.run("5", Iterable.create(JSONEventType.Number));
+                nextTest.run("'a'", Iterable.create(JSONEventType.String));
+                nextTest.run("{}", Iterable.create(JSONEventType.StartObject, JSONEventType.EndObject));
+                nextTest.run("[]", Iterable.create(JSONEventType.StartArray, JSONEventType.EndArray));
+                nextTest.run("{\"a\":1}", Iterable.create(
+                    JSONEventType.StartObject,
+                    JSONEventType.PropertyName,
+                    JSONEventType.Number,
+                    JSONEventType.EndObject));
+                nextTest.run("{ \"a\" : [ null, false ], \"b\" : { \"c\" : \"d\" } }", Iterable.create(
+                    JSONEventType.StartObject,
+                    JSONEventType.PropertyName,
+                    JSONEventType.StartArray,
+                    JSONEventType.Null,
+                    JSONEventType.Boolean,
+                    JSONEventType.EndArray,
+                    JSONEventType.PropertyName,
+                    JSONEventType.StartObject,
+                    JSONEventType.PropertyName,
+                    JSONEventType.String,
+                    JSONEventType.EndObject,
+                    JSONEventType.EndObject));
+                nextTest.run("{\"a\":1}\n{\"a\":2}\n", Iterable.create(
+                    JSONEventType.StartObject,
+                    JSONEventType.PropertyName,
+                    JSONEventType.Number,
+                    JSONEventType.EndObject,
+                    JSONEventType.StartObject,
+                    JSONEventType.PropertyName,
+                    JSONEventType.Number,
+                    JSONEventType.EndObject));
+
+                final Action2<String,Throwable> nextErrorTest = (String text, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        test.assertThrows(() -> JSONReader.create(text).toList(), expected);
+                    });
+                };
+
+                nextErrorTest.run(",", new ParseException("Unexpected JSON token: ,"));
+                nextErrorTest.run("}", new ParseException("Unexpected JSON token: }"));
+                nextErrorTest.run("{", new ParseException("Missing object right curly bracket ('}')."));
+                nextErrorTest.run("{5", new ParseException("Expected quoted-string object property name or right curly bracket ('}')."));
+                nextErrorTest.run("{\"\"", new ParseException("Expected object property name to be not empty."));
+                nextErrorTest.run("{\"a\"", new ParseException("Missing object property name and value separator (':')."));
+                nextErrorTest.run("{\"a\" 5", new ParseException("Expected object property name and value separator (':')."));
+                nextErrorTest.run("{\"a\":", new ParseException("Missing object property value."));
+                nextErrorTest.run("{\"a\":,", new ParseException("Expected object property value."));
+                nextErrorTest.run("{\"a\":}", new ParseException("Unexpected object property value token: \"}\""));
+                nextErrorTest.run("{\"a\":1", new ParseException("Missing object right curly bracket ('}')."));
+                nextErrorTest.run("{\"a\":1 2", new ParseException("Expected object property separator (',') or right curly bracket ('}')."));
+                nextErrorTest.run("{\"a\":1,", new ParseException("Missing object property."));
+                nextErrorTest.run("{\"a\":1,}", new ParseException("Expected quoted-string object property name."));
+                nextErrorTest.run("[", new ParseException("Missing array right square bracket (']')."));
+                nextErrorTest.run("[,", new ParseException("Expected array element."));
+                nextErrorTest.run("[:", new ParseException("Unexpected array element token: \":\""));
+                nextErrorTest.run("[1", new ParseException("Missing array right square bracket (']')."));
+                nextErrorTest.run("[1 2", new ParseException("Expected array element separator (',') or right square bracket (']')."));
+                nextErrorTest.run("[1,", new ParseException("Missing array element."));
+                nextErrorTest.run("[1,]", new ParseException("Expected array element."));
+            });
+
+            runner.testGroup("getDepth()", () ->
+            {
+                runner.test("with nested objects and arrays", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("{\"a\":[1]}");
+                    final List<Integer> depths = List.create();
+                    while (reader.next())
+                    {
+                        depths.add(reader.getDepth());
+                    }
+                    test.assertEqual(Iterable.create(0, 1, 1, 2, 1, 0), depths);
+                });
+            });
+
+            runner.testGroup("getPropertyName()", () ->
+            {
+                runner.test("when current is not a PropertyName", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("{}");
+                    reader.next();
+                    test.assertThrows(reader::getPropertyName,
+                        new PreConditionFailure("this.getCurrent() (StartObject) must be PropertyName."));
+                });
+
+                runner.test("when current is a PropertyName", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("{\"name\":5}");
+                    reader.next();
+                    reader.next();
+                    test.assertEqual("name", reader.getPropertyName());
+                    test.assertEqual(JSONToken.quotedString("\"name\""), reader.getCurrentToken());
+                });
+            });
+
+            runner.testGroup("skipSubtree()", () ->
+            {
+                runner.test("when current is a StartObject", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("[{\"a\":{\"b\":[1,2]},\"c\":3},4]");
+                    test.assertTrue(reader.next());
+                    test.assertTrue(reader.next());
+                    test.assertEqual(JSONEventType.StartObject, reader.getCurrent());
+
+                    test.assertSame(reader, reader.skipSubtree());
+                    test.assertEqual(JSONEventType.EndObject, reader.getCurrent());
+                    test.assertEqual(1, reader.getDepth());
+
+                    test.assertTrue(reader.next());
+                    test.assertEqual(JSONEventType.Number, reader.getCurrent());
+                    test.assertEqual("4", reader.getCurrentToken().getText());
+                });
+
+                runner.test("when current is a StartArray", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("[[],[[]]]");
+                    test.assertTrue(reader.next());
+                    test.assertSame(reader, reader.skipSubtree());
+                    test.assertEqual(JSONEventType.EndArray, reader.getCurrent());
+                    test.assertEqual(0, reader.getDepth());
+                    test.assertFalse(reader.next());
+                });
+
+                runner.test("when current is a value", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("[1,2]");
+                    test.assertTrue(reader.next());
+                    test.assertTrue(reader.next());
+                    test.assertSame(reader, reader.skipSubtree());
+                    test.assertEqual(JSONEventType.Number, reader.getCurrent());
+                    test.assertEqual("1", reader.getCurrentToken().getText());
+                });
+            });
+
+            runner.testGroup("readSegment()", () ->
+            {
+                final Action1<String> readSegmentTest = (String text) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        final JSONReader reader = JSONReader.create(text);
+                        test.assertTrue(reader.next());
+                        test.assertEqual(JSON.parse(text).await(), reader.readSegment().await());
+                        test.assertFalse(reader.next());
+                    });
+                };
+
+                readSegmentTest.run("null");
+                readSegmentTest.run("false");
+                readSegmentTest.run("true");
+                readSegmentTest.run("-1.5e3");
+                readSegmentTest.run("\"hello\"");
+                readSegmentTest.run("{}");
+                readSegmentTest.run("[]");
+                readSegmentTest.run("{\"a\":[1,{\"b\":null}],\"c\":'d'}");
+
+                runner.test("when current is a PropertyName", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("{\"a\":1}");
+                    reader.next();
+                    reader.next();
+                    test.assertThrows(reader::readSegment,
+                        new PreConditionFailure("JSONReader.isValueStart(this.getCurrent()) cannot be false."));
+                });
+            });
+
+            runner.testGroup("iterateArrayElements()", () ->
+            {
+                runner.test("with empty text", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONReader.create("").iterateArrayElements().toList(),
+                        new ParseException("Missing array left square bracket ('[')."));
+                });
+
+                runner.test("with object", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONReader.create("{}").iterateArrayElements().toList(),
+                        new ParseException("Expected array left square bracket ('[')."));
+                });
+
+                runner.test("with empty array", (Test test) ->
+                {
+                    test.assertEqual(Iterable.create(), JSONReader.create("[]").iterateArrayElements().toList());
+                });
+
+                runner.test("with non-empty array", (Test test) ->
+                {
+                    final String text = "[1, {\"a\":[true]}, [], 'b']";
+                    test.assertEqual(JSON.parseArray(text).await(), JSONArray.create(JSONReader.create(text).iterateArrayElements().toList()));
+                });
+
+                runner.test("with nested array", (Test test) ->
+                {
+                    final JSONReader reader = JSONReader.create("{\"records\":[1,2],\"count\":2}");
+                    test.assertTrue(reader.next());
+                    test.assertTrue(reader.next());
+                    test.assertEqual("records", reader.getPropertyName());
+                    test.assertTrue(reader.next());
+                    test.assertEqual(Iterable.create(JSONNumber.create(1), JSONNumber.create(2)), reader.iterateArrayElements().toList());
+                    test.assertEqual(JSONEventType.EndArray, reader.getCurrent());
+                    test.assertTrue(reader.next());
+                    test.assertEqual("count", reader.getPropertyName());
+                });
+
+                final int elementCount = 100000;
+                final byte[] documentBytes = CharacterEncoding.UTF_8.encodeCharacters(JSONTokenizerTests.createDocument(elementCount)).await();
+                runner.speedTest("with " + elementCount + " elements", Duration.seconds(1), (Test test) ->
+                {
+                    final Iterator<JSONSegment> elements = JSON.iterateArrayElements(InputStreamToByteReadStream.create(new java.io.ByteArrayInputStream(documentBytes)));
+                    int count = 0;
+                    for (final JSONSegment element : elements)
+                    {
+                        test.assertInstanceOf(element, JSONObject.class);
+                        ++count;
+                    }
+                    test.assertEqual(elementCount, count);
+                });
+            });
+        });
+    }
+}
@@ -323,6 +323,24 @@ public interface JSONTests
                 };
 
                 parseTest.run("{}", JSONObject.create());
+
+                runner.test("with more JSON after the value", (Test test) ->
+                {
+                    final InMemoryCharacterToByteStream characters = InMemoryCharacterToByteStream.create();
+                    characters.write("{\"a\":[1,true,null]}  [2] 3").await();
+                    characters.endOfStream();
+                    test.assertEqual(JSON.parse("{\"a\":[1,true,null]}").await(), JSON.parse((CharacterReadStream)characters).await());
+                    test.assertEqual("2] 3", characters.readEntireString().await());
+                });
+
+                runner.test("with a document that is longer than a character window", (Test test) ->
+                {
+                    final String text = JSONTokenizerTests.createDocument(1000);
+                    final InMemoryCharacterToByteStream characters = InMemoryCharacterToByteStream.create();
+                    characters.write(text).await();
+                    characters.endOfStream();
+                    test.assertEqual(JSON.parse(text).await(), JSON.parse((CharacterReadStream)characters).await());
+                });
             });
 
             runner.testGroup("parse(String)", () ->
@@ -795,6 +813,15 @@ public interface JSONTests
                 };
 
                 parseTest.run("[]", JSONArray.create());
+
+                runner.test("with more JSON after the array", (Test test) ->
+                {
+                    final InMemoryCharacterToByteStream characters = InMemoryCharacterToByteStream.create();
+                    characters.write("[1]" + Strings.repeat("[2]", 5000)).await();
+                    characters.endOfStream();
+                    test.assertEqual(JSONArray.create(JSONNumber.create(1)), JSON.parseArray((CharacterReadStream)characters).await());
+                    test.assertEqual("2]" + Strings.repeat("[2]", 4999), characters.readEntireString().await());
+                });
             });
 
             runner.testGroup("parseArray(String)", () ->
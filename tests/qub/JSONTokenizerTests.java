@@ -181,6 +181,135 @@ public interface JSONTokenizerTests
                     JSONToken.lineComment("// 4")));
             });
 
+            runner.testGroup("create(CharacterReadStream,int)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONTokenizer.create((CharacterReadStream)null, 1),
+                        new PreConditionFailure("characterReadStream cannot be null."));
+                });
+
+                runner.test("with 0 characterWindowLength", (Test test) ->
+                {
+                    final CharacterReadStream characterReadStream = InMemoryCharacterToByteStream.create("{}").endOfStream();
+                    test.assertThrows(() -> JSONTokenizer.create(characterReadStream, 0),
+                        new PreConditionFailure("characterWindowLength (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1 characterWindowLength", (Test test) ->
+                {
+                    final String text = "{\"a\":[1,2,{\"b\":null}],\n  \"c\": 'd'} 50";
+                    final CharacterReadStream characterReadStream = InMemoryCharacterToByteStream.create(text).endOfStream();
+                    final JSONTokenizer tokenizer = JSONTokenizer.create(characterReadStream, 1);
+                    test.assertEqual(JSONTokenizer.create(text).toList(), tokenizer.toList());
+                });
+
+                runner.test("only reads the characters that it needs", (Test test) ->
+                {
+                    final CharacterReadStream characterReadStream = InMemoryCharacterToByteStream.create("[true] false").endOfStream();
+                    final JSONTokenizer tokenizer = JSONTokenizer.create(characterReadStream, 1);
+                    test.assertTrue(tokenizer.next());
+                    test.assertEqual(JSONToken.leftSquareBracket, tokenizer.getCurrent());
+                    test.assertEqual("true] false", characterReadStream.readEntireString().await());
+                });
+            });
+
+            runner.testGroup("create(CharacterReadStream)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONTokenizer.create((CharacterReadStream)null),
+                        new PreConditionFailure("characterReadStream cannot be null."));
+                });
+
+                final Action2<String,Throwable> createErrorTest = (String text, Throwable expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        final CharacterReadStream characterReadStream = InMemoryCharacterToByteStream.create(text).endOfStream();
+                        test.assertThrows(() -> JSONTokenizer.create(characterReadStream).toList(),
+                            expected);
+                    });
+                };
+
+                createErrorTest.run("nulls", new ParseException("Unrecognized JSONToken literal: nulls"));
+                createErrorTest.run("'hello", new ParseException("Missing quoted-string closing quote: '"));
+                createErrorTest.run("@", new ParseException("Unrecognized JSONToken start character: \"@\""));
+                createErrorTest.run("-", new ParseException("Missing digits after number's negative sign: \"-\""));
+                createErrorTest.run("200.e", new ParseException("Missing digits after number's decimal point: \"200.\""));
+                createErrorTest.run("10ef", new ParseException("Missing digits after number's exponent character: \"10e\""));
+                createErrorTest.run("10e-f", new ParseException("Missing digits after number's exponent sign character: \"10e-\""));
+                createErrorTest.run("/", new ParseException("Missing comment start sequence second character."));
+                createErrorTest.run("/a", new ParseException("Unrecognized comment start sequence second character: \"a\""));
+                createErrorTest.run("/**", new ParseException("Missing block comment end sequence second character (\"/\")."));
+
+                final Action1<String> createTest = (String text) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text), (Test test) ->
+                    {
+                        final CharacterReadStream characterReadStream = InMemoryCharacterToByteStream.create(text).endOfStream();
+                        final JSONTokenizer tokenizer = JSONTokenizer.create(characterReadStream);
+                        test.assertFalse(tokenizer.hasStarted());
+                        test.assertFalse(tokenizer.hasCurrent());
+
+                        test.assertEqual(JSONTokenizer.create(text).toList(), tokenizer.toList());
+                        test.assertTrue(tokenizer.hasStarted());
+                        test.assertFalse(tokenizer.hasCurrent());
+                    });
+                };
+
+                createTest.run("");
+                createTest.run("{}");
+                createTest.run("\r\r\r\n\n");
+                createTest.run("null true false");
+                createTest.run("\"She said, \\\"Hello!\\\".\"");
+                createTest.run("[-1, 1.23, 30.8e5, 50E-3, 1e+89]");
+                createTest.run("// 1\n// 2\r\n/* 3 */");
+                createTest.run("{\"a\":[1,2,{\"b\":null}],\n  \"c\": 'd'}");
+
+                runner.test("with tokens that span character windows", (Test test) ->
+                {
+                    final String text = JSONTokenizerTests.createDocument(1000);
+                    final CharacterReadStream characterReadStream = InMemoryCharacterToByteStream.create(text).endOfStream();
+                    test.assertEqual(JSONTokenizer.create(text).toList(), JSONTokenizer.create(characterReadStream).toList());
+                });
+            });
+
+            runner.testGroup("create(ByteReadStream)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONTokenizer.create((ByteReadStream)null),
+                        new PreConditionFailure("byteReadStream cannot be null."));
+                });
+
+                runner.test("with multi-byte characters", (Test test) ->
+                {
+                    final String text = "[\"\u00e9\u4e2d\ud83d\ude00\", true]";
+                    final ByteReadStream byteReadStream = ByteReadStream.create(CharacterEncoding.UTF_8.encodeCharacters(text).await());
+                    test.assertEqual(JSONTokenizer.create(text).toList(), JSONTokenizer.create(byteReadStream).toList());
+                });
+
+                final Action2<Integer,Duration> speedTest = (Integer elementCount, Duration expectedDuration) ->
+                {
+                    final byte[] documentBytes = CharacterEncoding.UTF_8.encodeCharacters(JSONTokenizerTests.createDocument(elementCount)).await();
+                    runner.speedTest("with " + documentBytes.length + " bytes", expectedDuration, (Test test) ->
+                    {
+                        final JSONTokenizer tokenizer = JSONTokenizer.create(InputStreamToByteReadStream.create(new java.io.ByteArrayInputStream(documentBytes)));
+                        int tokenCount = 0;
+                        while (tokenizer.next())
+                        {
+                            ++tokenCount;
+                        }
+                        test.assertEqual(elementCount * 27 + 2, tokenCount);
+                    });
+                };
+
+                speedTest.run(10, Duration.milliseconds(10));
+                speedTest.run(1000, Duration.milliseconds(50));
+                speedTest.run(100000, Duration.seconds(1));
+            });
+
             runner.testGroup("isLetter(char)", () ->
             {
                 final Action2<Character,Boolean> isLetterTest = (Character character, Boolean expected) ->
@@ -252,4 +381,22 @@ public interface JSONTokenizerTests
             });
         });
     }
+
+    /**
+     * Create a JSON document that contains an array with the provided number of object elements.
+     * @param elementCount The number of object elements in the document's array.
+     * @return The JSON document.
+     */
+    static String createDocument(int elementCount)
+    {
+        final CharacterList result = CharacterList.create();
+        result.addAll("[\n");
+        for (int i = 0; i < elementCount; ++i)
+        {
+            result.addAll("  {\"id\": " + i + ", \"name\": \"element " + i + "\", \"ratio\": " + (i / 8.0) + ", \"enabled\": " + Math.isOdd(i) + "}");
+            result.addAll(i + 1 < elementCount ? ",\n" : "\n");
+        }
+        result.addAll("]");
+        return result.toString(true);
+    }
 }
@@ -0,0 +1,259 @@
+package qub;
+
+public interface JSONWriterTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(JSONWriter.class, () ->
+        {
+            runner.testGroup("create(CharacterWriteStream,JSONFormat)", () ->
+            {
+                runner.test("with null stream", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONWriter.create((CharacterWriteStream)null, JSONFormat.consise),
+                        new PreConditionFailure("stream cannot be null."));
+                });
+
+                runner.test("with null format", (Test test) ->
+                {
+                    test.assertThrows(() -> JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create(), null),
+                        new PreConditionFailure("format cannot be null."));
+                });
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create(), JSONFormat.pretty);
+                    test.assertNotNull(writer);
+                    test.assertEqual(0, writer.getDepth());
+                    test.assertTrue(writer.canWriteValue());
+                    test.assertFalse(writer.canWritePropertyName());
+                });
+            });
+
+            runner.testGroup("writeString(String)", () ->
+            {
+                final Action2<String,String> writeStringTest = (String value, String expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(value), (Test test) ->
+                    {
+                        final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                        final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream);
+                        test.assertSame(writer, writer.writeString(value));
+                        test.assertEqual(expected, stream.getText().await());
+                    });
+                };
+
+                writeStringTest.run("", "\"\"");
+                writeStringTest.run("hello", "\"hello\"");
+                writeStringTest.run("a\"b", "\"a\\\"b\"");
+                writeStringTest.run("a\\b", "\"a\\\\b\"");
+                writeStringTest.run("a\nb\r\tc", "\"a\\nb\\r\\tc\"");
+                writeStringTest.run("\u0001", "\"\\u0001\"");
+                writeStringTest.run("\u001f", "\"\\u001f\"");
+
+                runner.test("when a property name is expected", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create());
+                    writer.writeStartObject();
+                    test.assertThrows(() -> writer.writeString("a"),
+                        new PreConditionFailure("this.canWriteValue() cannot be false."));
+                });
+            });
+
+            runner.testGroup("writeNumber(long)", () ->
+            {
+                final Action1<Long> writeNumberTest = (Long value) ->
+                {
+                    runner.test("with " + value, (Test test) ->
+                    {
+                        final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                        final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream);
+                        test.assertSame(writer, writer.writeNumber(value.longValue()));
+                        test.assertEqual(JSONNumber.create(value.longValue()).toString(), stream.getText().await());
+                    });
+                };
+
+                writeNumberTest.run(0L);
+                writeNumberTest.run(7L);
+                writeNumberTest.run(-7L);
+                writeNumberTest.run(10L);
+                writeNumberTest.run(1234567890L);
+                writeNumberTest.run(-1000000L);
+                writeNumberTest.run(java.lang.Long.MAX_VALUE);
+                writeNumberTest.run(java.lang.Long.MIN_VALUE);
+            });
+
+            runner.testGroup("writeNumber(double)", () ->
+            {
+                final Action1<Double> writeNumberTest = (Double value) ->
+                {
+                    runner.test("with " + value, (Test test) ->
+                    {
+                        final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                        final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream);
+                        test.assertSame(writer, writer.writeNumber(value.doubleValue()));
+                        test.assertEqual(JSONNumber.create(value.doubleValue()).toString(), stream.getText().await());
+                    });
+                };
+
+                writeNumberTest.run(0.0);
+                writeNumberTest.run(1.5);
+                writeNumberTest.run(-0.25);
+                writeNumberTest.run(1e100);
+                writeNumberTest.run(java.lang.Double.MIN_VALUE);
+
+                runner.test("with NaN", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create());
+                    test.assertThrows(() -> writer.writeNumber(java.lang.Double.NaN),
+                        new PreConditionFailure("java.lang.Double.isNaN(value) cannot be true."));
+                });
+            });
+
+            runner.testGroup("writePropertyName(String)", () ->
+            {
+                runner.test("when not in an object", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create());
+                    test.assertThrows(() -> writer.writePropertyName("a"),
+                        new PreConditionFailure("this.canWritePropertyName() cannot be false."));
+                });
+
+                runner.test("when a property value is expected", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create());
+                    writer.writeStartObject().writePropertyName("a");
+                    test.assertThrows(() -> writer.writePropertyName("b"),
+                        new PreConditionFailure("this.canWritePropertyName() cannot be false."));
+                    test.assertThrows(writer::writeEndObject,
+                        new PreConditionFailure("this.canWritePropertyName() cannot be false."));
+                });
+
+                runner.test("with empty name", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create());
+                    writer.writeStartObject();
+                    test.assertThrows(() -> writer.writePropertyName(""),
+                        new PreConditionFailure("propertyName cannot be empty."));
+                });
+            });
+
+            runner.testGroup("writeEndArray()", () ->
+            {
+                runner.test("when not in an array", (Test test) ->
+                {
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)InMemoryCharacterToByteStream.create());
+                    writer.writeStartObject();
+                    test.assertThrows(writer::writeEndArray,
+                        new PreConditionFailure("this.isInArray() cannot be false."));
+                });
+            });
+
+            runner.testGroup("writeSegment(JSONSegment)", () ->
+            {
+                final Action2<String,JSONFormat> writeSegmentTest = (String text, JSONFormat format) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(text) + " and " + (format == JSONFormat.pretty ? "pretty" : "consise") + " format", (Test test) ->
+                    {
+                        final JSONSegment segment = JSON.parse(text).await();
+                        final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                        final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream, format);
+                        test.assertSame(writer, writer.writeSegment(segment));
+                        test.assertEqual(segment.toString(format), stream.getText().await());
+                    });
+                };
+
+                for (final JSONFormat format : Iterable.create(JSONFormat.consise, JSONFormat.pretty))
+                {
+                    writeSegmentTest.run("null", format);
+                    writeSegmentTest.run("true", format);
+                    writeSegmentTest.run("-12.5e3", format);
+                    writeSegmentTest.run("'it\\'s'", format);
+                    writeSegmentTest.run("{}", format);
+                    writeSegmentTest.run("[]", format);
+                    writeSegmentTest.run("{\"a\":1}", format);
+                    writeSegmentTest.run("[1,2,3]", format);
+                    writeSegmentTest.run("{\"a\":[1,{\"b\":[]},{}],\"c\":{\"d\":\"e\\\\n\"},\"f\":null}", format);
+                }
+            });
+
+            runner.testGroup("write sequence", () ->
+            {
+                runner.test("with pretty format", (Test test) ->
+                {
+                    final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream, JSONFormat.pretty);
+                    writer.writeStartObject()
+                        .writePropertyName("name").writeString("qub")
+                        .writePropertyName("values").writeStartArray()
+                            .writeNumber(1)
+                            .writeNumber(2.5)
+                            .writeBoolean(false)
+                            .writeNull()
+                            .writeStartObject().writeEndObject()
+                        .writeEndArray()
+                        .writeEndObject();
+                    test.assertEqual(0, writer.getDepth());
+
+                    final JSONObject expected = JSONObject.create()
+                        .setString("name", "qub")
+                        .setArray("values", JSONArray.create(JSONNumber.create(1), JSONNumber.create(2.5), JSONBoolean.falseSegment, JSONNull.segment, JSONObject.create()));
+                    test.assertEqual(expected.toString(JSONFormat.pretty), stream.getText().await());
+                });
+
+                runner.test("with multiple top-level values", (Test test) ->
+                {
+                    final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream);
+                    writer.writeStartObject().writePropertyName("a").writeNumber(1).writeEndObject();
+                    writer.writeStartObject().writePropertyName("a").writeNumber(2).writeEndObject();
+                    test.assertEqual("{\"a\":1}\n{\"a\":2}", stream.getText().await());
+                });
+
+                runner.test("with unfinished value", (Test test) ->
+                {
+                    final InMemoryCharacterToByteStream stream = InMemoryCharacterToByteStream.create();
+                    final JSONWriter writer = JSONWriter.create((CharacterWriteStream)stream);
+                    writer.writeStartArray().writeNumber(1);
+                    test.assertEqual("", stream.getText().await());
+                    test.assertEqual(1, writer.getDepth());
+
+                    test.assertSame(writer, writer.flush());
+                    test.assertEqual("[1", stream.getText().await());
+                });
+            });
+
+            runner.testGroup("create(ByteWriteStream,JSONFormat)", () ->
+            {
+                runner.test("with multi-byte characters", (Test test) ->
+                {
+                    final InMemoryByteStream stream = InMemoryByteStream.create();
+                    final JSONWriter writer = JSONWriter.create(stream, JSONFormat.consise);
+                    writer.writeStartArray().writeString("\u00e9\u4e2d\ud83d\ude00").writeEndArray();
+                    test.assertEqual(CharacterEncoding.UTF_8.encodeCharacters("[\"\u00e9\u4e2d\ud83d\ude00\"]").await(), stream.getBytes());
+                });
+
+                final int recordCount = 100000;
+                runner.speedTest("with " + recordCount + " records", Duration.seconds(1), (Test test) ->
+                {
+                    final java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
+                    final JSONWriter writer = JSONWriter.create(OutputStreamToByteWriteStream.create(outputStream), JSONFormat.pretty);
+                    writer.writeStartArray();
+                    for (int i = 0; i < recordCount; ++i)
+                    {
+                        writer.writeStartObject()
+                            .writePropertyName("id").writeNumber(i)
+                            .writePropertyName("name").writeString("element")
+                            .writePropertyName("ratio").writeNumber(i / 8.0)
+                            .writePropertyName("enabled").writeBoolean(Math.isOdd(i))
+                            .writeEndObject();
+                    }
+                    writer.writeEndArray();
+                    test.assertGreaterThan(outputStream.size(), recordCount * 60);
+                });
+            });
+        });
+    }
+}
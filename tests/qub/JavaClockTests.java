@@ -44,6 +44,86 @@ public interface JavaClockTests
                     test.assertEqual(1, counter.get());
                     test.assertGreaterThanOrEqualTo(duration, delay, Duration.microseconds(1));
                 });
+
+                runner.test("with Datetime before now", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    final IntegerValue counter = IntegerValue.create(0);
+
+                    clock.scheduleAt(clock.getCurrentDateTime().minus(Duration.seconds(1)), counter::increment).await();
+
+                    test.assertEqual(1, counter.get());
+                });
+            });
+
+            runner.testGroup("scheduleTimerAfter(Duration,Action0)", () ->
+            {
+                runner.test("with null delay", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    test.assertThrows(() -> clock.scheduleTimerAfter(null, () -> {}),
+                        new PreConditionFailure("delay cannot be null."));
+                });
+
+                runner.test("with null action", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    test.assertThrows(() -> clock.scheduleTimerAfter(Duration.milliseconds(1), null),
+                        new PreConditionFailure("action cannot be null."));
+                });
+
+                runner.test("with positive Duration", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                    final DateTime startTime = clock.getCurrentDateTime();
+                    final Duration delay = Duration.milliseconds(20);
+
+                    final TimerWheelTimer timer = clock.scheduleTimerAfter(delay, latch::countDown);
+                    test.assertTrue(TimerWheelTests.await(latch));
+
+                    final Duration duration = clock.getCurrentDateTime().minus(startTime);
+                    test.assertTrue(timer.hasFired());
+                    test.assertGreaterThanOrEqualTo(duration, delay, Duration.microseconds(1));
+                });
+
+                runner.test("when disposed before it fires", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    final IntegerValue counter = IntegerValue.create(0);
+
+                    final TimerWheelTimer timer = clock.scheduleTimerAfter(Duration.milliseconds(20), counter::increment);
+                    test.assertTrue(timer.dispose().await());
+
+                    clock.scheduleAfter(Duration.milliseconds(40), () -> {}).await();
+                    test.assertEqual(0, counter.get());
+                    test.assertFalse(timer.hasFired());
+                });
+            });
+
+            runner.testGroup("scheduleTimerAt(DateTime,Action0)", () ->
+            {
+                runner.test("with null dateTime", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    test.assertThrows(() -> clock.scheduleTimerAt(null, () -> {}),
+                        new PreConditionFailure("dateTime cannot be null."));
+                });
+
+                runner.test("with Datetime after now", (Test test) ->
+                {
+                    final JavaClock clock = JavaClock.create(parallelAsyncRunner);
+                    final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                    final DateTime startTime = clock.getCurrentDateTime();
+                    final Duration delay = Duration.milliseconds(20);
+
+                    final TimerWheelTimer timer = clock.scheduleTimerAt(startTime.plus(delay), latch::countDown);
+                    test.assertTrue(TimerWheelTests.await(latch));
+
+                    final Duration duration = clock.getCurrentDateTime().minus(startTime);
+                    test.assertTrue(timer.hasFired());
+                    test.assertGreaterThanOrEqualTo(duration, delay, Duration.microseconds(1));
+                });
             });
         });
     }
@@ -92,6 +92,162 @@ public interface JavaFileSystemTests
                     test.assertGreaterThan(rootUnusedDataSize.getValue(), 0);
                 });
             });
+
+            runner.testGroup("setMemoryMapThreshold(DataSize)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    test.assertThrows(() -> fileSystem.setMemoryMapThreshold(null),
+                        new PreConditionFailure("memoryMapThreshold cannot be null."));
+                    test.assertEqual(JavaFileSystem.defaultMemoryMapThreshold, fileSystem.getMemoryMapThreshold());
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    test.assertSame(fileSystem, fileSystem.setMemoryMapThreshold(DataSize.kibibytes(4)));
+                    test.assertEqual(DataSize.kibibytes(4), fileSystem.getMemoryMapThreshold());
+                });
+            });
+
+            runner.testGroup("getFileChannelReadStream(Path)", () ->
+            {
+                final Function1<JavaFileSystem,Path> createTestFile = (JavaFileSystem fileSystem) ->
+                {
+                    final Path testFolderPath = tempFolderPath.concatenateSegments(testNumber.increment().toString());
+                    folderFileSystem.set(FolderFileSystem.get(fileSystem, testFolderPath));
+                    folderFileSystem.get().create().await();
+                    final Path result = testFolderPath.concatenateSegments("file.txt");
+                    fileSystem.setFileContentsAsString(result, "hello world").await();
+                    return result;
+                };
+
+                runner.test("with non-existing file", (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    final Path filePath = createTestFile.run(fileSystem).getParent().await().concatenateSegments("missing.txt");
+                    test.assertThrows(() -> fileSystem.getFileChannelReadStream(filePath).await(),
+                        new FileNotFoundException(filePath));
+                });
+
+                runner.test("with file smaller than the memory map threshold", (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    final Path filePath = createTestFile.run(fileSystem);
+                    try (final FileChannelByteReadStream readStream = fileSystem.getFileChannelReadStream(filePath).await())
+                    {
+                        test.assertFalse(readStream.isMemoryMapped());
+                        test.assertEqual(CharacterEncoding.UTF_8.encodeCharacters("hello world").await(), readStream.readAllBytes().await());
+                    }
+                });
+
+                runner.test("with file at the memory map threshold", (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create().setMemoryMapThreshold(DataSize.bytes(11));
+                    final Path filePath = createTestFile.run(fileSystem);
+                    try (final FileChannelByteReadStream readStream = fileSystem.getFileChannelReadStream(filePath).await())
+                    {
+                        test.assertTrue(readStream.isMemoryMapped());
+                        test.assertEqual(CharacterEncoding.UTF_8.encodeCharacters("hello world").await(), readStream.readAllBytes().await());
+                    }
+                    test.assertEqual("hello world", fileSystem.getFileContentsAsString(filePath).await());
+                });
+            });
+
+            runner.testGroup("copyFolderTo(Path,Path,AsyncRunner)", () ->
+            {
+                runner.test("with parallel AsyncRunner",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    final Path testFolderPath = tempFolderPath.concatenateSegments(testNumber.increment().toString());
+                    folderFileSystem.set(FolderFileSystem.get(fileSystem, testFolderPath));
+                    final Path sourceFolderPath = testFolderPath.concatenateSegments("source/");
+                    final Path destinationFolderPath = testFolderPath.concatenateSegments("destination/");
+                    for (int i = 0; i < 20; ++i)
+                    {
+                        fileSystem.setFileContentsAsString(sourceFolderPath.concatenateSegments("folder" + (i % 4)).concatenateSegments(i + ".txt"), "file " + i).await();
+                    }
+
+                    test.assertNull(fileSystem.copyFolderTo(sourceFolderPath, destinationFolderPath, parallelAsyncRunner).await());
+                    for (int i = 0; i < 20; ++i)
+                    {
+                        test.assertEqual("file " + i, fileSystem.getFileContentsAsString(destinationFolderPath.concatenateSegments("folder" + (i % 4)).concatenateSegments(i + ".txt")).await());
+                    }
+                });
+            });
+
+            runner.testGroup("copyFileTo(Path,Path)", () ->
+            {
+                runner.test("with a destination that can't be opened", (Test test) ->
+                {
+                    final Path testFolderPath = tempFolderPath.concatenateSegments(testNumber.increment().toString());
+                    folderFileSystem.set(FolderFileSystem.get(JavaFileSystem.create(), testFolderPath));
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    final Path sourceFilePath = testFolderPath.concatenateSegments("source.txt");
+                    fileSystem.setFileContentsAsString(sourceFilePath, "hello").await();
+                    final Path destinationFilePath = sourceFilePath.concatenateSegments("destination.txt");
+
+                    Throwable error = null;
+                    try
+                    {
+                        fileSystem.copyFileTo(sourceFilePath, destinationFilePath).await();
+                    }
+                    catch (Throwable e)
+                    {
+                        error = e;
+                    }
+                    test.assertNotNull(error);
+                    while (error != null)
+                    {
+                        test.assertFalse(error instanceof FileNotFoundException, "The destination error was reported as the source file not existing.");
+                        error = error.getCause();
+                    }
+                    test.assertEqual("hello", fileSystem.getFileContentsAsString(sourceFilePath).await());
+                });
+            });
+
+            runner.testGroup("copyFileTo(Path,Path) speed tests", () ->
+            {
+                final DataSize fileSize = DataSize.mebibytes(32);
+                final Function1<JavaFileSystem,Path> createTestFile = (JavaFileSystem fileSystem) ->
+                {
+                    final Path testFolderPath = tempFolderPath.concatenateSegments(testNumber.increment().toString());
+                    folderFileSystem.set(FolderFileSystem.get(fileSystem, testFolderPath));
+                    final Path result = testFolderPath.concatenateSegments("source.bin");
+                    final byte[] bytes = new byte[(int)fileSize.toBytes().getValue()];
+                    for (int i = 0; i < bytes.length; ++i)
+                    {
+                        bytes[i] = (byte)i;
+                    }
+                    fileSystem.setFileContents(result, bytes).await();
+                    return result;
+                };
+
+                runner.speedTest("with streams and " + fileSize, Duration.seconds(5), (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    final Path sourceFilePath = createTestFile.run(fileSystem);
+                    final Path destinationFilePath = sourceFilePath.getParent().await().concatenateSegments("destination.bin");
+                    try (final ByteReadStream sourceStream = fileSystem.getFileContentReadStream(sourceFilePath).await();
+                         final ByteWriteStream destinationStream = fileSystem.getFileContentsByteWriteStream(destinationFilePath).await())
+                    {
+                        destinationStream.writeAll(sourceStream).await();
+                    }
+                    test.assertEqual(fileSize, fileSystem.getFileContentDataSize(destinationFilePath).await());
+                });
+
+                runner.speedTest("with transferTo and " + fileSize, Duration.seconds(5), (Test test) ->
+                {
+                    final JavaFileSystem fileSystem = JavaFileSystem.create();
+                    final Path sourceFilePath = createTestFile.run(fileSystem);
+                    final Path destinationFilePath = sourceFilePath.getParent().await().concatenateSegments("destination.bin");
+                    fileSystem.copyFileTo(sourceFilePath, destinationFilePath).await();
+                    test.assertEqual(fileSize, fileSystem.getFileContentDataSize(destinationFilePath).await());
+                });
+            });
         });
     }
 }
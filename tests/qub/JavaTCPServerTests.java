@@ -118,19 +118,21 @@ public interface JavaTCPServerTests
 
                     final Network network = JavaNetwork.create(clock);
                     final Value<byte[]> clientReadBytes = Value.create();
-                    final Result<Void> clientTask = parallelAsyncRunner.schedule(() ->
-                    {
-                        try (final TCPClient tcpClient = network.createTCPClient(ipAddress, port.get()).await())
-                        {
-                            test.assertEqual(bytes.length, tcpClient.write(bytes).await());
-                            clientReadBytes.set(tcpClient.readBytes(bytes.length).await());
-                        }
-                    });
+                    final Result<Void> clientTask;
 
                     try (final TCPServer tcpServer = network.createTCPServer(ipAddress, port.get()).await())
                     {
                         test.assertNotNull(tcpServer);
 
+                        clientTask = parallelAsyncRunner.schedule(() ->
+                        {
+                            try (final TCPClient tcpClient = network.createTCPClient(ipAddress, port.get()).await())
+                            {
+                                test.assertEqual(bytes.length, tcpClient.write(bytes).await());
+                                clientReadBytes.set(tcpClient.readBytes(bytes.length).await());
+                            }
+                        });
+
                         try (final TCPClient serverClient = tcpServer.accept().await())
                         {
                             test.assertNotNull(serverClient);
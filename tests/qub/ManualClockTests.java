@@ -118,6 +118,34 @@ public interface ManualClockTests
                 });
             });
 
+            runner.testGroup("getMonotonicNanoseconds()", () ->
+            {
+                runner.test("with new clock", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create(DateTime.create(2020, 1, 2));
+                    test.assertEqual(0, clock.getMonotonicNanoseconds());
+                    test.assertEqual(0, clock.getMonotonicNanoseconds());
+                });
+
+                runner.test("after advance()", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create(mainAsyncRunner);
+                    clock.advance(Duration.microseconds(3)).await();
+                    test.assertEqual(3000, clock.getMonotonicNanoseconds());
+                    clock.advance(Duration.seconds(2)).await();
+                    test.assertEqual(2000003000L, clock.getMonotonicNanoseconds());
+                });
+
+                runner.test("after advance() with negative Duration", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create(mainAsyncRunner);
+                    clock.advance(Duration.nanoseconds(10)).await();
+                    clock.advance(Duration.nanoseconds(-5)).await();
+                    test.assertEqual(10, clock.getMonotonicNanoseconds());
+                    test.assertEqual(DateTime.epoch.plus(Duration.nanoseconds(5)), clock.getCurrentDateTime());
+                });
+            });
+
             runner.testGroup("scheduleAfter(Duration,Action0)", () ->
             {
                 runner.test("with positive Duration", (Test test) ->
@@ -0,0 +1,72 @@
+package qub;
+
+public interface MapTests
+{
+    public static void test(TestRunner runner)
+    {
+        runner.testGroup(Map.class, () ->
+        {
+            runner.testGroup("create()", () ->
+            {
+                runner.test("with no arguments", (Test test) ->
+                {
+                    final MutableMap<String,Integer> map = Map.create();
+                    test.assertNotNull(map);
+                    test.assertEqual(0, map.getCount());
+                });
+
+                runner.test("preserves insertion order", (Test test) ->
+                {
+                    final MutableMap<String,Integer> map = Map.create();
+                    map.set("c", 1).set("a", 2).set("b", 3).set("a", 4);
+                    test.assertEqual(Iterable.create("c", "a", "b"), map.iterateKeys().toList());
+                    test.assertEqual(Iterable.create(1, 4, 3), map.iterateValues().toList());
+                });
+
+                runner.test("with keys that are equal but not the same object", (Test test) ->
+                {
+                    final MutableMap<Object,Integer> map = Map.create();
+                    map.set(DateTime.create(2020, 1, 2), 1);
+                    map.set(DataSize.kilobytes(1), 2);
+                    map.set(CharacterList.create('a', 'b'), 3);
+                    map.set(IntegerValue.create(5), 4);
+                    map.set(new CommandLineArgument("name", "value"), 5);
+                    map.set(JSONString.get("hello"), 6);
+
+                    test.assertEqual(1, map.get(DateTime.create(2020, 1, 2)).await());
+                    test.assertEqual(2, map.get(DataSize.bytes(1000)).await());
+                    test.assertEqual(3, map.get(CharacterArray.create('a', 'b')).await());
+                    test.assertEqual(4, map.get(IntegerValue.create(5)).await());
+                    test.assertEqual(5, map.get(new CommandLineArgument("name", "value")).await());
+                    test.assertEqual(6, map.get(JSONString.get("hello")).await());
+                    test.assertFalse(map.containsKey(DateTime.create(2020, 1, 3)));
+                });
+
+                final Action3<String,Function0<MutableMap<Tuple2<String,Integer>,Integer>>,Integer> scalingSpeedTest = (String mapType, Function0<MutableMap<Tuple2<String,Integer>,Integer>> creator, Integer entryCount) ->
+                {
+                    runner.speedTest("with " + entryCount + " Tuple2 keys in a " + mapType, Duration.seconds(2), (Test test) ->
+                    {
+                        final MutableMap<Tuple2<String,Integer>,Integer> map = creator.run();
+                        for (int i = 0; i < entryCount; ++i)
+                        {
+                            final Tuple2<String,Integer> key = Tuple.create("publisher" + (i % 10), i);
+                            if (!map.containsKey(key))
+                            {
+                                map.set(key, i);
+                            }
+                        }
+                        test.assertEqual(entryCount, map.getCount());
+                        test.assertEqual(entryCount - 1, map.get(Tuple.create("publisher" + ((entryCount - 1) % 10), entryCount - 1)).await());
+                    });
+                };
+
+                for (final int entryCount : new int[] { 10, 1000, 100000, 1000000 })
+                {
+                    scalingSpeedTest.run("Map.create()", Map::create, entryCount);
+                }
+                scalingSpeedTest.run("ListMap", ListMap::create, 10);
+                scalingSpeedTest.run("ListMap", ListMap::create, 1000);
+            });
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package qub;
+
+public interface NIONetworkTests
+{
+    static void test(TestRunner runner)
+    {
+        final List<NIONetwork> networks = List.create();
+
+        runner.afterTest((Test test) ->
+        {
+            for (final NIONetwork network : networks)
+            {
+                network.dispose().await();
+            }
+            networks.clear();
+        });
+
+        final Function1<Clock,NIONetwork> createNetwork = (Clock clock) ->
+        {
+            final NIONetwork result = NIONetwork.create(clock);
+            networks.add(result);
+            return result;
+        };
+
+        runner.testGroup(NIONetwork.class, () ->
+        {
+            NetworkTests.test(runner, createNetwork::run);
+
+            runner.testGroup("create()", () ->
+            {
+                runner.test("with no arguments", (Test test) ->
+                {
+                    final NIONetwork network = NIONetwork.create();
+                    networks.add(network);
+                    test.assertEqual(java.lang.Runtime.getRuntime().availableProcessors(), network.getEventLoopCount());
+                    test.assertEqual(NIONetwork.defaultTCPServerBacklog, network.getTCPServerBacklog());
+                    test.assertFalse(network.getTCPNoDelay());
+                    test.assertFalse(network.getKeepAlive());
+                    test.assertEqual(DataSize.zero, network.getReceiveBufferSize());
+                    test.assertEqual(DataSize.zero, network.getSendBufferSize());
+                });
+            });
+
+            runner.testGroup("create(Clock,int)", () ->
+            {
+                runner.test("with null clock", (Test test) ->
+                {
+                    test.assertThrows(() -> NIONetwork.create(null, 1),
+                        new PreConditionFailure("clock cannot be null."));
+                });
+
+                runner.test("with 0 eventLoopCount", (Test test) ->
+                {
+                    test.assertThrows(() -> NIONetwork.create(ManualClock.create(), 0),
+                        new PreConditionFailure("eventLoopCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 3 eventLoopCount", (Test test) ->
+                {
+                    final NIONetwork network = NIONetwork.create(ManualClock.create(), 3);
+                    networks.add(network);
+                    test.assertEqual(3, network.getEventLoopCount());
+                });
+            });
+
+            runner.testGroup("setTCPServerBacklog(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertThrows(() -> network.setTCPServerBacklog(0),
+                        new PreConditionFailure("tcpServerBacklog (0) must be greater than or equal to 1."));
+                    test.assertEqual(NIONetwork.defaultTCPServerBacklog, network.getTCPServerBacklog());
+                });
+
+                runner.test("with 1000", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertSame(network, network.setTCPServerBacklog(1000));
+                    test.assertEqual(1000, network.getTCPServerBacklog());
+                });
+            });
+
+            runner.testGroup("setReceiveBufferSize(DataSize)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertThrows(() -> network.setReceiveBufferSize(null),
+                        new PreConditionFailure("receiveBufferSize cannot be null."));
+                });
+
+                runner.test("with 64 kibibytes", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertSame(network, network.setReceiveBufferSize(DataSize.kibibytes(64)));
+                    test.assertEqual(DataSize.kibibytes(64), network.getReceiveBufferSize());
+                });
+            });
+
+            runner.testGroup("setSendBufferSize(DataSize)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertThrows(() -> network.setSendBufferSize(null),
+                        new PreConditionFailure("sendBufferSize cannot be null."));
+                });
+
+                runner.test("with 64 kibibytes", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertSame(network, network.setSendBufferSize(DataSize.kibibytes(64)));
+                    test.assertEqual(DataSize.kibibytes(64), network.getSendBufferSize());
+                });
+            });
+
+            runner.testGroup("createTCPClient(IPv4Address,int)", () ->
+            {
+                runner.test("with socket options", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create())
+                        .setTCPNoDelay(true)
+                        .setKeepAlive(true)
+                        .setReceiveBufferSize(DataSize.kibibytes(64))
+                        .setSendBufferSize(DataSize.kibibytes(64));
+                    try (final NIOTCPServer server = network.createTCPServer(IPv4Address.localhost, 20481).await();
+                         final NIOTCPClient client = network.createTCPClient(IPv4Address.localhost, 20481).await();
+                         final NIOTCPClient acceptedClient = server.acceptAsync().await())
+                    {
+                        test.assertEqual(1, client.write((byte)5).await());
+                        test.assertEqual(5, acceptedClient.readByte().await());
+                    }
+                });
+
+                runner.test("when disposed", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    test.assertTrue(network.dispose().await());
+                    test.assertThrows(() -> network.createTCPClient(IPv4Address.localhost, 20482),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+            });
+
+            runner.testGroup("dispose()", () ->
+            {
+                runner.test("with pending accept", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(ManualClock.create());
+                    final NIOTCPServer server = network.createTCPServer(IPv4Address.localhost, 20483).await();
+                    final AsyncTask<NIOTCPClient> acceptTask = server.acceptAsync();
+                    test.assertTrue(network.dispose().await());
+                    test.assertTrue(network.isDisposed());
+                    test.assertThrows(() -> acceptTask.await(),
+                        new SocketClosedException(new java.net.SocketException("Socket is closed")));
+                    test.assertFalse(network.dispose().await());
+                    server.dispose().await();
+                });
+            });
+
+            runner.testGroup("loopback speed tests",
+                (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                (AsyncRunner parallelAsyncRunner) ->
+            {
+                final IntegerValue port = IntegerValue.create(20490);
+                final int connectionCount = 500;
+                final DataSize transferSize = DataSize.mebibytes(64);
+
+                final Action2<String,Function0<Network>> loopbackSpeedTests = (String networkName, Function0<Network> networkCreator) ->
+                {
+                    runner.speedTest("connections per second with " + networkName + " and " + connectionCount + " connections", Duration.seconds(10), (Test test) ->
+                    {
+                        final Network network = networkCreator.run();
+                        final int serverPort = port.incrementAndGet();
+                        try (final TCPServer server = network.createTCPServer(IPv4Address.localhost, serverPort).await())
+                        {
+                            final Result<Void> serverTask = parallelAsyncRunner.schedule(() ->
+                            {
+                                for (int i = 0; i < connectionCount; ++i)
+                                {
+                                    server.accept().await().dispose().await();
+                                }
+                            });
+
+                            for (int i = 0; i < connectionCount; ++i)
+                            {
+                                network.createTCPClient(IPv4Address.localhost, serverPort).await().dispose().await();
+                            }
+                            serverTask.await();
+                        }
+                    });
+
+                    runner.speedTest("bytes per second with " + networkName + " and " + transferSize, Duration.seconds(10), (Test test) ->
+                    {
+                        final Network network = networkCreator.run();
+                        final int serverPort = port.incrementAndGet();
+                        final int byteCount = (int)transferSize.toBytes().getValue();
+                        try (final TCPServer server = network.createTCPServer(IPv4Address.localhost, serverPort).await())
+                        {
+                            final Result<Long> serverTask = parallelAsyncRunner.schedule(() ->
+                            {
+                                long bytesRead = 0;
+                                try (final TCPClient acceptedClient = server.accept().await())
+                                {
+                                    final byte[] buffer = new byte[64 * 1024];
+                                    int readCount;
+                                    while (bytesRead < byteCount && (readCount = acceptedClient.readBytesInto(buffer, 0, buffer.length)) != -1)
+                                    {
+                                        bytesRead += readCount;
+                                    }
+                                }
+                                return bytesRead;
+                            });
+
+                            try (final TCPClient client = network.createTCPClient(IPv4Address.localhost, serverPort).await())
+                            {
+                                final byte[] buffer = new byte[64 * 1024];
+                                for (int bytesWritten = 0; bytesWritten < byteCount; bytesWritten += buffer.length)
+                                {
+                                    client.writeAll(buffer).await();
+                                }
+                            }
+                            test.assertEqual((long)byteCount, serverTask.await());
+                        }
+                    });
+                };
+
+                loopbackSpeedTests.run("JavaNetwork", () -> JavaNetwork.create(JavaClock.create(parallelAsyncRunner)));
+                loopbackSpeedTests.run("NIONetwork", () -> createNetwork.run(JavaClock.create(parallelAsyncRunner)));
+            });
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package qub;
+
+public interface NIOTCPClientTests
+{
+    static void test(TestRunner runner)
+    {
+        final IntegerValue port = IntegerValue.create(20400);
+        final Value<NIONetwork> network = Value.create();
+        final Value<NIOTCPServer> tcpServer = Value.create();
+
+        runner.afterTest((Test test) ->
+        {
+            if (tcpServer.hasValue())
+            {
+                tcpServer.get().dispose().await();
+                tcpServer.clear();
+            }
+            if (network.hasValue())
+            {
+                network.get().dispose().await();
+                network.clear();
+            }
+        });
+
+        final Function0<NIOTCPServer> createServer = () ->
+        {
+            network.set(NIONetwork.create(ManualClock.create(), 1));
+            tcpServer.set(network.get().createTCPServer(IPv4Address.localhost, port.incrementAndGet()).await());
+            return tcpServer.get();
+        };
+
+        runner.testGroup(NIOTCPClient.class, () ->
+        {
+            runner.testGroup("readBytesAsync(byte[],int,int)", () ->
+            {
+                runner.test("with null outputBytes", (Test test) ->
+                {
+                    createServer.run();
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        test.assertThrows(() -> client.readBytesAsync(null, 0, 1),
+                            new PreConditionFailure("outputBytes cannot be null."));
+                    }
+                });
+
+                runner.test("with zero length", (Test test) ->
+                {
+                    createServer.run();
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        final AsyncTask<Integer> readTask = client.readBytesAsync(new byte[1], 0, 0);
+                        test.assertTrue(readTask.isCompleted());
+                        test.assertEqual(0, readTask.await());
+                    }
+                });
+
+                runner.test("before the bytes are written", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createServer.run();
+                         final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await();
+                         final NIOTCPClient acceptedClient = server.acceptAsync().await())
+                    {
+                        final byte[] readBytes = new byte[5];
+                        final AsyncTask<Integer> readTask = client.readBytesAsync(readBytes, 1, 4);
+                        test.assertFalse(readTask.isCompleted());
+
+                        test.assertEqual(3, acceptedClient.writeAsync(new byte[] { 1, 2, 3 }, 0, 3).await());
+                        test.assertEqual(3, readTask.await());
+                        test.assertEqual(new byte[] { 0, 1, 2, 3, 0 }, readBytes);
+                    }
+                });
+
+                runner.test("when the remote client is disposed", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createServer.run();
+                         final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        final AsyncTask<Integer> readTask = client.readBytesAsync(new byte[1], 0, 1);
+                        test.assertTrue(server.acceptAsync().await().dispose().await());
+                        test.assertThrows(() -> readTask.await(),
+                            new EmptyException());
+                        test.assertEqual(-1, client.readBytesInto(new byte[1], 0, 1));
+                        test.assertEqual(-1, client.readByteAsInt());
+                    }
+                });
+
+                runner.test("when disposed while reading", (Test test) ->
+                {
+                    createServer.run();
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        final AsyncTask<Integer> readTask = client.readBytesAsync(new byte[1], 0, 1);
+                        test.assertTrue(client.dispose().await());
+                        test.assertThrows(() -> readTask.await(),
+                            new SocketClosedException(new java.net.SocketException("Socket is closed")));
+                        test.assertThrows(() -> client.readBytesAsync(new byte[1], 0, 1),
+                            new PreConditionFailure("this.isDisposed() cannot be true."));
+                    }
+                });
+            });
+
+            runner.testGroup("writeAsync(byte[],int,int)", () ->
+            {
+                runner.test("with empty toWrite", (Test test) ->
+                {
+                    createServer.run();
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        test.assertThrows(() -> client.writeAsync(new byte[0], 0, 0),
+                            new PreConditionFailure("toWrite cannot be empty."));
+                    }
+                });
+
+                runner.test("with more bytes than the socket buffers can hold", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createServer.run();
+                         final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await();
+                         final NIOTCPClient acceptedClient = server.acceptAsync().await())
+                    {
+                        final byte[] bytes = new byte[16 * 1024 * 1024];
+                        for (int i = 0; i < bytes.length; ++i)
+                        {
+                            bytes[i] = (byte)i;
+                        }
+
+                        final byte[] readBytes = new byte[bytes.length];
+                        int bytesWritten = 0;
+                        int bytesRead = 0;
+                        while (bytesRead < bytes.length)
+                        {
+                            final AsyncTask<Integer> writeTask = bytesWritten < bytes.length
+                                ? client.writeAsync(bytes, bytesWritten, bytes.length - bytesWritten)
+                                : null;
+                            bytesRead += acceptedClient.readBytesAsync(readBytes, bytesRead, bytes.length - bytesRead).await();
+                            if (writeTask != null)
+                            {
+                                bytesWritten += writeTask.await();
+                            }
+                        }
+                        test.assertEqual(bytes.length, bytesWritten);
+                        test.assertEqual(bytes.length, bytesRead);
+                        test.assertEqual((byte)(bytes.length - 1), readBytes[bytes.length - 1]);
+                    }
+                });
+            });
+
+            runner.testGroup("writeAsync(java.nio.ByteBuffer[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    createServer.run();
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        test.assertThrows(() -> client.writeAsync((java.nio.ByteBuffer[])null),
+                            new PreConditionFailure("toWrite cannot be null."));
+                    }
+                });
+
+                runner.test("with several buffers", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createServer.run();
+                         final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await();
+                         final NIOTCPClient acceptedClient = server.acceptAsync().await())
+                    {
+                        final java.nio.ByteBuffer header = java.nio.ByteBuffer.wrap(new byte[] { 1, 2 });
+                        final java.nio.ByteBuffer payload = java.nio.ByteBuffer.allocateDirect(3).put(new byte[] { 3, 4, 5 }).flip();
+                        test.assertEqual(5, client.writeAsync(new java.nio.ByteBuffer[] { header, payload }).await());
+                        test.assertFalse(header.hasRemaining());
+                        test.assertFalse(payload.hasRemaining());
+
+                        test.assertEqual(new byte[] { 1, 2, 3, 4, 5 }, acceptedClient.readBytes(5).await());
+                    }
+                });
+
+                runner.test("when disposed", (Test test) ->
+                {
+                    createServer.run();
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await())
+                    {
+                        test.assertTrue(client.dispose().await());
+                        test.assertThrows(() -> client.writeAsync(new java.nio.ByteBuffer[] { java.nio.ByteBuffer.wrap(new byte[] { 1 }) }),
+                            new PreConditionFailure("this.isDisposed() cannot be true."));
+                    }
+                });
+            });
+
+            runner.test("from a thread without an AsyncRunner", (Test test) ->
+            {
+                final NIOTCPServer server = createServer.run();
+                final Value<byte[]> readBytes = Value.create();
+                final Value<Throwable> error = Value.create();
+                final java.lang.Thread thread = new java.lang.Thread(() ->
+                {
+                    try (final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await();
+                         final NIOTCPClient acceptedClient = server.acceptAsync().await())
+                    {
+                        test.assertEqual(3, client.writeAsync(new byte[] { 1, 2, 3 }, 0, 3).await());
+                        readBytes.set(acceptedClient.readBytes(3).await());
+                    }
+                    catch (Throwable e)
+                    {
+                        error.set(e);
+                    }
+                });
+                thread.start();
+                try
+                {
+                    thread.join();
+                }
+                catch (java.lang.InterruptedException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+
+                test.assertFalse(error.hasValue());
+                test.assertEqual(new byte[] { 1, 2, 3 }, readBytes.get());
+            });
+
+            runner.testGroup("dispose()", () ->
+            {
+                runner.test("multiple times", (Test test) ->
+                {
+                    createServer.run();
+                    final NIOTCPClient client = network.get().createTCPClient(IPv4Address.localhost, port.get()).await();
+                    test.assertTrue(client.dispose().await());
+                    test.assertTrue(client.isDisposed());
+                    test.assertFalse(client.dispose().await());
+                    test.assertTrue(client.isDisposed());
+                });
+            });
+        });
+    }
+}
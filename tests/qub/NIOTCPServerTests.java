@@ -0,0 +1,165 @@
+package qub;
+
+public interface NIOTCPServerTests
+{
+    static void test(TestRunner runner)
+    {
+        final List<NIONetwork> networks = List.create();
+
+        runner.afterTest((Test test) ->
+        {
+            for (final NIONetwork network : networks)
+            {
+                network.dispose().await();
+            }
+            networks.clear();
+        });
+
+        final Function1<Clock,NIONetwork> createNetwork = (Clock clock) ->
+        {
+            final NIONetwork result = clock == null ? NIONetwork.create() : NIONetwork.create(clock, 1);
+            networks.add(result);
+            return result;
+        };
+
+        runner.testGroup(NIOTCPServer.class, () ->
+        {
+            final IntegerValue port = IntegerValue.create(20300);
+
+            TCPServerTests.test(runner, (Clock clock) ->
+            {
+                return createNetwork.run(clock).createTCPServer(port.incrementAndGet()).await();
+            });
+
+            runner.testGroup("getLocalIPAddress()", () ->
+            {
+                runner.test("when bound to localhost", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createNetwork.run(null).createTCPServer(IPv4Address.localhost, port.incrementAndGet()).await())
+                    {
+                        test.assertEqual(IPv4Address.localhost, server.getLocalIPAddress());
+                        test.assertEqual(port.get(), server.getLocalPort());
+                    }
+                });
+            });
+
+            runner.testGroup("acceptAsync()", () ->
+            {
+                runner.test("when disposed", (Test test) ->
+                {
+                    final NIOTCPServer server = createNetwork.run(null).createTCPServer(port.incrementAndGet()).await();
+                    test.assertTrue(server.dispose().await());
+                    test.assertThrows(() -> server.acceptAsync().await(),
+                        new SocketClosedException(new java.net.SocketException("Socket is closed")));
+                });
+
+                runner.test("with no incoming clients when disposed", (Test test) ->
+                {
+                    final NIOTCPServer server = createNetwork.run(null).createTCPServer(port.incrementAndGet()).await();
+                    final AsyncTask<NIOTCPClient> acceptTask = server.acceptAsync();
+                    test.assertFalse(acceptTask.isCompleted());
+                    test.assertTrue(server.dispose().await());
+                    test.assertThrows(() -> acceptTask.await(),
+                        new SocketClosedException(new java.net.SocketException("Socket is closed")));
+                });
+
+                runner.test("with client that connects after accepting starts", (Test test) ->
+                {
+                    final NIONetwork network = createNetwork.run(null);
+                    try (final NIOTCPServer server = network.createTCPServer(IPv4Address.localhost, port.incrementAndGet()).await())
+                    {
+                        final AsyncTask<NIOTCPClient> acceptTask = server.acceptAsync();
+                        test.assertFalse(acceptTask.isCompleted());
+
+                        try (final NIOTCPClient client = network.createTCPClient(IPv4Address.localhost, port.get()).await();
+                             final NIOTCPClient acceptedClient = acceptTask.await())
+                        {
+                            test.assertEqual(client.getLocalPort(), acceptedClient.getRemotePort());
+                            test.assertEqual(port.get(), acceptedClient.getLocalPort());
+                        }
+                    }
+                });
+
+                runner.test("with many clients on one event loop",
+                    (TestResources resources) -> Tuple.create(resources.getClock()),
+                    (Test test, Clock clock) ->
+                {
+                    final NIONetwork network = createNetwork.run(clock);
+                    test.assertEqual(1, network.getEventLoopCount());
+
+                    final int clientCount = 100;
+                    try (final NIOTCPServer server = network.setTCPServerBacklog(clientCount).createTCPServer(IPv4Address.localhost, port.incrementAndGet()).await())
+                    {
+                        final List<AsyncTask<NIOTCPClient>> acceptTasks = List.create();
+                        for (int i = 0; i < clientCount; ++i)
+                        {
+                            acceptTasks.add(server.acceptAsync());
+                        }
+
+                        final List<NIOTCPClient> clients = List.create();
+                        for (int i = 0; i < clientCount; ++i)
+                        {
+                            final NIOTCPClient client = network.createTCPClient(IPv4Address.localhost, port.get()).await();
+                            clients.add(client);
+                            test.assertEqual(1, client.write((byte)i).await());
+                        }
+
+                        final List<AsyncTask<Integer>> readTasks = List.create();
+                        final byte[] readBytes = new byte[clientCount];
+                        for (int i = 0; i < clientCount; ++i)
+                        {
+                            readTasks.add(acceptTasks.get(i).await().readBytesAsync(readBytes, i, 1));
+                        }
+                        Result.await(readTasks);
+
+                        int sum = 0;
+                        for (final byte readByte : readBytes)
+                        {
+                            sum += Bytes.toUnsignedInt(readByte);
+                        }
+                        test.assertEqual(clientCount * (clientCount - 1) / 2, sum);
+
+                        for (int i = 0; i < clientCount; ++i)
+                        {
+                            clients.get(i).dispose().await();
+                            acceptTasks.get(i).await().dispose().await();
+                        }
+                    }
+                });
+            });
+
+            runner.testGroup("acceptAsync(Duration)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createNetwork.run(null).createTCPServer(port.incrementAndGet()).await())
+                    {
+                        test.assertThrows(() -> server.acceptAsync(null),
+                            new PreConditionFailure("timeout cannot be null."));
+                    }
+                });
+
+                runner.test("with no incoming clients", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createNetwork.run(null).createTCPServer(port.incrementAndGet()).await())
+                    {
+                        test.assertThrows(() -> server.acceptAsync(Duration.milliseconds(50)).await(),
+                            new TimeoutException());
+                        test.assertFalse(server.isDisposed());
+                    }
+                });
+
+                runner.test("with zero timeout", (Test test) ->
+                {
+                    try (final NIOTCPServer server = createNetwork.run(null).createTCPServer(port.incrementAndGet()).await())
+                    {
+                        final AsyncTask<NIOTCPClient> acceptTask = server.acceptAsync(Duration.zero);
+                        test.assertTrue(acceptTask.isCompleted());
+                        test.assertThrows(() -> acceptTask.await(),
+                            new TimeoutException());
+                    }
+                });
+            });
+        });
+    }
+}
@@ -138,6 +138,51 @@ public interface OutputStreamToByteWriteStreamTests
                 writeByteArrayStartIndexAndLengthTest.run(new java.io.ByteArrayOutputStream(), new byte[] { 0, 1, 2 }, 1, 1, 1, null);
                 writeByteArrayStartIndexAndLengthTest.run(new TestStubOutputStream(), new byte[] { 0, 1, 2 }, 1, 1, null, new RuntimeException(new java.io.IOException()));
             });
+
+            runner.testGroup("write(java.nio.ByteBuffer[])", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final OutputStreamToByteWriteStream writeStream = OutputStreamToByteWriteStream.create(new java.io.ByteArrayOutputStream());
+                    test.assertThrows(() -> writeStream.write((java.nio.ByteBuffer[])null),
+                        new PreConditionFailure("toWrite cannot be null."));
+                });
+
+                runner.test("with empty buffers", (Test test) ->
+                {
+                    final java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream();
+                    final OutputStreamToByteWriteStream writeStream = OutputStreamToByteWriteStream.create(outputStream);
+                    test.assertEqual(0, writeStream.write(new java.nio.ByteBuffer[] { java.nio.ByteBuffer.allocate(0) }).await());
+                    test.assertEqual(new byte[0], outputStream.toByteArray());
+                });
+
+                runner.test("with several buffers", (Test test) ->
+                {
+                    final IntegerValue writeCount = IntegerValue.create(0);
+                    final java.io.ByteArrayOutputStream outputStream = new java.io.ByteArrayOutputStream()
+                    {
+                        @Override
+                        public void write(byte[] bytes, int startIndex, int length)
+                        {
+                            writeCount.increment();
+                            super.write(bytes, startIndex, length);
+                        }
+                    };
+                    final OutputStreamToByteWriteStream writeStream = OutputStreamToByteWriteStream.create(outputStream);
+                    final java.nio.ByteBuffer directBuffer = java.nio.ByteBuffer.allocateDirect(2).put(new byte[] { 3, 4 }).flip();
+                    test.assertEqual(5, writeStream.write(new java.nio.ByteBuffer[] { java.nio.ByteBuffer.wrap(new byte[] { 1, 2 }), directBuffer, java.nio.ByteBuffer.wrap(new byte[] { 5 }) }).await());
+                    test.assertEqual(new byte[] { 1, 2, 3, 4, 5 }, outputStream.toByteArray());
+                    test.assertEqual(1, writeCount.get());
+                    test.assertFalse(directBuffer.hasRemaining());
+                });
+
+                runner.test("with an OutputStream that throws", (Test test) ->
+                {
+                    final OutputStreamToByteWriteStream writeStream = OutputStreamToByteWriteStream.create(new TestStubOutputStream());
+                    test.assertThrows(() -> writeStream.write(new java.nio.ByteBuffer[] { java.nio.ByteBuffer.wrap(new byte[] { 1 }) }).await(),
+                        new RuntimeException(new java.io.IOException()));
+                });
+            });
         });
     }
 
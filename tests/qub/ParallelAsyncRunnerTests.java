@@ -7,11 +7,89 @@ public interface ParallelAsyncRunnerTests
         runner.testGroup(ParallelAsyncRunner.class, () ->
         {
             AsyncSchedulerTests.test(runner, ParallelAsyncRunner::create);
+            AsyncSchedulerTests.test(runner, () -> ParallelAsyncRunner.create(ThreadPool.create(2, 4)));
 
             runner.test("constructor()", (Test test) ->
             {
                 final ParallelAsyncRunner asyncRunner = ParallelAsyncRunner.create();
                 test.assertNotNull(asyncRunner);
+                test.assertNull(asyncRunner.getThreadPool());
+            });
+
+            runner.testGroup("create(ThreadPool)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ParallelAsyncRunner.create((ThreadPool)null),
+                        new PreConditionFailure("threadPool cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    final ParallelAsyncRunner asyncRunner = ParallelAsyncRunner.create(threadPool);
+                    test.assertNotNull(asyncRunner);
+                    test.assertSame(threadPool, asyncRunner.getThreadPool());
+                });
+            });
+
+            runner.testGroup("schedule(AsyncTask<T>) with ThreadPool", () ->
+            {
+                runner.test("registers the ParallelAsyncRunner with the worker thread", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    try
+                    {
+                        CurrentThread.withAsyncScheduler(() -> ParallelAsyncRunner.create(threadPool), (ParallelAsyncRunner asyncRunner) ->
+                        {
+                            final ParallelAsyncRunner otherAsyncRunner = ParallelAsyncRunner.create(threadPool);
+                            final AsyncTask<AsyncScheduler> task1 = asyncRunner.schedule(() -> CurrentThread.getAsyncRunner().await());
+                            test.assertSame(asyncRunner, task1.await());
+
+                            final AsyncTask<AsyncScheduler> task2 = otherAsyncRunner.schedule(() -> CurrentThread.getAsyncRunner().await());
+                            test.assertSame(otherAsyncRunner, task2.await());
+                        });
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
+                runner.test("with many continuations", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(2);
+                    try
+                    {
+                        CurrentThread.withAsyncScheduler(() -> ParallelAsyncRunner.create(threadPool), (ParallelAsyncRunner asyncRunner) ->
+                        {
+                            final AsyncTask<Integer> firstTask = asyncRunner.create(() -> 0);
+                            AsyncTask<Integer> task = firstTask;
+                            for (int i = 0; i < 1000; ++i)
+                            {
+                                task = task.then((Integer value) -> value + 1);
+                            }
+                            firstTask.schedule();
+                            test.assertEqual(1000, task.await());
+                            test.assertTrue(threadPool.getWorkerCount() <= 2);
+                        });
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
+                runner.test("when the ThreadPool is disposed", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    threadPool.dispose().await();
+                    CurrentThread.withAsyncScheduler(() -> ParallelAsyncRunner.create(threadPool), (ParallelAsyncRunner asyncRunner) ->
+                    {
+                        final AsyncTask<Integer> task = asyncRunner.schedule(() -> 5);
+                        test.assertEqual(5, task.await());
+                    });
+                });
             });
 
             runner.test("schedule(Action0)", (Test test) ->
@@ -57,6 +135,54 @@ public interface ParallelAsyncRunnerTests
                     });
                 });
 
+                runner.test("with 16 idle waiters on separate threads", (Test test) ->
+                {
+                    CurrentThread.withParallelAsyncScheduler((ParallelAsyncRunner asyncRunner) ->
+                    {
+                        ParallelAsyncRunnerTests.assertIdleWaitersDontUseCpu(test, asyncRunner, 16);
+                    });
+                });
+
+                runner.test("with 16 idle waiters on ThreadPool worker threads", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(17);
+                    try
+                    {
+                        CurrentThread.withAsyncScheduler(() -> ParallelAsyncRunner.create(threadPool), (ParallelAsyncRunner asyncRunner) ->
+                        {
+                            ParallelAsyncRunnerTests.assertIdleWaitersDontUseCpu(test, asyncRunner, 16);
+                        });
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
+                runner.test("await task from a ThreadPool worker thread when all worker threads are busy", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    try
+                    {
+                        CurrentThread.withAsyncScheduler(() -> ParallelAsyncRunner.create(threadPool), (ParallelAsyncRunner asyncRunner) ->
+                        {
+                            final AsyncTask<Integer> task = asyncRunner.schedule(() ->
+                            {
+                                final AsyncTask<Integer> innerTask = asyncRunner.schedule(() -> 5);
+                                final int innerValue = innerTask.await();
+                                test.assertSame(asyncRunner, CurrentThread.getAsyncRunner().await());
+                                return innerValue + 1;
+                            });
+                            test.assertEqual(6, task.await());
+                            test.assertEqual(1, threadPool.getWorkerCount());
+                        });
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
                 runner.test("await task that was scheduled for the ParallelAsyncRunner in ManualAsyncRunner's thread", (Test test) ->
                 {
                     CurrentThread.withParallelAsyncScheduler((ParallelAsyncRunner asyncRunner) ->
@@ -77,4 +203,64 @@ public interface ParallelAsyncRunnerTests
             });
         });
     }
+
+    /**
+     * Start the provided number of tasks that each await a task that doesn't complete for a
+     * while, and then assert that the waiting tasks don't use a significant amount of CPU time
+     * while they wait.
+     */
+    static void assertIdleWaitersDontUseCpu(Test test, ParallelAsyncRunner asyncRunner, int waiterCount)
+    {
+        final java.lang.management.ThreadMXBean threadMXBean = java.lang.management.ManagementFactory.getThreadMXBean();
+        if (threadMXBean.isCurrentThreadCpuTimeSupported())
+        {
+            final java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+            final java.util.concurrent.CountDownLatch waitersStarted = new java.util.concurrent.CountDownLatch(waiterCount);
+            final java.util.concurrent.atomic.AtomicLong waiterCpuNanoseconds = new java.util.concurrent.atomic.AtomicLong();
+
+            final AsyncTask<Void> blockedTask = asyncRunner.schedule(() ->
+            {
+                try
+                {
+                    release.await();
+                }
+                catch (java.lang.InterruptedException e)
+                {
+                    throw Exceptions.asRuntime(e);
+                }
+            });
+
+            final List<AsyncTask<Void>> waiters = List.create();
+            for (int i = 0; i < waiterCount; ++i)
+            {
+                waiters.add(asyncRunner.schedule(() ->
+                {
+                    final long startCpuNanoseconds = threadMXBean.getCurrentThreadCpuTime();
+                    waitersStarted.countDown();
+                    blockedTask.await();
+                    waiterCpuNanoseconds.addAndGet(threadMXBean.getCurrentThreadCpuTime() - startCpuNanoseconds);
+                }));
+            }
+
+            try
+            {
+                waitersStarted.await();
+                java.lang.Thread.sleep(250);
+            }
+            catch (java.lang.InterruptedException e)
+            {
+                throw Exceptions.asRuntime(e);
+            }
+            release.countDown();
+
+            for (final AsyncTask<Void> waiter : waiters)
+            {
+                waiter.await();
+            }
+
+            // Spinning waiters would use close to 250 milliseconds of CPU time each.
+            final long waiterCpuMilliseconds = waiterCpuNanoseconds.get() / 1000000;
+            test.assertTrue(waiterCpuMilliseconds < 100, "Waiters used " + waiterCpuMilliseconds + " milliseconds of CPU time.");
+        }
+    }
 }
@@ -0,0 +1,229 @@
+package qub;
+
+public interface ParkingMutexTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ParkingMutex.class, () ->
+        {
+            MutexTests.test(runner, (Clock clock) ->
+            {
+                return clock == null
+                    ? ParkingMutex.create()
+                    : ParkingMutex.create(clock);
+            });
+
+            MutexTests.test(runner, (Clock clock) ->
+            {
+                return (clock == null
+                    ? ParkingMutex.create()
+                    : ParkingMutex.create(clock)).setFair(true);
+            });
+
+            runner.test("create()", (Test test) ->
+            {
+                final ParkingMutex mutex = ParkingMutex.create();
+                test.assertNotNull(mutex);
+                test.assertFalse(mutex.isAcquired());
+                test.assertFalse(mutex.isAcquiredByCurrentThread());
+                test.assertFalse(mutex.isFair());
+                test.assertFalse(mutex.isReentrant());
+                test.assertEqual(0, mutex.getAcquiredCount());
+            });
+
+            runner.testGroup("create(Clock)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ParkingMutex.create(null),
+                        new PreConditionFailure("clock cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create();
+                    final ParkingMutex mutex = ParkingMutex.create(clock);
+                    test.assertNotNull(mutex);
+                    test.assertFalse(mutex.isAcquired());
+                    test.assertFalse(mutex.isAcquiredByCurrentThread());
+                });
+            });
+
+            runner.testGroup("setFair(boolean)", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create();
+                    test.assertSame(mutex, mutex.setFair(true));
+                    test.assertTrue(mutex.isFair());
+                    test.assertSame(mutex, mutex.setFair(false));
+                    test.assertFalse(mutex.isFair());
+                });
+
+                runner.test("when acquired", (Test test) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create();
+                    mutex.acquire().await();
+                    test.assertThrows(() -> mutex.setFair(true),
+                        new PreConditionFailure("this.isAcquired() cannot be true."));
+                    test.assertFalse(mutex.isFair());
+                });
+            });
+
+            runner.testGroup("setReentrant(boolean)", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create();
+                    test.assertSame(mutex, mutex.setReentrant(true));
+                    test.assertTrue(mutex.isReentrant());
+                });
+
+                runner.test("when acquired", (Test test) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create();
+                    mutex.acquire().await();
+                    test.assertThrows(() -> mutex.setReentrant(true),
+                        new PreConditionFailure("this.isAcquired() cannot be true."));
+                    test.assertFalse(mutex.isReentrant());
+                });
+            });
+
+            runner.testGroup("reentrant", () ->
+            {
+                runner.test("acquire() when already acquired by the current thread", (Test test) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create().setReentrant(true);
+                    mutex.acquire().await();
+                    mutex.acquire().await();
+                    test.assertTrue(mutex.tryAcquire().await());
+                    test.assertEqual(3, mutex.getAcquiredCount());
+
+                    mutex.release().await();
+                    mutex.release().await();
+                    test.assertTrue(mutex.isAcquiredByCurrentThread());
+                    test.assertEqual(1, mutex.getAcquiredCount());
+
+                    mutex.release().await();
+                    test.assertFalse(mutex.isAcquired());
+                    test.assertEqual(0, mutex.getAcquiredCount());
+                });
+
+                runner.test("acquire() by a different thread while acquired more than once",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create().setReentrant(true);
+                    mutex.acquire().await();
+                    mutex.acquire().await();
+
+                    final Result<Void> task = parallelAsyncRunner.schedule(() ->
+                    {
+                        mutex.acquire().await();
+                        mutex.release().await();
+                    });
+
+                    mutex.release().await();
+                    test.assertTrue(mutex.isAcquiredByCurrentThread());
+                    test.assertFalse(task.isCompleted());
+
+                    mutex.release().await();
+                    task.await();
+                    test.assertFalse(mutex.isAcquired());
+                });
+
+                runner.test("watch() when acquired more than once",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create().setReentrant(true);
+                    final BooleanValue signaled = BooleanValue.create(false);
+                    final MutexCondition condition = mutex.createCondition(signaled::get);
+                    mutex.acquire().await();
+                    mutex.acquire().await();
+
+                    final Result<Void> task = parallelAsyncRunner.schedule(() ->
+                    {
+                        mutex.criticalSection(() ->
+                        {
+                            signaled.set(true);
+                            condition.signalAll();
+                        }).await();
+                    });
+
+                    condition.watch().await();
+                    test.assertTrue(signaled.get());
+                    test.assertEqual(2, mutex.getAcquiredCount());
+
+                    mutex.release().await();
+                    mutex.release().await();
+                    task.await();
+                    test.assertFalse(mutex.isAcquired());
+                });
+            });
+
+            runner.testGroup("acquire(Duration)", () ->
+            {
+                runner.test("when released by a different thread before the timeout",
+                    (TestResources resources) -> Tuple.create(resources.getClock(), resources.getParallelAsyncRunner()),
+                    (Test test, Clock clock, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ParkingMutex mutex = ParkingMutex.create(clock);
+                    final Gate acquired = SpinGate.create(false);
+                    final Result<Void> task = parallelAsyncRunner.schedule(() ->
+                    {
+                        mutex.acquire().await();
+                        acquired.open();
+                        clock.delay(Duration.milliseconds(20)).await();
+                        mutex.release().await();
+                    });
+                    acquired.passThrough().await();
+
+                    mutex.acquire(Duration.seconds(10)).await();
+                    test.assertTrue(mutex.isAcquiredByCurrentThread());
+                    task.await();
+                });
+            });
+
+            runner.testGroup("contention speed tests", () ->
+            {
+                final Action4<String,Function0<Mutex>,Integer,Integer> contentionSpeedTest = (String mutexType, Function0<Mutex> mutexCreator, Integer threadCount, Integer incrementsPerThread) ->
+                {
+                    runner.speedTest("with " + mutexType + ", " + threadCount + " thread" + (threadCount == 1 ? "" : "s") + ", and " + incrementsPerThread + " increments per thread",
+                        Duration.seconds(2),
+                        (Test test) ->
+                    {
+                        final Mutex mutex = mutexCreator.run();
+                        final long[] counter = new long[1];
+                        TestThreads.run(threadCount, (Integer threadIndex) ->
+                        {
+                            for (int j = 0; j < incrementsPerThread; ++j)
+                            {
+                                mutex.acquire().await();
+                                try
+                                {
+                                    ++counter[0];
+                                }
+                                finally
+                                {
+                                    mutex.release().await();
+                                }
+                            }
+                        });
+                        test.assertEqual((long)threadCount * incrementsPerThread, counter[0]);
+                    });
+                };
+
+                for (final int threadCount : new int[] { 1, 2, 4, 8 })
+                {
+                    contentionSpeedTest.run("unfair ParkingMutex", () -> ParkingMutex.create().setFair(false), threadCount, 100000);
+                    // A fair mutex hands itself to the longest waiting thread, so most releases
+                    // under contention unpark another thread. That makes each increment much more
+                    // expensive, so the fair mutex does fewer of them.
+                    contentionSpeedTest.run("fair ParkingMutex", () -> ParkingMutex.create().setFair(true), threadCount, 10000);
+                    contentionSpeedTest.run("SpinMutex", SpinMutex::create, threadCount, 100000);
+                }
+            });
+        });
+    }
+}
@@ -61,6 +61,46 @@ public interface PathPatternTests
                 parseStringTest.run("**");
                 parseStringTest.run("**test");
                 parseStringTest.run("*700");
+
+                runner.test("with the same text twice", (Test test) ->
+                {
+                    final PathPattern pattern = PathPattern.parse("sources/**/*Tests.java");
+                    test.assertSame(pattern, PathPattern.parse("sources/**/*Tests.java"));
+                    test.assertSame(pattern, PathPattern.parse(Path.parse("sources/**/*Tests.java")));
+                });
+            });
+
+            runner.testGroup("isMatch(String) speed", () ->
+            {
+                final int pathCount = 100000;
+                final String[] paths = new String[pathCount];
+                for (int i = 0; i < pathCount; ++i)
+                {
+                    paths[i] = "sources/qub/folder" + (i % 10) + "/subfolder" + (i % 7) + "/Class" + i + ((i % 3) == 0 ? "Tests.java" : ".java");
+                }
+
+                final Action2<String,Integer> isMatchSpeedTest = (String pattern, Integer expectedMatchCount) ->
+                {
+                    runner.speedTest("with " + Strings.escapeAndQuote(pattern) + " and " + pathCount + " paths", Duration.seconds(1), (Test test) ->
+                    {
+                        final PathPattern pathPattern = PathPattern.parse(pattern);
+                        int matchCount = 0;
+                        for (final String path : paths)
+                        {
+                            if (pathPattern.isMatch(path))
+                            {
+                                ++matchCount;
+                            }
+                        }
+                        test.assertEqual(expectedMatchCount, matchCount);
+                    });
+                };
+
+                isMatchSpeedTest.run("sources/qub/folder0/subfolder0/Class0Tests.java", 1);
+                isMatchSpeedTest.run("*.java", 0);
+                isMatchSpeedTest.run("**.java", pathCount);
+                isMatchSpeedTest.run("sources/**/*Tests.java", 33334);
+                isMatchSpeedTest.run("sources/*/folder1/**/Class*1*.java", 10000);
             });
 
             runner.testGroup("isMatch(String)", () ->
@@ -140,6 +180,26 @@ public interface PathPatternTests
                     new String[] { "", "BondsAction", "cascade strategy", "70", "100", "with cascade strategy and 100" });
             });
 
+            runner.testGroup("isPrefixMatch(String)", () ->
+            {
+                final Action3<String,String,Boolean> isPrefixMatchTest = (String pattern, String pathString, Boolean expected) ->
+                {
+                    runner.test("with " + Strings.escapeAndQuote(pattern) + " and " + Strings.escapeAndQuote(pathString), (Test test) ->
+                    {
+                        test.assertEqual(expected, PathPattern.parse(pattern).isPrefixMatch(pathString));
+                    });
+                };
+
+                isPrefixMatchTest.run("*.java", "", true);
+                isPrefixMatchTest.run("*.java", "Test", true);
+                isPrefixMatchTest.run("*.java", "sources/", false);
+                isPrefixMatchTest.run("sources/**.java", "sources/", true);
+                isPrefixMatchTest.run("sources/**.java", "sources\\qub\\", true);
+                isPrefixMatchTest.run("sources/**.java", "tests/", false);
+                isPrefixMatchTest.run("sources/*/Test.java", "sources/qub/", true);
+                isPrefixMatchTest.run("sources/*/Test.java", "sources/qub/folder/", false);
+            });
+
             runner.testGroup("getMatches(String)", () ->
             {
                 runner.test("with a*b and appb", (Test test) ->
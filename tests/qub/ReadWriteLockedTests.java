@@ -0,0 +1,219 @@
+package qub;
+
+public interface ReadWriteLockedTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ReadWriteLocked.class, () ->
+        {
+            runner.testGroup("create(T)", () ->
+            {
+                runner.test("with null value", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(null);
+                    value.readUnlock((IntegerValue intValue) ->
+                    {
+                        test.assertNull(intValue);
+                    });
+                });
+
+                runner.test("with non-null value", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    value.readUnlock((IntegerValue intValue) ->
+                    {
+                        test.assertEqual(5, intValue.get());
+                    });
+                });
+            });
+
+            runner.testGroup("create(T,ReadWriteMutex)", () ->
+            {
+                runner.test("with null mutex", (Test test) ->
+                {
+                    test.assertThrows(() -> ReadWriteLocked.create(5, null),
+                        new PreConditionFailure("mutex cannot be null."));
+                });
+
+                runner.test("with non-null mutex", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5), mutex);
+                    value.readUnlock((IntegerValue intValue) ->
+                    {
+                        test.assertTrue(mutex.isReadAcquired());
+                        test.assertFalse(mutex.isWriteAcquired());
+                    });
+                    value.writeUnlock((IntegerValue intValue) ->
+                    {
+                        test.assertFalse(mutex.isReadAcquired());
+                        test.assertTrue(mutex.isWriteAcquiredByCurrentThread());
+                    });
+                    test.assertFalse(mutex.isReadAcquired());
+                    test.assertFalse(mutex.isWriteAcquired());
+                });
+            });
+
+            runner.testGroup("readUnlock(Function1<T,U>)", () ->
+            {
+                runner.test("with null function", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    test.assertThrows(() -> value.readUnlock((Function1<IntegerValue,Integer>)null),
+                        new PreConditionFailure("function cannot be null."));
+                });
+
+                runner.test("with non-null function", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    test.assertEqual(6, value.readUnlock((IntegerValue intValue) -> intValue.get() + 1));
+                });
+            });
+
+            runner.testGroup("optimisticReadUnlock(Function1<T,U>)", () ->
+            {
+                runner.test("with null function", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    test.assertThrows(() -> value.optimisticReadUnlock((Function1<IntegerValue,Integer>)null),
+                        new PreConditionFailure("function cannot be null."));
+                });
+
+                runner.test("with non-null function", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5), mutex);
+                    test.assertEqual(5, value.optimisticReadUnlock((IntegerValue intValue) ->
+                    {
+                        test.assertFalse(mutex.isReadAcquired());
+                        return intValue.get();
+                    }));
+                });
+            });
+
+            runner.testGroup("writeUnlock(Action1<T>)", () ->
+            {
+                runner.test("with null action", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    test.assertThrows(() -> value.writeUnlock((Action1<IntegerValue>)null),
+                        new PreConditionFailure("action cannot be null."));
+                });
+
+                runner.test("with multiple threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(0));
+                    final int taskCount = 100;
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < taskCount; ++i)
+                    {
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            value.writeUnlock(IntegerValue::increment);
+                        }));
+                    }
+                    Result.await(tasks);
+                    test.assertEqual(taskCount, value.readUnlock(IntegerValue::get));
+                });
+            });
+
+            runner.testGroup("writeUnlock(Function1<T,U>)", () ->
+            {
+                runner.test("with null function", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    test.assertThrows(() -> value.writeUnlock((Function1<IntegerValue,Integer>)null),
+                        new PreConditionFailure("function cannot be null."));
+                });
+
+                runner.test("with non-null function", (Test test) ->
+                {
+                    final ReadWriteLocked<IntegerValue> value = ReadWriteLocked.create(Value.create(5));
+                    test.assertEqual(10, value.writeUnlock((IntegerValue intValue) -> intValue.set(10).get()));
+                    test.assertEqual(10, value.readUnlock(IntegerValue::get));
+                });
+            });
+
+            runner.testGroup("95% read and 5% write speed tests", () ->
+            {
+                final int threadCount = 4;
+                final int operationsPerThread = 50000;
+                final Action2<String,Function0<Action1<Integer>>> readWriteSpeedTest = (String lockName, Function0<Action1<Integer>> operationCreator) ->
+                {
+                    runner.speedTest("with " + lockName + ", " + threadCount + " threads, and " + operationsPerThread + " operations per thread",
+                        Duration.seconds(2),
+                        (Test test) ->
+                    {
+                        final Action1<Integer> operation = operationCreator.run();
+                        TestThreads.run(threadCount, (Integer threadIndex) ->
+                        {
+                            for (int j = 0; j < operationsPerThread; ++j)
+                            {
+                                operation.run(threadIndex * operationsPerThread + j);
+                            }
+                        });
+                    });
+                };
+
+                final int keyCount = 1000;
+                readWriteSpeedTest.run("Locked", () ->
+                {
+                    final Locked<MutableMap<Integer,Integer>> map = Locked.create(ReadWriteLockedTests.createMap(keyCount));
+                    return (Integer i) ->
+                    {
+                        if (i % 20 == 0)
+                        {
+                            map.unlock((MutableMap<Integer,Integer> m) -> { m.set(i % keyCount, i); });
+                        }
+                        else
+                        {
+                            map.unlock((MutableMap<Integer,Integer> m) -> m.get(i % keyCount).await());
+                        }
+                    };
+                });
+                readWriteSpeedTest.run("ReadWriteLocked", () ->
+                {
+                    final ReadWriteLocked<MutableMap<Integer,Integer>> map = ReadWriteLocked.create(ReadWriteLockedTests.createMap(keyCount));
+                    return (Integer i) ->
+                    {
+                        if (i % 20 == 0)
+                        {
+                            map.writeUnlock((MutableMap<Integer,Integer> m) -> { m.set(i % keyCount, i); });
+                        }
+                        else
+                        {
+                            map.readUnlock((MutableMap<Integer,Integer> m) -> m.get(i % keyCount).await());
+                        }
+                    };
+                });
+                readWriteSpeedTest.run("optimistic ReadWriteLocked", () ->
+                {
+                    final ReadWriteLocked<MutableMap<Integer,Integer>> map = ReadWriteLocked.create(ReadWriteLockedTests.createMap(keyCount));
+                    return (Integer i) ->
+                    {
+                        if (i % 20 == 0)
+                        {
+                            map.writeUnlock((MutableMap<Integer,Integer> m) -> { m.set(i % keyCount, i); });
+                        }
+                        else
+                        {
+                            map.optimisticReadUnlock((MutableMap<Integer,Integer> m) -> m.get(i % keyCount).await());
+                        }
+                    };
+                });
+            });
+        });
+    }
+
+    static MutableMap<Integer,Integer> createMap(int keyCount)
+    {
+        final MutableMap<Integer,Integer> result = Map.create();
+        for (int i = 0; i < keyCount; ++i)
+        {
+            result.set(i, i);
+        }
+        return result;
+    }
+}
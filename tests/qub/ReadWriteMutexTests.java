@@ -0,0 +1,451 @@
+package qub;
+
+public interface ReadWriteMutexTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ReadWriteMutex.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final ReadWriteMutex mutex = ReadWriteMutex.create();
+                test.assertNotNull(mutex);
+                test.assertEqual(0, mutex.getReaderCount());
+                test.assertFalse(mutex.isReadAcquired());
+                test.assertFalse(mutex.isWriteAcquired());
+                test.assertFalse(mutex.isWriteAcquiredByCurrentThread());
+            });
+
+            runner.testGroup("create(Clock)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    test.assertThrows(() -> ReadWriteMutex.create(null),
+                        new PreConditionFailure("clock cannot be null."));
+                });
+
+                runner.test("with non-null", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create(ManualClock.create());
+                    test.assertNotNull(mutex);
+                    test.assertFalse(mutex.isReadAcquired());
+                    test.assertFalse(mutex.isWriteAcquired());
+                });
+            });
+
+            runner.testGroup("acquireRead()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertNull(mutex.acquireRead().await());
+                    test.assertEqual(1, mutex.getReaderCount());
+                    test.assertTrue(mutex.isReadAcquired());
+                    test.assertFalse(mutex.isWriteAcquired());
+                });
+
+                runner.test("when already acquired for reading", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireRead().await();
+                    mutex.acquireRead().await();
+                    test.assertEqual(2, mutex.getReaderCount());
+                });
+
+                runner.test("when already acquired for reading by the current thread while a writer is waiting",
+                    (TestResources resources) -> Tuple.create(resources.getClock(), resources.getParallelAsyncRunner()),
+                    (Test test, Clock clock, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create(clock);
+                    mutex.acquireRead().await();
+                    test.assertTrue(mutex.isReadAcquiredByCurrentThread());
+
+                    final Value<java.lang.Thread> writerThread = Value.create();
+                    final Result<Void> writerTask = parallelAsyncRunner.schedule(() ->
+                    {
+                        writerThread.set(java.lang.Thread.currentThread());
+                        mutex.acquireWrite().await();
+                        mutex.releaseWrite().await();
+                    });
+                    while (!writerThread.hasValue() || writerThread.get().getState() != java.lang.Thread.State.WAITING)
+                    {
+                        java.lang.Thread.onSpinWait();
+                    }
+
+                    test.assertNull(mutex.acquireRead(Duration.seconds(5)).await());
+                    test.assertEqual(2, mutex.getReaderCount());
+                    test.assertFalse(writerTask.isCompleted());
+
+                    mutex.releaseRead().await();
+                    mutex.releaseRead().await();
+                    test.assertFalse(mutex.isReadAcquiredByCurrentThread());
+                    writerTask.await();
+                    test.assertFalse(mutex.isWriteAcquired());
+                });
+
+                runner.test("when acquired for writing by the current thread", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireWrite().await();
+                    test.assertThrows(() -> mutex.acquireRead(),
+                        new PreConditionFailure("this.isWriteAcquiredByCurrentThread() cannot be true."));
+                });
+
+                runner.test("when acquired for reading by many threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final int readerCount = 5;
+                    final java.util.concurrent.CountDownLatch allReadersAcquired = new java.util.concurrent.CountDownLatch(readerCount);
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < readerCount; ++i)
+                    {
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            mutex.acquireRead().await();
+                            try
+                            {
+                                allReadersAcquired.countDown();
+                                test.assertTrue(TimerWheelTests.await(allReadersAcquired));
+                            }
+                            finally
+                            {
+                                mutex.releaseRead().await();
+                            }
+                        }));
+                    }
+                    Result.await(tasks);
+                    test.assertFalse(mutex.isReadAcquired());
+                });
+            });
+
+            runner.testGroup("acquireRead(Duration)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertThrows(() -> mutex.acquireRead((Duration)null),
+                        new PreConditionFailure("durationTimeout cannot be null."));
+                });
+
+                runner.test("with null Clock", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertThrows(() -> mutex.acquireRead(Duration.seconds(1)),
+                        new PreConditionFailure("this.clock cannot be null."));
+                });
+
+                runner.test("when acquired for writing by a different thread",
+                    (TestResources resources) -> Tuple.create(resources.getClock(), resources.getParallelAsyncRunner()),
+                    (Test test, Clock clock, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create(clock);
+                    parallelAsyncRunner.schedule(() -> mutex.acquireWrite().await()).await();
+
+                    test.assertThrows(() -> mutex.acquireRead(Duration.milliseconds(20)).await(),
+                        new TimeoutException());
+                    test.assertFalse(mutex.isReadAcquired());
+                    test.assertTrue(mutex.isWriteAcquired());
+                });
+            });
+
+            runner.testGroup("tryAcquireRead()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertTrue(mutex.tryAcquireRead().await());
+                    test.assertEqual(1, mutex.getReaderCount());
+                });
+
+                runner.test("when acquired for writing", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireWrite().await();
+                    test.assertFalse(mutex.tryAcquireRead().await());
+                    test.assertEqual(0, mutex.getReaderCount());
+                });
+            });
+
+            runner.testGroup("releaseRead()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertThrows(() -> mutex.releaseRead(),
+                        new PreConditionFailure("this.isReadAcquired() cannot be false."));
+                });
+
+                runner.test("when acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireRead().await();
+                    test.assertNull(mutex.releaseRead().await());
+                    test.assertFalse(mutex.isReadAcquired());
+                });
+            });
+
+            runner.testGroup("acquireWrite()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertNull(mutex.acquireWrite().await());
+                    test.assertTrue(mutex.isWriteAcquired());
+                    test.assertTrue(mutex.isWriteAcquiredByCurrentThread());
+                });
+
+                runner.test("when acquired for writing by the current thread", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireWrite().await();
+                    test.assertThrows(() -> mutex.acquireWrite(),
+                        new PreConditionFailure("this.isWriteAcquiredByCurrentThread() cannot be true."));
+                });
+
+                runner.test("when acquired for reading by a different thread",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireRead().await();
+
+                    final Result<Void> writerTask = parallelAsyncRunner.schedule(() ->
+                    {
+                        mutex.acquireWrite().await();
+                        mutex.releaseWrite().await();
+                    });
+                    test.assertFalse(writerTask.isCompleted());
+
+                    mutex.releaseRead().await();
+                    writerTask.await();
+                    test.assertFalse(mutex.isWriteAcquired());
+                });
+
+                runner.test("with multiple threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final IntegerValue value = IntegerValue.create(0);
+                    final int taskCount = 100;
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < taskCount; ++i)
+                    {
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            mutex.writeCriticalSection(value::increment).await();
+                        }));
+                    }
+                    Result.await(tasks);
+                    test.assertEqual(taskCount, value.get());
+                });
+            });
+
+            runner.testGroup("acquireWrite(Duration)", () ->
+            {
+                runner.test("with zero", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create(ManualClock.create());
+                    test.assertThrows(() -> mutex.acquireWrite(Duration.zero),
+                        new PreConditionFailure("durationTimeout (0.0 Seconds) must be greater than 0.0 Seconds."));
+                });
+
+                runner.test("when acquired for reading by the current thread",
+                    (TestResources resources) -> Tuple.create(resources.getClock()),
+                    (Test test, Clock clock) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create(clock);
+                    mutex.acquireRead().await();
+
+                    test.assertThrows(() -> mutex.acquireWrite(Duration.milliseconds(20)).await(),
+                        new TimeoutException());
+                    test.assertFalse(mutex.isWriteAcquired());
+
+                    mutex.releaseRead().await();
+                    mutex.acquireWrite(Duration.seconds(1)).await();
+                    test.assertTrue(mutex.isWriteAcquiredByCurrentThread());
+                });
+            });
+
+            runner.testGroup("tryAcquireWrite()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertTrue(mutex.tryAcquireWrite().await());
+                    test.assertTrue(mutex.isWriteAcquiredByCurrentThread());
+                });
+
+                runner.test("when acquired for reading", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireRead().await();
+                    test.assertFalse(mutex.tryAcquireWrite().await());
+                    test.assertFalse(mutex.isWriteAcquired());
+                });
+
+                runner.test("when acquired for writing", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireWrite().await();
+                    test.assertFalse(mutex.tryAcquireWrite().await());
+                });
+            });
+
+            runner.testGroup("releaseWrite()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertThrows(() -> mutex.releaseWrite(),
+                        new PreConditionFailure("this.isWriteAcquiredByCurrentThread() cannot be false."));
+                });
+
+                runner.test("when acquired by a different thread",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    parallelAsyncRunner.schedule(() -> mutex.acquireWrite().await()).await();
+                    test.assertThrows(() -> mutex.releaseWrite(),
+                        new PreConditionFailure("this.isWriteAcquiredByCurrentThread() cannot be false."));
+                });
+
+                runner.test("when acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireWrite().await();
+                    test.assertNull(mutex.releaseWrite().await());
+                    test.assertFalse(mutex.isWriteAcquired());
+                    test.assertFalse(mutex.isWriteAcquiredByCurrentThread());
+                    test.assertTrue(mutex.tryAcquireRead().await());
+                });
+            });
+
+            runner.testGroup("tryOptimisticRead()", () ->
+            {
+                runner.test("when not acquired", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final long stamp = mutex.tryOptimisticRead();
+                    test.assertNotEqual(0L, stamp);
+                    test.assertTrue(mutex.validate(stamp));
+                });
+
+                runner.test("when acquired for reading", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final long stamp = mutex.tryOptimisticRead();
+                    mutex.acquireRead().await();
+                    test.assertEqual(stamp, mutex.tryOptimisticRead());
+                    test.assertTrue(mutex.validate(stamp));
+                    mutex.releaseRead().await();
+                    test.assertTrue(mutex.validate(stamp));
+                });
+
+                runner.test("when acquired for writing", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    mutex.acquireWrite().await();
+                    test.assertEqual(0, mutex.tryOptimisticRead());
+                    test.assertFalse(mutex.validate(0));
+                });
+            });
+
+            runner.testGroup("validate(long)", () ->
+            {
+                runner.test("when acquired for writing after the stamp", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final long stamp = mutex.tryOptimisticRead();
+                    mutex.acquireWrite().await();
+                    test.assertFalse(mutex.validate(stamp));
+                });
+
+                runner.test("when acquired and released for writing after the stamp", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final long stamp = mutex.tryOptimisticRead();
+                    mutex.writeCriticalSection(() -> {}).await();
+                    test.assertFalse(mutex.validate(stamp));
+
+                    final long newStamp = mutex.tryOptimisticRead();
+                    test.assertNotEqual(stamp, newStamp);
+                    test.assertTrue(mutex.validate(newStamp));
+                });
+            });
+
+            runner.testGroup("optimisticReadCriticalSection(Function0<T>)", () ->
+            {
+                runner.test("with null function", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertThrows(() -> mutex.optimisticReadCriticalSection((Function0<Integer>)null),
+                        new PreConditionFailure("function cannot be null."));
+                });
+
+                runner.test("when not written during the function", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final IntegerValue runCount = IntegerValue.create(0);
+                    test.assertEqual(5, mutex.optimisticReadCriticalSection(() ->
+                    {
+                        runCount.increment();
+                        test.assertFalse(mutex.isReadAcquired());
+                        return 5;
+                    }).await());
+                    test.assertEqual(1, runCount.get());
+                });
+
+                runner.test("when written during the function",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final IntegerValue runCount = IntegerValue.create(0);
+                    test.assertEqual(2, mutex.optimisticReadCriticalSection(() ->
+                    {
+                        runCount.increment();
+                        if (runCount.get() == 1)
+                        {
+                            parallelAsyncRunner.schedule(() -> mutex.writeCriticalSection(() -> {}).await()).await();
+                        }
+                        else
+                        {
+                            test.assertTrue(mutex.isReadAcquired());
+                        }
+                        return runCount.get();
+                    }).await());
+                    test.assertFalse(mutex.isReadAcquired());
+                });
+
+                runner.test("when the function throws while written",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    final IntegerValue runCount = IntegerValue.create(0);
+                    test.assertEqual(2, mutex.optimisticReadCriticalSection(() ->
+                    {
+                        runCount.increment();
+                        if (runCount.get() == 1)
+                        {
+                            parallelAsyncRunner.schedule(() -> mutex.writeCriticalSection(() -> {}).await()).await();
+                            throw new IndexOutOfBoundsException();
+                        }
+                        return runCount.get();
+                    }).await());
+                });
+
+                runner.test("when the function throws while not written", (Test test) ->
+                {
+                    final ReadWriteMutex mutex = ReadWriteMutex.create();
+                    test.assertThrows(() -> mutex.optimisticReadCriticalSection(() -> { throw new NotFoundException("oops"); }).await(),
+                        new NotFoundException("oops"));
+                });
+            });
+        });
+    }
+}
@@ -90,6 +90,49 @@ public interface RealDesktopProcessTests
                     }
                 });
             });
+
+            runner.testGroup("create(CommandLineArguments,AsyncScheduler,AsyncScheduler)", () ->
+            {
+                runner.test("with null commandLineArguments", (Test test) ->
+                {
+                    test.assertThrows(() -> RealDesktopProcess.create(null, ManualAsyncRunner.create(), VirtualThreadAsyncRunner.create()),
+                        new PreConditionFailure("commandLineArguments cannot be null."));
+                });
+
+                runner.test("with null mainAsyncRunner", (Test test) ->
+                {
+                    test.assertThrows(() -> RealDesktopProcess.create(CommandLineArguments.create(), null, VirtualThreadAsyncRunner.create()),
+                        new PreConditionFailure("mainAsyncRunner cannot be null."));
+                });
+
+                runner.test("with null parallelAsyncRunner", (Test test) ->
+                {
+                    test.assertThrows(() -> RealDesktopProcess.create(CommandLineArguments.create(), ManualAsyncRunner.create(), null),
+                        new PreConditionFailure("parallelAsyncRunner cannot be null."));
+                });
+
+                runner.test("with VirtualThreadAsyncRunner", (Test test) ->
+                {
+                    final AsyncScheduler backupAsyncScheduler = CurrentThread.getAsyncRunner().catchError(NotFoundException.class).await();
+                    try
+                    {
+                        final ManualAsyncRunner mainAsyncRunner = ManualAsyncRunner.create();
+                        final VirtualThreadAsyncRunner parallelAsyncRunner = VirtualThreadAsyncRunner.create();
+                        try (final RealDesktopProcess process = RealDesktopProcessTests.ignoreDispose(RealDesktopProcess.create(CommandLineArguments.create(), mainAsyncRunner, parallelAsyncRunner)))
+                        {
+                            test.assertSame(mainAsyncRunner, process.getMainAsyncRunner());
+                            test.assertSame(parallelAsyncRunner, process.getParallelAsyncRunner());
+
+                            final Result<Boolean> isVirtual = process.getParallelAsyncRunner().schedule(() -> java.lang.Thread.currentThread().isVirtual());
+                            test.assertTrue(isVirtual.await());
+                        }
+                    }
+                    finally
+                    {
+                        CurrentThread.setAsyncRunner(backupAsyncScheduler);
+                    }
+                });
+            });
         });
     }
 
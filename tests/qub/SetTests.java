@@ -19,6 +19,29 @@ public interface SetTests
                 test.assertNotNull(set);
                 test.assertEqual(Iterable.create("a", "b", "c"), set);
             });
+
+            runner.testGroup("create() speed tests", () ->
+            {
+                final Action1<Integer> scalingSpeedTest = (Integer valueCount) ->
+                {
+                    runner.speedTest("with " + valueCount + " values", Duration.seconds(2), (Test test) ->
+                    {
+                        final MutableSet<Integer> set = Set.create();
+                        for (int i = 0; i < valueCount; ++i)
+                        {
+                            test.assertTrue(set.add(i));
+                            test.assertFalse(set.add(i));
+                        }
+                        test.assertEqual(valueCount, set.getCount());
+                        test.assertTrue(set.contains(valueCount - 1));
+                    });
+                };
+
+                scalingSpeedTest.run(10);
+                scalingSpeedTest.run(1000);
+                scalingSpeedTest.run(100000);
+                scalingSpeedTest.run(1000000);
+            });
         });
     }
 
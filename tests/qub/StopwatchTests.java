@@ -73,6 +73,79 @@ public interface StopwatchTests
                     test.assertEqual(Duration.seconds(5), stopwatch.stop());
                     test.assertFalse(stopwatch.hasStarted());
                 });
+
+                runner.test("when the clock's date and time moves backwards", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create(DateTime.epoch);
+                    final Stopwatch stopwatch = Stopwatch.create(clock);
+
+                    stopwatch.start();
+
+                    clock.advance(Duration.seconds(-5)).await();
+
+                    test.assertEqual(Duration.zero, stopwatch.stop());
+                    test.assertFalse(stopwatch.hasStarted());
+                });
+            });
+
+            runner.testGroup("getElapsedNanoseconds()", () ->
+            {
+                runner.test("with no start()", (Test test) ->
+                {
+                    final Stopwatch stopwatch = Stopwatch.create(ManualClock.create());
+
+                    test.assertThrows(() -> stopwatch.getElapsedNanoseconds(),
+                        new PreConditionFailure("this.hasStarted() cannot be false."));
+                });
+
+                runner.test("with time elapsed after start()", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create(DateTime.epoch);
+                    final Stopwatch stopwatch = Stopwatch.create(clock).start();
+
+                    clock.advance(Duration.microseconds(7)).await();
+                    test.assertEqual(7000, stopwatch.getElapsedNanoseconds());
+                    test.assertTrue(stopwatch.hasStarted());
+
+                    clock.advance(Duration.nanoseconds(5)).await();
+                    test.assertEqual(7005, stopwatch.getElapsedNanoseconds());
+                    test.assertTrue(stopwatch.hasStarted());
+                });
+            });
+
+            runner.testGroup("stopNanoseconds()", () ->
+            {
+                runner.test("with no start()", (Test test) ->
+                {
+                    final Stopwatch stopwatch = Stopwatch.create(ManualClock.create());
+
+                    test.assertThrows(() -> stopwatch.stopNanoseconds(),
+                        new PreConditionFailure("this.hasStarted() cannot be false."));
+                    test.assertFalse(stopwatch.hasStarted());
+                });
+
+                runner.test("with time elapsed after start()", (Test test) ->
+                {
+                    final ManualClock clock = ManualClock.create(DateTime.epoch);
+                    final Stopwatch stopwatch = Stopwatch.create(clock).start();
+
+                    clock.advance(Duration.milliseconds(2)).await();
+
+                    test.assertEqual(2000000, stopwatch.stopNanoseconds());
+                    test.assertFalse(stopwatch.hasStarted());
+                });
+
+                runner.test("with JavaClock",
+                    (TestResources resources) -> Tuple.create(resources.getClock()),
+                    (Test test, Clock clock) ->
+                {
+                    final Stopwatch stopwatch = Stopwatch.create(clock).start();
+
+                    final long elapsedNanoseconds = stopwatch.stopNanoseconds();
+
+                    test.assertGreaterThanOrEqualTo(elapsedNanoseconds, 0);
+                    test.assertLessThan(Duration.nanoseconds(elapsedNanoseconds), Duration.seconds(1));
+                });
             });
         });
     }
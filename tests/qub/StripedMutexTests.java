@@ -0,0 +1,151 @@
+package qub;
+
+public interface StripedMutexTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(StripedMutex.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final StripedMutex mutex = StripedMutex.create();
+                test.assertNotNull(mutex);
+                test.assertGreaterThanOrEqualTo(mutex.getStripeCount(), 4);
+            });
+
+            runner.testGroup("create(int)", () ->
+            {
+                final Action2<Integer,Integer> createTest = (Integer stripeCount, Integer expectedStripeCount) ->
+                {
+                    runner.test("with " + stripeCount, (Test test) ->
+                    {
+                        final StripedMutex mutex = StripedMutex.create(stripeCount);
+                        test.assertEqual(expectedStripeCount, mutex.getStripeCount());
+                    });
+                };
+
+                createTest.run(1, 1);
+                createTest.run(2, 2);
+                createTest.run(3, 4);
+                createTest.run(16, 16);
+                createTest.run(17, 32);
+
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> StripedMutex.create(0),
+                        new PreConditionFailure("stripeCount (0) must be greater than or equal to 1."));
+                });
+            });
+
+            runner.testGroup("create(int,Function0<Mutex>)", () ->
+            {
+                runner.test("with null mutexCreator", (Test test) ->
+                {
+                    test.assertThrows(() -> StripedMutex.create(4, null),
+                        new PreConditionFailure("mutexCreator cannot be null."));
+                });
+
+                runner.test("with non-null mutexCreator", (Test test) ->
+                {
+                    final IntegerValue createCount = IntegerValue.create(0);
+                    final StripedMutex mutex = StripedMutex.create(4, () ->
+                    {
+                        createCount.increment();
+                        return SpinMutex.create();
+                    });
+                    test.assertEqual(4, createCount.get());
+                    test.assertInstanceOf(mutex.getMutex("a"), SpinMutex.class);
+                });
+            });
+
+            runner.testGroup("getMutex(Object)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    test.assertNotNull(mutex.getMutex(null));
+                    test.assertSame(mutex.getMutex(null), mutex.getMutex(null));
+                });
+
+                runner.test("with equal keys", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    test.assertSame(mutex.getMutex("hello"), mutex.getMutex(new String("hello")));
+                    test.assertSame(mutex.getMutex(15), mutex.getMutex(15));
+                });
+
+                runner.test("with sequential keys", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    final MutableSet<Mutex> mutexes = MutableSet.create();
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        mutexes.add(mutex.getMutex(i));
+                    }
+                    test.assertEqual(8, mutexes.getCount());
+                });
+            });
+
+            runner.testGroup("criticalSection(Object,Action0)", () ->
+            {
+                runner.test("with null action", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    test.assertThrows(() -> mutex.criticalSection("a", (Action0)null),
+                        new PreConditionFailure("action cannot be null."));
+                });
+
+                runner.test("with non-null action", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    final Mutex keyMutex = mutex.getMutex("a");
+                    mutex.criticalSection("a", () ->
+                    {
+                        test.assertTrue(keyMutex.isAcquiredByCurrentThread());
+                    }).await();
+                    test.assertFalse(keyMutex.isAcquired());
+                });
+
+                runner.test("with multiple threads",
+                    (TestResources resources) -> Tuple.create(resources.getParallelAsyncRunner()),
+                    (Test test, AsyncRunner parallelAsyncRunner) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(4);
+                    final int keyCount = 10;
+                    final int[] counts = new int[keyCount];
+                    final List<Result<Void>> tasks = List.create();
+                    for (int i = 0; i < 100; ++i)
+                    {
+                        final int key = i % keyCount;
+                        tasks.add(parallelAsyncRunner.schedule(() ->
+                        {
+                            mutex.criticalSection(key, () -> { ++counts[key]; }).await();
+                        }));
+                    }
+                    Result.await(tasks);
+                    for (final int count : counts)
+                    {
+                        test.assertEqual(10, count);
+                    }
+                });
+            });
+
+            runner.testGroup("criticalSection(Object,Function0<T>)", () ->
+            {
+                runner.test("with null function", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    test.assertThrows(() -> mutex.criticalSection("a", (Function0<Integer>)null),
+                        new PreConditionFailure("function cannot be null."));
+                });
+
+                runner.test("with non-null function", (Test test) ->
+                {
+                    final StripedMutex mutex = StripedMutex.create(8);
+                    test.assertEqual(7, mutex.criticalSection("a", () -> 7).await());
+                    test.assertFalse(mutex.getMutex("a").isAcquired());
+                });
+            });
+        });
+    }
+}
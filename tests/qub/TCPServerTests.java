@@ -35,9 +35,10 @@ public interface TCPServerTests
 
                         test.assertTrue(server.dispose().await());
 
-                        test.assertThrows(() -> serverTask.await(),
-                            new SocketClosedException(
-                                new java.net.SocketException("Socket is closed")));
+                        // The socket's message depends on whether the accept had started when
+                        // the server was disposed.
+                        final SocketClosedException error = test.assertThrows(() -> serverTask.await(), SocketClosedException.class);
+                        test.assertInstanceOf(error.getCause(), java.net.SocketException.class);
                     }
                 });
             });
@@ -80,9 +81,10 @@ public interface TCPServerTests
 
                         test.assertTrue(server.dispose().await());
 
-                        test.assertThrows(() -> serverTask.await(),
-                            new SocketClosedException(
-                                new java.net.SocketException("Socket is closed")));
+                        // The socket's message depends on whether the accept had started when
+                        // the server was disposed.
+                        final SocketClosedException error = test.assertThrows(() -> serverTask.await(), SocketClosedException.class);
+                        test.assertInstanceOf(error.getCause(), java.net.SocketException.class);
                     }
                 });
 
@@ -136,9 +138,10 @@ public interface TCPServerTests
 
                         test.assertTrue(server.dispose().await());
 
-                        test.assertThrows(() -> serverTask.await(),
-                            new SocketClosedException(
-                                new java.net.SocketException("Socket is closed")));
+                        // The socket's message depends on whether the accept had started when
+                        // the server was disposed.
+                        final SocketClosedException error = test.assertThrows(() -> serverTask.await(), SocketClosedException.class);
+                        test.assertInstanceOf(error.getCause(), java.net.SocketException.class);
                     }
                 });
 
@@ -0,0 +1,71 @@
+package qub;
+
+/**
+ * Helpers for tests that need several platform threads to run at the same time, such as
+ * contention tests and tests whose threads block while they wait for each other.
+ */
+public interface TestThreads
+{
+    /**
+     * Run the provided action on the provided number of new threads at the same time and wait for
+     * all of them to finish. If any of the threads throws an error, then the first error is thrown
+     * after every thread has finished.
+     * @param threadCount The number of threads to run the action on.
+     * @param action The action to run. It is passed the index of the thread that is running it.
+     */
+    static void run(int threadCount, Action1<Integer> action)
+    {
+        PreCondition.assertGreaterThanOrEqualTo(threadCount, 1, "threadCount");
+        PreCondition.assertNotNull(action, "action");
+
+        final java.util.concurrent.atomic.AtomicReference<Throwable> firstError = new java.util.concurrent.atomic.AtomicReference<>();
+        final java.lang.Thread[] threads = new java.lang.Thread[threadCount];
+        for (int i = 0; i < threadCount; ++i)
+        {
+            final int threadIndex = i;
+            threads[i] = new java.lang.Thread(() ->
+            {
+                try
+                {
+                    action.run(threadIndex);
+                }
+                catch (Throwable error)
+                {
+                    firstError.compareAndSet(null, error);
+                }
+            });
+        }
+        for (final java.lang.Thread thread : threads)
+        {
+            thread.start();
+        }
+        for (final java.lang.Thread thread : threads)
+        {
+            TestThreads.join(thread);
+        }
+
+        final Throwable error = firstError.get();
+        if (error != null)
+        {
+            throw Exceptions.asRuntime(error);
+        }
+    }
+
+    /**
+     * Wait for the provided thread to finish.
+     * @param thread The thread to wait for.
+     */
+    static void join(java.lang.Thread thread)
+    {
+        PreCondition.assertNotNull(thread, "thread");
+
+        try
+        {
+            thread.join();
+        }
+        catch (InterruptedException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+}
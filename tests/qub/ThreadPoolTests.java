@@ -0,0 +1,291 @@
+package qub;
+
+public interface ThreadPoolTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(ThreadPool.class, () ->
+        {
+            runner.test("create()", (Test test) ->
+            {
+                final ThreadPool threadPool = ThreadPool.create();
+                test.assertNotNull(threadPool);
+                test.assertEqual(java.lang.Runtime.getRuntime().availableProcessors(), threadPool.getCoreWorkerCount());
+                test.assertGreaterThanOrEqualTo(threadPool.getMaximumWorkerCount(), threadPool.getCoreWorkerCount());
+                test.assertEqual(0, threadPool.getWorkerCount());
+                test.assertEqual(0, threadPool.getQueuedTaskCount());
+                test.assertFalse(threadPool.isWorkerThread());
+                test.assertFalse(threadPool.isDisposed());
+            });
+
+            runner.testGroup("create(int)", () ->
+            {
+                runner.test("with 0", (Test test) ->
+                {
+                    test.assertThrows(() -> ThreadPool.create(0),
+                        new PreConditionFailure("coreWorkerCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 3", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(3);
+                    test.assertEqual(3, threadPool.getCoreWorkerCount());
+                    test.assertEqual(3, threadPool.getMaximumWorkerCount());
+                });
+            });
+
+            runner.testGroup("create(int,int)", () ->
+            {
+                runner.test("with maximumWorkerCount less than coreWorkerCount", (Test test) ->
+                {
+                    test.assertThrows(() -> ThreadPool.create(2, 1),
+                        new PreConditionFailure("maximumWorkerCount (1) must be greater than or equal to 2."));
+                });
+
+                runner.test("with 1 and 4", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1, 4);
+                    test.assertEqual(1, threadPool.getCoreWorkerCount());
+                    test.assertEqual(4, threadPool.getMaximumWorkerCount());
+                });
+            });
+
+            runner.testGroup("create(int,int,int)", () ->
+            {
+                runner.test("with 0 maximumQueuedTaskCount", (Test test) ->
+                {
+                    test.assertThrows(() -> ThreadPool.create(1, 1, 0),
+                        new PreConditionFailure("maximumQueuedTaskCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with 1, 2, and 3", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1, 2, 3);
+                    test.assertEqual(1, threadPool.getCoreWorkerCount());
+                    test.assertEqual(2, threadPool.getMaximumWorkerCount());
+                    test.assertEqual(3, threadPool.getMaximumQueuedTaskCount());
+                });
+            });
+
+            runner.testGroup("trySchedule(Action0)", () ->
+            {
+                runner.test("with null", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    test.assertThrows(() -> threadPool.trySchedule(null),
+                        new PreConditionFailure("action cannot be null."));
+                });
+
+                runner.test("when disposed", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    test.assertTrue(threadPool.dispose().await());
+
+                    final BooleanValue ran = BooleanValue.create(false);
+                    test.assertFalse(threadPool.trySchedule(() -> ran.set(true)));
+                    test.assertFalse(ran.get());
+                });
+
+                runner.test("runs the action on a worker thread", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        final Value<Long> threadId = Value.create();
+                        final BooleanValue isWorkerThread = BooleanValue.create(false);
+                        test.assertTrue(threadPool.trySchedule(() ->
+                        {
+                            threadId.set(CurrentThread.getId());
+                            isWorkerThread.set(threadPool.isWorkerThread());
+                            latch.countDown();
+                        }));
+                        latch.await();
+
+                        test.assertNotEqual(CurrentThread.getId(), threadId.get());
+                        test.assertTrue(isWorkerThread.get());
+                    }
+                    catch (java.lang.InterruptedException e)
+                    {
+                        throw Exceptions.asRuntime(e);
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
+                runner.test("reuses its worker threads", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(2);
+                    try
+                    {
+                        final int taskCount = 1000;
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(taskCount);
+                        final java.util.Set<Long> threadIds = java.util.concurrent.ConcurrentHashMap.newKeySet();
+                        for (int i = 0; i < taskCount; ++i)
+                        {
+                            test.assertTrue(threadPool.trySchedule(() ->
+                            {
+                                threadIds.add(CurrentThread.getId());
+                                latch.countDown();
+                            }));
+                        }
+                        latch.await();
+
+                        test.assertTrue(threadIds.size() <= 2);
+                        test.assertTrue(threadPool.getWorkerCount() <= 2);
+                    }
+                    catch (java.lang.InterruptedException e)
+                    {
+                        throw Exceptions.asRuntime(e);
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
+                runner.test("with tasks scheduled from a worker thread", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(4);
+                    try
+                    {
+                        final int taskCount = 100;
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(taskCount);
+                        test.assertTrue(threadPool.trySchedule(() ->
+                        {
+                            for (int i = 0; i < taskCount; ++i)
+                            {
+                                threadPool.trySchedule(latch::countDown);
+                            }
+                        }));
+                        latch.await();
+
+                        test.assertEqual(0, threadPool.getQueuedTaskCount());
+                    }
+                    catch (java.lang.InterruptedException e)
+                    {
+                        throw Exceptions.asRuntime(e);
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+
+                runner.test("when the queue is full", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1, 1, 1);
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch started = new java.util.concurrent.CountDownLatch(1);
+                        final java.util.concurrent.CountDownLatch release = new java.util.concurrent.CountDownLatch(1);
+                        test.assertTrue(threadPool.trySchedule(() ->
+                        {
+                            started.countDown();
+                            try
+                            {
+                                release.await();
+                            }
+                            catch (java.lang.InterruptedException e)
+                            {
+                                throw Exceptions.asRuntime(e);
+                            }
+                        }));
+                        started.await();
+
+                        test.assertTrue(threadPool.trySchedule(() -> {}));
+                        test.assertEqual(1, threadPool.getQueuedTaskCount());
+                        test.assertFalse(threadPool.trySchedule(() -> {}));
+                        test.assertEqual(1, threadPool.getQueuedTaskCount());
+
+                        release.countDown();
+                    }
+                    catch (java.lang.InterruptedException e)
+                    {
+                        throw Exceptions.asRuntime(e);
+                    }
+                    finally
+                    {
+                        threadPool.dispose().await();
+                    }
+                });
+            });
+
+            runner.testGroup("tryRunQueuedTask()", () ->
+            {
+                runner.test("with no queued tasks", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    test.assertFalse(threadPool.tryRunQueuedTask());
+                });
+
+                runner.test("with a queued task that throws", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    final java.util.concurrent.CountDownLatch workerStarted = new java.util.concurrent.CountDownLatch(1);
+                    final java.util.concurrent.CountDownLatch releaseWorker = new java.util.concurrent.CountDownLatch(1);
+                    try
+                    {
+                        test.assertTrue(threadPool.trySchedule(() ->
+                        {
+                            workerStarted.countDown();
+                            TimerWheelTests.await(releaseWorker);
+                        }));
+                        test.assertTrue(TimerWheelTests.await(workerStarted));
+
+                        final BooleanValue ran = BooleanValue.create(false);
+                        test.assertTrue(threadPool.trySchedule(() ->
+                        {
+                            ran.set(true);
+                            throw new NotFoundException("blah");
+                        }));
+
+                        test.assertTrue(threadPool.tryRunQueuedTask());
+                        test.assertTrue(ran.get());
+                        test.assertEqual(0, threadPool.getQueuedTaskCount());
+                    }
+                    finally
+                    {
+                        releaseWorker.countDown();
+                        threadPool.dispose().await();
+                    }
+                });
+            });
+
+            runner.testGroup("dispose()", () ->
+            {
+                runner.test("more than once", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    test.assertTrue(threadPool.dispose().await());
+                    test.assertTrue(threadPool.isDisposed());
+                    test.assertFalse(threadPool.dispose().await());
+                    test.assertTrue(threadPool.isDisposed());
+                });
+
+                runner.test("runs the tasks that were already scheduled", (Test test) ->
+                {
+                    final ThreadPool threadPool = ThreadPool.create(1);
+                    final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(10);
+                    for (int i = 0; i < 10; ++i)
+                    {
+                        test.assertTrue(threadPool.trySchedule(latch::countDown));
+                    }
+                    test.assertTrue(threadPool.dispose().await());
+
+                    try
+                    {
+                        latch.await();
+                    }
+                    catch (java.lang.InterruptedException e)
+                    {
+                        throw Exceptions.asRuntime(e);
+                    }
+                    test.assertEqual(0, threadPool.getQueuedTaskCount());
+                });
+            });
+        });
+    }
+}
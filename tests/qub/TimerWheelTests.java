@@ -0,0 +1,258 @@
+package qub;
+
+public interface TimerWheelTests
+{
+    static void test(TestRunner runner)
+    {
+        PreCondition.assertNotNull(runner, "runner");
+
+        runner.testGroup(TimerWheel.class, () ->
+        {
+            runner.testGroup("create(Duration,int)", () ->
+            {
+                runner.test("with null tickDuration", (Test test) ->
+                {
+                    test.assertThrows(() -> TimerWheel.create(null, 16),
+                        new PreConditionFailure("tickDuration cannot be null."));
+                });
+
+                runner.test("with zero bucketCount", (Test test) ->
+                {
+                    test.assertThrows(() -> TimerWheel.create(Duration.milliseconds(1), 0),
+                        new PreConditionFailure("bucketCount (0) must be greater than or equal to 1."));
+                });
+
+                runner.test("with valid arguments", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create(Duration.milliseconds(1), 10);
+                    test.assertNotNull(timerWheel);
+                    test.assertEqual(0, timerWheel.getPendingTimerCount());
+                    test.assertFalse(timerWheel.isDisposed());
+                });
+            });
+
+            runner.testGroup("schedule(Duration,Action0)", () ->
+            {
+                runner.test("with null delay", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    test.assertThrows(() -> timerWheel.schedule(null, () -> {}),
+                        new PreConditionFailure("delay cannot be null."));
+                });
+
+                runner.test("with null action", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    test.assertThrows(() -> timerWheel.schedule(Duration.milliseconds(1), null),
+                        new PreConditionFailure("action cannot be null."));
+                });
+
+                runner.test("when disposed", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    test.assertTrue(timerWheel.dispose().await());
+                    test.assertThrows(() -> timerWheel.schedule(Duration.milliseconds(1), () -> {}),
+                        new PreConditionFailure("this.isDisposed() cannot be true."));
+                });
+
+                runner.test("with zero delay", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        final TimerWheelTimer timer = timerWheel.schedule(Duration.zero, latch::countDown);
+                        test.assertTrue(TimerWheelTests.await(latch));
+                        test.assertTrue(timer.hasFired());
+                        test.assertFalse(timer.isPending());
+                        test.assertFalse(timer.isDisposed());
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+
+                runner.test("with positive delay", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        final LongValue firedNanoseconds = LongValue.create(0);
+                        final long startNanoseconds = java.lang.System.nanoTime();
+                        final TimerWheelTimer timer = timerWheel.schedule(Duration.milliseconds(20), () ->
+                        {
+                            firedNanoseconds.set(java.lang.System.nanoTime());
+                            latch.countDown();
+                        });
+                        test.assertTrue(TimerWheelTests.await(latch));
+                        test.assertTrue(timer.hasFired());
+                        test.assertGreaterThanOrEqualTo(firedNanoseconds.get() - startNanoseconds, 20000000L);
+                        test.assertGreaterThanOrEqualTo(firedNanoseconds.get(), timer.getDeadlineNanoseconds());
+                        test.assertEqual(0, timerWheel.getPendingTimerCount());
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+
+                runner.test("with delays longer than one rotation", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create(Duration.milliseconds(1), 4);
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(3);
+                        final List<Integer> firedOrder = List.create();
+                        final Action1<Integer> scheduleTimer = (Integer delay) ->
+                        {
+                            timerWheel.schedule(Duration.milliseconds(delay), () ->
+                            {
+                                firedOrder.add(delay);
+                                latch.countDown();
+                            });
+                        };
+                        scheduleTimer.run(13);
+                        scheduleTimer.run(1);
+                        scheduleTimer.run(5);
+                        test.assertTrue(TimerWheelTests.await(latch));
+                        test.assertEqual(Iterable.create(1, 5, 13), firedOrder);
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+
+                runner.test("with action that throws", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        final TimerWheelTimer failingTimer = timerWheel.schedule(Duration.milliseconds(1), () -> { throw new RuntimeException("oops"); });
+                        final TimerWheelTimer timer = timerWheel.schedule(Duration.milliseconds(2), latch::countDown);
+                        test.assertTrue(TimerWheelTests.await(latch));
+                        test.assertTrue(failingTimer.hasFired());
+                        test.assertTrue(timer.hasFired());
+                        test.assertEqual(0, timerWheel.getPendingTimerCount());
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+
+                final int timerCount = 10000;
+                runner.test("with " + timerCount + " short timers", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(timerCount);
+                        for (int i = 0; i < timerCount; ++i)
+                        {
+                            timerWheel.schedule(Duration.milliseconds(i % 50), latch::countDown);
+                        }
+                        test.assertTrue(TimerWheelTests.await(latch));
+                        test.assertEqual(0, timerWheel.getPendingTimerCount());
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+            });
+
+            runner.testGroup("TimerWheelTimer.dispose()", () ->
+            {
+                runner.test("before the timer fires", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    try
+                    {
+                        final IntegerValue counter = IntegerValue.create(0);
+                        final TimerWheelTimer timer = timerWheel.schedule(Duration.milliseconds(20), counter::increment);
+                        test.assertEqual(1, timerWheel.getPendingTimerCount());
+
+                        test.assertTrue(timer.dispose().await());
+                        test.assertTrue(timer.isDisposed());
+                        test.assertFalse(timer.isPending());
+                        test.assertEqual(0, timerWheel.getPendingTimerCount());
+                        test.assertFalse(timer.dispose().await());
+
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        timerWheel.schedule(Duration.milliseconds(40), latch::countDown);
+                        test.assertTrue(TimerWheelTests.await(latch));
+                        test.assertEqual(0, counter.get());
+                        test.assertFalse(timer.hasFired());
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+
+                runner.test("after the timer fires", (Test test) ->
+                {
+                    final TimerWheel timerWheel = TimerWheel.create();
+                    try
+                    {
+                        final java.util.concurrent.CountDownLatch latch = new java.util.concurrent.CountDownLatch(1);
+                        final TimerWheelTimer timer = timerWheel.schedule(Duration.milliseconds(1), latch::countDown);
+                        test.assertTrue(TimerWheelTests.await(latch));
+
+                        test.assertFalse(timer.dispose().await());
+                        test.assertFalse(timer.isDisposed());
+                        test.assertTrue(timer.hasFired());
+                    }
+                    finally
+                    {
+                        timerWheel.dispose().await();
+                    }
+                });
+            });
+
+            final int pendingTimerCount = 100000;
+            runner.speedTest("schedule and cancel " + pendingTimerCount + " pending timers", Duration.seconds(1), (Test test) ->
+            {
+                final TimerWheel timerWheel = TimerWheel.create();
+                try
+                {
+                    final Action0 action = () -> {};
+                    final TimerWheelTimer[] timers = new TimerWheelTimer[pendingTimerCount];
+                    for (int i = 0; i < pendingTimerCount; ++i)
+                    {
+                        timers[i] = timerWheel.scheduleNanoseconds(60000000000L + i, action);
+                    }
+                    test.assertEqual(pendingTimerCount, timerWheel.getPendingTimerCount());
+
+                    for (final TimerWheelTimer timer : timers)
+                    {
+                        test.assertTrue(timer.dispose().await());
+                    }
+                    test.assertEqual(0, timerWheel.getPendingTimerCount());
+                }
+                finally
+                {
+                    timerWheel.dispose().await();
+                }
+            });
+        });
+    }
+
+    static boolean await(java.util.concurrent.CountDownLatch latch)
+    {
+        PreCondition.assertNotNull(latch, "latch");
+
+        try
+        {
+            return latch.await(10, java.util.concurrent.TimeUnit.SECONDS);
+        }
+        catch (InterruptedException e)
+        {
+            throw Exceptions.asRuntime(e);
+        }
+    }
+}
@@ -80,6 +80,26 @@ public interface UTF8CharacterEncodingTests
                 encodeTest.run("\n", new byte[] { 10 });
                 encodeTest.run("~", new byte[] { 126 });
                 encodeTest.run("" + (char)132, new byte[] { -62, -124 });
+                encodeTest.run("\uD83D\uDE00", new byte[] { -16, -97, -104, -128 });
+            });
+
+            runner.testGroup("encodeCharacters(String,ByteWriteStream)", () ->
+            {
+                runner.test("with a low surrogate after valid characters", (Test test) ->
+                {
+                    final InMemoryByteStream byteStream = InMemoryByteStream.create();
+                    test.assertThrows(() -> encoding.encodeCharacters("ab\uDC00c", byteStream).await(),
+                        new IllegalArgumentException("Expected to find a non-surrogate character (not between 0xD800 and 0xDFFF) or high-surrogate character (between 0xD800 and 0xDBFF, but found a low surrogate character instead (0xDC00)."));
+                    test.assertEqual(new byte[] { 97, 98 }, byteStream.getBytes());
+                });
+
+                runner.test("with a high surrogate at the end", (Test test) ->
+                {
+                    final InMemoryByteStream byteStream = InMemoryByteStream.create();
+                    test.assertThrows(() -> encoding.encodeCharacters("a\uD83D", byteStream).await(),
+                        new IllegalArgumentException("Missing low-surrogate character (between 0xDC00 and 0xDFFF) after high-surrogate character (between 0xD800 and 0xDBFF)."));
+                    test.assertEqual(new byte[] { 97 }, byteStream.getBytes());
+                });
             });
 
             runner.testGroup("encodeCharacters(char[])", () ->
@@ -150,6 +170,78 @@ public interface UTF8CharacterEncodingTests
 
             });
 
+            runner.testGroup("getMissingByteCount(byte[],int,int)", () ->
+            {
+                final Action2<byte[],Integer> getMissingByteCountTest = (byte[] bytes, Integer expected) ->
+                {
+                    runner.test("with " + Array.toString(bytes), (Test test) ->
+                    {
+                        test.assertEqual(expected, encoding.getMissingByteCount(bytes, 0, bytes.length));
+                    });
+                };
+
+                getMissingByteCountTest.run(new byte[0], 0);
+                getMissingByteCountTest.run(new byte[] { 97 }, 0);
+                getMissingByteCountTest.run(new byte[] { 97, -62 }, 1);
+                getMissingByteCountTest.run(new byte[] { -62, -124 }, 0);
+                getMissingByteCountTest.run(new byte[] { (byte)0xE2, (byte)0x82 }, 1);
+                getMissingByteCountTest.run(new byte[] { (byte)0xF0 }, 3);
+                getMissingByteCountTest.run(new byte[] { (byte)0xF0, (byte)0x9F, (byte)0x98 }, 1);
+                getMissingByteCountTest.run(new byte[] { (byte)0xF0, (byte)0x9F, (byte)0x98, (byte)0x80 }, 0);
+                getMissingByteCountTest.run(new byte[] { (byte)0x80, (byte)0x80 }, 0);
+            });
+
+            runner.testGroup("decodeCharacters(byte[],int,int,char[],int)", () ->
+            {
+                final Action2<byte[],Throwable> decodeCharactersFailureTest = (byte[] bytes, Throwable expectedError) ->
+                {
+                    runner.test("with " + Array.toString(bytes), (Test test) ->
+                    {
+                        test.assertThrows(() -> encoding.decodeCharacters(bytes, 0, bytes.length, new char[bytes.length], 0),
+                            expectedError);
+                    });
+                };
+
+                decodeCharactersFailureTest.run(new byte[] { (byte)0x80 },
+                    new IllegalArgumentException("Expected a leading byte, but found a continuation byte (0x80) instead."));
+                decodeCharactersFailureTest.run(new byte[] { (byte)0xF8 },
+                    new IllegalArgumentException("Found an invalid leading byte (0xF8)."));
+                decodeCharactersFailureTest.run(new byte[] { 97, (byte)0xE2, (byte)0x82 },
+                    new IllegalArgumentException("Missing 3rd byte of 3 in decoded character."));
+                decodeCharactersFailureTest.run(new byte[] { (byte)0xC2, 97 },
+                    new IllegalArgumentException("Expected 2nd byte of 2 to be a continuation byte (10xxxxxx), but found 0x61 instead."));
+
+                final Action2<byte[],char[]> decodeCharactersTest = (byte[] bytes, char[] expectedCharacters) ->
+                {
+                    runner.test("with " + Array.toString(bytes), (Test test) ->
+                    {
+                        final char[] outputCharacters = new char[bytes.length + 1];
+                        final int charactersDecoded = encoding.decodeCharacters(bytes, 0, bytes.length, outputCharacters, 1);
+                        test.assertEqual(expectedCharacters.length, charactersDecoded);
+                        test.assertEqual(String.valueOf(expectedCharacters), String.valueOf(outputCharacters, 1, charactersDecoded));
+                    });
+                };
+
+                decodeCharactersTest.run(new byte[0], new char[0]);
+                decodeCharactersTest.run(new byte[] { 97 }, new char[] { 'a' });
+                decodeCharactersTest.run(new byte[] { 122, 121, 122 }, new char[] { 'z', 'y', 'z' });
+                decodeCharactersTest.run(new byte[] { -62, -124 }, new char[] { (char)132 });
+                decodeCharactersTest.run(new byte[] { (byte)0xD8, (byte)0x80, 97 }, new char[] { (char)0x0600, 'a' });
+                decodeCharactersTest.run(new byte[] { (byte)0xE2, (byte)0x82, (byte)0xAC }, new char[] { '\u20AC' });
+                decodeCharactersTest.run(new byte[] { 97, (byte)0xF0, (byte)0x9F, (byte)0x98, (byte)0x80, 98 }, new char[] { 'a', (char)0xD83D, (char)0xDE00, 'b' });
+                decodeCharactersTest.run(new byte[] { (byte)0xEF, (byte)0xBB, (byte)0xBF, 97 }, new char[] { (char)0xFEFF, 'a' });
+
+                final int byteCount = 10000000;
+                runner.speedTest("with " + byteCount + " ASCII bytes", Duration.milliseconds(100), (Test test) ->
+                {
+                    final byte[] bytes = new byte[byteCount];
+                    java.util.Arrays.fill(bytes, (byte)'a');
+                    final char[] outputCharacters = new char[byteCount];
+                    test.assertEqual(byteCount, encoding.decodeCharacters(bytes, 0, byteCount, outputCharacters, 0));
+                    test.assertEqual('a', outputCharacters[byteCount - 1]);
+                });
+            });
+
             runner.testGroup("decodeAsString(byte[])", () ->
             {
                 final Action2<byte[],Throwable> decodeAsStringFailureTest = (byte[] bytes, Throwable expectedError) ->
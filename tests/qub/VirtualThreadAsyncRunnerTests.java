@@ -0,0 +1,100 @@
+package qub;
+
+public interface VirtualThreadAsyncRunnerTests
+{
+    static void test(TestRunner runner)
+    {
+        runner.testGroup(VirtualThreadAsyncRunner.class, () ->
+        {
+            AsyncSchedulerTests.test(runner, VirtualThreadAsyncRunner::create);
+
+            runner.test("create()", (Test test) ->
+            {
+                final VirtualThreadAsyncRunner asyncRunner = VirtualThreadAsyncRunner.create();
+                test.assertNotNull(asyncRunner);
+            });
+
+            runner.testGroup("schedule(Action0)", () ->
+            {
+                runner.test("runs the action on a virtual thread", (Test test) ->
+                {
+                    CurrentThread.withAsyncScheduler(VirtualThreadAsyncRunner::create, (VirtualThreadAsyncRunner asyncRunner) ->
+                    {
+                        final long mainThreadId = CurrentThread.getId();
+                        final Value<Long> asyncTaskThreadId = Value.create();
+                        final BooleanValue isVirtual = BooleanValue.create(false);
+                        final AsyncTask<Void> result = asyncRunner.schedule(() ->
+                        {
+                            asyncTaskThreadId.set(CurrentThread.getId());
+                            isVirtual.set(java.lang.Thread.currentThread().isVirtual());
+                        });
+
+                        test.assertNull(result.await());
+                        test.assertNotEqual(mainThreadId, asyncTaskThreadId.get());
+                        test.assertTrue(isVirtual.get());
+                    });
+                });
+
+                runner.test("registers the VirtualThreadAsyncRunner with the virtual thread", (Test test) ->
+                {
+                    CurrentThread.withAsyncScheduler(VirtualThreadAsyncRunner::create, (VirtualThreadAsyncRunner asyncRunner) ->
+                    {
+                        final AsyncTask<AsyncScheduler> result = asyncRunner.schedule(() -> CurrentThread.getAsyncRunner().await());
+                        test.assertSame(asyncRunner, result.await());
+                    });
+                });
+
+                runner.test("with many blocked tasks", (Test test) ->
+                {
+                    CurrentThread.withAsyncScheduler(VirtualThreadAsyncRunner::create, (VirtualThreadAsyncRunner asyncRunner) ->
+                    {
+                        final int taskCount = 10000;
+                        final java.util.concurrent.CountDownLatch gate = new java.util.concurrent.CountDownLatch(1);
+                        final IntegerValue finishedCount = IntegerValue.create(0);
+                        final List<AsyncTask<Void>> tasks = List.create();
+                        for (int i = 0; i < taskCount; ++i)
+                        {
+                            tasks.add(asyncRunner.schedule(() ->
+                            {
+                                try
+                                {
+                                    gate.await();
+                                }
+                                catch (java.lang.InterruptedException e)
+                                {
+                                    throw Exceptions.asRuntime(e);
+                                }
+                                finishedCount.increment();
+                            }));
+                        }
+
+                        gate.countDown();
+                        for (final AsyncTask<Void> task : tasks)
+                        {
+                            task.await();
+                        }
+                        test.assertEqual(taskCount, finishedCount.get());
+                    });
+                });
+            });
+
+            runner.testGroup("await(Result<?>)", () ->
+            {
+                runner.test("await task that was scheduled from another task", (Test test) ->
+                {
+                    CurrentThread.withAsyncScheduler(VirtualThreadAsyncRunner::create, (VirtualThreadAsyncRunner asyncRunner) ->
+                    {
+                        final AsyncTask<Integer> result = asyncRunner.schedule(() ->
+                        {
+                            return asyncRunner.schedule(() -> 5).await() + 1;
+                        });
+                        asyncRunner.await(result);
+
+                        test.assertTrue(result.isCompleted());
+                        test.assertEqual(6, result.await());
+                    });
+                });
+            });
+        });
+    }
+}